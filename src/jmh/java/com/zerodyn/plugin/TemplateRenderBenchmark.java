@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.template.TemplateInitializer;
+import com.zerodyn.plugin.template.TemplateManager;
+import com.zerodyn.plugin.template.compiled.CompiledTemplateEngine;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一组件用 FreeMarker 解释执行和编译后端分别渲染一次的耗时，只选编译子集内的模板；
+ * 运行：./gradlew jmh
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    private static final String DDL = """
+            CREATE TABLE `order_item` (
+              `id` bigint NOT NULL AUTO_INCREMENT,
+              `tenant_id` int NOT NULL,
+              `code` varchar(32) NOT NULL COMMENT '编码',
+              `user_id` bigint NOT NULL,
+              `status` tinyint(1) NOT NULL,
+              `price` decimal(10,2) DEFAULT NULL,
+              `quantity` int NOT NULL,
+              `remark` text,
+              `created_at` datetime NOT NULL,
+              `updated_at` timestamp NULL DEFAULT NULL,
+              PRIMARY KEY (`id`),
+              UNIQUE KEY `uk_tenant_code` (`tenant_id`,`code`),
+              KEY `idx_user_status` (`user_id`, `status`)
+            ) COMMENT='订单明细';""";
+
+    @Param({"domain/Entity", "application/DTO", "application/Mapper", "application/Service"})
+    public String component;
+
+    @Param({"FREEMARKER", "COMPILED"})
+    public String engine;
+
+    private Map<String, Object> data;
+    private Template template;
+    private CompiledTemplateEngine compiledEngine;
+    private String templateName;
+
+    @Setup
+    public void setUp() throws IOException, TemplateException {
+        DDDConfiguration config = new DDDConfiguration();
+        String[] parts = component.split("/", 2);
+        templateName = config.getLayer(parts[0]).getComponents().get(parts[1]).getTemplateFile();
+        CodeGenerator generator = new CodeGenerator(Files.createTempDirectory("benchmark"), new FieldTypeMapper(),
+                config.isUseLombok(), config);
+        data = generator.createTemplateData(new DDLParser().parseDDL(DDL), parts[0], parts[1]);
+
+        TemplateManager templateManager = TemplateInitializer.createDefaultTemplateManager();
+        template = templateManager.getTemplate(templateName);
+        if ("COMPILED".equals(engine)) {
+            compiledEngine = new CompiledTemplateEngine(templateManager);
+            // 退回 FreeMarker 时测到的就不是编译后端了
+            if (compiledEngine.render(templateName, data) == null) {
+                throw new IllegalStateException(templateName + " 不在编译子集内");
+            }
+        }
+    }
+
+    @Benchmark
+    public String render() throws IOException, TemplateException {
+        if (compiledEngine != null) {
+            return compiledEngine.render(templateName, data);
+        }
+        StringWriter writer = new StringWriter(4096);
+        template.process(data, writer);
+        return writer.toString();
+    }
+}
@@ -4,26 +4,47 @@
 
 package com.zerodyn.plugin;
 
+import com.google.gson.Gson;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
+import com.zerodyn.plugin.batch.GenerationReport;
+import com.zerodyn.plugin.batch.Shard;
+import com.zerodyn.plugin.cache.RenderCache;
 import com.zerodyn.plugin.config.ComponentConfig;
 import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import com.zerodyn.plugin.pipeline.BoundedStage;
+import com.zerodyn.plugin.postprocess.GeneratedSourceFormatter;
+import com.zerodyn.plugin.quality.P3cQualityGate;
+import com.zerodyn.plugin.quality.Violation;
 import com.zerodyn.plugin.template.TemplateInitializer;
 import com.zerodyn.plugin.template.TemplateManager;
+import com.zerodyn.plugin.template.TemplateValidator;
+import com.zerodyn.plugin.template.compiled.CompiledTemplateEngine;
 import freemarker.template.Template;
 import groovy.util.logging.Slf4j;
+import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author JWen
@@ -32,82 +53,531 @@ import java.util.Map;
 @Slf4j
 public class CodeGenerator {
     private static final Logger log = LoggerFactory.getLogger(CodeGenerator.class);
+    private static final List<String> LAYER_ORDER = List.of("domain", "application", "infrastructure", "interfaces");
+    // 渲染是CPU密集型，写文件以IO为主；在途的渲染结果最多 写入队列容量 + 写入线程数 + 渲染线程数 个
+    private static final int RENDER_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int WRITE_THREADS = 4;
+    private static final int RESOLVE_QUEUE_CAPACITY = 16;
+    private static final int RENDER_QUEUE_CAPACITY = 64;
+    private static final int WRITE_QUEUE_CAPACITY = 32;
+    // 规约检查也是CPU密集型，与渲染使用相同的线程数
+    private static final int QUALITY_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int QUALITY_QUEUE_CAPACITY = 64;
     private final Project project;
+    private final Path projectBase;
     private final FieldTypeMapper typeMapper;
     private final boolean useLombok;
     private final DDDConfiguration dddConfig;
     private final TemplateManager templateManager;
+    // 配置为 COMPILED 时非空，渲染不了的模板仍交给 FreeMarker
+    private final CompiledTemplateEngine compiledEngine;
+    private final RenderCache renderCache = RenderCache.getSharedInstance();
+    private final P3cQualityGate qualityGate = P3cQualityGate.getSharedInstance();
+    // 模板源码的指纹，同一次生成中每个模板只计算一次
+    private final Map<String, String> templateFingerprints = new ConcurrentHashMap<>();
+    private volatile List<BoundedStage.Stats> pipelineStats = List.of();
+    private volatile List<Path> writtenFiles = List.of();
+
+    /**
+     * 一张表的一个组件，输入指纹与上次生成时不同，需要重新渲染
+     */
+    private record ComponentTask(DDLParser.Table table, String layer, String componentType, ComponentConfig config,
+                                 Path modulePath, String fileName, Path outputFile, String inputFingerprint) {
+    }
+
+    /**
+     * 内容有变化、等待写入的渲染结果；content 为null时从渲染缓存复制
+     */
+    private record WriteTask(ComponentTask component, String content, String outputFingerprint) {
+    }
+
+    /**
+     * 一次生成中各级流水线共享的状态
+     */
+    private static final class GenerationRun {
+        private final GenerationManifest manifest;
+        private final Map<String, Map<String, ComponentConfig>> components;
+        private final Shard shard;
+        private final String configFingerprint;
+        private final AtomicInteger jobs = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger cacheHits = new AtomicInteger();
+        private final AtomicInteger qualityChecked = new AtomicInteger();
+        private final AtomicInteger qualityCacheHits = new AtomicInteger();
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+        // 当前分片负责、生成后存在的文件
+        private final Queue<String> files = new ConcurrentLinkedQueue<>();
+        // 本次实际写入的文件，生成后只整理这部分
+        private final Queue<Path> writtenFiles = new ConcurrentLinkedQueue<>();
+
+        private GenerationRun(GenerationManifest manifest, Map<String, Map<String, ComponentConfig>> components,
+                              Shard shard, String configFingerprint) {
+            this.manifest = manifest;
+            this.components = components;
+            this.shard = shard;
+            this.configFingerprint = configFingerprint;
+        }
+
+        private void addFile(Path projectBase, Path file) {
+            files.add(projectBase.relativize(file).toString().replace('\\', '/'));
+        }
+    }
 
     public CodeGenerator(Project project,
                          FieldTypeMapper typeMapper,
                          boolean useLombok,
                          DDDConfiguration dddConfig) {
+        this(project, Paths.get(project.getBasePath()), typeMapper, useLombok, dddConfig);
+    }
+
+    /**
+     * 脱离IDE使用（批量生成），只能调用 generate 和 renderComponent
+     */
+    public CodeGenerator(Path projectBase,
+                         FieldTypeMapper typeMapper,
+                         boolean useLombok,
+                         DDDConfiguration dddConfig) {
+        this(null, projectBase, typeMapper, useLombok, dddConfig);
+    }
+
+    private CodeGenerator(Project project,
+                          Path projectBase,
+                          FieldTypeMapper typeMapper,
+                          boolean useLombok,
+                          DDDConfiguration dddConfig) {
         this.project = project;
+        this.projectBase = projectBase;
         this.typeMapper = typeMapper;
         this.useLombok = useLombok;
         this.dddConfig = dddConfig;
         this.templateManager = TemplateInitializer.createDefaultTemplateManager();
+        this.compiledEngine = "COMPILED".equals(dddConfig.getTemplateEngine())
+                ? new CompiledTemplateEngine(templateManager) : null;
     }
 
     public void generateDDDCode(DDLParser.Table table) {
-        Map<String, Map<String, ComponentConfig>> allComponents = dddConfig.getAllValidComponents();
-        List<String> layerOrder = Arrays.asList("domain", "application", "infrastructure", "interfaces");
-
-        for (String layer : layerOrder) {
-            Map<String, ComponentConfig> components = allComponents.get(layer);
-            if (components != null) {
-                components.forEach((compType, config) -> {
-                    try {
-                        generateComponent(table, layer, compType, config);
-                    } catch (IOException e) {
-                        log.error("生成失败: {}.{}", layer, compType, e);
-                        Messages.showErrorDialog(project,
-                                "生成" + layer + "层" + compType + "失败: " + e.getMessage(),
-                                "错误");
+        generateDDDCode(List.of(table));
+    }
+
+    /**
+     * 生成多张表的代码（如迁移脚本改动到的表），输入和渲染结果都未变的文件不会重写
+     */
+    public void generateDDDCode(List<DDLParser.Table> tables) {
+        generateDDDCode(tables, () -> {
+        });
+    }
+
+    /**
+     * 在后台任务中生成，不阻塞EDT；完成后回到EDT执行 onFinished 并提示结果
+     */
+    public void generateDDDCode(List<DDLParser.Table> tables, Runnable onFinished) {
+        new Task.Backgroundable(project, "生成代码", false) {
+            private GenerationReport report;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                indicator.setText("生成 " + tables.size() + " 张表的代码");
+                // 写入的文件随后会被格式化，规约检查放到格式化之后，行号才与用户看到的一致
+                report = generate(tables, Shard.ALL, false);
+            }
+
+            @Override
+            public void onSuccess() {
+                onFinished.run();
+                showResult(report);
+                List<Path> files = writtenFiles;
+                new GeneratedSourceFormatter(project).formatInBackground(files, () -> {
+                    if (dddConfig.isQualityCheck()) {
+                        checkFormattedSources(files);
                     }
                 });
             }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                log.error("代码生成失败", error);
+                Messages.showErrorDialog(project, "代码生成失败: "
+                        + Objects.requireNonNullElse(error.getMessage(), error.toString()), "错误");
+            }
+        }.queue();
+    }
+
+    private void showResult(GenerationReport report) {
+        if (!report.getTemplateProblems().isEmpty()) {
+            Messages.showErrorDialog(project, "模板校验未通过，未生成任何文件：\n"
+                    + String.join("\n", report.getTemplateProblems()), "错误");
+            return;
+        }
+        if (!report.getFailures().isEmpty()) {
+            Messages.showErrorDialog(project, String.join("\n", report.getFailures()), "错误");
+        }
+        Messages.showInfoMessage(project, "代码生成完成：写入 " + report.getWritten() + " 个文件，"
+                + report.getSkipped() + " 个组件无变化或无需生成", "成功");
+    }
+
+    /**
+     * 检查格式化后的文件，在格式化的后台任务中执行；问题写入日志，有问题时提示
+     */
+    private void checkFormattedSources(List<Path> files) {
+        P3cQualityGate.Summary summary;
+        try {
+            summary = qualityGate.checkAll(files, projectBase, QUALITY_THREADS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        log.info("规约检查 {} 个文件（{} 个命中缓存），发现 {} 个问题", summary.checked(), summary.cacheHits(),
+                summary.violations().size());
+        summary.violations().forEach(violation -> log.warn("规约问题: {}", violation));
+        if (!summary.violations().isEmpty()) {
+            ApplicationManager.getApplication().invokeLater(() -> Messages.showWarningDialog(project,
+                    "规约检查发现 " + summary.violations().size() + " 个问题，详见日志", "规约检查"));
+        }
+    }
+    /**
+     * 生成属于指定分片的组件，不弹出任何对话框，供IDE和批量生成共用。
+     * 表依次经过 类型解析 -> 渲染 -> 写文件 -> 规约检查 四级流水线，各级之间是有界队列，
+     * 同时在内存中的渲染结果数量有上限，与表的数量无关；只有本次写入的文件才做规约检查。
+     * 不分片时更新项目的生成清单；分片时只把本分片记录的条目写到分片清单，由合并步骤汇总
+     */
+    public GenerationReport generate(List<DDLParser.Table> tables, Shard shard) {
+        return generate(tables, shard, dddConfig.isQualityCheck());
+    }
+
+    /**
+     * @param qualityStage 是否在流水线中对写入的文件做规约检查；IDE中文件写入后还要格式化，由调用方在格式化后检查
+     */
+    private GenerationReport generate(List<DDLParser.Table> tables, Shard shard, boolean qualityStage) {
+        long start = System.nanoTime();
+        GenerationReport report = new GenerationReport(shard, tables.size());
+        if (tables.isEmpty()) {
+            return report;
+        }
+        Map<String, Map<String, ComponentConfig>> allComponents = dddConfig.getAllValidComponents();
+        List<TemplateValidator.Problem> problems = validateTemplates(tables.get(0), allComponents);
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> report.getTemplateProblems().add(problem.toString()));
+            return report;
+        }
+        GenerationRun run = new GenerationRun(GenerationManifest.load(projectBase), allComponents, shard,
+                // 配置的任何变化都可能影响所有模板的输出
+                GenerationManifest.fingerprint(new Gson().toJson(dddConfig)));
+
+        // 关闭规约检查时不创建这一级
+        BoundedStage<Path> quality = qualityStage
+                ? new BoundedStage<>("quality", QUALITY_THREADS, QUALITY_QUEUE_CAPACITY,
+                        file -> checkQuality(run, file),
+                        // 检查失败不影响已生成的文件，也不算生成失败
+                        (file, e) -> log.warn("规约检查失败: {}", file, e))
+                : null;
+        BoundedStage<WriteTask> write = new BoundedStage<>("write", WRITE_THREADS, WRITE_QUEUE_CAPACITY,
+                task -> writeComponent(run, task, quality),
+                (task, e) -> componentFailed(run, task.component(), e));
+        BoundedStage<ComponentTask> render = new BoundedStage<>("render", RENDER_THREADS, RENDER_QUEUE_CAPACITY,
+                task -> renderComponent(run, task, write),
+                (task, e) -> componentFailed(run, task, e));
+        BoundedStage<DDLParser.Table> resolve = new BoundedStage<>("resolve", 1, RESOLVE_QUEUE_CAPACITY,
+                table -> resolveTable(run, table, render),
+                (table, e) -> {
+                    log.error("处理表失败: {}", table.name(), e);
+                    run.failures.add("处理表" + table.name() + "失败: " + describe(e));
+                });
+        try {
+            for (DDLParser.Table table : tables) {
+                resolve.submit(table);
+            }
+            // 上一级的线程全部结束后，下一级不会再有新的输入
+            resolve.finish();
+            render.finish();
+            write.finish();
+            if (quality != null) {
+                quality.finish();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(resolve, render, write, quality);
+            run.failures.add("代码生成被中断");
+        } catch (IllegalStateException e) {
+            // 某一级的工作线程全部提前退出，后续输入无法处理
+            log.error("生成流水线异常终止", e);
+            abort(resolve, render, write, quality);
+            run.failures.add("代码生成异常终止: " + describe(e));
+        }
+        List<BoundedStage.Stats> stageStats = new ArrayList<>(List.of(resolve.stats(), render.stats(),
+                write.stats()));
+        if (quality != null) {
+            stageStats.add(quality.stats());
+        }
+        pipelineStats = List.copyOf(stageStats);
+        writtenFiles = List.copyOf(run.writtenFiles);
+        pipelineStats.forEach(stats -> log.info("生成流水线 {}", stats));
+        log.info("渲染缓存命中 {} 个组件", run.cacheHits.get());
+        log.info("规约检查 {} 个文件（{} 个命中缓存），发现 {} 个问题", run.qualityChecked.get(),
+                run.qualityCacheHits.get(), run.violations.size());
+        renderCache.evictIfNeeded();
+        try {
+            if (shard.isAll()) {
+                run.manifest.save();
+            } else {
+                run.manifest.saveRecorded(shard.manifestFile(projectBase));
+            }
+        } catch (IOException e) {
+            // 清单写入失败只影响下次的增量判断
+            log.warn("保存生成清单失败", e);
+        }
+
+        report.setJobs(run.jobs.get());
+        report.setWritten(run.written.get());
+        report.setSkipped(run.skipped.get());
+        report.setCacheHits(run.cacheHits.get());
+        report.setQualityChecked(run.qualityChecked.get());
+        report.setQualityCacheHits(run.qualityCacheHits.get());
+        report.getFailures().addAll(run.failures);
+        report.getViolations().addAll(run.violations.stream().sorted().toList());
+        report.setFiles(run.files.stream().sorted().toList());
+        pipelineStats.forEach(stats -> report.getStages().add(stats.toString()));
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * 放弃各级尚未处理的输入，未创建的级为null
+     */
+    private static void abort(BoundedStage<?>... stages) {
+        for (BoundedStage<?> stage : stages) {
+            if (stage != null) {
+                stage.abort();
+            }
+        }
+    }
+
+    /**
+     * 最近一次生成时实际写入的文件，未变化而跳过的不包括在内
+     */
+    public List<Path> getWrittenFiles() {
+        return writtenFiles;
+    }
+
+    /**
+     * 最近一次生成时流水线各级的统计（类型解析、渲染、写文件，开启时还有规约检查）
+     */
+    public List<BoundedStage.Stats> getPipelineStats() {
+        return pipelineStats;
+    }
+
+    /**
+     * 生成前用第一张表校验所有模板，有问题时放弃本次生成
+     */
+    private List<TemplateValidator.Problem> validateTemplates(DDLParser.Table sampleTable,
+                                                              Map<String, Map<String, ComponentConfig>> allComponents) {
+        long start = System.nanoTime();
+        List<TemplateValidator.Problem> problems = new TemplateValidator(templateManager).validate(allComponents,
+                (layer, componentType) -> createTemplateData(sampleTable, layer, componentType));
+        log.info("模板预检完成，耗时 {} ms，发现 {} 个问题", (System.nanoTime() - start) / 1_000_000, problems.size());
+        problems.forEach(problem -> log.warn("模板预检失败: {}", problem));
+        return problems;
+    }
+
+    /**
+     * 类型解析：计算表的指纹（含各列映射到的Java类型），为属于当前分片且输入有变化的组件创建渲染任务
+     */
+    private void resolveTable(GenerationRun run, DDLParser.Table table, BoundedStage<ComponentTask> render)
+            throws IOException, InterruptedException {
+        String tableFingerprint = tableFingerprint(table, run.configFingerprint);
+        for (String layer : LAYER_ORDER) {
+            Map<String, ComponentConfig> components = run.components.get(layer);
+            if (components == null) {
+                continue;
+            }
+            for (Map.Entry<String, ComponentConfig> entry : components.entrySet()) {
+                String componentType = entry.getKey();
+                if (!run.shard.owns(table.name(), layer, componentType)) {
+                    continue;
+                }
+                run.jobs.incrementAndGet();
+                ComponentConfig config = entry.getValue();
+                // 未选择模块时（如批量生成使用默认配置）生成到项目根目录
+                Path modulePath = projectBase
+                        .resolve(Objects.toString(dddConfig.getLayer(layer).getModuleName(), ""))
+                        .resolve(config.getSourceRoot());
+                // 文件名使用转换后的类名
+                String fileName = toCamelCase(table.name()) + toClassSuffix(componentType) + ".java";
+                Path outputFile = modulePath.resolve(config.getBasePackage().replace(".", "/")).resolve(fileName);
+
+                String inputFingerprint = GenerationManifest.fingerprint(tableFingerprint, layer, componentType,
+                        config.getBasePackage(), config.getTemplateFile(),
+                        templateFingerprint(config.getTemplateFile()));
+                if (run.manifest.isUpToDate(outputFile, inputFingerprint)) {
+                    // 表结构、配置和模板都没变，不用重新渲染
+                    run.skipped.incrementAndGet();
+                    if (Files.exists(outputFile)) {
+                        run.addFile(projectBase, outputFile);
+                    }
+                    continue;
+                }
+                render.submit(new ComponentTask(table, layer, componentType, config,
+                        modulePath, fileName, outputFile, inputFingerprint));
+            }
+        }
+    }
+
+    /**
+     * 渲染单个组件，内容有变化时交给写文件的一级
+     */
+    private void renderComponent(GenerationRun run, ComponentTask task, BoundedStage<WriteTask> write)
+            throws IOException, InterruptedException {
+        // 相同输入在其它项目或分支渲染过时直接取缓存的结果
+        String content = null;
+        String outputFingerprint = renderCache.lookup(task.inputFingerprint());
+        if (outputFingerprint != null) {
+            run.cacheHits.incrementAndGet();
+        } else {
+            content = renderComponent(task.table(), task.layer(), task.componentType(), task.config());
+            outputFingerprint = renderCache.put(task.inputFingerprint(), content);
+        }
+        if (outputFingerprint.isEmpty()) {
+            // 当前配置下该组件不需要生成（如非JDBC模式的仓储测试）
+            run.manifest.recordSkipped(task.outputFile(), task.inputFingerprint());
+            run.skipped.incrementAndGet();
+            return;
+        }
+        if (run.manifest.isUnchanged(task.outputFile(), outputFingerprint)) {
+            run.manifest.record(task.outputFile(), task.inputFingerprint(), outputFingerprint);
+            run.skipped.incrementAndGet();
+            run.addFile(projectBase, task.outputFile());
+            return;
+        }
+        write.submit(new WriteTask(task, content, outputFingerprint));
+    }
+
+    private void writeComponent(GenerationRun run, WriteTask task, BoundedStage<Path> quality)
+            throws IOException, InterruptedException {
+        ComponentTask component = task.component();
+        if (task.content() != null) {
+            writeToFile(component.modulePath(), component.config().getBasePackage(), component.fileName(),
+                    task.content());
+        } else if (!renderCache.copyTo(task.outputFingerprint(), component.outputFile())) {
+            // 缓存的内容刚被淘汰，重新渲染
+            String content = renderComponent(component.table(), component.layer(), component.componentType(),
+                    component.config());
+            writeToFile(component.modulePath(), component.config().getBasePackage(), component.fileName(), content);
+        }
+        run.manifest.record(component.outputFile(), component.inputFingerprint(), task.outputFingerprint());
+        run.written.incrementAndGet();
+        run.writtenFiles.add(component.outputFile());
+        run.addFile(projectBase, component.outputFile());
+        if (quality != null) {
+            quality.submit(component.outputFile());
+        }
+    }
+
+    /**
+     * 规约检查：内容与之前检查过的文件相同时直接取缓存的结果
+     */
+    private void checkQuality(GenerationRun run, Path file) throws IOException {
+        P3cQualityGate.Result result = qualityGate.check(file);
+        run.qualityChecked.incrementAndGet();
+        if (result.cached()) {
+            run.qualityCacheHits.incrementAndGet();
+        }
+        String relativePath = projectBase.relativize(file).toString().replace('\\', '/');
+        for (Violation violation : result.violations()) {
+            run.violations.add(violation.format(relativePath));
+        }
+    }
+
+    private void componentFailed(GenerationRun run, ComponentTask task, Exception e) {
+        log.error("生成失败: {}.{}", task.layer(), task.componentType(), e);
+        run.failures.add("生成" + task.table().name() + "表的" + task.layer() + "层" + task.componentType()
+                + "失败: " + describe(e));
+    }
+
+    private static String describe(Exception e) {
+        return Objects.requireNonNullElse(e.getMessage(), e.toString());
+    }
+
+    /**
+     * 表模型的指纹：包含列、键、索引以及每列当前映射到的Java类型
+     */
+    private String tableFingerprint(DDLParser.Table table, String configFingerprint) {
+        StringBuilder javaTypes = new StringBuilder();
+        for (DDLParser.Column column : table.columns()) {
+            javaTypes.append(typeMapper.getJavaType(column.type())).append(';');
+        }
+        return GenerationManifest.fingerprint(table.toString(), javaTypes.toString(),
+                configFingerprint, String.valueOf(useLombok));
+    }
+
+    private String templateFingerprint(String templateName) throws IOException {
+        String fingerprint = templateFingerprints.get(templateName);
+        if (fingerprint == null) {
+            try {
+                // 自动导入的函数库也会影响输出
+                List<String> sources = new ArrayList<>();
+                sources.add(templateManager.getTemplate(templateName).toString());
+                TemplateManager.getAutoImports().values().forEach(library ->
+                        sources.add(templateManager.getTemplateSource(library)));
+                fingerprint = GenerationManifest.fingerprint(sources.toArray(new String[0]));
+            } catch (Exception e) {
+                throw new IOException("Template loading failed: " + templateName, e);
+            }
+            templateFingerprints.put(templateName, fingerprint);
         }
-        Messages.showInfoMessage(project, "代码生成完成", "成功");
+        return fingerprint;
     }
 
-    private Path getProjectBasePath() {
-        // 从Project对象获取基础路径
-        return Paths.get(project.getBasePath());
+    /**
+     * 渲染单个组件的完整源码（含package声明），不写文件，供预览使用；
+     * 模板输出为空时返回空串，表示当前配置下不生成该组件
+     */
+    public String renderComponent(DDLParser.Table table,
+                                  String layer,
+                                  String componentType) throws IOException {
+        ComponentConfig config = dddConfig.getLayer(layer).getComponents().get(componentType);
+        if (config == null) {
+            throw new IOException("未配置组件: " + layer + "." + componentType);
+        }
+        return renderComponent(table, layer, componentType, config);
     }
 
-    private void generateComponent(DDLParser.Table table,
+    private String renderComponent(DDLParser.Table table,
                                    String layer,
                                    String componentType,
                                    ComponentConfig config) throws IOException {
-        Map<String, Object> data = createTemplateData(table);
-        // 添加转换后的组件类型
-        data.put("componentType", toCamelCase(componentType));
-
+        Map<String, Object> data = createTemplateData(table, layer, componentType);
         String content = processTemplate(config.getTemplateFile(), data);
-
-        Path modulePath = getProjectBasePath()
-                .resolve(dddConfig.getLayer(layer).getModuleName())
-                .resolve("src/main/java");
-
-        // 文件名使用转换后的类名
-        String fileName = toCamelCase(table.name()) + toCamelCase(componentType) + ".java";
-        writeToFile(modulePath, config.getBasePackage(), fileName, content);
+        if (content.isBlank()) {
+            return "";
+        }
+        return "package " + config.getBasePackage() + ";\n\n" + content;
     }
 
-    private Map<String, Object> createTemplateData(DDLParser.Table table) {
+    Map<String, Object> createTemplateData(DDLParser.Table table, String layer, String componentType) {
         Map<String, Object> data = new HashMap<>();
         data.put("className", toCamelCase(table.name()));
         data.put("table", table);
         data.put("config", dddConfig);
         data.put("typeMapper", typeMapper);
         data.put("useLombok", useLombok);
-        // 注意：componentType 现在在generateComponent方法中添加
+        data.put("generationStyle", dddConfig.getGenerationStyle());
+        data.put("layout", new FieldLayout(table, typeMapper, dddConfig.isCompactLayout()));
+        // 添加转换后的组件类型
+        data.put("componentType", toClassSuffix(componentType));
+        data.put("generationMode", Objects.toString(dddConfig.getLayer(layer).getGenerationMode(), ""));
         return data;
     }
 
     private String processTemplate(String templateName, Map<String, Object> data)
             throws IOException {
+        if (compiledEngine != null) {
+            String content = compiledEngine.render(templateName, data);
+            if (content != null) {
+                return content;
+            }
+        }
         try {
             Template template = templateManager.getTemplate(templateName);
             StringWriter writer = new StringWriter();
@@ -127,7 +597,20 @@ public class CodeGenerator {
         Files.createDirectories(packagePath);
 
         Path outputFile = packagePath.resolve(fileName);
-        Files.write(outputFile, ("package " + packageName + ";\n\n" + content).getBytes());
+        Files.write(outputFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 组件类型转类名后缀：已是驼峰的保持原样（DTO、RepositoryImpl），带分隔符的再做驼峰转换
+     */
+    public static String toClassSuffix(String componentType) {
+        if (componentType == null || componentType.isEmpty()) {
+            return "";
+        }
+        if (componentType.matches(".*[_\\-\\s].*")) {
+            return toCamelCase(componentType);
+        }
+        return Character.toUpperCase(componentType.charAt(0)) + componentType.substring(1);
     }
 
     // 增强的驼峰转换方法
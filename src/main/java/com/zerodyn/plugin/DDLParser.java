@@ -4,8 +4,17 @@
 
 package com.zerodyn.plugin;
 
+import com.zerodyn.plugin.cache.ParseResultCache;
+
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,73 +29,560 @@ public class DDLParser {
                     "char|varchar|text|tinytext|mediumtext|longtext|blob|tinyblob|mediumblob|longblob|" +
                     "datetime|date|time|year|timestamp|boolean|bit|enum|set|json";
 
+    private static final Set<String> SUPPORTED_TYPES = Set.of(SQL_DATA_TYPES.split("\\|"));
+
+    // 改进后的正则：确保只匹配合法的SQL数据类型
+    private static final Pattern COLUMN_PATTERN = Pattern.compile(
+            "`?(\\w+)`?\\s+" +
+                    "(" + SQL_DATA_TYPES + ")\\b\\s*" + // 只匹配预定义的数据类型，\b 防止 timestamp 被截成 time
+                    "(?:\\([\\d,\\s]+\\))?\\s*" +   // 可选的长度定义
+                    "(UNSIGNED\\s*)?" +
+                    "(NOT NULL|NULL)?\\s*" +
+                    "(DEFAULT\\s+[^,]+)?\\s*" +
+                    "(?:COMMENT\\s+'([^']*)')?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final String CONSTRAINT_NAME = "(?:CONSTRAINT\\s+`?(\\w+)`?\\s+)?";
+    private static final String INDEX_TYPE = "(?:USING\\s+\\w+\\s*)?";
+
+    private static final Pattern PRIMARY_KEY_PATTERN = Pattern.compile(
+            "^" + CONSTRAINT_NAME + "PRIMARY\\s+KEY\\s*" + INDEX_TYPE + "\\((.*)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern UNIQUE_KEY_PATTERN = Pattern.compile(
+            "^" + CONSTRAINT_NAME + "UNIQUE\\s*(?:KEY|INDEX)?\\s*(?:`?(\\w+)`?\\s*)?" + INDEX_TYPE + "\\((.*)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern INDEX_PATTERN = Pattern.compile(
+            "^(?:KEY|INDEX)\\s*(?:`?(\\w+)`?\\s*)?" + INDEX_TYPE + "\\((.*)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FOREIGN_KEY_PATTERN = Pattern.compile(
+            "^" + CONSTRAINT_NAME + "FOREIGN\\s+KEY\\s*(?:`?(\\w+)`?\\s*)?\\((.*?)\\)\\s*" +
+                    "REFERENCES\\s+`?(\\w+)`?\\s*\\((.*?)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern INLINE_PRIMARY_KEY = Pattern.compile("\\bPRIMARY\\s+KEY\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern INLINE_UNIQUE = Pattern.compile("\\bUNIQUE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NOT_NULL = Pattern.compile("\\bNOT\\s+NULL\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile(
+            "CREATE\\s+TABLE\\s+(?:IF NOT EXISTS\\s+)?`?(\\w+)`?\\s*(?:COMMENT\\s+'([^']*)')?\\s*\\(([^;]+)\\)\\s*(?:COMMENT\\s*=\\s*'([^']*)')?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_TABLE_PATTERN = Pattern.compile(
+            "^ALTER\\s+(?:ONLINE\\s+|IGNORE\\s+)?TABLE\\s+`?(\\w+)`?\\s+(.*)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DROP_TABLE_PATTERN = Pattern.compile(
+            "^DROP\\s+(?:TEMPORARY\\s+)?TABLE\\s+(?:IF\\s+EXISTS\\s+)?(.*?)(?:\\s+(?:RESTRICT|CASCADE))?$",
+            Pattern.CASE_INSENSITIVE);
+
+    // ALTER TABLE 的各类子句，FIRST / AFTER 子句单独分组
+    private static final String COLUMN_POSITION = "(?:\\s+(FIRST|AFTER\\s+`?(\\w+)`?))?$";
+
+    private static final Pattern ALTER_ADD_COLUMNS = Pattern.compile(
+            "^ADD\\s+(?:COLUMN\\s+)?\\((.*)\\)$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_ADD_CONSTRAINT = Pattern.compile(
+            "^ADD\\s+((?:CONSTRAINT|PRIMARY|UNIQUE|INDEX|KEY|FOREIGN|FULLTEXT|SPATIAL|CHECK)\\b.*)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_ADD_COLUMN = Pattern.compile(
+            "^ADD\\s+(?:COLUMN\\s+)?(.*?)" + COLUMN_POSITION, Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_MODIFY_COLUMN = Pattern.compile(
+            "^MODIFY\\s+(?:COLUMN\\s+)?(.*?)" + COLUMN_POSITION, Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_CHANGE_COLUMN = Pattern.compile(
+            "^CHANGE\\s+(?:COLUMN\\s+)?`?(\\w+)`?\\s+(.*?)" + COLUMN_POSITION, Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_RENAME_COLUMN = Pattern.compile(
+            "^RENAME\\s+COLUMN\\s+`?(\\w+)`?\\s+TO\\s+`?(\\w+)`?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_RENAME_INDEX = Pattern.compile(
+            "^RENAME\\s+(?:INDEX|KEY)\\s+`?(\\w+)`?\\s+TO\\s+`?(\\w+)`?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_RENAME_TABLE = Pattern.compile(
+            "^RENAME\\s+(?:TO\\s+|AS\\s+)?`?(\\w+)`?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_DROP_PRIMARY_KEY = Pattern.compile(
+            "^DROP\\s+PRIMARY\\s+KEY$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_DROP_CONSTRAINT = Pattern.compile(
+            "^DROP\\s+(?:INDEX|KEY|FOREIGN\\s+KEY|CONSTRAINT|CHECK)\\s+`?(\\w+)`?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_DROP_COLUMN = Pattern.compile(
+            "^DROP\\s+(?:COLUMN\\s+)?`?(\\w+)`?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALTER_COMMENT = Pattern.compile(
+            "^COMMENT\\s*=?\\s*'([^']*)'$", Pattern.CASE_INSENSITIVE);
+
+    private final ParseResultCache cache;
+
+    public DDLParser() {
+        this(ParseResultCache.getSharedInstance());
+    }
+
+    public DDLParser(ParseResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 解析输入中的第一张表
+     */
     public Table parseDDL(String ddl) {
-        String normalizedDDL = ddl.replaceAll("/\\*.*?\\*/", "")
+        for (String statement : splitStatements(ddl)) {
+            Table table = parseStatement(statement);
+            if (table != null) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析输入中的全部表（如整库导出的dump），按出现顺序返回
+     */
+    public List<Table> parseAll(String ddl) {
+        List<Table> tables = new ArrayList<>();
+        for (String statement : splitStatements(ddl)) {
+            Table table = parseStatement(statement);
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 解析单条语句，内容未变化的语句直接命中缓存，不再做正则处理；
+     * 不是 CREATE TABLE 的语句（如dump中的INSERT）只看开头的关键字，不计算哈希也不查缓存
+     */
+    public Table parseStatement(String statement) {
+        if (!isCreateTable(statement)) {
+            return null;
+        }
+        String key = cache.keyOf(statement);
+        Table cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Table table = doParse(statement);
+        if (table != null) {
+            cache.put(key, table);
+        }
+        return table;
+    }
+
+    /**
+     * 把迁移脚本中的 CREATE / ALTER / DROP TABLE 按顺序应用到已有表模型上，返回被改动的表的最终模型；
+     * baseline 按表名返回上次生成时保存的表模型，没有时返回null
+     */
+    public SchemaChange applyStatements(String ddl, Function<String, Table> baseline) {
+        Map<String, Table> touched = new LinkedHashMap<>();
+        Set<String> dropped = new LinkedHashSet<>();
+        for (String statement : splitStatements(ddl)) {
+            String target = alterTarget(statement);
+            if (target != null) {
+                String key = target.toLowerCase();
+                Table base = touched.containsKey(key) ? touched.get(key)
+                        : dropped.contains(key) ? null : baseline.apply(target);
+                if (base == null) {
+                    throw new IllegalArgumentException("找不到表 " + target + " 的表模型，请先用 CREATE TABLE 生成该表");
+                }
+                Table altered = applyAlter(base, statement);
+                String newKey = altered.name().toLowerCase();
+                if (!newKey.equals(key)) {
+                    // 表改名：旧表名按删除处理
+                    touched.remove(key);
+                    dropped.add(key);
+                }
+                dropped.remove(newKey);
+                touched.put(newKey, altered);
+                continue;
+            }
+            List<String> droppedTables = dropTargets(statement);
+            if (droppedTables != null) {
+                for (String name : droppedTables) {
+                    touched.remove(name);
+                    dropped.add(name);
+                }
+                continue;
+            }
+            Table table = parseStatement(statement);
+            if (table != null) {
+                String key = table.name().toLowerCase();
+                dropped.remove(key);
+                touched.put(key, table);
+            }
+        }
+        return new SchemaChange(List.copyOf(touched.values()), List.copyOf(dropped));
+    }
+
+    /**
+     * ALTER TABLE 语句的目标表名，不是 ALTER TABLE 语句时返回null
+     */
+    public static String alterTarget(String statement) {
+        Matcher matcher = ALTER_TABLE_PATTERN.matcher(normalize(statement));
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 把单条 ALTER TABLE 语句应用到表模型上，返回新模型，原模型不变；
+     * 只处理影响代码生成的子句（列、主键、索引、外键、表名、表注释），引擎、字符集等子句忽略
+     */
+    public Table applyAlter(Table base, String statement) {
+        Matcher matcher = ALTER_TABLE_PATTERN.matcher(normalize(statement));
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("不是 ALTER TABLE 语句: " + statement);
+        }
+        TableBuilder builder = new TableBuilder(base);
+        for (String spec : splitTopLevel(matcher.group(2))) {
+            applyAlterSpec(builder, spec);
+        }
+        return builder.build();
+    }
+
+    private void applyAlterSpec(TableBuilder builder, String spec) {
+        Matcher matcher;
+        if ((matcher = ALTER_ADD_COLUMNS.matcher(spec)).find()) {
+            for (String def : splitTopLevel(matcher.group(1))) {
+                if (isConstraintDefinition(def)) {
+                    parseConstraint(def, builder.primaryKey, builder.indexes, builder.foreignKeys);
+                } else {
+                    addColumn(builder, def, -1);
+                }
+            }
+        } else if ((matcher = ALTER_ADD_CONSTRAINT.matcher(spec)).find()) {
+            parseConstraint(matcher.group(1), builder.primaryKey, builder.indexes, builder.foreignKeys);
+        } else if ((matcher = ALTER_ADD_COLUMN.matcher(spec)).find()) {
+            addColumn(builder, matcher.group(1), builder.position(matcher.group(2), matcher.group(3), -1));
+        } else if ((matcher = ALTER_MODIFY_COLUMN.matcher(spec)).find()) {
+            Matcher column = COLUMN_PATTERN.matcher(matcher.group(1));
+            if (column.find()) {
+                int current = builder.removeColumn(column.group(1));
+                addColumn(builder, matcher.group(1), builder.position(matcher.group(2), matcher.group(3), current));
+            }
+        } else if ((matcher = ALTER_CHANGE_COLUMN.matcher(spec)).find()) {
+            Matcher column = COLUMN_PATTERN.matcher(matcher.group(2));
+            if (column.find()) {
+                int current = builder.removeColumn(matcher.group(1));
+                builder.renameReferences(matcher.group(1), column.group(1));
+                addColumn(builder, matcher.group(2), builder.position(matcher.group(3), matcher.group(4), current));
+            }
+        } else if ((matcher = ALTER_RENAME_COLUMN.matcher(spec)).find()) {
+            builder.renameColumn(matcher.group(1), matcher.group(2));
+        } else if ((matcher = ALTER_RENAME_INDEX.matcher(spec)).find()) {
+            builder.renameIndex(matcher.group(1), matcher.group(2));
+        } else if ((matcher = ALTER_RENAME_TABLE.matcher(spec)).find()) {
+            builder.name = matcher.group(1);
+        } else if (ALTER_DROP_PRIMARY_KEY.matcher(spec).find()) {
+            builder.primaryKey.clear();
+        } else if ((matcher = ALTER_DROP_CONSTRAINT.matcher(spec)).find()) {
+            builder.dropConstraint(matcher.group(1));
+        } else if ((matcher = ALTER_DROP_COLUMN.matcher(spec)).find()) {
+            builder.removeColumn(matcher.group(1));
+            builder.dropReferences(matcher.group(1));
+        } else if ((matcher = ALTER_COMMENT.matcher(spec)).find()) {
+            builder.comment = matcher.group(1);
+        }
+        // ALTER COLUMN ... SET DEFAULT、ENGINE=、CONVERT TO CHARACTER SET 等不影响生成的子句忽略
+    }
+
+    /**
+     * DROP TABLE 语句删除的表名（小写），不是 DROP TABLE 语句时返回null
+     */
+    private static List<String> dropTargets(String statement) {
+        Matcher matcher = DROP_TABLE_PATTERN.matcher(normalize(statement));
+        if (!matcher.find()) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : matcher.group(1).split(",")) {
+            String trimmed = name.replace("`", "").trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed.toLowerCase());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 去掉注释并把连续空白折叠为单个空格
+     */
+    private static String normalize(String ddl) {
+        return ddl.replaceAll("/\\*.*?\\*/", "")
                 .replaceAll("--.*?\\n", "")
-                .replaceAll("\\s+", " ");
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
 
-        Pattern tablePattern = Pattern.compile(
-                "CREATE\\s+TABLE\\s+(?:IF NOT EXISTS\\s+)?`?(\\w+)`?\\s*(?:COMMENT\\s+'([^']*)')?\\s*\\(([^;]+)\\)\\s*(?:COMMENT\\s*=\\s*'([^']*)')?",
-                Pattern.CASE_INSENSITIVE);
+    private Table doParse(String ddl) {
+        String normalizedDDL = normalize(ddl);
 
-        Matcher matcher = tablePattern.matcher(normalizedDDL);
+        Matcher matcher = TABLE_PATTERN.matcher(normalizedDDL);
         if (matcher.find()) {
             String tableName = matcher.group(1);
             String tableComment = matcher.group(2) != null ? matcher.group(2) :
                     matcher.group(4) != null ? matcher.group(4) : "";
-            return new Table(tableName, parseColumns(matcher.group(3)), tableComment);
+            return parseBody(tableName, tableComment, matcher.group(3));
         }
         return null;
     }
 
-    private List<Column> parseColumns(String columnsDDL) {
-        List<Column> columns = new ArrayList<>();
+    /**
+     * 按顶层分号切分语句，跳过字符串、标识符引号和注释中的分号
+     */
+    static List<String> splitStatements(String ddl) {
+        List<String> statements = new ArrayList<>();
+        int start = 0;
+        int length = ddl.length();
+        int i = 0;
+        while (i < length) {
+            char c = ddl.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(ddl, i, c);
+            } else if (c == '-' && i + 1 < length && ddl.charAt(i + 1) == '-') {
+                i = skipLineComment(ddl, i);
+            } else if (c == '/' && i + 1 < length && ddl.charAt(i + 1) == '*') {
+                int end = ddl.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == ';') {
+                addStatement(statements, ddl.substring(start, i));
+                start = ++i;
+            } else {
+                i++;
+            }
+        }
+        addStatement(statements, ddl.substring(start));
+        return statements;
+    }
+
+    private static int skipQuoted(String ddl, int from, char quote) {
+        int i = from + 1;
+        while (i < ddl.length()) {
+            char c = ddl.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                // 连续两个引号表示转义
+                if (i + 1 < ddl.length() && ddl.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return ddl.length();
+    }
+
+    private static int skipLineComment(String ddl, int from) {
+        int end = ddl.indexOf('\n', from);
+        return end < 0 ? ddl.length() : end + 1;
+    }
+
+    /**
+     * 跳过开头的空白和注释后，语句是否以 CREATE [TEMPORARY] TABLE 开头，规则与 ParallelDDLParser 相同
+     */
+    static boolean isCreateTable(String statement) {
+        int i = skipBlank(statement, 0);
+        if (!matchKeyword(statement, i, "CREATE")) {
+            return false;
+        }
+        i = skipBlank(statement, i + "CREATE".length());
+        if (matchKeyword(statement, i, "TEMPORARY")) {
+            i = skipBlank(statement, i + "TEMPORARY".length());
+        }
+        return matchKeyword(statement, i, "TABLE");
+    }
+
+    private static int skipBlank(String ddl, int from) {
+        int length = ddl.length();
+        int i = from;
+        while (i < length) {
+            char c = ddl.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && ddl.charAt(i + 1) == '-') {
+                i = skipLineComment(ddl, i);
+            } else if (c == '/' && i + 1 < length && ddl.charAt(i + 1) == '*') {
+                int end = ddl.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
 
-        // 改进后的正则：确保只匹配合法的SQL数据类型
-        Pattern pattern = Pattern.compile(
-                "`?(\\w+)`?\\s+" +
-                        "(" + SQL_DATA_TYPES + ")\\s*" + // 只匹配预定义的数据类型
-                        "(?:\\([\\d,\\s]+\\))?\\s*" +   // 可选的长度定义
-                        "(UNSIGNED\\s*)?" +
-                        "(NOT NULL|NULL)?\\s*" +
-                        "(DEFAULT\\s+[^,]+)?\\s*" +
-                        "(?:COMMENT\\s+'([^']*)')?",
-                Pattern.CASE_INSENSITIVE);
+    private static boolean matchKeyword(String ddl, int from, String keyword) {
+        if (!ddl.regionMatches(true, from, keyword, 0, keyword.length())) {
+            return false;
+        }
+        // 关键字后面必须是分隔符，避免 CREATE TABLES 之类的误判
+        int end = from + keyword.length();
+        return end == ddl.length() || !(Character.isLetterOrDigit(ddl.charAt(end)) || ddl.charAt(end) == '_');
+    }
+
+    private static void addStatement(List<String> statements, String statement) {
+        if (!statement.isBlank()) {
+            statements.add(statement);
+        }
+    }
 
-        String[] columnDefs = columnsDDL.split(",(?![^(]*\\))");
-        for (String def : columnDefs) {
-            def = def.trim();
+    private Table parseBody(String tableName, String tableComment, String bodyDDL) {
+        TableBuilder builder = new TableBuilder(tableName, tableComment);
+        for (String def : splitTopLevel(bodyDDL)) {
             if (isConstraintDefinition(def)) {
+                parseConstraint(def, builder.primaryKey, builder.indexes, builder.foreignKeys);
+            } else {
+                addColumn(builder, def, -1);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解析列定义并加入表中，position 为插入位置，-1 表示追加到末尾；无法识别的定义返回null
+     */
+    private Column addColumn(TableBuilder builder, String def, int position) {
+        Matcher matcher = COLUMN_PATTERN.matcher(def);
+        if (!matcher.find()) {
+            return null;
+        }
+        // 构建完整的类型字符串（包含长度定义）
+        String fullType = matcher.group(2).toUpperCase();
+        if (def.contains("(")) {
+            int start = def.indexOf("(");
+            int end = def.indexOf(")");
+            if (end > start) {
+                fullType += def.substring(start, end + 1);
+            }
+        }
+
+        // 先去掉字符串，避免把注释/默认值里的关键字当成约束
+        String withoutLiterals = def.replaceAll("'[^']*'", "''");
+        boolean inlinePrimaryKey = INLINE_PRIMARY_KEY.matcher(withoutLiterals).find();
+        Column column = new Column(
+                // originalName
+                matcher.group(1),
+                // camelCaseName
+                snakeToCamel(matcher.group(1)),
+                // 完整的类型定义
+                fullType,
+                // notNull：MySQL列默认可空，只有显式NOT NULL或主键列不可空
+                inlinePrimaryKey || NOT_NULL.matcher(withoutLiterals).find(),
+                // comment
+                matcher.group(6) != null ? matcher.group(6) : ""
+        );
+        builder.columns.add(position < 0 ? builder.columns.size() : position, column);
+
+        // 列级约束：id BIGINT PRIMARY KEY / code VARCHAR(32) UNIQUE
+        if (inlinePrimaryKey) {
+            if (!containsIgnoreCase(builder.primaryKey, matcher.group(1))) {
+                builder.primaryKey.add(matcher.group(1));
+            }
+        } else if (INLINE_UNIQUE.matcher(withoutLiterals).find()) {
+            builder.indexes.add(new Index(matcher.group(1), List.of(matcher.group(1)), true));
+        }
+        return column;
+    }
+
+    /**
+     * 按顶层逗号切分，括号和引号内的逗号不切分
+     */
+    private static List<String> splitTopLevel(String body) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int i = 0;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(body, i, c);
                 continue;
             }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                addPart(parts, body.substring(start, i));
+                start = i + 1;
+            }
+            i++;
+        }
+        addPart(parts, body.substring(start));
+        return parts;
+    }
 
-            Matcher matcher = pattern.matcher(def);
-            if (matcher.find()) {
-                // 构建完整的类型字符串（包含长度定义）
-                String fullType = matcher.group(2).toUpperCase();
-                if (def.contains("(")) {
-                    int start = def.indexOf("(");
-                    int end = def.indexOf(")");
-                    if (end > start) {
-                        fullType += def.substring(start, end + 1);
-                    }
-                }
+    private static void addPart(List<String> parts, String part) {
+        if (!part.isBlank()) {
+            parts.add(part.trim());
+        }
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        for (String candidate : names) {
+            if (candidate.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void parseConstraint(String def,
+                                 List<String> primaryKey,
+                                 List<Index> indexes,
+                                 List<ForeignKey> foreignKeys) {
+        Matcher matcher = PRIMARY_KEY_PATTERN.matcher(def);
+        if (matcher.find()) {
+            primaryKey.clear();
+            primaryKey.addAll(parseKeyColumns(matcher.group(2)));
+            return;
+        }
+        matcher = FOREIGN_KEY_PATTERN.matcher(def);
+        if (matcher.find()) {
+            String name = matcher.group(2) != null ? matcher.group(2) : matcher.group(1);
+            foreignKeys.add(new ForeignKey(name, parseKeyColumns(matcher.group(3)),
+                    matcher.group(4), parseKeyColumns(matcher.group(5))));
+            return;
+        }
+        matcher = UNIQUE_KEY_PATTERN.matcher(def);
+        if (matcher.find()) {
+            String name = matcher.group(2) != null ? matcher.group(2) : matcher.group(1);
+            indexes.add(new Index(name, parseKeyColumns(matcher.group(3)), true));
+            return;
+        }
+        matcher = INDEX_PATTERN.matcher(def);
+        if (matcher.find()) {
+            indexes.add(new Index(matcher.group(1), parseKeyColumns(matcher.group(2)), false));
+        }
+        // CHECK 等其他约束不影响代码生成，忽略
+    }
 
-                columns.add(new Column(
-                        // originalName
-                        matcher.group(1),
-                        // camelCaseName
-                        snakeToCamel(matcher.group(1)),
-                        // 完整的类型定义
-                        fullType,
-                        // notNull
-                        !"NULL".equalsIgnoreCase(matcher.group(4)),
-                        // comment
-                        matcher.group(6) != null ? matcher.group(6) : ""
-                ));
+    /**
+     * 解析键的列清单，保留列顺序，去掉前缀长度和排序方向：`name`(10) DESC -> name
+     */
+    private List<String> parseKeyColumns(String columnList) {
+        List<String> result = new ArrayList<>();
+        for (String part : columnList.split(",")) {
+            String column = part.trim()
+                    .replaceAll("\\(\\s*\\d+\\s*\\)", "")
+                    .replaceAll("(?i)\\s+(ASC|DESC)$", "")
+                    .replace("`", "")
+                    .trim();
+            if (!column.isEmpty()) {
+                result.add(column);
             }
         }
-        return columns;
+        return List.copyOf(result);
     }
 
     // 判断是否是约束定义（增强版）
@@ -95,7 +591,64 @@ public class DDLParser {
                 "FOREIGN\\s+KEY|INDEX|KEY|CONSTRAINT|CHECK)\\b.*");
     }
 
-    private String snakeToCamel(String str) {
+    /**
+     * 是否为解析器能识别的列类型（不含长度定义，不区分大小写）
+     */
+    public static boolean isSupportedType(String typeName) {
+        return SUPPORTED_TYPES.contains(typeName.toLowerCase());
+    }
+
+    /**
+     * 把表模型写回 CREATE TABLE 语句（MySQL方言），重新解析后得到相同的表模型；
+     * 解析器不支持引号转义，注释中的单引号和分号替换为全角字符
+     */
+    public static String toDDL(Table table) {
+        List<String> lines = new ArrayList<>();
+        for (Column column : table.columns()) {
+            StringBuilder line = new StringBuilder("  ").append(quote(column.originalName()))
+                    .append(' ').append(column.type());
+            if (column.notNull()) {
+                line.append(" NOT NULL");
+            }
+            if (!column.comment().isEmpty()) {
+                line.append(" COMMENT '").append(escapeComment(column.comment())).append('\'');
+            }
+            lines.add(line.toString());
+        }
+        if (!table.primaryKey().isEmpty()) {
+            lines.add("  PRIMARY KEY (" + quoteAll(table.primaryKey()) + ")");
+        }
+        for (Index index : table.indexes()) {
+            lines.add("  " + (index.unique() ? "UNIQUE KEY " : "KEY ")
+                    + (index.name() != null ? quote(index.name()) + " " : "")
+                    + "(" + quoteAll(index.columns()) + ")");
+        }
+        for (ForeignKey foreignKey : table.foreignKeys()) {
+            lines.add("  " + (foreignKey.name() != null ? "CONSTRAINT " + quote(foreignKey.name()) + " " : "")
+                    + "FOREIGN KEY (" + quoteAll(foreignKey.columns()) + ") REFERENCES "
+                    + quote(foreignKey.referencedTable()) + " (" + quoteAll(foreignKey.referencedColumns()) + ")");
+        }
+        StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(quote(table.name())).append(" (\n")
+                .append(String.join(",\n", lines)).append("\n)");
+        if (!table.comment().isEmpty()) {
+            ddl.append(" COMMENT='").append(escapeComment(table.comment())).append('\'');
+        }
+        return ddl.append(";\n").toString();
+    }
+
+    private static String quote(String name) {
+        return "`" + name + "`";
+    }
+
+    private static String quoteAll(List<String> names) {
+        return names.stream().map(DDLParser::quote).collect(Collectors.joining(", "));
+    }
+
+    private static String escapeComment(String comment) {
+        return comment.replace('\'', '’').replace(';', '；').replaceAll("\\s+", " ");
+    }
+
+    public static String snakeToCamel(String str) {
         StringBuilder builder = new StringBuilder();
         for (String s : str.split("_")) {
             if (builder.isEmpty()) {
@@ -108,9 +661,311 @@ public class DDLParser {
         return builder.toString();
     }
 
-    public record Table(String name, List<Column> columns, String comment) {
+    /**
+     * 迁移脚本应用后的结果：tables 为被创建或修改过的表的最终模型，dropped 为被删除或改名前的表名（小写）
+     */
+    public record SchemaChange(List<Table> tables, List<String> dropped) implements Serializable {
+    }
+
+    /**
+     * 解析 CREATE TABLE 和应用 ALTER TABLE 共用的可变表模型，列和键都按原始列名（忽略大小写）关联
+     */
+    private static final class TableBuilder {
+        private String name;
+        private String comment;
+        private final List<Column> columns;
+        private final List<String> primaryKey;
+        private final List<Index> indexes;
+        private final List<ForeignKey> foreignKeys;
+
+        TableBuilder(String name, String comment) {
+            this.name = name;
+            this.comment = comment;
+            this.columns = new ArrayList<>();
+            this.primaryKey = new ArrayList<>();
+            this.indexes = new ArrayList<>();
+            this.foreignKeys = new ArrayList<>();
+        }
+
+        TableBuilder(Table table) {
+            this.name = table.name();
+            this.comment = table.comment();
+            this.columns = new ArrayList<>(table.columns());
+            this.primaryKey = new ArrayList<>(table.primaryKey());
+            this.indexes = new ArrayList<>(table.indexes());
+            this.foreignKeys = new ArrayList<>(table.foreignKeys());
+        }
+
+        int indexOf(String columnName) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).originalName().equalsIgnoreCase(columnName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 删除列并返回它原来的位置，列不存在时返回-1
+         */
+        int removeColumn(String columnName) {
+            int index = indexOf(columnName);
+            if (index >= 0) {
+                columns.remove(index);
+            }
+            return index;
+        }
+
+        /**
+         * FIRST / AFTER 子句对应的插入位置，没有位置子句时返回 fallback
+         */
+        int position(String clause, String afterColumn, int fallback) {
+            if (clause == null) {
+                return fallback;
+            }
+            if (afterColumn == null) {
+                return 0;
+            }
+            int index = indexOf(afterColumn);
+            return index < 0 ? fallback : index + 1;
+        }
+
+        void renameColumn(String oldName, String newName) {
+            int index = indexOf(oldName);
+            if (index < 0) {
+                return;
+            }
+            Column column = columns.get(index);
+            columns.set(index, new Column(newName, snakeToCamel(newName), column.type(),
+                    column.notNull(), column.comment()));
+            renameReferences(oldName, newName);
+        }
+
+        /**
+         * 主键、索引、外键中引用的列名随列改名
+         */
+        void renameReferences(String oldName, String newName) {
+            primaryKey.replaceAll(column -> column.equalsIgnoreCase(oldName) ? newName : column);
+            indexes.replaceAll(index -> new Index(index.name(), rename(index.columns(), oldName, newName),
+                    index.unique()));
+            foreignKeys.replaceAll(fk -> new ForeignKey(fk.name(), rename(fk.columns(), oldName, newName),
+                    fk.referencedTable(), fk.referencedColumns()));
+        }
+
+        /**
+         * 与MySQL一致：删除列时从索引中去掉该列，索引不再有列时一并删除；引用该列的外键删除
+         */
+        void dropReferences(String columnName) {
+            primaryKey.removeIf(column -> column.equalsIgnoreCase(columnName));
+            List<Index> remaining = new ArrayList<>(indexes.size());
+            for (Index index : indexes) {
+                List<String> indexColumns = new ArrayList<>(index.columns());
+                indexColumns.removeIf(column -> column.equalsIgnoreCase(columnName));
+                if (!indexColumns.isEmpty()) {
+                    remaining.add(new Index(index.name(), List.copyOf(indexColumns), index.unique()));
+                }
+            }
+            indexes.clear();
+            indexes.addAll(remaining);
+            foreignKeys.removeIf(fk -> containsIgnoreCase(fk.columns(), columnName));
+        }
+
+        void renameIndex(String oldName, String newName) {
+            indexes.replaceAll(index -> oldName.equalsIgnoreCase(index.name())
+                    ? new Index(newName, index.columns(), index.unique()) : index);
+        }
+
+        /**
+         * DROP INDEX / DROP FOREIGN KEY / DROP CONSTRAINT 按名称删除索引或外键
+         */
+        void dropConstraint(String constraintName) {
+            indexes.removeIf(index -> constraintName.equalsIgnoreCase(index.name()));
+            foreignKeys.removeIf(fk -> constraintName.equalsIgnoreCase(fk.name()));
+        }
+
+        Table build() {
+            // 主键中的列同样隐含 NOT NULL
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                if (!column.notNull() && containsIgnoreCase(primaryKey, column.originalName())) {
+                    columns.set(i, new Column(column.originalName(), column.name(), column.type(), true,
+                            column.comment()));
+                }
+            }
+            return new Table(name, List.copyOf(columns), comment,
+                    List.copyOf(primaryKey), List.copyOf(indexes), List.copyOf(foreignKeys));
+        }
+
+        private static List<String> rename(List<String> names, String oldName, String newName) {
+            List<String> result = new ArrayList<>(names.size());
+            for (String name : names) {
+                result.add(name.equalsIgnoreCase(oldName) ? newName : name);
+            }
+            return List.copyOf(result);
+        }
+    }
+
+    public record Table(String name, List<Column> columns, String comment,
+                        List<String> primaryKey, List<Index> indexes,
+                        List<ForeignKey> foreignKeys) implements Serializable {
+
+        public Table(String name, List<Column> columns, String comment) {
+            this(name, columns, comment, List.of(), List.of(), List.of());
+        }
+
+        public Column column(String originalName) {
+            for (Column column : columns) {
+                if (column.originalName().equalsIgnoreCase(originalName)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasPrimaryKey() {
+            return !primaryKeyColumns().isEmpty();
+        }
+
+        /**
+         * 主键列（按主键定义顺序）
+         */
+        public List<Column> primaryKeyColumns() {
+            List<Column> result = resolve(primaryKey);
+            return result == null ? List.of() : result;
+        }
+
+        /**
+         * 单列主键时返回该列，无主键或联合主键返回null
+         */
+        public Column primaryKeyColumn() {
+            List<Column> pk = primaryKeyColumns();
+            return pk.size() == 1 ? pk.get(0) : null;
+        }
+
+        /**
+         * 可以由索引支撑的查询路径（唯一键、普通/联合索引、外键），
+         * 按列清单去重且不含主键本身，模板只为这些路径生成finder方法
+         */
+        public List<AccessPath> accessPaths() {
+            Map<List<String>, AccessPath> paths = new LinkedHashMap<>();
+            List<String> pkKey = normalize(primaryKey);
+            for (Index index : indexes) {
+                addPath(paths, pkKey, index.name(), index.columns(), index.unique());
+            }
+            // InnoDB 会为外键列自动建立索引
+            for (ForeignKey foreignKey : foreignKeys) {
+                addPath(paths, pkKey, foreignKey.name(), foreignKey.columns(), false);
+            }
+            return new ArrayList<>(paths.values());
+        }
+
+        /**
+         * 可做keyset分页的排序列：单列主键表上的单列索引且非空的列，
+         * 分页时以主键作为并列次序，(列, 主键) 正好对应二级索引的存储顺序
+         */
+        public List<Column> seekColumns() {
+            Column pk = primaryKeyColumn();
+            if (pk == null) {
+                return List.of();
+            }
+            Map<String, Column> result = new LinkedHashMap<>();
+            for (Index index : indexes) {
+                if (index.columns().size() != 1) {
+                    continue;
+                }
+                Column column = column(index.columns().get(0));
+                if (column != null && column.notNull() && column != pk) {
+                    result.putIfAbsent(column.originalName().toLowerCase(), column);
+                }
+            }
+            return new ArrayList<>(result.values());
+        }
+
+        /**
+         * 读模型投影的列：主键和全部非大字段列
+         */
+        public List<Column> projectionColumns() {
+            List<Column> pk = primaryKeyColumns();
+            List<Column> result = new ArrayList<>(columns.size());
+            for (Column column : columns) {
+                if (!column.lob() || pk.contains(column)) {
+                    result.add(column);
+                }
+            }
+            return result;
+        }
+
+        private void addPath(Map<List<String>, AccessPath> paths, List<String> pkKey,
+                             String indexName, List<String> columnNames, boolean unique) {
+            List<String> key = normalize(columnNames);
+            List<Column> resolved = resolve(columnNames);
+            if (key.isEmpty() || key.equals(pkKey) || resolved == null) {
+                return;
+            }
+            AccessPath existing = paths.get(key);
+            // 同一列清单既有唯一索引又有普通索引时保留唯一的
+            if (existing == null || (unique && !existing.unique())) {
+                paths.put(key, new AccessPath(indexName, resolved, unique));
+            }
+        }
+
+        private List<Column> resolve(List<String> columnNames) {
+            List<Column> result = new ArrayList<>(columnNames.size());
+            for (String columnName : columnNames) {
+                Column column = column(columnName);
+                if (column == null) {
+                    return null;
+                }
+                result.add(column);
+            }
+            return result;
+        }
+
+        private static List<String> normalize(List<String> columnNames) {
+            return columnNames.stream().map(String::toLowerCase).toList();
+        }
+    }
+
+    public record Column(String originalName, String name, String type, boolean notNull,
+                         String comment) implements Serializable {
+
+        /**
+         * 大字段（TEXT/BLOB/JSON），读模型的投影默认不查询这些列
+         */
+        public boolean lob() {
+            String lowerType = type.toLowerCase();
+            return lowerType.contains("text") || lowerType.contains("blob") || lowerType.startsWith("json");
+        }
     }
 
-    public record Column(String originalName, String name, String type, boolean notNull, String comment) {
+    /**
+     * 唯一键/普通索引，columns 保留索引定义中的列顺序
+     */
+    public record Index(String name, List<String> columns, boolean unique) implements Serializable {
+    }
+
+    public record ForeignKey(String name, List<String> columns, String referencedTable,
+                             List<String> referencedColumns) implements Serializable {
+    }
+
+    /**
+     * 索引支撑的查询路径
+     */
+    public record AccessPath(String indexName, List<Column> columns, boolean unique) implements Serializable {
+
+        /**
+         * 生成的finder方法名，如 findByTenantIdAndCode
+         */
+        public String methodName() {
+            StringBuilder builder = new StringBuilder("findBy");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    builder.append("And");
+                }
+                String name = columns.get(i).name();
+                builder.append(Character.toUpperCase(name.charAt(0))).append(name.substring(1));
+            }
+            return builder.toString();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成类的字段清单。紧凑布局下NOT NULL的非主键列使用基本类型，
+ * 并按基本类型宽度从大到小、引用类型在后的顺序声明，减少对象头之后的填充
+ *
+ * @author JWen
+ * @since 2025/4/15
+ */
+public class FieldLayout {
+    private static final Map<String, String> PRIMITIVES = Map.of(
+            "Long", "long",
+            "Integer", "int",
+            "Short", "short",
+            "Byte", "byte",
+            "Double", "double",
+            "Float", "float",
+            "Character", "char",
+            "Boolean", "boolean"
+    );
+    private static final Map<String, Integer> PRIMITIVE_SIZES = Map.of(
+            "long", 8, "double", 8,
+            "int", 4, "float", 4,
+            "short", 2, "char", 2,
+            "byte", 1, "boolean", 1
+    );
+    // 引用类型排在所有基本类型之后
+    private static final int REFERENCE_ORDER = 0;
+
+    private final DDLParser.Table table;
+    private final FieldTypeMapper typeMapper;
+    private final boolean compact;
+
+    public FieldLayout(DDLParser.Table table, FieldTypeMapper typeMapper, boolean compact) {
+        this.table = table;
+        this.typeMapper = typeMapper;
+        this.compact = compact;
+    }
+
+    /**
+     * 表全部列对应的字段
+     */
+    public List<Field> fields() {
+        return of(table.columns());
+    }
+
+    /**
+     * 指定列对应的字段，非紧凑布局时保持列顺序和包装类型
+     */
+    public List<Field> of(List<DDLParser.Column> columns) {
+        List<DDLParser.Column> primaryKey = table.primaryKeyColumns();
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (DDLParser.Column column : columns) {
+            String javaType = typeMapper.getJavaType(column.type());
+            // 主键保持包装类型，新建对象时需要用null表示尚未分配
+            if (compact && column.notNull() && !primaryKey.contains(column)) {
+                javaType = PRIMITIVES.getOrDefault(javaType, javaType);
+            }
+            fields.add(new Field(column, javaType));
+        }
+        if (compact) {
+            // 稳定排序，同宽度的字段保持列顺序
+            fields.sort(Comparator.comparingInt(Field::order).reversed());
+        }
+        return fields;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public record Field(DDLParser.Column column, String javaType) {
+
+        public String name() {
+            return column.name();
+        }
+
+        public boolean primitive() {
+            return PRIMITIVE_SIZES.containsKey(javaType);
+        }
+
+        private int order() {
+            return PRIMITIVE_SIZES.getOrDefault(javaType, REFERENCE_ORDER);
+        }
+    }
+}
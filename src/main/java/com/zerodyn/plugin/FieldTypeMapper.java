@@ -50,6 +50,17 @@ public class FieldTypeMapper {
     }
 
     public void savePartialMappings(Map<String, String> partialMappings) throws IOException {
+        savePartialMappings(partialMappings, Set.of());
+    }
+
+    /**
+     * 先移除 removedTypes 再写入 partialMappings，其余已有映射保持不变
+     *
+     * @param removedTypes 被删除或改名的数据库类型
+     */
+    public void savePartialMappings(Map<String, String> partialMappings, Set<String> removedTypes)
+            throws IOException {
+        removedTypes.forEach(type -> mappings.remove(type.toLowerCase()));
         partialMappings.forEach((k, v) -> mappings.put(k.toLowerCase(), v));
 
         File configDir = new File(System.getProperty("user.home"), CONFIG_DIR);
@@ -73,6 +84,30 @@ public class FieldTypeMapper {
         return result;
     }
 
+    /**
+     * 解析SQL类型对应的Java类型，供模板和预览使用
+     * @param sqlType 列定义中的完整类型，如 VARCHAR(255)、TINYINT(1)
+     * @return Java类型，未配置时返回Object
+     */
+    public String getJavaType(String sqlType) {
+        String type = normalizeType(sqlType);
+        return type == null ? "Object" : mappings.getOrDefault(type, "Object");
+    }
+
+    /**
+     * 归一化SQL类型：去掉长度定义和修饰符，tinyint(1) 视为 boolean
+     */
+    public static String normalizeType(String sqlType) {
+        if (sqlType == null || sqlType.trim().isEmpty()) {
+            return null;
+        }
+        String lowerType = sqlType.toLowerCase().trim();
+        if (lowerType.startsWith("tinyint(1)")) {
+            return "boolean";
+        }
+        return lowerType.replaceAll("\\(.*\\)", "").split("\\s+")[0];
+    }
+
     private File getConfigFile() {
         return new File(System.getProperty("user.home"),
                 CONFIG_DIR + File.separator + CONFIG_FILE);
@@ -6,15 +6,20 @@ package com.zerodyn.plugin;
 
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.incremental.SchemaStore;
 import com.zerodyn.plugin.service.DDDConfigDialog;
 import com.zerodyn.plugin.service.DDDConfigManager;
+import com.zerodyn.plugin.service.ModuleDiscoveryService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -32,26 +37,44 @@ public class GenerateCodeAction extends AnAction {
             showError("请先打开项目");
             return;
         }
+        // 生成的代码和表模型都放在项目目录下
+        String basePath = project.getBasePath();
+        if (basePath == null) {
+            showError(project, "项目没有本地目录，无法生成代码");
+            return;
+        }
+
+        // 提前在后台计算模块列表，打开DDD配置对话框时即可直接使用
+        ModuleDiscoveryService.getInstance(project).getModules();
 
         try {
             // 1. 获取DDL输入
-            String ddl = getDDLFromUser(project);
-            if (ddl == null) return;
-
-            // 2. 解析DDL
-            DDLParser.Table table = parseDDL(project, ddl);
-            if (table == null) return;
+            GenerateCodeDialog ddlDialog = new GenerateCodeDialog(project);
+            if (!ddlDialog.showAndGet()) return;
+
+            // 2. 解析DDL：CREATE TABLE 直接解析，ALTER TABLE 应用到上次生成时保存的表模型上
+            SchemaStore schemaStore = new SchemaStore(Paths.get(basePath));
+            DDLParser.SchemaChange change = parseDDL(project, ddlDialog, schemaStore);
+            if (change == null) return;
+            if (change.tables().isEmpty()) {
+                // 脚本只删除了表：更新表模型即可，已生成的代码由用户自行清理
+                schemaStore.apply(change);
+                Messages.showInfoMessage(project, "已移除表模型: " + String.join(", ", change.dropped()), "提示");
+                return;
+            }
 
             // 3. 处理类型映射
-            FieldTypeMapper typeMapper = handleTypeMappings(project, table);
+            FieldTypeMapper typeMapper = handleTypeMappings(project, change.tables());
             if (typeMapper == null) return;
 
             // 4. 配置DDD架构
             DDDConfiguration dddConfig = configureDDD(project);
             if (dddConfig == null) return;
 
-            // 5. 生成代码
-            generateCode(project, table, typeMapper, dddConfig);
+            // 5. 后台生成代码，只渲染脚本涉及的表，内容未变的文件不重写；
+            // 6. 生成结束后保存表模型，供后续 ALTER TABLE 脚本使用
+            generateCode(project, change.tables(), typeMapper, dddConfig,
+                    () -> saveSchema(project, schemaStore, change));
 
         } catch (Exception ex) {
             showError(project, "生成过程中出错: " +
@@ -59,15 +82,11 @@ public class GenerateCodeAction extends AnAction {
         }
     }
 
-    private String getDDLFromUser(Project project) {
-        GenerateCodeDialog ddlDialog = new GenerateCodeDialog(project);
-        return ddlDialog.showAndGet() ? ddlDialog.getDDL() : null;
-    }
-
-    private FieldTypeMapper handleTypeMappings(Project project, DDLParser.Table table) {
+    private FieldTypeMapper handleTypeMappings(Project project, List<DDLParser.Table> tables) {
         try {
-            Set<String> requiredTypes = table.columns().stream()
-                    .map(col -> normalizeType(col.type()))
+            Set<String> requiredTypes = tables.stream()
+                    .flatMap(table -> table.columns().stream())
+                    .map(col -> FieldTypeMapper.normalizeType(col.type()))
                     .filter(Objects::nonNull)
                     .collect(Collectors.toSet());
 
@@ -77,7 +96,8 @@ public class GenerateCodeAction extends AnAction {
             TypeMappingDialog mappingDialog = new TypeMappingDialog(relevantMappings);
 
             if (mappingDialog.showAndGet()) {
-                typeMapper.savePartialMappings(mappingDialog.getModifiedMappings());
+                typeMapper.savePartialMappings(mappingDialog.getModifiedMappings(),
+                        mappingDialog.getRemovedMappings());
                 return typeMapper;
             }
         } catch (Exception e) {
@@ -112,35 +132,47 @@ public class GenerateCodeAction extends AnAction {
     }
 
     private void generateCode(Project project,
-                              DDLParser.Table table,
+                              List<DDLParser.Table> tables,
                               FieldTypeMapper typeMapper,
-                              DDDConfiguration dddConfig) throws IOException {
-        new CodeGenerator(project, typeMapper, true, dddConfig)
-                .generateDDDCode(table);
+                              DDDConfiguration dddConfig,
+                              Runnable onFinished) {
+        new CodeGenerator(project, typeMapper, dddConfig.isUseLombok(), dddConfig)
+                .generateDDDCode(tables, onFinished);
+    }
+
+    private void saveSchema(Project project, SchemaStore schemaStore, DDLParser.SchemaChange change) {
+        try {
+            schemaStore.apply(change);
+        } catch (IOException e) {
+            showError(project, "保存表模型失败: " + e.getMessage());
+        }
     }
 
     private void showError(Project project, String message) {
         Messages.showErrorDialog(project, message, "错误");
     }
 
-    private DDLParser.Table parseDDL(Project project, String ddl) {
-        DDLParser.Table table = new DDLParser().parseDDL(ddl);
-        if (table == null || table.columns() == null || table.columns().isEmpty()) {
-            showError(project, "DDL解析失败或无字段定义");
-            return null;
+    private DDLParser.SchemaChange parseDDL(Project project, GenerateCodeDialog ddlDialog, SchemaStore schemaStore) {
+        // 从文件或数据库导入后未修改的，直接使用对话框中已解析好的表
+        DDLParser.SchemaChange change = ddlDialog.getImportedChange();
+        if (change == null) {
+            String ddl = ddlDialog.getDDL();
+            DDLParser parser = ddlDialog.getParser();
+            try {
+                // 在后台线程解析并读取表模型，对话框中已解析过的语句直接命中其解析缓存
+                change = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                        () -> parser.applyStatements(ddl, schemaStore::load), "解析DDL", false, project);
+            } catch (IllegalArgumentException e) {
+                showError(project, e.getMessage());
+                return null;
+            }
         }
-        return table;
-    }
-
-    private String normalizeType(String sqlType) {
-        if (sqlType == null || sqlType.trim().isEmpty()) {
+        if ((change.tables().isEmpty() && change.dropped().isEmpty())
+                || change.tables().stream().anyMatch(table -> table.columns().isEmpty())) {
+            showError(project, "DDL解析失败或无字段定义");
             return null;
         }
-        String lowerType = sqlType.toLowerCase().trim();
-        if (lowerType.startsWith("tinyint(1)")) {
-            return "boolean";
-        }
-        return lowerType.replaceAll("\\(.*\\)", "").split("\\s+")[0];
+        return change;
     }
 
     private void showError(String message) {
@@ -4,26 +4,96 @@
 
 package com.zerodyn.plugin;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.util.Alarm;
+import com.zerodyn.plugin.config.ComponentConfig;
+import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.incremental.SchemaStore;
+import com.zerodyn.plugin.jdbc.JdbcImportDialog;
+import com.zerodyn.plugin.jdbc.JdbcSchemaReader;
+import com.zerodyn.plugin.service.DDDConfigManager;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * @author JWen
  * @since 2025/3/25
  */
 public class GenerateCodeDialog extends DialogWrapper {
+    private static final Logger log = LoggerFactory.getLogger(GenerateCodeDialog.class);
+    // 输入停顿多久后开始解析
+    private static final int PARSE_DELAY_MS = 300;
+    // 结构面板最多展示的表数量，避免超大dump撑爆文本区
+    private static final int MAX_PREVIEW_TABLES = 200;
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?is).*\\bCREATE\\s+TABLE\\b.*");
+
+    private final Project project;
+    private final Alarm parseAlarm;
+    private final Alarm renderAlarm;
+    // 每次输入/切换递增，后台任务发现代数过期即放弃
+    private final AtomicInteger parseGeneration = new AtomicInteger();
+    private final AtomicInteger renderGeneration = new AtomicInteger();
+    private final DDLParser parser = new DDLParser();
+    // 项目没有本地目录时两者都为null，此时 ALTER TABLE 只能应用到本次输入中的表上
+    private final Path projectBase;
+    private final SchemaStore schemaStore;
 
     private JTextArea ddlTextArea;
     private JComboBox<String> architectureComboBox;
+    private JTabbedPane previewTabs;
+    private JTextArea structureArea;
+    private JTextArea previewArea;
+    private JComboBox<String> tableComboBox;
+    private JComboBox<String> componentComboBox;
+    private JLabel statusLabel;
+
+    private volatile List<DDLParser.Table> parsedTables = List.of();
+    // 最近一次从文件或数据库导入的表及填入输入框的文本，文本未再编辑时生成直接使用这些表
+    private List<DDLParser.Table> importedTables;
+    private String importedDDL;
+    // 预览用的生成器在首次切到预览页时才创建
+    private volatile CodeGenerator previewGenerator;
+    private volatile FieldTypeMapper previewTypeMapper;
 
     public GenerateCodeDialog(Project project) {
         super(project, true);  // 传递project给父类
+        this.project = project;
+        String basePath = project.getBasePath();
+        this.projectBase = basePath == null ? null : Paths.get(basePath);
+        this.schemaStore = basePath == null ? null : new SchemaStore(projectBase);
+        this.parseAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, getDisposable());
+        this.renderAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, getDisposable());
         setTitle("请输入 DDL 语句并选择架构模式");
         init();
+        scheduleParse();
     }
 
     @Override
@@ -35,6 +105,12 @@ public class GenerateCodeDialog extends DialogWrapper {
         northPanel.add(new JLabel("选择架构模式："));
         architectureComboBox = new JComboBox<>(new String[]{"MVC", "DDD"});
         northPanel.add(architectureComboBox);
+        JButton importButton = new JButton("从数据库导入...");
+        importButton.addActionListener(e -> importFromDatabase());
+        northPanel.add(importButton);
+        JButton fileButton = new JButton("从文件导入...");
+        fileButton.addActionListener(e -> importFromFile());
+        northPanel.add(fileButton);
         panel.add(northPanel, BorderLayout.NORTH);
 
         // 中间区域：DDL 文本输入
@@ -47,13 +123,392 @@ public class GenerateCodeDialog extends DialogWrapper {
                   PRIMARY KEY (`id`)
                 );
                 """);
+        ddlTextArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                scheduleParse();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                scheduleParse();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                scheduleParse();
+            }
+        });
         JScrollPane scrollPane = new JScrollPane(ddlTextArea);
-        panel.add(scrollPane, BorderLayout.CENTER);
+
+        // 右侧：解析结果与代码预览
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scrollPane, createPreviewPanel());
+        splitPane.setResizeWeight(0.5);
+        panel.add(splitPane, BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        panel.add(statusLabel, BorderLayout.SOUTH);
 
         return panel;
     }
 
+    private JComponent createPreviewPanel() {
+        structureArea = new JTextArea(10, 40);
+        structureArea.setEditable(false);
+        structureArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, structureArea.getFont().getSize()));
+
+        JPanel renderPanel = new JPanel(new BorderLayout());
+        JPanel selectorPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        tableComboBox = new JComboBox<>();
+        componentComboBox = new JComboBox<>();
+        tableComboBox.addActionListener(e -> scheduleRender());
+        componentComboBox.addActionListener(e -> scheduleRender());
+        selectorPanel.add(new JLabel("表:"));
+        selectorPanel.add(tableComboBox);
+        selectorPanel.add(new JLabel("组件:"));
+        selectorPanel.add(componentComboBox);
+        renderPanel.add(selectorPanel, BorderLayout.NORTH);
+
+        previewArea = new JTextArea();
+        previewArea.setEditable(false);
+        previewArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, previewArea.getFont().getSize()));
+        renderPanel.add(new JScrollPane(previewArea), BorderLayout.CENTER);
+
+        previewTabs = new JTabbedPane();
+        previewTabs.addTab("解析结果", new JScrollPane(structureArea));
+        previewTabs.addTab("代码预览", renderPanel);
+        // 只有切到预览页才渲染
+        previewTabs.addChangeListener(e -> scheduleRender());
+        return previewTabs;
+    }
+
+    /**
+     * 防抖：取消尚未开始的解析，停顿后在后台线程重新解析
+     */
+    private void scheduleParse() {
+        int generation = parseGeneration.incrementAndGet();
+        Document document = ddlTextArea.getDocument();
+        parseAlarm.cancelAllRequests();
+        parseAlarm.addRequest(() -> runParse(document, generation), PARSE_DELAY_MS);
+    }
+
+    private void runParse(Document document, int generation) {
+        String ddl;
+        try {
+            // AbstractDocument.getText 持有读锁，可在后台线程调用
+            ddl = document.getText(0, document.getLength());
+        } catch (BadLocationException e) {
+            return;
+        }
+
+        List<DDLParser.Table> tables = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<String> statements = DDLParser.splitStatements(ddl);
+        for (int i = 0; i < statements.size(); i++) {
+            if (generation != parseGeneration.get()) {
+                // 用户又输入了，当前结果已过期
+                return;
+            }
+            String statement = statements.get(i);
+            String alterTarget = DDLParser.alterTarget(statement);
+            if (alterTarget != null) {
+                // ALTER TABLE 应用到本次输入中已解析的同名表上，没有时使用上次生成时保存的表模型
+                int existing = indexOfTable(tables, alterTarget);
+                DDLParser.Table base;
+                try {
+                    base = existing >= 0 ? tables.get(existing)
+                            : schemaStore == null ? null : schemaStore.load(alterTarget);
+                } catch (IllegalArgumentException e) {
+                    errors.add("第" + (i + 1) + "条语句：" + e.getMessage());
+                    continue;
+                }
+                if (base == null) {
+                    errors.add("第" + (i + 1) + "条语句：未找到表 " + alterTarget + " 的表模型");
+                } else if (existing >= 0) {
+                    tables.set(existing, parser.applyAlter(base, statement));
+                } else {
+                    tables.add(parser.applyAlter(base, statement));
+                }
+                continue;
+            }
+            // 未修改的语句命中解析缓存，只有正在编辑的语句会真正重新解析
+            DDLParser.Table table = parser.parseStatement(statement);
+            if (table != null && !table.columns().isEmpty()) {
+                tables.add(table);
+            } else if (CREATE_TABLE.matcher(statement).matches()) {
+                errors.add("第" + (i + 1) + "条语句解析失败或无字段定义");
+            }
+        }
+
+        String structure = describeTables(tables);
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (generation != parseGeneration.get()) {
+                return;
+            }
+            showParseResult(tables, structure, errors);
+        }, ModalityState.any());
+    }
+
+    private static int indexOfTable(List<DDLParser.Table> tables, String name) {
+        for (int i = 0; i < tables.size(); i++) {
+            if (tables.get(i).name().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String describeTables(List<DDLParser.Table> tables) {
+        FieldTypeMapper typeMapper = getPreviewTypeMapper();
+        StringBuilder builder = new StringBuilder();
+        int shown = Math.min(tables.size(), MAX_PREVIEW_TABLES);
+        for (int i = 0; i < shown; i++) {
+            DDLParser.Table table = tables.get(i);
+            builder.append(table.name());
+            if (!table.comment().isEmpty()) {
+                builder.append("  -- ").append(table.comment());
+            }
+            builder.append('\n');
+            for (DDLParser.Column column : table.columns()) {
+                builder.append("    ").append(column.originalName())
+                        .append("  ").append(column.type())
+                        .append(column.notNull() ? " NOT NULL" : "")
+                        .append("  →  ").append(typeMapper.getJavaType(column.type()))
+                        .append(' ').append(column.name())
+                        .append('\n');
+            }
+        }
+        if (tables.size() > shown) {
+            builder.append("... 另有 ").append(tables.size() - shown).append(" 张表未展示\n");
+        }
+        return builder.toString();
+    }
+
+    private void showParseResult(List<DDLParser.Table> tables, String structure, List<String> errors) {
+        parsedTables = tables;
+        structureArea.setText(structure);
+        structureArea.setCaretPosition(0);
+
+        Object selected = tableComboBox.getSelectedItem();
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        tables.stream().limit(MAX_PREVIEW_TABLES).forEach(t -> model.addElement(t.name()));
+        tableComboBox.setModel(model);
+        if (selected != null) {
+            tableComboBox.setSelectedItem(selected);
+        }
+
+        if (errors.isEmpty()) {
+            statusLabel.setText("已识别 " + tables.size() + " 张表");
+        } else {
+            statusLabel.setText("已识别 " + tables.size() + " 张表，" + String.join("；", errors));
+        }
+        scheduleRender();
+    }
+
+    /**
+     * 预览按需渲染：只在预览页可见时渲染当前选中的表和组件
+     */
+    private void scheduleRender() {
+        if (previewTabs == null || previewTabs.getSelectedIndex() != 1) {
+            return;
+        }
+        int generation = renderGeneration.incrementAndGet();
+        String tableName = (String) tableComboBox.getSelectedItem();
+        String component = (String) componentComboBox.getSelectedItem();
+        List<DDLParser.Table> tables = parsedTables;
+        renderAlarm.cancelAllRequests();
+        renderAlarm.addRequest(() -> runRender(tables, tableName, component, generation), 0);
+    }
+
+    private void runRender(List<DDLParser.Table> tables, String tableName, String component, int generation) {
+        String text;
+        try {
+            CodeGenerator generator = getPreviewGenerator();
+            if (component == null) {
+                List<String> components = listComponents();
+                ApplicationManager.getApplication().invokeLater(() -> fillComponents(components),
+                        ModalityState.any());
+                return;
+            }
+            DDLParser.Table table = tables.stream()
+                    .filter(t -> t.name().equals(tableName))
+                    .findFirst()
+                    .orElse(null);
+            if (table == null) {
+                text = "";
+            } else {
+                String[] parts = component.split("/", 2);
+                text = generator.renderComponent(table, parts[0], parts[1]);
+                if (text.isEmpty()) {
+                    text = "// 当前配置下不生成该组件";
+                }
+            }
+        } catch (Exception e) {
+            log.warn("预览渲染失败", e);
+            text = "预览渲染失败: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+
+        String result = text;
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (generation != renderGeneration.get()) {
+                return;
+            }
+            previewArea.setText(result);
+            previewArea.setCaretPosition(0);
+        }, ModalityState.any());
+    }
+
+    private void fillComponents(List<String> components) {
+        if (componentComboBox.getItemCount() == 0 && !components.isEmpty()) {
+            componentComboBox.setModel(new DefaultComboBoxModel<>(components.toArray(new String[0])));
+            scheduleRender();
+        }
+    }
+
+    private List<String> listComponents() throws Exception {
+        List<String> components = new ArrayList<>();
+        DDDConfiguration config = new DDDConfigManager().loadConfiguration();
+        for (Map.Entry<String, Map<String, ComponentConfig>> layer : config.getAllValidComponents().entrySet()) {
+            layer.getValue().keySet().stream()
+                    .sorted()
+                    .forEach(compType -> components.add(layer.getKey() + "/" + compType));
+        }
+        return components;
+    }
+
+    private CodeGenerator getPreviewGenerator() throws Exception {
+        CodeGenerator generator = previewGenerator;
+        if (generator == null) {
+            DDDConfiguration config = new DDDConfigManager().loadConfiguration();
+            // 预览只渲染、不写文件，用不到项目和项目目录
+            generator = new CodeGenerator(projectBase, getPreviewTypeMapper(), config.isUseLombok(), config);
+            previewGenerator = generator;
+        }
+        return generator;
+    }
+
+    private FieldTypeMapper getPreviewTypeMapper() {
+        FieldTypeMapper typeMapper = previewTypeMapper;
+        if (typeMapper == null) {
+            typeMapper = new FieldTypeMapper();
+            previewTypeMapper = typeMapper;
+        }
+        return typeMapper;
+    }
+
+    /**
+     * 从数据库读取表结构，转成 CREATE TABLE 语句填入输入框供查看和修改
+     */
+    private void importFromDatabase() {
+        JdbcImportDialog importDialog = new JdbcImportDialog(project);
+        if (!importDialog.showAndGet()) {
+            return;
+        }
+        JdbcSchemaReader reader = new JdbcSchemaReader(importDialog.getSource());
+        runImport("导入表结构", indicator -> {
+            try {
+                return reader.readTables(importDialog.getSchema(), importDialog.getTablePattern(),
+                        (done, total) -> reportProgress(indicator, done, total));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 并行解析dump文件，只把其中的 CREATE TABLE 填入输入框，INSERT 等数据语句不进入文本区；
+     * 解析出的表直接用于结构面板和生成，不会再逐条重新解析
+     */
+    private void importFromFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("SQL文件", "sql", "ddl", "txt"));
+        if (chooser.showOpenDialog(getContentPanel()) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        runImport("解析 " + file.getFileName(), indicator -> {
+            List<DDLParser.Table> tables;
+            try {
+                tables = new ParallelDDLParser(parser, ForkJoinPool.commonPool())
+                        .parseFile(file, (done, total) -> reportProgress(indicator, done, total));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (DDLParser.Table table : tables) {
+                if (table.columns().isEmpty()) {
+                    throw new IllegalArgumentException("表 " + table.name() + " 解析失败或无字段定义");
+                }
+            }
+            return tables;
+        });
+    }
+
+    private static void reportProgress(ProgressIndicator indicator, int done, int total) {
+        indicator.checkCanceled();
+        indicator.setFraction((double) done / total);
+        indicator.setText2(done + " / " + total);
+    }
+
+    private void runImport(String title, Function<ProgressIndicator, List<DDLParser.Table>> loader) {
+        new Task.Modal(project, title, true) {
+            private List<DDLParser.Table> tables;
+            private String ddl;
+            private String structure;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                tables = List.copyOf(loader.apply(indicator));
+                StringBuilder builder = new StringBuilder();
+                for (DDLParser.Table table : tables) {
+                    builder.append(DDLParser.toDDL(table)).append('\n');
+                }
+                ddl = builder.toString();
+                structure = describeTables(tables);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (tables.isEmpty()) {
+                    Messages.showWarningDialog(project, "没有找到可用的表定义", title);
+                    return;
+                }
+                ddlTextArea.setText(ddl);
+                ddlTextArea.setCaretPosition(0);
+                // 表已经解析好，取消 setText 触发的重新解析
+                parseGeneration.incrementAndGet();
+                parseAlarm.cancelAllRequests();
+                importedTables = tables;
+                importedDDL = ddl;
+                showParseResult(tables, structure, List.of());
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                log.warn("{}失败", title, error);
+                Messages.showErrorDialog(project, title + "失败: " + error.getMessage(), "错误");
+            }
+        }.queue();
+    }
+
     public String getDDL() {
         return ddlTextArea.getText();
     }
+
+    /**
+     * 对话框实时解析使用的解析器，调用方用它解析 getDDL() 可以命中已有的解析结果
+     */
+    public DDLParser getParser() {
+        return parser;
+    }
+
+    /**
+     * 导入后输入框未被修改时返回导入的表（全部按 CREATE TABLE 处理），否则返回null，由调用方解析 getDDL()
+     */
+    public DDLParser.SchemaChange getImportedChange() {
+        if (importedTables == null || !ddlTextArea.getText().equals(importedDDL)) {
+            return null;
+        }
+        return new DDLParser.SchemaChange(importedTables, List.of());
+    }
 }
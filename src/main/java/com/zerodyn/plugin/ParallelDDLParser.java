@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 大型dump文件的并行解析：先把文件映射到内存，单线程按字节扫描出顶层分号（跳过字符串、标识符引号和注释），
+ * 只保留 CREATE TABLE 语句的区间，再由 ForkJoin 任务并行解码和解析，结果按语句在文件中的顺序返回；
+ * INSERT 等其它语句只被扫描一遍，不会被解码成字符串
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class ParallelDDLParser {
+    // 单个任务至少处理的字节数，太小的任务拆分开销大于收益
+    private static final int MIN_TASK_BYTES = 64 * 1024;
+    private static final byte[] CREATE = "CREATE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TEMPORARY = "TEMPORARY".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TABLE = "TABLE".getBytes(StandardCharsets.US_ASCII);
+
+    private final DDLParser parser;
+    private final ForkJoinPool pool;
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void statementParsed(int done, int total);
+    }
+
+    public ParallelDDLParser() {
+        this(new DDLParser(), ForkJoinPool.commonPool());
+    }
+
+    public ParallelDDLParser(DDLParser parser, ForkJoinPool pool) {
+        this.parser = parser;
+        this.pool = pool;
+    }
+
+    /**
+     * 解析文件中的全部 CREATE TABLE 语句（UTF-8），按出现顺序返回
+     *
+     * @param listener 进度回调，在解析线程中调用；回调抛出的运行时异常会中止解析
+     */
+    public List<DDLParser.Table> parseFile(Path file, ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("文件超过2GB，请拆分后再导入: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(buffer, listener);
+        }
+    }
+
+    /**
+     * 解析UTF-8编码的DDL内容，buffer 的 position/limit 不会被修改；
+     * 结果与 DDLParser.parseAll 相同，没有字段定义的表同样返回，由调用方报错
+     */
+    public List<DDLParser.Table> parse(ByteBuffer buffer, ProgressListener listener) {
+        int[] ranges = createTableRanges(buffer);
+        int count = ranges.length / 2;
+        DDLParser.Table[] results = new DDLParser.Table[count];
+        if (count > 0) {
+            pool.invoke(new ParseTask(buffer, ranges, results, 0, count, new AtomicInteger(), listener));
+        }
+        List<DDLParser.Table> tables = new ArrayList<>(count);
+        for (DDLParser.Table table : results) {
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 扫描顶层语句，返回 CREATE TABLE 语句的 [start, end) 区间，两个int一组；
+     * 规则与 DDLParser.splitStatements 相同，多字节UTF-8字符的每个字节都大于0x7F，不会被误认成分隔符
+     */
+    static int[] createTableRanges(ByteBuffer buffer) {
+        int[] ranges = new int[64];
+        int count = 0;
+        int base = buffer.position();
+        int length = buffer.limit();
+        int start = base;
+        int i = base;
+        while (i <= length) {
+            byte c = i < length ? buffer.get(i) : (byte) ';';
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(buffer, i, c, length);
+            } else if (c == '-' && i + 1 < length && buffer.get(i + 1) == '-') {
+                i = skipLineComment(buffer, i, length);
+            } else if (c == '/' && i + 1 < length && buffer.get(i + 1) == '*') {
+                i = skipBlockComment(buffer, i, length);
+            } else if (c == ';') {
+                if (isCreateTable(buffer, start, i)) {
+                    if (count + 2 > ranges.length) {
+                        ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                    }
+                    ranges[count++] = start;
+                    ranges[count++] = i;
+                }
+                start = ++i;
+            } else {
+                i++;
+            }
+        }
+        return Arrays.copyOf(ranges, count);
+    }
+
+    /**
+     * 跳过开头的空白和注释后，语句是否以 CREATE [TEMPORARY] TABLE 开头
+     */
+    private static boolean isCreateTable(ByteBuffer buffer, int start, int end) {
+        int i = skipBlank(buffer, start, end);
+        if (!matchKeyword(buffer, i, end, CREATE)) {
+            return false;
+        }
+        i = skipBlank(buffer, i + CREATE.length, end);
+        if (matchKeyword(buffer, i, end, TEMPORARY)) {
+            i = skipBlank(buffer, i + TEMPORARY.length, end);
+        }
+        return matchKeyword(buffer, i, end, TABLE);
+    }
+
+    private static int skipBlank(ByteBuffer buffer, int from, int end) {
+        int i = from;
+        while (i < end) {
+            byte c = buffer.get(i);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                i++;
+            } else if (c == '-' && i + 1 < end && buffer.get(i + 1) == '-') {
+                i = skipLineComment(buffer, i, end);
+            } else if (c == '/' && i + 1 < end && buffer.get(i + 1) == '*') {
+                i = skipBlockComment(buffer, i, end);
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean matchKeyword(ByteBuffer buffer, int from, int end, byte[] keyword) {
+        if (from + keyword.length > end) {
+            return false;
+        }
+        for (int k = 0; k < keyword.length; k++) {
+            // 关键字都是ASCII字母，清掉0x20位即转成大写
+            if ((buffer.get(from + k) & 0xDF) != keyword[k]) {
+                return false;
+            }
+        }
+        // 关键字后面必须是分隔符，避免 CREATE TABLES 之类的误判
+        if (from + keyword.length == end) {
+            return true;
+        }
+        byte next = buffer.get(from + keyword.length);
+        return !(Character.isLetterOrDigit(next) || next == '_');
+    }
+
+    private static int skipQuoted(ByteBuffer buffer, int from, byte quote, int length) {
+        int i = from + 1;
+        while (i < length) {
+            byte c = buffer.get(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                // 连续两个引号表示转义
+                if (i + 1 < length && buffer.get(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static int skipLineComment(ByteBuffer buffer, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int skipBlockComment(ByteBuffer buffer, int from, int length) {
+        for (int i = from + 2; i + 1 < length; i++) {
+            if (buffer.get(i) == '*' && buffer.get(i + 1) == '/') {
+                return i + 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 按字节量二分，每个叶子任务解码并解析一段连续的语句，结果写回各自的下标保证顺序
+     */
+    private final class ParseTask extends RecursiveAction {
+        private final ByteBuffer buffer;
+        private final int[] ranges;
+        private final DDLParser.Table[] results;
+        private final int from;
+        private final int to;
+        private final AtomicInteger done;
+        private final ProgressListener listener;
+
+        private ParseTask(ByteBuffer buffer, int[] ranges, DDLParser.Table[] results, int from, int to,
+                          AtomicInteger done, ProgressListener listener) {
+            this.buffer = buffer;
+            this.ranges = ranges;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.done = done;
+            this.listener = listener;
+        }
+
+        /**
+         * 第一个起点不早于字节中点的语句下标，限定在 (from, to) 内保证两半都不为空；
+         * 一张大表和许多小表混在一起时，按语句条数二分会让大表所在的一半明显偏重
+         */
+        private int splitPoint() {
+            int half = ranges[2 * from] + (ranges[2 * (to - 1) + 1] - ranges[2 * from]) / 2;
+            int low = from + 1;
+            int high = to - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ranges[2 * mid] < half) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        protected void compute() {
+            int bytes = ranges[2 * (to - 1) + 1] - ranges[2 * from];
+            if (to - from > 1 && bytes > MIN_TASK_BYTES) {
+                int mid = splitPoint();
+                invokeAll(new ParseTask(buffer, ranges, results, from, mid, done, listener),
+                        new ParseTask(buffer, ranges, results, mid, to, done, listener));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int start = ranges[2 * i];
+                int end = ranges[2 * i + 1];
+                String statement = StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)).toString();
+                DDLParser.Table table = parser.parseStatement(statement);
+                results[i] = table;
+                if (listener != null) {
+                    listener.statementParsed(done.incrementAndGet(), results.length);
+                }
+            }
+        }
+    }
+}
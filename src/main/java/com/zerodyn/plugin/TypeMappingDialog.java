@@ -5,13 +5,30 @@
 package com.zerodyn.plugin;
 
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.SearchTextField;
+import com.intellij.ui.ToolbarDecorator;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * @author JWen
@@ -19,7 +36,9 @@ import java.util.Objects;
  */
 public class TypeMappingDialog extends DialogWrapper {
     private JPanel mainPanel;
-    private JPanel mappingPanel;
+    private JBTable mappingTable;
+    private MappingTableModel tableModel;
+    private TableRowSorter<MappingTableModel> rowSorter;
     private final Map<String, String> initialMappings;
 
     public TypeMappingDialog(Map<String, String> relevantMappings) {
@@ -39,71 +58,129 @@ public class TypeMappingDialog extends DialogWrapper {
                 "<html><b>提示：</b> 配置数据库类型到Java类型的映射关系<br>" +
                         "示例：varchar → String, tinyint(1) → Boolean</html>"
         );
-        mainPanel.add(helpLabel, BorderLayout.NORTH);
 
-        // 映射面板
-        mappingPanel = new JPanel();
-        mappingPanel.setLayout(new BoxLayout(mappingPanel, BoxLayout.Y_AXIS));
-        JScrollPane scrollPane = new JScrollPane(mappingPanel);
-        scrollPane.setPreferredSize(new Dimension(500, 300));
-        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        // 过滤
+        SearchTextField filterField = new SearchTextField(false);
+        filterField.addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                applyFilter(filterField.getText());
+            }
+        });
+
+        JPanel northPanel = new JPanel(new BorderLayout(5, 5));
+        northPanel.add(helpLabel, BorderLayout.NORTH);
+        northPanel.add(filterField, BorderLayout.CENTER);
+        mainPanel.add(northPanel, BorderLayout.NORTH);
+
+        // 映射表格：只渲染可见行，编辑器在开始编辑时才创建
+        tableModel = new MappingTableModel(initialMappings);
+        mappingTable = new JBTable(tableModel);
+        mappingTable.setDefaultEditor(String.class, new DefaultCellEditor(new JBTextField()));
+        mappingTable.setDefaultRenderer(String.class, new ModifiedRowRenderer());
+        mappingTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        rowSorter = new TableRowSorter<>(tableModel);
+        mappingTable.setRowSorter(rowSorter);
+
+        JPanel tablePanel = ToolbarDecorator.createDecorator(mappingTable)
+                .setAddAction(button -> addMappingRow())
+                .setRemoveAction(button -> removeSelectedRows())
+                .disableUpDownActions()
+                .createPanel();
+        tablePanel.setPreferredSize(new Dimension(500, 300));
+        mainPanel.add(tablePanel, BorderLayout.CENTER);
 
         // 操作按钮
-        JButton addButton = new JButton("+ 添加映射");
-        addButton.addActionListener(e -> addMappingRow("", ""));
+        JButton bulkEditButton = new JButton("批量设置Java类型...");
+        bulkEditButton.addActionListener(e -> bulkEditSelectedRows());
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        buttonPanel.add(addButton);
+        buttonPanel.add(bulkEditButton);
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+    }
 
-        // 加载初始映射
-        loadMappings(initialMappings);
+    private void applyFilter(String text) {
+        if (text == null || text.isBlank()) {
+            rowSorter.setRowFilter(null);
+        } else {
+            rowSorter.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(text.trim())));
+        }
     }
 
-    private void loadMappings(Map<String, String> mappings) {
-        SwingUtilities.invokeLater(() -> {
-            mappingPanel.removeAll();
-            mappings.forEach(this::addMappingRow);
-            mappingPanel.revalidate();
-            mappingPanel.repaint();
-        });
+    private void addMappingRow() {
+        stopEditing();
+        int modelRow = tableModel.addRow("", "");
+        int viewRow = mappingTable.convertRowIndexToView(modelRow);
+        if (viewRow >= 0) {
+            mappingTable.setRowSelectionInterval(viewRow, viewRow);
+            mappingTable.scrollRectToVisible(mappingTable.getCellRect(viewRow, 0, true));
+            mappingTable.editCellAt(viewRow, 0);
+        }
     }
 
-    private void addMappingRow(String dbType, String javaType) {
-        JPanel rowPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        rowPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
-
-        JTextField dbField = new JTextField(dbType, 15);
-        JTextField javaField = new JTextField(javaType, 20);
-        JButton removeBtn = new JButton("×");
-
-        rowPanel.add(new JLabel("数据库类型:"));
-        rowPanel.add(dbField);
-        rowPanel.add(new JLabel("→"));
-        rowPanel.add(new JLabel("Java类型:"));
-        rowPanel.add(javaField);
-        rowPanel.add(removeBtn);
-
-        removeBtn.addActionListener(e -> {
-            mappingPanel.remove(rowPanel);
-            mappingPanel.revalidate();
-            mappingPanel.repaint();
-        });
+    private void removeSelectedRows() {
+        stopEditing();
+        int[] modelRows = selectedModelRows();
+        tableModel.removeRows(modelRows);
+    }
+
+    private void bulkEditSelectedRows() {
+        stopEditing();
+        int[] modelRows = selectedModelRows();
+        if (modelRows.length == 0) {
+            Messages.showInfoMessage(mainPanel, "请先选择要修改的映射", "提示");
+            return;
+        }
+        String javaType = Messages.showInputDialog(mainPanel,
+                "为选中的 " + modelRows.length + " 条映射设置Java类型:", "批量设置", null);
+        if (javaType != null && !javaType.isBlank()) {
+            tableModel.setJavaType(modelRows, javaType.trim());
+        }
+    }
 
-        mappingPanel.add(rowPanel);
+    private int[] selectedModelRows() {
+        int[] viewRows = mappingTable.getSelectedRows();
+        int[] modelRows = new int[viewRows.length];
+        for (int i = 0; i < viewRows.length; i++) {
+            modelRows[i] = mappingTable.convertRowIndexToModel(viewRows[i]);
+        }
+        return modelRows;
     }
 
+    private void stopEditing() {
+        if (mappingTable.isEditing()) {
+            mappingTable.getCellEditor().stopCellEditing();
+        }
+    }
+
+    /**
+     * 只返回新增或修改过的映射，未改动的行不会再写回配置文件
+     */
     public Map<String, String> getModifiedMappings() {
+        stopEditing();
         Map<String, String> result = new HashMap<>();
-        for (Component comp : mappingPanel.getComponents()) {
-            if (comp instanceof JPanel row) {
-                JTextField dbField = (JTextField) row.getComponent(1);
-                JTextField javaField = (JTextField) row.getComponent(4);
-                if (!dbField.getText().trim().isEmpty()) {
-                    result.put(dbField.getText().trim().toLowerCase(),
-                            javaField.getText().trim());
-                }
+        for (MappingRow row : tableModel.rows) {
+            String dbType = row.dbType.trim();
+            if (!dbType.isEmpty() && row.isModified()) {
+                result.put(dbType.toLowerCase(), row.javaType.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 被删除或改名的原有数据库类型，保存时要从配置文件中移除；仍被其他行使用的类型不在其中
+     */
+    public Set<String> getRemovedMappings() {
+        stopEditing();
+        Set<String> result = new HashSet<>(tableModel.removedDbTypes);
+        for (MappingRow row : tableModel.rows) {
+            if (row.originalDbType != null) {
+                result.add(row.originalDbType.trim().toLowerCase());
             }
         }
+        for (MappingRow row : tableModel.rows) {
+            result.remove(row.dbType.trim().toLowerCase());
+        }
         return result;
     }
 
@@ -111,4 +188,122 @@ public class TypeMappingDialog extends DialogWrapper {
     protected @Nullable JComponent createCenterPanel() {
         return mainPanel;
     }
-}
\ No newline at end of file
+
+    private static class MappingRow {
+        private final String originalDbType;
+        private final String originalJavaType;
+        private String dbType;
+        private String javaType;
+
+        MappingRow(String dbType, String javaType, boolean added) {
+            this.originalDbType = added ? null : dbType;
+            this.originalJavaType = added ? null : javaType;
+            this.dbType = dbType;
+            this.javaType = javaType;
+        }
+
+        boolean isModified() {
+            return !Objects.equals(originalDbType, dbType) || !Objects.equals(originalJavaType, javaType);
+        }
+    }
+
+    private static class MappingTableModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = {"数据库类型", "Java类型"};
+        private final List<MappingRow> rows;
+        private final Set<String> removedDbTypes = new HashSet<>();
+
+        MappingTableModel(Map<String, String> mappings) {
+            this.rows = new ArrayList<>(mappings.size());
+            mappings.forEach((dbType, javaType) -> rows.add(new MappingRow(dbType, javaType, false)));
+        }
+
+        int addRow(String dbType, String javaType) {
+            rows.add(new MappingRow(dbType, javaType, true));
+            int index = rows.size() - 1;
+            fireTableRowsInserted(index, index);
+            return index;
+        }
+
+        void removeRows(int[] modelRows) {
+            // 从后往前删，避免下标错位
+            int[] sorted = modelRows.clone();
+            Arrays.sort(sorted);
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                MappingRow removed = rows.remove(sorted[i]);
+                if (removed.originalDbType != null) {
+                    removedDbTypes.add(removed.originalDbType.trim().toLowerCase());
+                }
+                fireTableRowsDeleted(sorted[i], sorted[i]);
+            }
+        }
+
+        void setJavaType(int[] modelRows, String javaType) {
+            for (int row : modelRows) {
+                rows.get(row).javaType = javaType;
+                fireTableCellUpdated(row, 1);
+            }
+        }
+
+        boolean isModified(int row) {
+            return rows.get(row).isModified();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return String.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int rowIndex, int columnIndex) {
+            return true;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            MappingRow row = rows.get(rowIndex);
+            return columnIndex == 0 ? row.dbType : row.javaType;
+        }
+
+        @Override
+        public void setValueAt(Object value, int rowIndex, int columnIndex) {
+            MappingRow row = rows.get(rowIndex);
+            String text = value == null ? "" : value.toString();
+            if (columnIndex == 0) {
+                row.dbType = text;
+            } else {
+                row.javaType = text;
+            }
+            fireTableRowsUpdated(rowIndex, rowIndex);
+        }
+    }
+
+    /**
+     * 修改过的行加粗显示
+     */
+    private static class ModifiedRowRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Component component = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            MappingTableModel model = (MappingTableModel) table.getModel();
+            boolean modified = model.isModified(table.convertRowIndexToModel(row));
+            component.setFont(modified ? table.getFont().deriveFont(Font.BOLD) : table.getFont());
+            return component;
+        }
+    }
+}
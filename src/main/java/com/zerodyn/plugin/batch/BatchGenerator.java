@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.batch;
+
+import com.zerodyn.plugin.CodeGenerator;
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.FieldTypeMapper;
+import com.zerodyn.plugin.ParallelDDLParser;
+import com.zerodyn.plugin.cache.ParseResultCache;
+import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import com.zerodyn.plugin.incremental.SchemaStore;
+import com.zerodyn.plugin.service.DDDConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 脱离IDE的批量生成入口，用于CI把一次全量生成拆成N个并行任务：
+ * <pre>
+ * generate --project &lt;目录&gt; --ddl &lt;文件&gt; [--config &lt;ddd-config.json&gt;] [--shard 2/4] [--parse-cache disk]
+ * merge    --project &lt;目录&gt; --shards 4
+ * </pre>
+ * DDL与IDE中的处理相同：CREATE TABLE 直接解析，ALTER/DROP TABLE 应用到项目 .codegen/schema 中上次生成时保存的表模型上，
+ * 生成结束后保存新的表模型。
+ * 每个分片只生成自己负责的 (表, 组件)，把清单条目、汇总和表模型变更写到 .codegen/shards；
+ * 各分片生成的文件和 .codegen/shards 收集到同一目录后执行 merge，得到与单进程生成相同的清单、报告和表模型。
+ * --parse-cache disk 把解析结果缓存到 ~/.codegen/parse-cache，同一台机器上的多个分片和后续运行不再重复解析未变化的语句。
+ * 退出码：0 成功，1 有生成失败或模板问题，2 参数错误
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class BatchGenerator {
+    private static final Logger log = LoggerFactory.getLogger(BatchGenerator.class);
+    private static final String USAGE = """
+            用法:
+              generate --project <目录> --ddl <文件> [--config <ddd-config.json>] [--shard <序号>/<总数>] [--parse-cache memory|disk]
+              merge --project <目录> --shards <总数>""";
+
+    public static void main(String[] args) {
+        int status;
+        try {
+            status = run(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            status = 2;
+        } catch (IOException | RuntimeException e) {
+            log.error("批量生成失败", e);
+            System.err.println("批量生成失败: " + e.getMessage());
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("缺少命令");
+        }
+        Map<String, String> options = parseOptions(args);
+        Path projectBase = Paths.get(require(options, "project")).toAbsolutePath().normalize();
+        GenerationReport report = switch (args[0]) {
+            case "generate" -> generate(projectBase, options);
+            case "merge" -> merge(projectBase, shardCount(require(options, "shards")));
+            default -> throw new IllegalArgumentException("未知命令: " + args[0]);
+        };
+        System.out.println(report.summary());
+        report.getTemplateProblems().forEach(problem -> System.err.println("模板问题: " + problem));
+        report.getViolations().forEach(violation -> System.out.println("规约问题: " + violation));
+        report.getFailures().forEach(failure -> System.err.println("失败: " + failure));
+        return report.isSuccessful() ? 0 : 1;
+    }
+
+    private static GenerationReport generate(Path projectBase, Map<String, String> options) throws IOException {
+        Shard shard = options.containsKey("shard") ? Shard.parse(options.get("shard")) : Shard.ALL;
+        DDDConfigManager configManager = new DDDConfigManager();
+        DDDConfiguration config = options.containsKey("config")
+                ? configManager.loadConfiguration(Paths.get(options.get("config")))
+                : configManager.loadConfiguration();
+        DDLParser parser = new DDLParser(parseCache(options.getOrDefault("parse-cache", "memory")));
+        SchemaStore schemaStore = new SchemaStore(projectBase);
+        DDLParser.SchemaChange change = applyStatements(parser, Paths.get(require(options, "ddl")), schemaStore);
+        CodeGenerator generator = new CodeGenerator(projectBase, new FieldTypeMapper(), config.isUseLombok(), config);
+        GenerationReport report = generator.generate(change.tables(), shard);
+        if (shard.isAll()) {
+            report.save(GenerationReport.reportFile(projectBase));
+            schemaStore.apply(change);
+        } else {
+            report.save(shard.reportFile(projectBase));
+            // 所有分片都要基于同一份旧表模型应用迁移脚本，表模型在 merge 时统一保存
+            SchemaStore.saveChange(shard.schemaChangeFile(projectBase), change);
+        }
+        return report;
+    }
+
+    /**
+     * 先并行解析文件中的全部 CREATE TABLE，结果进入解析缓存；再按顺序应用 CREATE/ALTER/DROP，
+     * 其中的 CREATE TABLE 直接命中缓存，INSERT 等语句只看开头的关键字
+     */
+    private static DDLParser.SchemaChange applyStatements(DDLParser parser, Path ddlFile, SchemaStore schemaStore)
+            throws IOException {
+        new ParallelDDLParser(parser, ForkJoinPool.commonPool()).parseFile(ddlFile, (done, total) -> {
+        });
+        DDLParser.SchemaChange change;
+        try {
+            change = parser.applyStatements(Files.readString(ddlFile, StandardCharsets.UTF_8), schemaStore::load);
+        } catch (IllegalArgumentException e) {
+            // 找不到 ALTER TABLE 的表模型属于输入问题，不是参数错误
+            throw new IOException(e.getMessage(), e);
+        }
+        if (change.tables().stream().anyMatch(table -> table.columns().isEmpty())) {
+            throw new IOException("DDL解析失败或无字段定义: " + ddlFile);
+        }
+        return change;
+    }
+
+    /**
+     * 合并全部分片的清单和报告、保存表模型，完成后删除分片文件
+     */
+    private static GenerationReport merge(Path projectBase, int count) throws IOException {
+        List<GenerationReport> reports = new ArrayList<>(count);
+        List<Path> manifests = new ArrayList<>(count);
+        DDLParser.SchemaChange change = null;
+        for (int index = 1; index <= count; index++) {
+            Shard shard = new Shard(index, count);
+            Path reportFile = shard.reportFile(projectBase);
+            if (!Files.exists(reportFile)) {
+                throw new IOException("缺少分片 " + shard + " 的报告: " + reportFile);
+            }
+            reports.add(GenerationReport.load(reportFile));
+            Path changeFile = shard.schemaChangeFile(projectBase);
+            if (!Files.exists(changeFile)) {
+                throw new IOException("缺少分片 " + shard + " 的表模型变更: " + changeFile);
+            }
+            DDLParser.SchemaChange part = SchemaStore.loadChange(changeFile);
+            if (change != null && !change.equals(part)) {
+                throw new IOException("分片 " + shard + " 使用的DDL或表模型与其它分片不同");
+            }
+            change = part;
+            // 模板校验失败的分片不会写出清单
+            Path manifestFile = shard.manifestFile(projectBase);
+            if (Files.exists(manifestFile)) {
+                manifests.add(manifestFile);
+            }
+        }
+        GenerationReport merged = GenerationReport.merge(reports);
+        GenerationManifest.merge(projectBase, manifests);
+        merged.save(GenerationReport.reportFile(projectBase));
+        new SchemaStore(projectBase).apply(change);
+        for (int index = 1; index <= count; index++) {
+            Shard shard = new Shard(index, count);
+            Files.deleteIfExists(shard.reportFile(projectBase));
+            Files.deleteIfExists(shard.manifestFile(projectBase));
+            Files.deleteIfExists(shard.schemaChangeFile(projectBase));
+        }
+        return merged;
+    }
+
+    private static ParseResultCache parseCache(String mode) {
+        return switch (mode) {
+            case "memory" -> ParseResultCache.getSharedInstance();
+            case "disk" -> ParseResultCache.persistent();
+            default -> throw new IllegalArgumentException("未知的解析缓存模式: " + mode);
+        };
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数格式错误: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static int shardCount(String value) {
+        int count;
+        try {
+            count = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("分片总数应为正整数: " + value, e);
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("分片总数应为正整数: " + value);
+        }
+        return count;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("缺少参数 --" + name);
+        }
+        return value;
+    }
+}
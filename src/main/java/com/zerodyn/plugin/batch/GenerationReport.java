@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 一次生成（或一个分片）的汇总：任务数、写入和跳过的数量、失败信息、规约检查结果、负责的文件列表和流水线统计。
+ * 多个分片的汇总可以合并成与单进程生成相同形式的报告
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class GenerationReport {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String REPORT_FILE = ".codegen/generation-report.json";
+
+    private int shardIndex;
+    private int shardCount;
+    private int tables;
+    // 分给当前分片的 (表, 组件) 任务数
+    private int jobs;
+    private int written;
+    private int skipped;
+    // 直接取自渲染缓存、没有重新渲染的组件数
+    private int cacheHits;
+    // 做过规约检查的文件数，以及其中直接取用缓存结果的数量
+    private int qualityChecked;
+    private int qualityCacheHits;
+    private long elapsedMillis;
+    private List<String> templateProblems = new ArrayList<>();
+    private List<String> failures = new ArrayList<>();
+    // 本次写入的文件中的规约问题，已排序，分片合并后与单进程生成一致
+    private List<String> violations = new ArrayList<>();
+    // 当前分片负责、生成后存在的文件（相对项目根目录），已排序
+    private List<String> files = new ArrayList<>();
+    private List<String> stages = new ArrayList<>();
+
+    public GenerationReport() {
+    }
+
+    public GenerationReport(Shard shard, int tables) {
+        this.shardIndex = shard.index();
+        this.shardCount = shard.count();
+        this.tables = tables;
+    }
+
+    /**
+     * 合并同一次分片生成的全部分片报告：每个分片必须恰好出现一次，文件不能重复
+     */
+    public static GenerationReport merge(List<GenerationReport> parts) {
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("没有可合并的分片报告");
+        }
+        int count = parts.get(0).shardCount;
+        Set<Integer> seen = new HashSet<>();
+        for (GenerationReport part : parts) {
+            if (part.shardCount != count || !seen.add(part.shardIndex)) {
+                throw new IllegalStateException("分片报告不属于同一次生成或有重复: " + part.shardIndex + "/"
+                        + part.shardCount);
+            }
+        }
+        if (seen.size() != count) {
+            throw new IllegalStateException("缺少分片报告，需要 " + count + " 个，只有 " + seen.size() + " 个");
+        }
+        GenerationReport merged = new GenerationReport(Shard.ALL, parts.get(0).tables);
+        Set<String> files = new TreeSet<>();
+        for (GenerationReport part : parts) {
+            merged.jobs += part.jobs;
+            merged.written += part.written;
+            merged.skipped += part.skipped;
+            merged.cacheHits += part.cacheHits;
+            merged.qualityChecked += part.qualityChecked;
+            merged.qualityCacheHits += part.qualityCacheHits;
+            // 分片并行运行，总耗时取最慢的分片
+            merged.elapsedMillis = Math.max(merged.elapsedMillis, part.elapsedMillis);
+            part.templateProblems.stream()
+                    .filter(problem -> !merged.templateProblems.contains(problem))
+                    .forEach(merged.templateProblems::add);
+            merged.failures.addAll(part.failures);
+            merged.violations.addAll(part.violations);
+            for (String file : part.files) {
+                if (!files.add(file)) {
+                    throw new IllegalStateException("多个分片生成了同一个文件: " + file);
+                }
+            }
+            String prefix = "分片 " + part.shardIndex + "/" + part.shardCount + " ";
+            part.stages.forEach(stage -> merged.stages.add(prefix + stage));
+        }
+        merged.files = new ArrayList<>(files);
+        merged.violations.sort(null);
+        return merged;
+    }
+
+    /**
+     * 不分片生成或合并分片后的报告位置
+     */
+    public static Path reportFile(Path projectBase) {
+        return projectBase.resolve(REPORT_FILE);
+    }
+
+    public static GenerationReport load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            GenerationReport report = GSON.fromJson(reader, GenerationReport.class);
+            if (report == null) {
+                throw new IOException("生成报告为空: " + file);
+            }
+            return report;
+        } catch (JsonParseException e) {
+            throw new IOException("生成报告损坏: " + file, e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    public boolean isSuccessful() {
+        return templateProblems.isEmpty() && failures.isEmpty();
+    }
+
+    public String summary() {
+        return (shardCount > 1 ? "分片 " + shardIndex + "/" + shardCount + "：" : "") + tables + " 张表，"
+                + jobs + " 个组件，写入 " + written + " 个文件，" + skipped + " 个无变化或无需生成，"
+                + cacheHits + " 个命中渲染缓存，" + failures.size() + " 个失败，规约检查 " + qualityChecked
+                + " 个文件（" + qualityCacheHits + " 个命中缓存）发现 " + violations.size() + " 个问题，耗时 "
+                + elapsedMillis + " ms";
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public void setWritten(int written) {
+        this.written = written;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public void setCacheHits(int cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(int jobs) {
+        this.jobs = jobs;
+    }
+
+    public int getQualityChecked() {
+        return qualityChecked;
+    }
+
+    public void setQualityChecked(int qualityChecked) {
+        this.qualityChecked = qualityChecked;
+    }
+
+    public int getQualityCacheHits() {
+        return qualityCacheHits;
+    }
+
+    public void setQualityCacheHits(int qualityCacheHits) {
+        this.qualityCacheHits = qualityCacheHits;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<String> getTemplateProblems() {
+        return templateProblems;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<String> files) {
+        this.files = files;
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.batch;
+
+import com.zerodyn.plugin.incremental.GenerationManifest;
+
+import java.nio.file.Path;
+
+/**
+ * 批量生成的分片：按 (表, 层, 组件) 的稳定哈希把生成任务分给 count 个进程，index 从1开始。
+ * 哈希只取决于名字，与表的顺序、机器和JVM无关，所有分片合起来恰好覆盖单进程生成的全部任务
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public record Shard(int index, int count) {
+    public static final Shard ALL = new Shard(1, 1);
+    // 分片清单和报告所在目录，相对项目根目录
+    private static final String SHARD_DIR = ".codegen/shards";
+
+    public Shard {
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("分片序号必须在 1 到 " + count + " 之间: " + index + "/" + count);
+        }
+    }
+
+    /**
+     * 解析 "2/4" 形式的分片参数
+     */
+    public static Shard parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("分片格式应为 序号/总数，如 2/4: " + value);
+        }
+        try {
+            return new Shard(Integer.parseInt(value.substring(0, slash).trim()),
+                    Integer.parseInt(value.substring(slash + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("分片格式应为 序号/总数，如 2/4: " + value, e);
+        }
+    }
+
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    /**
+     * 该任务是否由当前分片生成
+     */
+    public boolean owns(String tableName, String layer, String componentType) {
+        if (count == 1) {
+            return true;
+        }
+        String hash = GenerationManifest.fingerprint(tableName, layer, componentType);
+        return Long.remainderUnsigned(Long.parseUnsignedLong(hash.substring(0, 16), 16), count) == index - 1;
+    }
+
+    /**
+     * 本分片生成的清单条目，合并后写入项目的生成清单
+     */
+    public Path manifestFile(Path projectBase) {
+        return projectBase.resolve(SHARD_DIR).resolve("manifest-" + index + "-of-" + count + ".json");
+    }
+
+    /**
+     * 本分片应用迁移脚本得到的表模型变更，merge 时统一写入项目的表模型
+     */
+    public Path schemaChangeFile(Path projectBase) {
+        return projectBase.resolve(SHARD_DIR).resolve("schema-change-" + index + "-of-" + count + ".json");
+    }
+
+    public Path reportFile(Path projectBase) {
+        return projectBase.resolve(SHARD_DIR).resolve("report-" + index + "-of-" + count + ".json");
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.incremental.SchemaJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * DDL解析结果缓存，按单条CREATE TABLE语句的内容哈希缓存解析出的Table
+ *
+ * @author JWen
+ * @since 2025/4/12
+ */
+public class ParseResultCache {
+    private static final Logger log = LoggerFactory.getLogger(ParseResultCache.class);
+    private static final String CACHE_DIR = ".codegen/parse-cache";
+    // 模型结构或键的计算方式变化时提升版本号，使旧的磁盘缓存失效；v5 及之前为Java序列化格式
+    private static final String CACHE_VERSION = "v6";
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final ParseResultCache SHARED = new ParseResultCache(DEFAULT_MAX_ENTRIES, null);
+
+    private final Cache<String, DDLParser.Table> memoryCache;
+    private final Path persistDir;
+
+    public ParseResultCache(int maxEntries, Path persistDir) {
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+        this.persistDir = persistDir;
+    }
+
+    /**
+     * 会话级共享缓存（仅内存）
+     */
+    public static ParseResultCache getSharedInstance() {
+        return SHARED;
+    }
+
+    /**
+     * 持久化到 ~/.codegen/parse-cache 的缓存，内存部分使用默认容量
+     */
+    public static ParseResultCache persistent() {
+        return persistent(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * 持久化到 ~/.codegen/parse-cache 的缓存，供批量/命令行场景跨进程复用
+     */
+    public static ParseResultCache persistent(int maxEntries) {
+        Path dir = Paths.get(System.getProperty("user.home"), CACHE_DIR.split("/")).resolve(CACHE_VERSION);
+        return new ParseResultCache(maxEntries, dir);
+    }
+
+    /**
+     * 计算语句的内容哈希：引号外连续空白折叠为单个空格后做SHA-256，
+     * 字符串和标识符引号内的内容原样参与哈希（COMMENT 'a  b' 与 COMMENT 'a b' 是不同的语句）；
+     * -- 和 # 行注释同样原样参与哈希，结束注释的换行不会被折叠（a INT, -- x\n b INT 与 a INT, -- x b INT 是不同的语句）；
+     * 只扫描一遍字符，不做正则处理
+     */
+    public String keyOf(String statement) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[512];
+        int pos = 0;
+        boolean started = false;
+        boolean pendingSpace = false;
+        // 当前所在引号，0 表示不在引号内
+        char quote = 0;
+        boolean escaped = false;
+        boolean lineComment = false;
+        for (int i = 0; i < statement.length(); i++) {
+            char c = statement.charAt(i);
+            if (quote == 0 && !lineComment && Character.isWhitespace(c)) {
+                // 首尾空白不参与哈希
+                pendingSpace = started;
+                continue;
+            }
+            if (pos + 4 > buffer.length) {
+                digest.update(buffer, 0, pos);
+                pos = 0;
+            }
+            if (pendingSpace) {
+                buffer[pos++] = 0;
+                buffer[pos++] = ' ';
+                pendingSpace = false;
+            }
+            buffer[pos++] = (byte) (c >>> 8);
+            buffer[pos++] = (byte) c;
+            started = true;
+            if (lineComment) {
+                lineComment = c != '\n';
+            } else if (escaped) {
+                escaped = false;
+            } else if (quote != 0 && c == '\\') {
+                escaped = true;
+            } else if (c == quote) {
+                // 连续两个引号的转义相当于先关闭再打开，不需要单独处理
+                quote = 0;
+            } else if (quote == 0 && (c == '\'' || c == '"' || c == '`')) {
+                quote = c;
+            } else if (quote == 0 && (c == '#' || (c == '-' && statement.startsWith("-", i + 1)))) {
+                lineComment = true;
+            }
+        }
+        digest.update(buffer, 0, pos);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public DDLParser.Table get(String key) {
+        DDLParser.Table table = memoryCache.getIfPresent(key);
+        if (table == null && persistDir != null) {
+            table = readFromDisk(key);
+            if (table != null) {
+                memoryCache.put(key, table);
+            }
+        }
+        return table;
+    }
+
+    public void put(String key, DDLParser.Table table) {
+        memoryCache.put(key, table);
+        if (persistDir != null) {
+            writeToDisk(key, table);
+        }
+    }
+
+    public void invalidateAll() {
+        memoryCache.invalidateAll();
+    }
+
+    private DDLParser.Table readFromDisk(String key) {
+        Path file = pathOf(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            List<DDLParser.Table> tables = SchemaJson.read(file).tables();
+            return tables.size() == 1 ? tables.get(0) : null;
+        } catch (IOException e) {
+            // 缓存文件损坏或格式版本不同时当作未命中处理
+            log.warn("读取解析缓存失败: {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, DDLParser.Table table) {
+        try {
+            // SchemaJson 先写临时文件再原子替换，避免并发读到半个文件
+            SchemaJson.write(pathOf(key), new DDLParser.SchemaChange(List.of(table), List.of()));
+        } catch (IOException e) {
+            log.warn("写入解析缓存失败: {}", key, e);
+        }
+    }
+
+    private Path pathOf(String key) {
+        return persistDir.resolve(key + ".json");
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
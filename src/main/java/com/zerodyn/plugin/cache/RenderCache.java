@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.cache;
+
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 渲染结果的磁盘缓存，位于 ~/.codegen/cache，同一用户的所有项目和分支共用。
+ * keys/ 下按输入指纹（表模型、类型映射、配置、模板）记录输出指纹，objects/ 下按输出指纹存放渲染出的文件内容，
+ * 相同内容只存一份；命中时输出未变的文件不读内容，有变化的直接从缓存复制。
+ * 写入先写临时文件再原子改名，读取不加锁；按最近使用时间淘汰，总大小超过上限时删除最久未用的条目
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class RenderCache {
+    private static final Logger log = LoggerFactory.getLogger(RenderCache.class);
+    private static final String CACHE_DIR = ".codegen/cache";
+    // 缓存格式变化时提升版本号，使旧的磁盘缓存失效
+    private static final String CACHE_VERSION = "v1";
+    private static final long MAX_BYTES = 512L * 1024 * 1024;
+    // 淘汰到上限的这个比例，避免每次生成都触发淘汰
+    private static final double EVICT_TO_RATIO = 0.8;
+    // 最近使用时间的精度：更新过的条目在这段时间内不再重复更新
+    private static final long TOUCH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    // 渲染还取决于生成器自身的代码，插件升级后不复用旧版本的结果
+    private static final String BUILD_STAMP = buildStamp();
+    private static final RenderCache SHARED = new RenderCache(
+            Paths.get(System.getProperty("user.home"), CACHE_DIR.split("/")).resolve(CACHE_VERSION), MAX_BYTES);
+
+    private final Path keysDir;
+    private final Path objectsDir;
+    private final long maxBytes;
+    // 本进程写入的字节数，没有新写入时不做淘汰扫描
+    private final AtomicLong bytesAdded = new AtomicLong();
+
+    public RenderCache(Path dir, long maxBytes) {
+        this.keysDir = dir.resolve("keys");
+        this.objectsDir = dir.resolve("objects");
+        this.maxBytes = maxBytes;
+    }
+
+    public static RenderCache getSharedInstance() {
+        return SHARED;
+    }
+
+    /**
+     * 查找输入指纹对应的输出指纹
+     *
+     * @return 输出指纹；渲染结果为空时返回空串；未命中或内容已被淘汰时返回null
+     */
+    public String lookup(String inputFingerprint) {
+        Path keyFile = pathOf(keysDir, key(inputFingerprint));
+        try {
+            String outputFingerprint = Files.readString(keyFile, StandardCharsets.US_ASCII);
+            if (!outputFingerprint.isEmpty() && !touch(pathOf(objectsDir, outputFingerprint))) {
+                return null;
+            }
+            touch(keyFile);
+            return outputFingerprint;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("读取渲染缓存失败: {}", keyFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存渲染结果，返回其输出指纹（与生成清单中的一致）；写入失败只记录日志
+     */
+    public String put(String inputFingerprint, String content) {
+        String outputFingerprint = content.isEmpty() ? "" : GenerationManifest.fingerprint(content);
+        try {
+            if (!outputFingerprint.isEmpty()) {
+                Path object = pathOf(objectsDir, outputFingerprint);
+                if (!touch(object)) {
+                    writeAtomically(object, content.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            writeAtomically(pathOf(keysDir, key(inputFingerprint)),
+                    outputFingerprint.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            log.warn("写入渲染缓存失败: {}", inputFingerprint, e);
+        }
+        return outputFingerprint;
+    }
+
+    /**
+     * 把缓存的内容复制到目标文件
+     *
+     * @return 内容已被淘汰时返回false，调用方需要重新渲染
+     */
+    public boolean copyTo(String outputFingerprint, Path target) throws IOException {
+        Path object = pathOf(objectsDir, outputFingerprint);
+        try {
+            Files.createDirectories(target.getParent());
+            // 不用硬链接：生成的文件会被用户直接修改，链接会把修改带进共享的缓存
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            if (Files.exists(object)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 总大小超过上限时按最近使用时间删除最旧的条目；其它进程同时读取或淘汰不受影响
+     */
+    public void evictIfNeeded() {
+        if (bytesAdded.getAndSet(0) == 0) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        for (Path dir : List.of(keysDir, objectsDir)) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    }
+                    // 其它进程正在写入的临时文件不计入，崩溃遗留的过一段时间后照常淘汰
+                    boolean writing = file.getFileName().toString().endsWith(".tmp")
+                            && System.currentTimeMillis() - attributes.lastModifiedTime().toMillis()
+                            < TOUCH_INTERVAL_MILLIS;
+                    if (attributes.isRegularFile() && !writing) {
+                        entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                        total += attributes.size();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("扫描渲染缓存失败: {}", dir, e);
+                return;
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(Entry::lastUsed));
+        long target = (long) (maxBytes * EVICT_TO_RATIO);
+        int removed = 0;
+        for (Entry entry : entries) {
+            if (total <= target) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.file());
+                total -= entry.size();
+                removed++;
+            } catch (IOException e) {
+                log.debug("删除渲染缓存条目失败: {}", entry.file(), e);
+            }
+        }
+        log.info("渲染缓存超过 {} MB，淘汰了 {} 个最久未用的条目", maxBytes / 1024 / 1024, removed);
+    }
+
+    private record Entry(Path file, long size, long lastUsed) {
+    }
+
+    private void writeAtomically(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        bytesAdded.addAndGet(bytes.length);
+    }
+
+    /**
+     * 更新最近使用时间，文件已被淘汰时返回false
+     */
+    private static boolean touch(Path file) {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - Files.getLastModifiedTime(file).toMillis() > TOUCH_INTERVAL_MILLIS) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(now));
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            // 只影响淘汰顺序
+            return true;
+        }
+    }
+
+    private static String key(String inputFingerprint) {
+        return GenerationManifest.fingerprint(BUILD_STAMP, inputFingerprint);
+    }
+
+    /**
+     * 按前两位十六进制分子目录，避免单个目录下文件过多
+     */
+    private static Path pathOf(Path dir, String hash) {
+        return dir.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    /**
+     * 插件jar的名称、大小和修改时间；从目录运行（开发调试）时没有可靠的标识，按同一版本处理
+     */
+    private static String buildStamp() {
+        try {
+            CodeSource codeSource = RenderCache.class.getProtectionDomain().getCodeSource();
+            if (codeSource != null) {
+                Path location = Paths.get(codeSource.getLocation().toURI());
+                if (Files.isRegularFile(location)) {
+                    return location.getFileName() + ":" + Files.size(location) + ":"
+                            + Files.getLastModifiedTime(location).toMillis();
+                }
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            log.debug("无法确定插件版本，渲染缓存按开发版本处理", e);
+        }
+        return "dev";
+    }
+}
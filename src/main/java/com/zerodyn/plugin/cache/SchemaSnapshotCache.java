@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.incremental.SchemaJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 从数据库导入的表结构快照缓存，key 由连接地址、schema 和迁移版本计算得出，
+ * 版本不变时重复导入不再查询元数据；内存中保留最近几个快照，同时以JSON（格式见 SchemaJson）持久化到 ~/.codegen/schema-cache
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class SchemaSnapshotCache {
+    private static final Logger log = LoggerFactory.getLogger(SchemaSnapshotCache.class);
+    private static final String CACHE_DIR = ".codegen/schema-cache";
+    // 缓存目录的版本，v1 为Java序列化格式；之后表模型的变化由 SchemaJson 的格式版本判断
+    private static final String CACHE_VERSION = "v2";
+    private static final int MAX_SNAPSHOTS = 16;
+    private static final SchemaSnapshotCache SHARED = new SchemaSnapshotCache(
+            Paths.get(System.getProperty("user.home"), CACHE_DIR.split("/")).resolve(CACHE_VERSION));
+
+    private final Cache<String, List<DDLParser.Table>> memoryCache = Caffeine.newBuilder()
+            .maximumSize(MAX_SNAPSHOTS)
+            .build();
+    private final Path persistDir;
+
+    public SchemaSnapshotCache(Path persistDir) {
+        this.persistDir = persistDir;
+    }
+
+    public static SchemaSnapshotCache getSharedInstance() {
+        return SHARED;
+    }
+
+    public List<DDLParser.Table> get(String key) {
+        List<DDLParser.Table> tables = memoryCache.getIfPresent(key);
+        if (tables == null && persistDir != null) {
+            tables = readFromDisk(key);
+            if (tables != null) {
+                memoryCache.put(key, tables);
+            }
+        }
+        return tables;
+    }
+
+    public void put(String key, List<DDLParser.Table> tables) {
+        List<DDLParser.Table> snapshot = List.copyOf(tables);
+        memoryCache.put(key, snapshot);
+        if (persistDir != null) {
+            writeToDisk(key, snapshot);
+        }
+    }
+
+    private List<DDLParser.Table> readFromDisk(String key) {
+        Path file = pathOf(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return SchemaJson.read(file).tables();
+        } catch (IOException e) {
+            // 缓存文件损坏或格式版本不同时当作未命中处理
+            log.warn("读取表结构快照失败: {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, List<DDLParser.Table> tables) {
+        try {
+            // SchemaJson 先写临时文件再原子替换，失败时删除临时文件
+            SchemaJson.write(pathOf(key), new DDLParser.SchemaChange(tables, List.of()));
+        } catch (IOException e) {
+            log.warn("写入表结构快照失败: {}", key, e);
+        }
+    }
+
+    private Path pathOf(String key) {
+        return persistDir.resolve(key + ".json");
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.config;
+
+/**
+ * 生成的CachingRepository的缓存参数，可以按表单独配置
+ *
+ * @author JWen
+ * @since 2025/4/14
+ */
+public class CacheSettings {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+    public static final long DEFAULT_EXPIRE_AFTER_WRITE_SECONDS = 600L;
+
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private long expireAfterWriteSeconds = DEFAULT_EXPIRE_AFTER_WRITE_SECONDS;
+
+    public CacheSettings() {
+    }
+
+    public CacheSettings(long maximumSize, long expireAfterWriteSeconds) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteSeconds = expireAfterWriteSeconds;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize > 0 ? maximumSize : DEFAULT_MAXIMUM_SIZE;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public long getExpireAfterWriteSeconds() {
+        return expireAfterWriteSeconds > 0 ? expireAfterWriteSeconds : DEFAULT_EXPIRE_AFTER_WRITE_SECONDS;
+    }
+
+    public void setExpireAfterWriteSeconds(long expireAfterWriteSeconds) {
+        this.expireAfterWriteSeconds = expireAfterWriteSeconds;
+    }
+}
@@ -11,12 +11,21 @@ import java.util.Objects;
  * @since 2025/4/5
  */
 public class ComponentConfig {
+    private static final String DEFAULT_SOURCE_ROOT = "src/main/java";
+
     private String basePackage;
     private String templateFile;
+    private String sourceRoot;
+    private Boolean enabled;
 
     public ComponentConfig(String basePackage, String templateFile) {
+        this(basePackage, templateFile, DEFAULT_SOURCE_ROOT);
+    }
+
+    public ComponentConfig(String basePackage, String templateFile, String sourceRoot) {
         this.basePackage = Objects.requireNonNull(basePackage, "Base package cannot be null");
         this.templateFile = Objects.requireNonNull(templateFile, "Template file cannot be null");
+        this.sourceRoot = sourceRoot;
     }
 
     public String getBasePackage() {
@@ -29,6 +38,30 @@ public class ComponentConfig {
         return templateFile;
     }
 
+    /**
+     * 组件输出的源码根目录（相对模块），测试类输出到 src/test/java
+     */
+    public String getSourceRoot() {
+        // 旧版本保存的配置中没有该字段
+        return sourceRoot == null || sourceRoot.isBlank() ? DEFAULT_SOURCE_ROOT : sourceRoot;
+    }
+
+    public void setSourceRoot(String sourceRoot) {
+        this.sourceRoot = sourceRoot;
+    }
+
+    /**
+     * 可选组件默认关闭，需要在配置中显式启用
+     */
+    public boolean isEnabled() {
+        // 旧版本保存的配置中没有该字段，视为启用
+        return enabled == null || enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
     public void setBasePackage(String basePackage) {
         this.basePackage = basePackage;
     }
@@ -7,6 +7,7 @@ package com.zerodyn.plugin.config;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -16,8 +17,32 @@ import java.util.Set;
  * @since 2025/4/5
  */
 public class DDDConfiguration {
+    private static final int DEFAULT_JDBC_BATCH_SIZE = 500;
+    // 各层可选的生成模式，第一个为默认值
+    private static final Map<String, List<String>> LAYER_MODES = Map.of(
+            "infrastructure", List.of("JPA", "JDBC"),
+            "interfaces", List.of("BLOCKING", "VIRTUAL_THREAD", "REACTIVE")
+    );
+
+    // 生成风格：LOMBOK（@Data类）、PLAIN（手写getter/setter）、RECORD（DTO为record，紧凑字段布局），第一个为默认值
+    private static final List<String> GENERATION_STYLES = List.of("LOMBOK", "PLAIN", "RECORD");
+    // 模板引擎：FREEMARKER（解释执行）、COMPILED（模板编译为Java类，不支持的模板仍用FreeMarker），第一个为默认值
+    private static final List<String> TEMPLATE_ENGINES = List.of("FREEMARKER", "COMPILED");
+    // 读写分离的读侧组件，只在启用CQRS时生成
+    private static final Set<String> CQRS_COMPONENTS = Set.of(
+            "QueryDTO", "QueryRepository", "QueryService", "QueryRepositoryImpl"
+    );
+
     private final Map<String, LayerConfig> layers;
     private boolean enableCQRS = false;
+    private Integer jdbcBatchSize;
+    private String generationStyle;
+    private String templateEngine;
+    // 旧版本保存的配置中没有该字段，按开启处理
+    private Boolean qualityCheck;
+    // 按表名配置的缓存参数，未配置的表使用 defaultCache
+    private Map<String, CacheSettings> tableCaches;
+    private CacheSettings defaultCache;
 
     public DDDConfiguration() {
         this.layers = new LinkedHashMap<>();
@@ -35,10 +60,12 @@ public class DDDConfiguration {
     private boolean isValidComponentType(String layer, String componentType) {
         // 定义每个层允许的组件类型白名单
         Map<String, Set<String>> validComponents = Map.of(
-                "domain", Set.of("Entity", "Repository"),
-                "application", Set.of("Service", "DTO"),
-                "infrastructure", Set.of("RepositoryImpl"),
-                "interfaces", Set.of("Controller")
+                "domain", Set.of("Entity", "Repository", "ReactiveRepository"),
+                "application", Set.of("Service", "DTO", "Mapper", "QueryDTO", "QueryRepository", "QueryService",
+                        "ReactiveService"),
+                "infrastructure", Set.of("RepositoryImpl", "RepositoryImplTest", "CachingRepository",
+                        "QueryRepositoryImpl", "R2dbcRepositoryImpl"),
+                "interfaces", Set.of("Controller", "Codec", "Benchmark")
         );
         return validComponents.getOrDefault(layer, Collections.emptySet())
                 .contains(componentType);
@@ -49,8 +76,9 @@ public class DDDConfiguration {
         layers.forEach((layerName, layerConfig) -> {
             Map<String, ComponentConfig> validComponents = new HashMap<>();
             layerConfig.getComponents().forEach((compType, config) -> {
-                // 严格过滤组件类型
-                if (isValidComponentType(layerName, compType)) {
+                // 严格过滤组件类型，未启用的可选组件不生成
+                if (isValidComponentType(layerName, compType) && config.isEnabled()
+                        && (enableCQRS || !CQRS_COMPONENTS.contains(compType))) {
                     validComponents.put(compType, config);
                 }
             });
@@ -64,23 +92,51 @@ public class DDDConfiguration {
     private LayerConfig createDomainLayer() {
         return new LayerConfig()
                 .addComponent("Entity", "domain.model", "EntityTemplate.ftl")
-                .addComponent("Repository", "domain.repository", "RepositoryTemplate.ftl");
+                .addComponent("Repository", "domain.repository", "RepositoryTemplate.ftl")
+                .addComponent("ReactiveRepository", "domain.repository", "ReactiveRepositoryTemplate.ftl");
     }
 
     private LayerConfig createApplicationLayer() {
         return new LayerConfig()
                 .addComponent("Service", "application.service", "ServiceTemplate.ftl")
-                .addComponent("DTO", "application.dto", "DtoTemplate.ftl");
+                .addComponent("DTO", "application.dto", "DtoTemplate.ftl")
+                .addComponent("Mapper", "application.mapper", "MapperTemplate.ftl")
+                .addComponent("QueryDTO", "application.query", "QueryDtoTemplate.ftl")
+                .addComponent("QueryRepository", "application.query", "QueryRepositoryTemplate.ftl")
+                .addComponent("QueryService", "application.query", "QueryServiceTemplate.ftl")
+                .addComponent("ReactiveService", "application.service", "ReactiveServiceTemplate.ftl");
     }
 
     private LayerConfig createInfrastructureLayer() {
         return new LayerConfig()
-                .addComponent("RepositoryImpl", "infrastructure.persistence", "RepositoryImplTemplate.ftl");
+                .withGenerationMode(getSupportedModes("infrastructure").get(0))
+                .addComponent("RepositoryImpl", "infrastructure.persistence", "RepositoryImplTemplate.ftl")
+                .addComponent("RepositoryImplTest", "infrastructure.persistence",
+                        "RepositoryImplTestTemplate.ftl", "src/test/java")
+                .addComponent("QueryRepositoryImpl", "infrastructure.query", "QueryRepositoryImplTemplate.ftl")
+                .addComponent("R2dbcRepositoryImpl", "infrastructure.r2dbc", "R2dbcRepositoryImplTemplate.ftl")
+                .addOptionalComponent("CachingRepository", "infrastructure.cache", "CachingRepositoryTemplate.ftl");
     }
 
     private LayerConfig createInterfacesLayer() {
         return new LayerConfig()
-                .addComponent("Controller", "interfaces.rest", "ControllerTemplate.ftl");
+                .withGenerationMode(getSupportedModes("interfaces").get(0))
+                .addComponent("Controller", "interfaces.rest", "ControllerTemplate.ftl")
+                .addOptionalComponent("Codec", "interfaces.codec", "CodecTemplate.ftl")
+                .addOptionalComponent("Benchmark", "interfaces.benchmark", "BenchmarkTemplate.ftl", "src/test/java");
+    }
+
+    /**
+     * 补齐默认配置中有、但旧版本保存的配置文件中缺少的组件
+     */
+    public void mergeDefaults() {
+        new DDDConfiguration().layers.forEach((layerName, defaults) -> {
+            LayerConfig layer = getLayer(layerName);
+            defaults.getComponents().forEach(layer::putComponentIfAbsent);
+            if (layer.getGenerationMode() == null) {
+                layer.setGenerationMode(defaults.getGenerationMode());
+            }
+        });
     }
 
     public LayerConfig getLayer(String layerName) {
@@ -92,6 +148,100 @@ public class DDDConfiguration {
         return layers;
     }
 
+    public static List<String> getSupportedModes(String layerName) {
+        return LAYER_MODES.getOrDefault(layerName, Collections.emptyList());
+    }
+
+    public static List<String> getSupportedStyles() {
+        return GENERATION_STYLES;
+    }
+
+    public String getGenerationStyle() {
+        // 旧版本保存的配置中没有该字段
+        return generationStyle != null && GENERATION_STYLES.contains(generationStyle)
+                ? generationStyle : GENERATION_STYLES.get(0);
+    }
+
+    public void setGenerationStyle(String generationStyle) {
+        this.generationStyle = generationStyle;
+    }
+
+    public static List<String> getSupportedEngines() {
+        return TEMPLATE_ENGINES;
+    }
+
+    public String getTemplateEngine() {
+        return templateEngine != null && TEMPLATE_ENGINES.contains(templateEngine)
+                ? templateEngine : TEMPLATE_ENGINES.get(0);
+    }
+
+    public void setTemplateEngine(String templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * 生成后用p3c规约检查本次写入的文件
+     */
+    public boolean isQualityCheck() {
+        return qualityCheck == null || qualityCheck;
+    }
+
+    public void setQualityCheck(boolean qualityCheck) {
+        this.qualityCheck = qualityCheck;
+    }
+
+    public boolean isUseLombok() {
+        return "LOMBOK".equals(getGenerationStyle());
+    }
+
+    /**
+     * RECORD风格下DTO/读模型为不可变record，NOT NULL列使用基本类型并按宽度排列字段
+     */
+    public boolean isCompactLayout() {
+        return "RECORD".equals(getGenerationStyle());
+    }
+
+    /**
+     * JDBC模式下 saveAll 每批提交的行数
+     */
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize == null || jdbcBatchSize <= 0 ? DEFAULT_JDBC_BATCH_SIZE : jdbcBatchSize;
+    }
+
+    public void setJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * 表的缓存参数，表名不区分大小写
+     */
+    public CacheSettings getCacheSettings(String tableName) {
+        CacheSettings settings = tableName == null ? null : getTableCaches().get(tableName.toLowerCase());
+        return settings != null ? settings : getDefaultCache();
+    }
+
+    public Map<String, CacheSettings> getTableCaches() {
+        if (tableCaches == null) {
+            tableCaches = new LinkedHashMap<>();
+        }
+        return tableCaches;
+    }
+
+    public void setTableCaches(Map<String, CacheSettings> tableCaches) {
+        this.tableCaches = new LinkedHashMap<>();
+        tableCaches.forEach((table, settings) -> this.tableCaches.put(table.toLowerCase(), settings));
+    }
+
+    public CacheSettings getDefaultCache() {
+        if (defaultCache == null) {
+            defaultCache = new CacheSettings();
+        }
+        return defaultCache;
+    }
+
+    /**
+     * 启用CQRS时额外生成读侧：投影DTO、只读查询仓储及其JDBC实现、查询服务
+     */
     public boolean isEnableCQRS() {
         return enableCQRS;
     }
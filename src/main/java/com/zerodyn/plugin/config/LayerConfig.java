@@ -14,6 +14,7 @@ import java.util.Map;
 public class LayerConfig {
     private final Map<String, ComponentConfig> components = new HashMap<>();
     private String moduleName;
+    private String generationMode;
 
     public LayerConfig addComponent(String componentType, String basePackage, String template) {
         // 添加前验证组件类型
@@ -23,6 +24,44 @@ public class LayerConfig {
         return this;
     }
 
+    public LayerConfig addComponent(String componentType, String basePackage, String template, String sourceRoot) {
+        if (componentType != null && !componentType.trim().isEmpty()) {
+            components.put(componentType.trim(), new ComponentConfig(basePackage, template, sourceRoot));
+        }
+        return this;
+    }
+
+    /**
+     * 添加默认不启用的可选组件
+     */
+    public LayerConfig addOptionalComponent(String componentType, String basePackage, String template) {
+        if (componentType != null && !componentType.trim().isEmpty()) {
+            ComponentConfig config = new ComponentConfig(basePackage, template);
+            config.setEnabled(false);
+            components.put(componentType.trim(), config);
+        }
+        return this;
+    }
+
+    public LayerConfig addOptionalComponent(String componentType, String basePackage, String template,
+                                            String sourceRoot) {
+        if (componentType != null && !componentType.trim().isEmpty()) {
+            ComponentConfig config = new ComponentConfig(basePackage, template, sourceRoot);
+            config.setEnabled(false);
+            components.put(componentType.trim(), config);
+        }
+        return this;
+    }
+
+    public LayerConfig withGenerationMode(String generationMode) {
+        this.generationMode = generationMode;
+        return this;
+    }
+
+    public void putComponentIfAbsent(String componentType, ComponentConfig config) {
+        components.putIfAbsent(componentType, config);
+    }
+
     public Map<String, ComponentConfig> getComponents() {
         // 返回不可修改的副本
         return Map.copyOf(components);
@@ -35,4 +74,15 @@ public class LayerConfig {
     public void setModuleName(String moduleName) {
         this.moduleName = moduleName;
     }
+
+    /**
+     * 层的生成模式，由模板按模式输出不同实现，如基础设施层的 JPA / JDBC
+     */
+    public String getGenerationMode() {
+        return generationMode;
+    }
+
+    public void setGenerationMode(String generationMode) {
+        this.generationMode = generationMode;
+    }
 }
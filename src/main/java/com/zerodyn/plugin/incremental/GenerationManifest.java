@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.incremental;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 生成清单：记录每个生成文件的输入指纹（表模型、配置、模板）和输出指纹（文件内容），
+ * 输入未变的组件不再渲染，渲染结果未变的文件不再写入，位于项目根目录的 .codegen/manifest.json；
+ * 可被生成流水线的多个线程同时读写
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class GenerationManifest {
+    private static final Logger log = LoggerFactory.getLogger(GenerationManifest.class);
+    private static final String MANIFEST_FILE = ".codegen/manifest.json";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type ENTRIES_TYPE = new TypeToken<TreeMap<String, Entry>>() {
+    }.getType();
+
+    private final Path projectBase;
+    private final Path file;
+    // key 为相对项目根目录的路径，排序后写出便于版本管理时对比
+    private final Map<String, Entry> entries;
+    // 本次生成记录过的文件，分片生成时只输出这部分
+    private final Set<String> recorded = new HashSet<>();
+    private boolean dirty;
+
+    private GenerationManifest(Path projectBase, Map<String, Entry> entries) {
+        this.projectBase = projectBase;
+        this.file = projectBase.resolve(MANIFEST_FILE);
+        this.entries = entries;
+    }
+
+    public static GenerationManifest load(Path projectBase) {
+        Path file = projectBase.resolve(MANIFEST_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, Entry> entries = GSON.fromJson(reader, ENTRIES_TYPE);
+                if (entries != null) {
+                    return new GenerationManifest(projectBase, entries);
+                }
+            } catch (IOException | JsonParseException e) {
+                // 清单损坏时当作首次生成处理
+                log.warn("读取生成清单失败: {}", file, e);
+            }
+        }
+        return new GenerationManifest(projectBase, new TreeMap<>());
+    }
+
+    /**
+     * 输入指纹与上次一致，且文件仍然存在（或上次渲染为空、本就不生成文件），无需重新渲染
+     */
+    public boolean isUpToDate(Path output, String inputFingerprint) {
+        Entry entry = entry(output);
+        return entry != null && inputFingerprint.equals(entry.input)
+                && (entry.output.isEmpty() || Files.exists(output));
+    }
+
+    /**
+     * 渲染结果与上次写入的内容一致且文件仍然存在，无需重写
+     */
+    public boolean isUnchanged(Path output, String outputFingerprint) {
+        Entry entry = entry(output);
+        return entry != null && outputFingerprint.equals(entry.output) && Files.exists(output);
+    }
+
+    private synchronized Entry entry(Path output) {
+        return entries.get(keyOf(output));
+    }
+
+    public synchronized void record(Path output, String inputFingerprint, String outputFingerprint) {
+        Entry entry = new Entry();
+        entry.input = inputFingerprint;
+        entry.output = outputFingerprint;
+        String key = keyOf(output);
+        entries.put(key, entry);
+        recorded.add(key);
+        dirty = true;
+    }
+
+    /**
+     * 当前输入下模板渲染为空，不生成文件
+     */
+    public void recordSkipped(Path output, String inputFingerprint) {
+        record(output, inputFingerprint, "");
+    }
+
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        write(file, entries);
+        dirty = false;
+    }
+
+    /**
+     * 只写出本次生成记录过的条目，供分片生成后合并；不修改项目的清单文件
+     */
+    public synchronized void saveRecorded(Path target) throws IOException {
+        Map<String, Entry> part = new TreeMap<>();
+        recorded.forEach(key -> part.put(key, entries.get(key)));
+        write(target, part);
+    }
+
+    /**
+     * 把各分片写出的条目合并进项目的清单；分片之间的文件互不重叠
+     */
+    public static void merge(Path projectBase, List<Path> parts) throws IOException {
+        GenerationManifest manifest = load(projectBase);
+        for (Path part : parts) {
+            try (Reader reader = Files.newBufferedReader(part, StandardCharsets.UTF_8)) {
+                Map<String, Entry> entries = GSON.fromJson(reader, ENTRIES_TYPE);
+                if (entries == null) {
+                    throw new IOException("分片清单为空: " + part);
+                }
+                manifest.entries.putAll(entries);
+            } catch (JsonParseException e) {
+                throw new IOException("分片清单损坏: " + part, e);
+            }
+        }
+        manifest.dirty = true;
+        manifest.save();
+    }
+
+    private static void write(Path target, Map<String, Entry> entries) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "manifest", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(entries, ENTRIES_TYPE, writer);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 多段内容的SHA-256指纹，段与段之间用\0分隔
+     */
+    public static String fingerprint(String... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (String part : parts) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String keyOf(Path output) {
+        return projectBase.relativize(output).toString().replace('\\', '/');
+    }
+
+    private static class Entry {
+        private String input;
+        private String output;
+    }
+}
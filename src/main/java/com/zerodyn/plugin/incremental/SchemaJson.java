@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.incremental;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.zerodyn.plugin.DDLParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 表模型的JSON文件格式，供 .codegen/schema、分片的表模型变更和表结构快照缓存使用。
+ * 文件带格式版本号，Table/Column/Index/ForeignKey 的字段变化时提升 FORMAT_VERSION，
+ * 旧文件读取时报错而不是读出残缺的模型
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public final class SchemaJson {
+    public static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private SchemaJson() {
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免中断时留下半个文件
+     */
+    public static void write(Path file, DDLParser.SchemaChange change) throws IOException {
+        Document document = new Document();
+        document.version = FORMAT_VERSION;
+        document.tables = change.tables().stream().map(TableData::of).toList();
+        document.dropped = change.dropped();
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(document, writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 读取 write 写出的文件；内容损坏或格式版本不一致时抛出 IOException
+     */
+    public static DDLParser.SchemaChange read(Path file) throws IOException {
+        Document document;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            document = GSON.fromJson(reader, Document.class);
+        } catch (JsonParseException e) {
+            throw new IOException("表模型文件格式错误: " + file, e);
+        }
+        if (document == null || document.version != FORMAT_VERSION) {
+            throw new IOException("表模型文件 " + file + " 的格式版本为 " + (document == null ? "空" : document.version)
+                    + "，当前版本为 " + FORMAT_VERSION);
+        }
+        try {
+            List<DDLParser.Table> tables = new ArrayList<>();
+            for (TableData table : nonNull(document.tables)) {
+                tables.add(table.toTable());
+            }
+            return new DDLParser.SchemaChange(List.copyOf(tables), List.copyOf(nonNull(document.dropped)));
+        } catch (NullPointerException e) {
+            // 必需的字段缺失
+            throw new IOException("表模型文件格式错误: " + file, e);
+        }
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    // Gson 不能反序列化 record，文件内容经由以下可变类读写
+
+    private static class Document {
+        private int version;
+        private List<TableData> tables;
+        private List<String> dropped;
+    }
+
+    private static class TableData {
+        private String name;
+        private String comment;
+        private List<ColumnData> columns;
+        private List<String> primaryKey;
+        private List<IndexData> indexes;
+        private List<ForeignKeyData> foreignKeys;
+
+        private static TableData of(DDLParser.Table table) {
+            TableData data = new TableData();
+            data.name = table.name();
+            data.comment = table.comment();
+            data.columns = table.columns().stream().map(ColumnData::of).toList();
+            data.primaryKey = table.primaryKey();
+            data.indexes = table.indexes().stream().map(IndexData::of).toList();
+            data.foreignKeys = table.foreignKeys().stream().map(ForeignKeyData::of).toList();
+            return data;
+        }
+
+        private DDLParser.Table toTable() {
+            return new DDLParser.Table(Objects.requireNonNull(name),
+                    columns.stream().map(ColumnData::toColumn).toList(),
+                    comment,
+                    List.copyOf(nonNull(primaryKey)),
+                    nonNull(indexes).stream().map(IndexData::toIndex).toList(),
+                    nonNull(foreignKeys).stream().map(ForeignKeyData::toForeignKey).toList());
+        }
+    }
+
+    private static class ColumnData {
+        private String originalName;
+        private String name;
+        private String type;
+        private boolean notNull;
+        private String comment;
+
+        private static ColumnData of(DDLParser.Column column) {
+            ColumnData data = new ColumnData();
+            data.originalName = column.originalName();
+            data.name = column.name();
+            data.type = column.type();
+            data.notNull = column.notNull();
+            data.comment = column.comment();
+            return data;
+        }
+
+        private DDLParser.Column toColumn() {
+            return new DDLParser.Column(Objects.requireNonNull(originalName), Objects.requireNonNull(name),
+                    Objects.requireNonNull(type), notNull, comment);
+        }
+    }
+
+    private static class IndexData {
+        private String name;
+        private List<String> columns;
+        private boolean unique;
+
+        private static IndexData of(DDLParser.Index index) {
+            IndexData data = new IndexData();
+            data.name = index.name();
+            data.columns = index.columns();
+            data.unique = index.unique();
+            return data;
+        }
+
+        private DDLParser.Index toIndex() {
+            return new DDLParser.Index(name, List.copyOf(columns), unique);
+        }
+    }
+
+    private static class ForeignKeyData {
+        private String name;
+        private List<String> columns;
+        private String referencedTable;
+        private List<String> referencedColumns;
+
+        private static ForeignKeyData of(DDLParser.ForeignKey foreignKey) {
+            ForeignKeyData data = new ForeignKeyData();
+            data.name = foreignKey.name();
+            data.columns = foreignKey.columns();
+            data.referencedTable = foreignKey.referencedTable();
+            data.referencedColumns = foreignKey.referencedColumns();
+            return data;
+        }
+
+        private DDLParser.ForeignKey toForeignKey() {
+            return new DDLParser.ForeignKey(name, List.copyOf(columns), referencedTable,
+                    List.copyOf(referencedColumns));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.incremental;
+
+import com.zerodyn.plugin.DDLParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 项目级的表模型存储：保存每张表上次生成代码时的模型，ALTER TABLE 迁移脚本在此基础上应用增量，
+ * 每张表一个JSON文件（格式见 SchemaJson），位于项目根目录的 .codegen/schema 下
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class SchemaStore {
+    private static final String SCHEMA_DIR = ".codegen/schema";
+    // 早期版本用Java序列化保存的表模型，不再读取
+    private static final String LEGACY_SUFFIX = ".table";
+
+    private final Path dir;
+
+    public SchemaStore(Path projectBase) {
+        this.dir = projectBase.resolve(SCHEMA_DIR);
+    }
+
+    /**
+     * 读取表模型，表不存在时返回null；
+     * 文件损坏、格式版本不一致或只有旧格式的文件时抛出 IllegalArgumentException，提示用 CREATE TABLE 重新生成
+     */
+    public DDLParser.Table load(String tableName) {
+        Path file = fileOf(tableName);
+        if (!Files.exists(file)) {
+            if (Files.exists(legacyFileOf(tableName))) {
+                throw new IllegalArgumentException("表 " + tableName + " 的表模型是旧格式，请先用 CREATE TABLE 重新生成该表");
+            }
+            return null;
+        }
+        try {
+            List<DDLParser.Table> tables = SchemaJson.read(file).tables();
+            if (tables.size() != 1) {
+                throw new IOException("表模型文件应当只有一张表: " + file);
+            }
+            return tables.get(0);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("无法读取表 " + tableName + " 的表模型（" + e.getMessage()
+                    + "），请先用 CREATE TABLE 重新生成该表", e);
+        }
+    }
+
+    /**
+     * 保存迁移脚本应用后的结果：写入变更过的表，删除被删除或改名前的表
+     */
+    public void apply(DDLParser.SchemaChange change) throws IOException {
+        for (DDLParser.Table table : change.tables()) {
+            save(table);
+        }
+        for (String tableName : change.dropped()) {
+            Files.deleteIfExists(fileOf(tableName));
+            Files.deleteIfExists(legacyFileOf(tableName));
+        }
+    }
+
+    public void save(DDLParser.Table table) throws IOException {
+        SchemaJson.write(fileOf(table.name()), new DDLParser.SchemaChange(List.of(table), List.of()));
+        Files.deleteIfExists(legacyFileOf(table.name()));
+    }
+
+    /**
+     * 把一次迁移的结果暂存到文件（如批量生成的分片），之后用 loadChange 读回再 apply
+     */
+    public static void saveChange(Path file, DDLParser.SchemaChange change) throws IOException {
+        SchemaJson.write(file, change);
+    }
+
+    public static DDLParser.SchemaChange loadChange(Path file) throws IOException {
+        return SchemaJson.read(file);
+    }
+
+    private Path fileOf(String tableName) {
+        // MySQL表名在大多数平台上不区分大小写
+        return dir.resolve(tableName.toLowerCase() + ".json");
+    }
+
+    private Path legacyFileOf(String tableName) {
+        return dir.resolve(tableName.toLowerCase() + LEGACY_SUFFIX);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.jdbc;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * 从数据库导入表结构的连接参数对话框，除密码外的参数按项目记住
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class JdbcImportDialog extends DialogWrapper {
+    private static final String KEY_PREFIX = "codegen.jdbc.";
+
+    private final PropertiesComponent properties;
+    private final JTextField urlField = new JTextField(40);
+    private final JTextField userField = new JTextField();
+    private final JPasswordField passwordField = new JPasswordField();
+    private final JTextField driverJarField = new JTextField();
+    private final JTextField schemaField = new JTextField();
+    private final JTextField tablePatternField = new JTextField();
+
+    public JdbcImportDialog(Project project) {
+        super(project, true);
+        this.properties = PropertiesComponent.getInstance(project);
+        urlField.setText(properties.getValue(KEY_PREFIX + "url", "jdbc:mysql://localhost:3306/"));
+        userField.setText(properties.getValue(KEY_PREFIX + "user", ""));
+        driverJarField.setText(properties.getValue(KEY_PREFIX + "driverJar", ""));
+        schemaField.setText(properties.getValue(KEY_PREFIX + "schema", ""));
+        tablePatternField.setText(properties.getValue(KEY_PREFIX + "tablePattern", "%"));
+        setTitle("从数据库导入表结构");
+        init();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("JDBC URL:"));
+        panel.add(urlField);
+        panel.add(new JLabel("用户名:"));
+        panel.add(userField);
+        panel.add(new JLabel("密码:"));
+        panel.add(passwordField);
+
+        panel.add(new JLabel("驱动jar（可选）:"));
+        JPanel driverPanel = new JPanel(new BorderLayout(5, 0));
+        JButton browseBtn = new JButton("浏览...");
+        browseBtn.addActionListener(e -> browseDriverJar());
+        driverPanel.add(driverJarField, BorderLayout.CENTER);
+        driverPanel.add(browseBtn, BorderLayout.EAST);
+        panel.add(driverPanel);
+
+        panel.add(new JLabel("数据库/Schema（空为默认）:"));
+        panel.add(schemaField);
+        panel.add(new JLabel("表名模式:"));
+        panel.add(tablePatternField);
+        return panel;
+    }
+
+    @Override
+    protected @Nullable ValidationInfo doValidate() {
+        if (urlField.getText().isBlank()) {
+            return new ValidationInfo("请输入JDBC URL", urlField);
+        }
+        return null;
+    }
+
+    @Override
+    protected void doOKAction() {
+        properties.setValue(KEY_PREFIX + "url", urlField.getText().trim());
+        properties.setValue(KEY_PREFIX + "user", userField.getText().trim());
+        properties.setValue(KEY_PREFIX + "driverJar", driverJarField.getText().trim());
+        properties.setValue(KEY_PREFIX + "schema", schemaField.getText().trim());
+        properties.setValue(KEY_PREFIX + "tablePattern", tablePatternField.getText().trim());
+        super.doOKAction();
+    }
+
+    public JdbcSource getSource() {
+        return new JdbcSource(urlField.getText().trim(), userField.getText().trim(),
+                new String(passwordField.getPassword()), driverJarField.getText().trim());
+    }
+
+    public String getSchema() {
+        return schemaField.getText().trim();
+    }
+
+    public String getTablePattern() {
+        return tablePatternField.getText().trim();
+    }
+
+    private void browseDriverJar() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
+            driverJarField.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+    }
+}
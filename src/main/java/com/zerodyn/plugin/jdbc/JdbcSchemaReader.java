@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.jdbc;
+
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.cache.SchemaSnapshotCache;
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 通过 DatabaseMetaData 读取表结构（列、主键、索引、外键、注释），得到与解析DDL相同的表模型；
+ * 每张表的元数据查询在有界线程池上并发执行，每个线程使用各自的连接，
+ * 结果按 Flyway / Liquibase 的迁移历史缓存，迁移版本不变时重复导入直接使用快照
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class JdbcSchemaReader {
+    private static final Logger log = LoggerFactory.getLogger(JdbcSchemaReader.class);
+    public static final int DEFAULT_PARALLELISM = 8;
+    // 迁移工具自己的历史表，不导入，只用来判断schema版本
+    private static final String FLYWAY_HISTORY = "flyway_schema_history";
+    private static final String LIQUIBASE_HISTORY = "databasechangelog";
+    private static final String[] TABLE_TYPES = {"TABLE", "BASE TABLE"};
+
+    private final ConnectionFactory connectionFactory;
+    private final int parallelism;
+    private final SchemaSnapshotCache cache;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void tableRead(int done, int total);
+    }
+
+    public JdbcSchemaReader(ConnectionFactory connectionFactory) {
+        this(connectionFactory, DEFAULT_PARALLELISM, SchemaSnapshotCache.getSharedInstance());
+    }
+
+    public JdbcSchemaReader(ConnectionFactory connectionFactory, int parallelism, SchemaSnapshotCache cache) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.connectionFactory = connectionFactory;
+        this.parallelism = parallelism;
+        this.cache = cache;
+    }
+
+    /**
+     * 读取 schema 下的表结构
+     *
+     * @param schema           数据库名（MySQL）或 schema 名，为空时使用连接的默认库
+     * @param tableNamePattern 表名模式（支持 % 和 _），为空时读取全部表
+     * @param listener         进度回调，在工作线程中调用；回调抛出的运行时异常会中止导入
+     */
+    public List<DDLParser.Table> readTables(String schema, String tableNamePattern, ProgressListener listener)
+            throws SQLException {
+        String pattern = tableNamePattern == null || tableNamePattern.isBlank() ? "%" : tableNamePattern.trim();
+        List<TableRef> refs;
+        String cacheKey = null;
+        try (Connection connection = connectionFactory.open()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // MySQL驱动默认把库当作catalog，其余数据库大多使用schema
+            boolean catalogOnly = metaData.supportsCatalogsInTableDefinitions()
+                    && !metaData.supportsSchemasInTableDefinitions();
+            String name = schema == null || schema.isBlank()
+                    ? (catalogOnly ? connection.getCatalog() : connection.getSchema())
+                    : schema.trim();
+            String catalog = catalogOnly ? name : null;
+            String schemaName = catalogOnly ? null : name;
+            refs = listTables(metaData, catalog, schemaName, pattern);
+
+            String version = schemaVersion(connection, metaData, catalog, schemaName);
+            if (version != null) {
+                cacheKey = GenerationManifest.fingerprint(metaData.getURL(), String.valueOf(name), pattern, version);
+                List<DDLParser.Table> cached = cache.get(cacheKey);
+                if (cached != null) {
+                    log.info("schema版本未变化，使用缓存的表结构: {} {}", name, version);
+                    return cached;
+                }
+            }
+        }
+        refs.removeIf(ref -> ref.name.equalsIgnoreCase(FLYWAY_HISTORY) || ref.name.equalsIgnoreCase(LIQUIBASE_HISTORY));
+
+        List<DDLParser.Table> tables = readAll(refs, listener);
+        if (cacheKey != null) {
+            cache.put(cacheKey, tables);
+        }
+        return tables;
+    }
+
+    private List<DDLParser.Table> readAll(List<TableRef> refs, ProgressListener listener) throws SQLException {
+        // 同一时刻最多 parallelism 个任务在跑，每个任务用完把连接放回，连接数也就不超过线程数
+        ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+        List<Connection> opened = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger done = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, refs.size())));
+        try {
+            List<Future<DDLParser.Table>> futures = new ArrayList<>(refs.size());
+            for (TableRef ref : refs) {
+                futures.add(executor.submit(() -> {
+                    Connection connection = idle.poll();
+                    if (connection == null) {
+                        connection = connectionFactory.open();
+                        opened.add(connection);
+                    }
+                    try {
+                        DDLParser.Table table = readTable(connection.getMetaData(), ref);
+                        if (listener != null) {
+                            listener.tableRead(done.incrementAndGet(), refs.size());
+                        }
+                        return table;
+                    } finally {
+                        idle.offer(connection);
+                    }
+                }));
+            }
+            // 按 getTables 的顺序收集结果
+            List<DDLParser.Table> tables = new ArrayList<>(refs.size());
+            for (Future<DDLParser.Table> future : futures) {
+                tables.add(future.get());
+            }
+            return tables;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("读取表结构被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("读取表结构失败", cause);
+        } finally {
+            executor.shutdownNow();
+            synchronized (opened) {
+                for (Connection connection : opened) {
+                    closeQuietly(connection);
+                }
+            }
+        }
+    }
+
+    private List<TableRef> listTables(DatabaseMetaData metaData, String catalog, String schema, String pattern)
+            throws SQLException {
+        List<TableRef> refs = new ArrayList<>();
+        try (ResultSet rs = metaData.getTables(catalog, schema, pattern, TABLE_TYPES)) {
+            while (rs.next()) {
+                refs.add(new TableRef(rs.getString("TABLE_CAT"), rs.getString("TABLE_SCHEM"),
+                        rs.getString("TABLE_NAME"), Objects.requireNonNullElse(rs.getString("REMARKS"), "")));
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * 迁移历史表的记录数和最大序号，没有使用迁移工具时返回null（不缓存）；
+     * 历史表按名称在导入的库中查找，与表名模式无关
+     */
+    private String schemaVersion(Connection connection, DatabaseMetaData metaData, String catalog, String schema) {
+        for (String[] history : new String[][]{{FLYWAY_HISTORY, "installed_rank"}, {LIQUIBASE_HISTORY, "orderexecuted"}}) {
+            try {
+                TableRef ref = findTable(metaData, catalog, schema, history[0]);
+                if (ref == null) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT COUNT(*), MAX(" + history[1] + ") FROM "
+                             + qualifiedName(metaData, ref))) {
+                    if (rs.next()) {
+                        return history[0] + ":" + rs.getLong(1) + ":" + rs.getLong(2);
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("读取迁移历史失败: {}", history[0], e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按表名（忽略大小写）查找表；未加引号的名称可能按原样或大写保存
+     */
+    private TableRef findTable(DatabaseMetaData metaData, String catalog, String schema, String tableName)
+            throws SQLException {
+        for (String candidate : new LinkedHashSet<>(List.of(tableName, tableName.toUpperCase()))) {
+            for (TableRef ref : listTables(metaData, catalog, schema, escape(metaData, candidate))) {
+                if (ref.name.equalsIgnoreCase(tableName)) {
+                    return ref;
+                }
+            }
+        }
+        return null;
+    }
+
+    private DDLParser.Table readTable(DatabaseMetaData metaData, TableRef ref) throws SQLException {
+        List<String> primaryKey = readPrimaryKey(metaData, ref);
+        List<DDLParser.Column> columns = new ArrayList<>();
+        // getColumns 的表名参数是模式，表名中的 _ 需要转义，再按表名精确过滤一遍
+        try (ResultSet rs = metaData.getColumns(ref.catalog, escape(metaData, ref.schema),
+                escape(metaData, ref.name), "%")) {
+            while (rs.next()) {
+                if (!ref.name.equals(rs.getString("TABLE_NAME"))) {
+                    continue;
+                }
+                String columnName = rs.getString("COLUMN_NAME");
+                boolean notNull = rs.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls
+                        || containsIgnoreCase(primaryKey, columnName);
+                columns.add(new DDLParser.Column(columnName, DDLParser.snakeToCamel(columnName),
+                        columnType(rs), notNull, Objects.requireNonNullElse(rs.getString("REMARKS"), "")));
+            }
+        }
+        return new DDLParser.Table(ref.name, List.copyOf(columns), ref.remarks, primaryKey,
+                readIndexes(metaData, ref, primaryKey), readForeignKeys(metaData, ref));
+    }
+
+    private List<String> readPrimaryKey(DatabaseMetaData metaData, TableRef ref) throws SQLException {
+        Map<Integer, String> columns = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(ref.catalog, ref.schema, ref.name)) {
+            while (rs.next()) {
+                columns.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        return List.copyOf(columns.values());
+    }
+
+    private List<DDLParser.Index> readIndexes(DatabaseMetaData metaData, TableRef ref, List<String> primaryKey)
+            throws SQLException {
+        Map<String, Map<Integer, String>> columnsByIndex = new LinkedHashMap<>();
+        Map<String, Boolean> uniqueByIndex = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(ref.catalog, ref.schema, ref.name, false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic
+                        || indexName == null || columnName == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, k -> new TreeMap<>())
+                        .put(rs.getInt("ORDINAL_POSITION"), columnName);
+                uniqueByIndex.put(indexName, !rs.getBoolean("NON_UNIQUE"));
+            }
+        }
+        List<DDLParser.Index> indexes = new ArrayList<>();
+        columnsByIndex.forEach((indexName, columns) -> {
+            List<String> columnNames = List.copyOf(columns.values());
+            boolean unique = uniqueByIndex.get(indexName);
+            // 主键自身的索引不再作为普通索引记录
+            if (!(unique && sameColumns(columnNames, primaryKey))) {
+                indexes.add(new DDLParser.Index(indexName, columnNames, unique));
+            }
+        });
+        return List.copyOf(indexes);
+    }
+
+    private List<DDLParser.ForeignKey> readForeignKeys(DatabaseMetaData metaData, TableRef ref) throws SQLException {
+        // 同名外键可能跨多行，按 KEY_SEQ 拼回列清单
+        Map<String, Map<Integer, String[]>> rowsByKey = new LinkedHashMap<>();
+        Map<String, String> referencedTables = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getImportedKeys(ref.catalog, ref.schema, ref.name)) {
+            while (rs.next()) {
+                String referencedTable = rs.getString("PKTABLE_NAME");
+                String keyName = Objects.requireNonNullElse(rs.getString("FK_NAME"), "fk_" + referencedTable);
+                rowsByKey.computeIfAbsent(keyName, k -> new TreeMap<>()).put(rs.getInt("KEY_SEQ"),
+                        new String[]{rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME")});
+                referencedTables.put(keyName, referencedTable);
+            }
+        }
+        List<DDLParser.ForeignKey> foreignKeys = new ArrayList<>();
+        rowsByKey.forEach((keyName, rows) -> {
+            List<String> columns = new ArrayList<>();
+            List<String> referencedColumns = new ArrayList<>();
+            for (String[] row : rows.values()) {
+                columns.add(row[0]);
+                referencedColumns.add(row[1]);
+            }
+            foreignKeys.add(new DDLParser.ForeignKey(keyName, List.copyOf(columns),
+                    referencedTables.get(keyName), List.copyOf(referencedColumns)));
+        });
+        return List.copyOf(foreignKeys);
+    }
+
+    /**
+     * 换算成DDL中的类型写法（如 VARCHAR(32)、DECIMAL(10,2)），使类型映射与粘贴DDL时一致；
+     * 驱动报告的类型名解析器不认识时按 java.sql.Types 归类
+     */
+    static String columnType(ResultSet rs) throws SQLException {
+        int dataType = rs.getInt("DATA_TYPE");
+        int size = rs.getInt("COLUMN_SIZE");
+        int scale = rs.getInt("DECIMAL_DIGITS");
+        String typeName = Objects.requireNonNullElse(rs.getString("TYPE_NAME"), "")
+                .toUpperCase()
+                .replaceAll("\\(.*\\)", "")
+                .replace("UNSIGNED", "")
+                .trim();
+        // MySQL驱动把 tinyint(1) 报告为 BIT(1)
+        if ((dataType == Types.BIT || dataType == Types.BOOLEAN) && size <= 1) {
+            return "BOOLEAN";
+        }
+        if (!DDLParser.isSupportedType(typeName)) {
+            typeName = switch (dataType) {
+                case Types.TINYINT -> "TINYINT";
+                case Types.SMALLINT -> "SMALLINT";
+                case Types.INTEGER -> "INT";
+                case Types.BIGINT -> "BIGINT";
+                case Types.REAL -> "FLOAT";
+                case Types.FLOAT, Types.DOUBLE -> "DOUBLE";
+                case Types.NUMERIC, Types.DECIMAL -> "DECIMAL";
+                case Types.CHAR, Types.NCHAR -> "CHAR";
+                case Types.VARCHAR, Types.NVARCHAR -> "VARCHAR";
+                case Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.CLOB, Types.NCLOB -> "TEXT";
+                case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> "BLOB";
+                case Types.DATE -> "DATE";
+                case Types.TIME, Types.TIME_WITH_TIMEZONE -> "TIME";
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> "TIMESTAMP";
+                case Types.BIT, Types.BOOLEAN -> "BIT";
+                default -> "TEXT";
+            };
+        }
+        return switch (typeName) {
+            case "CHAR", "VARCHAR" -> typeName + "(" + size + ")";
+            case "DECIMAL", "NUMERIC" -> typeName + "(" + size + "," + scale + ")";
+            case "BIT" -> typeName + "(" + size + ")";
+            default -> typeName;
+        };
+    }
+
+    private static String qualifiedName(DatabaseMetaData metaData, TableRef ref) throws SQLException {
+        String quote = metaData.getIdentifierQuoteString().trim();
+        StringBuilder builder = new StringBuilder();
+        if (ref.catalog != null && metaData.supportsCatalogsInDataManipulation()) {
+            builder.append(quote).append(ref.catalog).append(quote).append(metaData.getCatalogSeparator());
+        }
+        if (ref.schema != null && metaData.supportsSchemasInDataManipulation()) {
+            builder.append(quote).append(ref.schema).append(quote).append('.');
+        }
+        return builder.append(quote).append(ref.name).append(quote).toString();
+    }
+
+    private static String escape(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (name == null || escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape)
+                .replace("_", escape + "_")
+                .replace("%", escape + "%");
+    }
+
+    private static boolean sameColumns(List<String> a, List<String> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).equalsIgnoreCase(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        return names.stream().anyMatch(n -> n.equalsIgnoreCase(name));
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("关闭连接失败", e);
+        }
+    }
+
+    private record TableRef(String catalog, String schema, String name, String remarks) {
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.jdbc;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导入表结构用的数据库连接参数；插件本身不带JDBC驱动，可指定驱动jar，
+ * 未指定时使用类路径上已注册的驱动
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public record JdbcSource(String url, String user, String password, String driverJar)
+        implements JdbcSchemaReader.ConnectionFactory {
+    // 同一个驱动jar只加载一次，避免每次导入都创建新的类加载器
+    private static final Map<Path, ClassLoader> DRIVER_LOADERS = new ConcurrentHashMap<>();
+
+    @Override
+    public Connection open() throws SQLException {
+        Properties properties = new Properties();
+        if (user != null && !user.isBlank()) {
+            properties.setProperty("user", user);
+            properties.setProperty("password", password == null ? "" : password);
+        }
+        if (driverJar == null || driverJar.isBlank()) {
+            return DriverManager.getConnection(url, properties);
+        }
+        Connection connection = findDriver().connect(url, properties);
+        if (connection == null) {
+            throw new SQLException("驱动不支持该连接地址: " + url);
+        }
+        return connection;
+    }
+
+    private Driver findDriver() throws SQLException {
+        Path jar = Paths.get(driverJar.trim()).toAbsolutePath().normalize();
+        if (!Files.isRegularFile(jar)) {
+            throw new SQLException("驱动jar不存在: " + jar);
+        }
+        ClassLoader loader = DRIVER_LOADERS.get(jar);
+        if (loader == null) {
+            try {
+                loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, JdbcSource.class.getClassLoader());
+            } catch (IOException e) {
+                throw new SQLException("无法加载驱动jar: " + jar, e);
+            }
+            ClassLoader existing = DRIVER_LOADERS.putIfAbsent(jar, loader);
+            if (existing != null) {
+                loader = existing;
+            }
+        }
+        for (Driver driver : ServiceLoader.load(Driver.class, loader)) {
+            if (driver.acceptsURL(url)) {
+                return driver;
+            }
+        }
+        throw new SQLException("驱动jar中没有支持该连接地址的驱动: " + url);
+    }
+
+    @Override
+    public String toString() {
+        // 不输出密码
+        return "JdbcSource[url=" + url + ", user=" + user + ", driverJar=" + driverJar + "]";
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 流水线中的一级：有界输入队列加固定数量的工作线程。队列满时 submit 阻塞，
+ * 上游因此放慢，整条流水线在途的数据量只取决于各级的队列容量和线程数，与输入总量无关
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class BoundedStage<I> {
+    private static final Logger log = LoggerFactory.getLogger(BoundedStage.class);
+    // 结束标记，每个工作线程取到一个后退出
+    private static final Object END = new Object();
+    // 队列已满时每隔这段时间检查一次是否还有工作线程在取数据
+    private static final long PUT_RETRY_MILLIS = 100;
+
+    private final String name;
+    private final int workers;
+    private final int capacity;
+    private final BlockingQueue<Object> queue;
+    private final Handler<? super I> handler;
+    private final BiConsumer<? super I, Exception> onFailure;
+    private final ExecutorService executor;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    // 上游因队列已满等待的累计时间，反映这一级造成的背压
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicInteger peakDepth = new AtomicInteger();
+    // 仍在运行的工作线程数；被中断的线程会提前退出，全部退出后队列不会再被消费
+    private final AtomicInteger liveWorkers;
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    @FunctionalInterface
+    public interface Handler<I> {
+        /**
+         * 处理一项输入；向下一级 submit 时可能因下游队列已满而阻塞
+         */
+        void handle(I item) throws Exception;
+    }
+
+    /**
+     * @param onFailure 处理失败时在工作线程中调用，之后继续处理后续输入
+     */
+    public BoundedStage(String name, int workers, int capacity, Handler<? super I> handler,
+                        BiConsumer<? super I, Exception> onFailure) {
+        if (workers < 1 || capacity < 1) {
+            throw new IllegalArgumentException("线程数和队列容量必须为正数: " + name);
+        }
+        this.name = name;
+        this.workers = workers;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.handler = handler;
+        this.onFailure = onFailure;
+        this.liveWorkers = new AtomicInteger(workers);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "codegen-" + name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * 提交一项输入，队列已满时阻塞直到有空位
+     *
+     * @throws IllegalStateException 工作线程已全部退出，输入不会再被处理
+     */
+    public void submit(I item) throws InterruptedException {
+        if (!queue.offer(item)) {
+            long start = System.nanoTime();
+            boolean accepted = put(item);
+            blockedNanos.add(System.nanoTime() - start);
+            if (!accepted) {
+                throw new IllegalStateException("流水线 " + name + " 的工作线程已全部退出");
+            }
+        }
+        peakDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * 不再有新的输入：等待已提交的输入全部处理完，工作线程随后退出。
+     * 工作线程提前退出时不再等待放入结束标记，队列中剩余的输入不会被处理
+     */
+    public void finish() throws InterruptedException {
+        for (int i = 0; i < workers; i++) {
+            if (!put(END)) {
+                log.warn("流水线 {} 的工作线程已全部退出，放弃 {} 项未处理的输入", name, queue.size());
+                queue.clear();
+                break;
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * 放弃尚未处理的输入并中断工作线程
+     */
+    public void abort() {
+        queue.clear();
+        executor.shutdownNow();
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * 阻塞放入队列，没有存活的工作线程时返回false，避免在无人消费的满队列上永久等待
+     */
+    private boolean put(Object item) throws InterruptedException {
+        while (!queue.offer(item, PUT_RETRY_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (liveWorkers.get() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            while (true) {
+                Object next = queue.take();
+                if (next == END) {
+                    return;
+                }
+                I item = (I) next;
+                long start = System.nanoTime();
+                try {
+                    handler.handle(item);
+                    processed.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    failed.increment();
+                    reportFailure(item, e);
+                } finally {
+                    busyNanos.add(System.nanoTime() - start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            liveWorkers.decrementAndGet();
+        }
+    }
+
+    /**
+     * 失败回调本身出错时只记录日志，工作线程继续处理后续输入
+     */
+    private void reportFailure(I item, Exception e) {
+        try {
+            onFailure.accept(item, e);
+        } catch (RuntimeException failure) {
+            failure.addSuppressed(e);
+            log.error("流水线 {} 的失败处理出错", name, failure);
+        }
+    }
+
+    public Stats stats() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return new Stats(name, workers, capacity, processed.sum(), failed.sum(), queue.size(), peakDepth.get(),
+                TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()), TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(end - startNanos));
+    }
+
+    /**
+     * 单级的运行统计
+     *
+     * @param busyMillis    所有工作线程处理输入的累计耗时，包括等待下一级队列空位的时间
+     * @param blockedMillis 上游向这一级提交时因队列已满而等待的累计时间
+     * @param elapsedMillis 从创建到结束（或到当前）的墙钟时间
+     */
+    public record Stats(String stage, int workers, int capacity, long processed, long failed,
+                        int queueDepth, int peakQueueDepth, long busyMillis, long blockedMillis,
+                        long elapsedMillis) {
+        /**
+         * 每秒处理的输入数
+         */
+        public double throughput() {
+            return elapsedMillis == 0 ? processed : processed * 1000.0 / elapsedMillis;
+        }
+
+        /**
+         * 工作线程忙碌时间占比，接近1说明这一级是瓶颈
+         */
+        public double utilization() {
+            return elapsedMillis == 0 ? 0 : (double) busyMillis / (elapsedMillis * workers);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[%d线程] 处理 %d 项（失败 %d），%.1f 项/秒，利用率 %.0f%%，队列 %d/%d（峰值 %d），"
+                            + "上游等待 %d ms", stage, workers, processed, failed, throughput(), utilization() * 100,
+                    queueDepth, capacity, peakQueueDepth, blockedMillis);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.postprocess;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成后的代码整理：按项目的代码风格重新缩进并优化import。
+ * 一次生成只做一次：后台刷新VFS、解析PSI，然后在同一个写命令中处理本次写入的全部文件，
+ * 整批只有一次撤销记录，也不会为每个文件单独进出写锁
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class GeneratedSourceFormatter {
+    private static final Logger log = LoggerFactory.getLogger(GeneratedSourceFormatter.class);
+    private static final String COMMAND_NAME = "格式化生成的代码";
+
+    private final Project project;
+
+    public GeneratedSourceFormatter(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 在后台任务中整理指定的文件，文件列表为空时不做任何事
+     *
+     * @param afterFormat 格式化结果写回磁盘后，在同一个后台任务中执行（如规约检查）
+     */
+    public void formatInBackground(List<Path> files, Runnable afterFormat) {
+        if (files.isEmpty()) {
+            return;
+        }
+        new Task.Backgroundable(project, COMMAND_NAME, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                format(files, indicator);
+                indicator.checkCanceled();
+                indicator.setText("检查生成的代码");
+                afterFormat.run();
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                // 整理失败不影响已生成的文件
+                log.warn("格式化生成的代码失败", error);
+            }
+        }.queue();
+    }
+
+    private void format(List<Path> files, ProgressIndicator indicator) {
+        long start = System.nanoTime();
+        indicator.setIndeterminate(true);
+        indicator.setText("刷新生成的文件");
+        // 文件是直接写到磁盘的，先让VFS看到它们；同步刷新不能在读写锁内进行
+        LocalFileSystem fileSystem = LocalFileSystem.getInstance();
+        fileSystem.refreshNioFiles(files);
+        List<VirtualFile> virtualFiles = new ArrayList<>(files.size());
+        for (Path file : files) {
+            VirtualFile virtualFile = fileSystem.findFileByNioFile(file);
+            if (virtualFile != null) {
+                virtualFiles.add(virtualFile);
+            }
+        }
+
+        // 优化import需要解析引用，等索引完成
+        indicator.setText("等待索引完成");
+        DumbService.getInstance(project).waitForSmartMode();
+        indicator.checkCanceled();
+        indicator.setText("解析生成的文件");
+        List<PsiJavaFile> psiFiles = ReadAction.compute(() -> {
+            PsiManager psiManager = PsiManager.getInstance(project);
+            List<PsiJavaFile> result = new ArrayList<>(virtualFiles.size());
+            for (VirtualFile virtualFile : virtualFiles) {
+                if (virtualFile.isValid() && psiManager.findFile(virtualFile) instanceof PsiJavaFile javaFile) {
+                    result.add(javaFile);
+                }
+            }
+            return result;
+        });
+        if (psiFiles.isEmpty()) {
+            return;
+        }
+        indicator.checkCanceled();
+        indicator.setText("格式化 " + psiFiles.size() + " 个文件");
+
+        // 写命令只能在EDT执行，整批文件一次完成
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            List<PsiJavaFile> validFiles = psiFiles.stream().filter(PsiFile::isValid).toList();
+            WriteCommandAction.writeCommandAction(project, validFiles.toArray(PsiFile.EMPTY_ARRAY))
+                    .withName(COMMAND_NAME)
+                    .run(() -> formatAll(validFiles));
+        }, ModalityState.defaultModalityState());
+        log.info("格式化 {} 个生成的文件，耗时 {} ms", psiFiles.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void formatAll(List<PsiJavaFile> files) {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        JavaCodeStyleManager javaStyle = JavaCodeStyleManager.getInstance(project);
+        CodeStyleManager codeStyle = CodeStyleManager.getInstance(project);
+        List<Document> documents = new ArrayList<>(files.size());
+        documentManager.commitAllDocuments();
+        for (PsiJavaFile file : files) {
+            try {
+                javaStyle.optimizeImports(file);
+                codeStyle.reformat(file);
+            } catch (RuntimeException e) {
+                // 单个文件整理失败时保留生成的原样
+                log.warn("格式化失败: {}", file.getVirtualFile().getPath(), e);
+                continue;
+            }
+            Document document = documentManager.getDocument(file);
+            if (document != null) {
+                documentManager.doPostponedOperationsAndUnblockDocument(document);
+                documents.add(document);
+            }
+        }
+        // 写回磁盘，与不打开IDE时看到的文件一致
+        FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
+        documents.forEach(fileDocumentManager::saveDocument);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.quality;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import com.zerodyn.plugin.pipeline.BoundedStage;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.PMDException;
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSetNotFoundException;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.SourceCodeProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用 p3c-pmd 自带的阿里巴巴Java开发规约检查生成的文件。
+ * 检查结果按文件名和内容哈希缓存（内存加 ~/.codegen/quality-cache），内容没变的文件不会再次分析；
+ * 可以被多个线程同时调用，每个线程持有自己的规则集（PMD的规则实例带状态，不能跨线程共用）
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class P3cQualityGate {
+    private static final Logger log = LoggerFactory.getLogger(P3cQualityGate.class);
+    private static final String CACHE_DIR = ".codegen/quality-cache";
+    // 升级p3c-pmd或调整规则集时提升版本号，使旧的检查结果失效
+    private static final String CACHE_VERSION = "v1";
+    private static final int MAX_MEMORY_ENTRIES = 10_000;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final String RULE_SETS = String.join(",",
+            "rulesets/java/ali-comment.xml",
+            "rulesets/java/ali-concurrent.xml",
+            "rulesets/java/ali-constant.xml",
+            "rulesets/java/ali-exception.xml",
+            "rulesets/java/ali-flowcontrol.xml",
+            "rulesets/java/ali-naming.xml",
+            "rulesets/java/ali-oop.xml",
+            "rulesets/java/ali-orm.xml",
+            "rulesets/java/ali-other.xml",
+            "rulesets/java/ali-set.xml");
+    private static final Gson GSON = new Gson();
+    private static final Type VIOLATIONS_TYPE = new TypeToken<List<Violation>>() {
+    }.getType();
+    private static final P3cQualityGate SHARED = new P3cQualityGate(
+            Paths.get(System.getProperty("user.home"), CACHE_DIR.split("/")).resolve(CACHE_VERSION));
+
+    private final Cache<String, List<Violation>> memoryCache = Caffeine.newBuilder()
+            .maximumSize(MAX_MEMORY_ENTRIES)
+            .build();
+    private final Path persistDir;
+    // 规则集加载较慢，每个线程只加载一次
+    private final ThreadLocal<Analyzer> analyzers = ThreadLocal.withInitial(Analyzer::new);
+
+    /**
+     * 单个文件的检查结果
+     *
+     * @param cached 结果取自缓存，没有重新分析
+     */
+    public record Result(List<Violation> violations, boolean cached) {
+    }
+
+    /**
+     * 一批文件的检查汇总
+     *
+     * @param violations 格式化后的问题（相对项目根目录的文件:行号 [规则] 说明），已排序
+     */
+    public record Summary(int checked, int cacheHits, List<String> violations) {
+    }
+
+    public P3cQualityGate(Path persistDir) {
+        this.persistDir = persistDir;
+    }
+
+    public static P3cQualityGate getSharedInstance() {
+        return SHARED;
+    }
+
+    /**
+     * 用 threads 个线程并行检查一批文件；单个文件检查失败只记录日志
+     */
+    public Summary checkAll(List<Path> files, Path projectBase, int threads) throws InterruptedException {
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger cacheHits = new AtomicInteger();
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        BoundedStage<Path> stage = new BoundedStage<>("quality", threads, QUEUE_CAPACITY,
+                file -> {
+                    Result result = check(file);
+                    checked.incrementAndGet();
+                    if (result.cached()) {
+                        cacheHits.incrementAndGet();
+                    }
+                    String relativePath = projectBase.relativize(file).toString().replace('\\', '/');
+                    result.violations().forEach(violation -> violations.add(violation.format(relativePath)));
+                },
+                (file, e) -> log.warn("规约检查失败: {}", file, e));
+        try {
+            for (Path file : files) {
+                stage.submit(file);
+            }
+            stage.finish();
+        } catch (InterruptedException e) {
+            stage.abort();
+            throw e;
+        }
+        log.info("规约检查 {}", stage.stats());
+        return new Summary(checked.get(), cacheHits.get(), violations.stream().sorted().toList());
+    }
+
+    /**
+     * 检查一个源文件；内容与之前检查过的某个同名文件相同时直接返回缓存的结果
+     */
+    public Result check(Path file) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        String fileName = file.getFileName().toString();
+        // 部分规则（如类名与文件名）取决于文件名
+        String key = GenerationManifest.fingerprint(CACHE_VERSION, RULE_SETS, fileName, content);
+        List<Violation> violations = memoryCache.getIfPresent(key);
+        if (violations == null && persistDir != null) {
+            violations = readFromDisk(key);
+            if (violations != null) {
+                memoryCache.put(key, violations);
+            }
+        }
+        if (violations != null) {
+            return new Result(violations, true);
+        }
+        violations = analyzers.get().analyze(fileName, content);
+        memoryCache.put(key, violations);
+        if (persistDir != null) {
+            writeToDisk(key, violations);
+        }
+        return new Result(violations, false);
+    }
+
+    /**
+     * 一个线程专用的PMD配置、处理器和规则集
+     */
+    private static final class Analyzer {
+        private final PMDConfiguration configuration = new PMDConfiguration();
+        private final SourceCodeProcessor processor;
+        private final RuleSets ruleSets;
+
+        private Analyzer() {
+            configuration.setSourceEncoding(StandardCharsets.UTF_8.name());
+            processor = new SourceCodeProcessor(configuration);
+            try {
+                ruleSets = new RuleSetFactory().createRuleSets(RULE_SETS);
+            } catch (RuleSetNotFoundException e) {
+                throw new IllegalStateException("加载p3c规则集失败", e);
+            }
+        }
+
+        private List<Violation> analyze(String fileName, String content) throws IOException {
+            RuleContext context = new RuleContext();
+            // 语言版本按文件扩展名确定
+            Report report = Report.createReport(context, fileName);
+            try {
+                processor.processSourceCode(new StringReader(content), ruleSets, context);
+            } catch (PMDException e) {
+                throw new IOException("规约检查失败: " + fileName, e);
+            }
+            List<Violation> violations = new ArrayList<>();
+            for (RuleViolation violation : report) {
+                violations.add(new Violation(violation.getRule().getName(),
+                        violation.getRule().getPriority().getPriority(), violation.getBeginLine(),
+                        violation.getDescription()));
+            }
+            return List.copyOf(violations);
+        }
+    }
+
+    private List<Violation> readFromDisk(String key) {
+        Path file = pathOf(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Violation> violations = GSON.fromJson(reader, VIOLATIONS_TYPE);
+            return violations == null ? null : List.copyOf(violations);
+        } catch (IOException | JsonParseException e) {
+            // 缓存文件损坏时当作未命中处理
+            log.warn("读取规约检查缓存失败: {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, List<Violation> violations) {
+        Path file = pathOf(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    GSON.toJson(violations, VIOLATIONS_TYPE, writer);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.warn("写入规约检查缓存失败: {}", key, e);
+        }
+    }
+
+    /**
+     * 按前两位十六进制分子目录，避免单个目录下文件过多
+     */
+    private Path pathOf(String key) {
+        return persistDir.resolve(key.substring(0, 2)).resolve(key.substring(2) + ".json");
+    }
+}
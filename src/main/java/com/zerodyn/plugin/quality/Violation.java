@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.quality;
+
+/**
+ * 一条p3c规约问题，不含文件路径，同样内容的文件可以共用检查结果
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class Violation {
+    private String rule;
+    // p3c的优先级：1 Blocker，2 Critical，3 Major
+    private int priority;
+    private int line;
+    private String message;
+
+    public Violation() {
+    }
+
+    public Violation(String rule, int priority, int line, String message) {
+        this.rule = rule;
+        this.priority = priority;
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * 报告中的一行：文件:行号 [P优先级 规则名] 说明
+     */
+    public String format(String file) {
+        return file + ":" + line + " [P" + priority + " " + rule + "] " + message;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
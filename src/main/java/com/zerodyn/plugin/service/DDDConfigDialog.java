@@ -4,9 +4,13 @@
 
 package com.zerodyn.plugin.service;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
-import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.ToolbarDecorator;
+import com.intellij.ui.table.JBTable;
+import com.zerodyn.plugin.config.CacheSettings;
 import com.zerodyn.plugin.config.ComponentConfig;
 import com.zerodyn.plugin.config.DDDConfiguration;
 import lombok.extern.slf4j.Slf4j;
@@ -14,10 +18,12 @@ import lombok.extern.slf4j.Slf4j;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,6 +38,7 @@ public class DDDConfigDialog extends DialogWrapper {
     private final Project project;
     private final JTabbedPane tabbedPane = new JTabbedPane();
     private final Map<String, Map<String, JTextField>> componentFields = new HashMap<>();
+    private final Map<String, JComboBox<String>> moduleCombos = new HashMap<>();
 
     public DDDConfigDialog(Project project, DDDConfiguration initialConfig) {
         super(project, true);
@@ -48,9 +55,14 @@ public class DDDConfigDialog extends DialogWrapper {
     }
 
     private void initUI() {
-        List<String> modules = getProjectModules();
-        if (modules.isEmpty()) {
-            modules.add("");
+        ModuleDiscoveryService discoveryService = ModuleDiscoveryService.getInstance(project);
+        List<String> modules = discoveryService.getModulesIfReady();
+        if (modules == null) {
+            // 模块尚未计算完成时先展示已配置的模块，计算完成后再填充下拉框
+            discoveryService.getModules().thenAccept(result ->
+                    ApplicationManager.getApplication().invokeLater(
+                            () -> updateModuleCombos(result), ModalityState.any()));
+            modules = List.of();
         }
 
         // 初始化各层配置
@@ -71,12 +83,26 @@ public class DDDConfigDialog extends DialogWrapper {
         // 模块选择
         JPanel modulePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         modulePanel.add(new JLabel("目标模块:"));
-        JComboBox<String> moduleCombo = new JComboBox<>(modules.toArray(new String[0]));
+        JComboBox<String> moduleCombo = new JComboBox<>(
+                moduleItems(modules, config.getLayer(layer).getModuleName()));
         moduleCombo.setSelectedItem(config.getLayer(layer).getModuleName());
         moduleCombo.addActionListener(e ->
                 config.getLayer(layer).setModuleName((String) moduleCombo.getSelectedItem())
         );
         modulePanel.add(moduleCombo);
+        moduleCombos.put(layer, moduleCombo);
+
+        // 生成模式选择（仅部分层支持）
+        List<String> modes = DDDConfiguration.getSupportedModes(layer);
+        if (!modes.isEmpty()) {
+            modulePanel.add(new JLabel("生成模式:"));
+            JComboBox<String> modeCombo = new JComboBox<>(modes.toArray(new String[0]));
+            modeCombo.setSelectedItem(config.getLayer(layer).getGenerationMode());
+            modeCombo.addActionListener(e ->
+                    config.getLayer(layer).setGenerationMode((String) modeCombo.getSelectedItem())
+            );
+            modulePanel.add(modeCombo);
+        }
         contentPanel.add(modulePanel);
 
         // 组件配置（过滤掉ValueObject）
@@ -112,6 +138,12 @@ public class DDDConfigDialog extends DialogWrapper {
                     layerFields.put(compType + ".template", templateField);
                     templateField.getDocument().addDocumentListener(new ConfigUpdater(compConfig, "templateFile", templateField));
 
+                    // 可选组件（如CachingRepository）默认不生成
+                    compPanel.add(new JLabel("生成:"));
+                    JCheckBox enabledCheckBox = new JCheckBox("启用", compConfig.isEnabled());
+                    enabledCheckBox.addActionListener(e -> compConfig.setEnabled(enabledCheckBox.isSelected()));
+                    compPanel.add(enabledCheckBox);
+
                     contentPanel.add(compPanel);
                 });
 
@@ -121,12 +153,80 @@ public class DDDConfigDialog extends DialogWrapper {
 
     private void initAdvancedTab() {
         JPanel panel = new JPanel(new BorderLayout());
+        JPanel optionsPanel = new JPanel();
+        optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS));
+
         JCheckBox cqrsCheckBox = new JCheckBox("启用CQRS模式", config.isEnableCQRS());
         cqrsCheckBox.addChangeListener(e -> config.setEnableCQRS(cqrsCheckBox.isSelected()));
-        panel.add(cqrsCheckBox, BorderLayout.NORTH);
+        optionsPanel.add(cqrsCheckBox);
+
+        // DTO/实体的生成风格
+        JPanel stylePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        stylePanel.add(new JLabel("生成风格:"));
+        JComboBox<String> styleCombo = new JComboBox<>(DDDConfiguration.getSupportedStyles().toArray(new String[0]));
+        styleCombo.setSelectedItem(config.getGenerationStyle());
+        styleCombo.addActionListener(e -> config.setGenerationStyle((String) styleCombo.getSelectedItem()));
+        stylePanel.add(styleCombo);
+        optionsPanel.add(stylePanel);
+
+        // JDBC批量写入的每批行数
+        JPanel batchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        batchPanel.add(new JLabel("JDBC批量大小:"));
+        JSpinner batchSpinner = new JSpinner(new SpinnerNumberModel(config.getJdbcBatchSize(), 1, 100_000, 100));
+        batchSpinner.addChangeListener(e -> config.setJdbcBatchSize((Integer) batchSpinner.getValue()));
+        batchPanel.add(batchSpinner);
+        optionsPanel.add(batchPanel);
+
+        // 模板引擎，COMPILED 适合一次生成大量表
+        JPanel enginePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        enginePanel.add(new JLabel("模板引擎:"));
+        JComboBox<String> engineCombo = new JComboBox<>(DDDConfiguration.getSupportedEngines().toArray(new String[0]));
+        engineCombo.setSelectedItem(config.getTemplateEngine());
+        engineCombo.addActionListener(e -> config.setTemplateEngine((String) engineCombo.getSelectedItem()));
+        enginePanel.add(engineCombo);
+        optionsPanel.add(enginePanel);
+
+        panel.add(optionsPanel, BorderLayout.NORTH);
+        panel.add(createCachePanel(), BorderLayout.CENTER);
         tabbedPane.addTab("高级", panel);
     }
 
+    /**
+     * CachingRepository的缓存参数：默认值 + 按表覆盖
+     */
+    private JPanel createCachePanel() {
+        CacheSettings defaults = config.getDefaultCache();
+        JPanel defaultsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        defaultsPanel.add(new JLabel("默认最大条数:"));
+        JSpinner sizeSpinner = new JSpinner(new SpinnerNumberModel(defaults.getMaximumSize(), 1L, Long.MAX_VALUE, 1000L));
+        sizeSpinner.addChangeListener(e -> defaults.setMaximumSize(((Number) sizeSpinner.getValue()).longValue()));
+        defaultsPanel.add(sizeSpinner);
+        defaultsPanel.add(new JLabel("默认过期秒数:"));
+        JSpinner ttlSpinner = new JSpinner(new SpinnerNumberModel(defaults.getExpireAfterWriteSeconds(), 1L, Long.MAX_VALUE, 60L));
+        ttlSpinner.addChangeListener(e -> defaults.setExpireAfterWriteSeconds(((Number) ttlSpinner.getValue()).longValue()));
+        defaultsPanel.add(ttlSpinner);
+
+        CacheTableModel tableModel = new CacheTableModel(config);
+        JBTable cacheTable = new JBTable(tableModel);
+        JPanel tablePanel = ToolbarDecorator.createDecorator(cacheTable)
+                .setAddAction(button -> tableModel.addRow())
+                .setRemoveAction(button -> {
+                    if (cacheTable.isEditing()) {
+                        cacheTable.getCellEditor().stopCellEditing();
+                    }
+                    tableModel.removeRows(cacheTable.getSelectedRows());
+                })
+                .disableUpDownActions()
+                .createPanel();
+        tablePanel.setPreferredSize(new Dimension(400, 150));
+
+        JPanel cachePanel = new JPanel(new BorderLayout(5, 5));
+        cachePanel.setBorder(BorderFactory.createTitledBorder("CachingRepository缓存（按表覆盖）"));
+        cachePanel.add(defaultsPanel, BorderLayout.NORTH);
+        cachePanel.add(tablePanel, BorderLayout.CENTER);
+        return cachePanel;
+    }
+
     private void browseTemplateFile(JTextField targetField) {
         JFileChooser chooser = new JFileChooser();
         if (chooser.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
@@ -134,20 +234,24 @@ public class DDDConfigDialog extends DialogWrapper {
         }
     }
 
-    private List<String> getProjectModules() {
-        try {
-            VirtualFile baseDir = project.getBaseDir();
-            if (baseDir != null) {
-                return Arrays.stream(baseDir.getChildren())
-                        .filter(VirtualFile::isDirectory)
-                        .filter(dir -> dir.findChild("src") != null)
-                        .map(VirtualFile::getName)
-                        .toList();
-            }
-        } catch (Exception e) {
-            log.error("getProjectModules error", e);
+    private void updateModuleCombos(List<String> modules) {
+        moduleCombos.forEach((layer, combo) -> {
+            String selected = config.getLayer(layer).getModuleName();
+            combo.setModel(new DefaultComboBoxModel<>(moduleItems(modules, selected)));
+            combo.setSelectedItem(selected);
+        });
+    }
+
+    private String[] moduleItems(List<String> modules, String selected) {
+        List<String> items = new ArrayList<>(modules);
+        // 保证已配置的模块始终可选
+        if (selected != null && !items.contains(selected)) {
+            items.add(0, selected);
+        }
+        if (items.isEmpty()) {
+            items.add("");
         }
-        return Collections.emptyList();
+        return items.toArray(new String[0]);
     }
 
     @Override
@@ -159,6 +263,88 @@ public class DDDConfigDialog extends DialogWrapper {
         return config;
     }
 
+    /**
+     * 按表的缓存参数，每次编辑后整体写回配置
+     */
+    private static class CacheTableModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = {"表名", "最大条数", "过期秒数"};
+        private final DDDConfiguration config;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        CacheTableModel(DDDConfiguration config) {
+            this.config = config;
+            config.getTableCaches().forEach((table, settings) -> rows.add(new Object[]{
+                    table, settings.getMaximumSize(), settings.getExpireAfterWriteSeconds()}));
+        }
+
+        void addRow() {
+            CacheSettings defaults = config.getDefaultCache();
+            rows.add(new Object[]{"", defaults.getMaximumSize(), defaults.getExpireAfterWriteSeconds()});
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        }
+
+        void removeRows(int[] selected) {
+            int[] sorted = selected.clone();
+            Arrays.sort(sorted);
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                rows.remove(sorted[i]);
+            }
+            fireTableDataChanged();
+            writeBack();
+        }
+
+        private void writeBack() {
+            Map<String, CacheSettings> tableCaches = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                String table = ((String) row[0]).trim();
+                if (!table.isEmpty()) {
+                    tableCaches.put(table, new CacheSettings((Long) row[1], (Long) row[2]));
+                }
+            }
+            config.setTableCaches(tableCaches);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 0 ? String.class : Long.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int rowIndex, int columnIndex) {
+            return true;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+
+        @Override
+        public void setValueAt(Object value, int rowIndex, int columnIndex) {
+            if (value == null || (columnIndex > 0 && (Long) value <= 0)) {
+                return;
+            }
+            rows.get(rowIndex)[columnIndex] = value;
+            fireTableCellUpdated(rowIndex, columnIndex);
+            writeBack();
+        }
+    }
+
     private record ConfigUpdater(ComponentConfig config, String field,
                                  JTextField textField) implements DocumentListener {
 
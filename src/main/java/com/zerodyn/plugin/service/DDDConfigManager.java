@@ -44,6 +44,21 @@ public class DDDConfigManager {
         }
     }
 
+    /**
+     * 读取指定的配置文件（如批量生成时随项目提交的配置），文件不存在或格式错误时抛出异常
+     */
+    public DDDConfiguration loadConfiguration(Path configPath) throws IOException {
+        try (Reader reader = Files.newBufferedReader(configPath)) {
+            DDDConfiguration config = GSON.fromJson(reader, DDDConfiguration.class);
+            if (config == null) {
+                throw new IOException("配置文件为空: " + configPath);
+            }
+            return validateConfig(config);
+        } catch (JsonSyntaxException e) {
+            throw new IOException("配置文件格式错误: " + configPath, e);
+        }
+    }
+
     private DDDConfiguration createAndSaveDefaultConfig() throws IOException {
         DDDConfiguration defaultConfig = new DDDConfiguration();
         saveConfiguration(defaultConfig);
@@ -54,6 +69,8 @@ public class DDDConfigManager {
         if (config == null) {
             return new DDDConfiguration();
         }
+        // 新版本增加的组件补齐到旧配置中
+        config.mergeDefaults();
         return config;
     }
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.ModuleListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.Function;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.concurrency.CancellablePromise;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 项目模块发现服务：基于ModuleManager和源码根目录计算可选模块，
+ * 在后台线程计算一次后按项目缓存，模块变化时失效
+ *
+ * @author JWen
+ * @since 2025/4/13
+ */
+@Service(Service.Level.PROJECT)
+public final class ModuleDiscoveryService implements Disposable {
+    private final Project project;
+    private volatile CompletableFuture<List<String>> modules;
+
+    public ModuleDiscoveryService(Project project) {
+        this.project = project;
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(ModuleListener.TOPIC, new ModuleListener() {
+            @Override
+            public void modulesAdded(@NotNull Project project, @NotNull List<? extends Module> modules) {
+                invalidate();
+            }
+
+            @Override
+            public void moduleRemoved(@NotNull Project project, @NotNull Module module) {
+                invalidate();
+            }
+
+            @Override
+            public void modulesRenamed(@NotNull Project project, @NotNull List<? extends Module> modules,
+                                       @NotNull Function<? super Module, String> oldNameProvider) {
+                invalidate();
+            }
+        });
+        // 源码根目录变化也会影响模块是否可选
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                invalidate();
+            }
+        });
+    }
+
+    public static ModuleDiscoveryService getInstance(Project project) {
+        return project.getService(ModuleDiscoveryService.class);
+    }
+
+    /**
+     * 获取模块列表（相对项目根目录的路径），首次调用时在后台线程计算
+     */
+    public CompletableFuture<List<String>> getModules() {
+        CompletableFuture<List<String>> current = modules;
+        if (current == null) {
+            synchronized (this) {
+                current = modules;
+                if (current == null) {
+                    current = computeModules();
+                    modules = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 已经计算完成时直接返回结果，否则返回null，调用方不会被阻塞
+     */
+    public List<String> getModulesIfReady() {
+        CompletableFuture<List<String>> current = modules;
+        if (current != null && current.isDone() && !current.isCompletedExceptionally()) {
+            return current.join();
+        }
+        return null;
+    }
+
+    public void invalidate() {
+        modules = null;
+    }
+
+    private CompletableFuture<List<String>> computeModules() {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        CancellablePromise<List<String>> promise = ReadAction.nonBlocking(this::collectModules)
+                .expireWith(this)
+                .submit(AppExecutorUtil.getAppExecutorService());
+        promise.onSuccess(future::complete);
+        promise.onError(e -> {
+            // 失败的结果不缓存，下次重新计算
+            invalidate();
+            future.completeExceptionally(e);
+        });
+        return future;
+    }
+
+    private List<String> collectModules() {
+        String basePath = project.getBasePath();
+        if (basePath == null) {
+            return Collections.emptyList();
+        }
+        Path projectRoot = Paths.get(basePath);
+
+        // 按相对路径排序去重，嵌套模块同样会被列出
+        TreeSet<String> result = new TreeSet<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            ModuleRootManager rootManager = ModuleRootManager.getInstance(module);
+            if (rootManager.getSourceRoots(false).length == 0) {
+                continue;
+            }
+            for (VirtualFile contentRoot : rootManager.getContentRoots()) {
+                Path contentPath = contentRoot.toNioPath();
+                if (contentPath.startsWith(projectRoot)) {
+                    result.add(projectRoot.relativize(contentPath).toString().replace('\\', '/'));
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @Override
+    public void dispose() {
+        modules = null;
+    }
+}
@@ -82,14 +82,27 @@ public class TemplateInitializer {
         }
     }
 
-    private static List<String> getRequiredTemplates() {
+    public static List<String> getRequiredTemplates() {
         return Arrays.asList(
                 "EntityTemplate.ftl",
                 "RepositoryTemplate.ftl",
                 "ServiceTemplate.ftl",
                 "DtoTemplate.ftl",
+                "MapperTemplate.ftl",
                 "ControllerTemplate.ftl",
-                "RepositoryImplTemplate.ftl"
+                "RepositoryImplTemplate.ftl",
+                "RepositoryImplTestTemplate.ftl",
+                "CachingRepositoryTemplate.ftl",
+                "QueryDtoTemplate.ftl",
+                "QueryRepositoryTemplate.ftl",
+                "QueryRepositoryImplTemplate.ftl",
+                "QueryServiceTemplate.ftl",
+                "CodecTemplate.ftl",
+                "BenchmarkTemplate.ftl",
+                "ReactiveRepositoryTemplate.ftl",
+                "ReactiveServiceTemplate.ftl",
+                "R2dbcRepositoryImplTemplate.ftl",
+                "common.ftl"
         );
     }
 }
\ No newline at end of file
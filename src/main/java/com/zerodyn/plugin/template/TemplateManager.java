@@ -1,12 +1,15 @@
 package com.zerodyn.plugin.template;
 
 import com.zerodyn.plugin.provider.TemplateProvider;
+import freemarker.cache.TemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,9 +18,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 2025/4/5
  */
 public class TemplateManager {
+    // 自动导入每个模板的函数库：命名空间 -> 模板名，模板里按 ${cg.pkg('domain', 'Entity')} 的方式调用
+    private static final Map<String, String> AUTO_IMPORTS = Map.of("cg", "common.ftl");
+
     private final Configuration fmConfig;
     private final TemplateProvider templateProvider;
     private final TemplateCache templateCache;
+    // 模板原文，编译后端按原文翻译和计算缓存键
+    private final Map<String, String> templateSources = new ConcurrentHashMap<>();
 
     public TemplateManager(TemplateProvider templateProvider) {
         this.templateProvider = templateProvider;
@@ -26,12 +34,28 @@ public class TemplateManager {
     }
 
     private Configuration createConfiguration() {
-        Configuration config = new Configuration(Configuration.VERSION_2_3_31);
+        // 2.3.33 起record的访问器可以按属性方式访问（如 column.name）
+        Configuration config = new Configuration(Configuration.VERSION_2_3_33);
         config.setDefaultEncoding("UTF-8");
         config.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        // 异常由调用方记录，FreeMarker 不再重复输出整段错误
+        config.setLogTemplateExceptions(false);
+        // 函数库经 TemplateProvider 链加载（用户目录优先），只解析一次；用到时才导入，不用的模板没有额外开销
+        config.setTemplateLoader(new ProviderTemplateLoader());
+        config.setLocalizedLookup(false);
+        config.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        config.setLazyAutoImports(true);
+        AUTO_IMPORTS.forEach(config::addAutoImport);
         return config;
     }
 
+    /**
+     * 自动导入的函数库：命名空间 -> 模板名
+     */
+    public static Map<String, String> getAutoImports() {
+        return AUTO_IMPORTS;
+    }
+
     public Template getTemplate(String templateName) throws TemplateException {
         // 先从缓存获取
         Template template = templateCache.get(templateName);
@@ -41,12 +65,43 @@ public class TemplateManager {
 
         // 从提供器获取内容并编译模板
         try {
-            String templateContent = templateProvider.getTemplateContent(templateName);
+            String templateContent = getTemplateSource(templateName);
             template = new Template(templateName, templateContent, fmConfig);
             templateCache.put(templateName, template);
             return template;
         } catch (IOException e) {
-            throw new RuntimeException("Failed to compile template: " + templateName);
+            throw new RuntimeException("Failed to compile template: " + templateName, e);
+        }
+    }
+
+    /**
+     * 模板原文；Template.toString() 返回的是规范化后的文本，与原文的空白不一定相同
+     */
+    public String getTemplateSource(String templateName) {
+        return templateSources.computeIfAbsent(templateName, templateProvider::getTemplateContent);
+    }
+
+    /**
+     * 让 FreeMarker 通过 TemplateProvider 链加载 #import 的模板
+     */
+    private class ProviderTemplateLoader implements TemplateLoader {
+        @Override
+        public Object findTemplateSource(String name) {
+            return templateProvider.templateExists(name) ? name : null;
+        }
+
+        @Override
+        public long getLastModified(Object templateSource) {
+            return -1;
+        }
+
+        @Override
+        public Reader getReader(Object templateSource, String encoding) {
+            return new StringReader(getTemplateSource((String) templateSource));
+        }
+
+        @Override
+        public void closeTemplateSource(Object templateSource) {
         }
     }
 
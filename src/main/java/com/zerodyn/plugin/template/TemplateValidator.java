@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template;
+
+import com.zerodyn.plugin.config.ComponentConfig;
+import freemarker.core.ParseException;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+
+import java.beans.Introspector;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 生成前的模板预检：解析配置引用的每个模板，按数据模型的实际类型检查 变量.成员 引用，
+ * 再用一张样例表把每个组件试渲染一遍。有问题时在写任何文件之前一次性报告，不必等到逐个组件渲染时才失败
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class TemplateValidator {
+    // 变量.成员 引用；前面是 . 的属于更深层的访问，只检查数据模型的顶层变量
+    private static final Pattern MEMBER_REFERENCE =
+            Pattern.compile("(?<![\\w.$])([A-Za-z_]\\w*)\\s*\\.\\s*([A-Za-z_$]\\w*)");
+    // 模板内声明的名字会遮蔽同名的数据模型变量
+    private static final Pattern DECLARED_NAME = Pattern.compile(
+            "#(?:assign|local|global)\\s+([A-Za-z_]\\w*)|\\bas\\s+([A-Za-z_]\\w*)(?:\\s*,\\s*([A-Za-z_]\\w*))?"
+                    + "|([A-Za-z_]\\w*)\\s*->");
+    private static final Pattern CALLABLE_PARAMS = Pattern.compile("#(?:function|macro)\\s+\\w+([\\w\\s]*)");
+    // 每个类可按 FreeMarker bean 方式访问的成员名，跨校验共享
+    private static final Map<Class<?>, Set<String>> MEMBERS = new ConcurrentHashMap<>();
+
+    private final TemplateManager templateManager;
+
+    public TemplateValidator(TemplateManager templateManager) {
+        this.templateManager = templateManager;
+    }
+
+    public record Problem(String component, String templateFile, String message) {
+        @Override
+        public String toString() {
+            return component + " (" + templateFile + "): " + message;
+        }
+    }
+
+    /**
+     * 校验所有组件
+     *
+     * @param components  层 -> 组件类型 -> 组件配置
+     * @param sampleModel (层, 组件类型) -> 用样例表构造的数据模型
+     * @return 发现的问题，为空表示可以开始生成
+     */
+    public List<Problem> validate(Map<String, Map<String, ComponentConfig>> components,
+                                  BiFunction<String, String, Map<String, Object>> sampleModel) {
+        List<Problem> problems = new ArrayList<>();
+        // 同一模板的静态检查只做一次
+        Set<String> checked = new HashSet<>();
+        components.forEach((layer, layerComponents) -> layerComponents.forEach((componentType, config) -> {
+            String component = layer + "." + componentType;
+            String templateFile = config.getTemplateFile();
+            Template template;
+            try {
+                template = templateManager.getTemplate(templateFile);
+            } catch (Exception e) {
+                problems.add(new Problem(component, templateFile, "模板加载或解析失败: " + describe(e)));
+                return;
+            }
+            Map<String, Object> model = sampleModel.apply(layer, componentType);
+            int found = problems.size();
+            for (String library : TemplateManager.getAutoImports().values()) {
+                if (checked.add(library)) {
+                    checkReferences(component, library, model, problems);
+                }
+            }
+            if (checked.add(templateFile)) {
+                checkReferences(component, templateFile, model, problems);
+            }
+            if (problems.size() > found) {
+                // 静态检查已经报告了问题，试渲染只会重复同一个错误
+                return;
+            }
+            try {
+                template.process(model, Writer.nullWriter());
+            } catch (Exception e) {
+                problems.add(new Problem(component, templateFile, "样例表试渲染失败: " + describe(e)));
+            }
+        }));
+        return problems;
+    }
+
+    private void checkReferences(String component, String templateFile, Map<String, Object> model,
+                                 List<Problem> problems) {
+        String source;
+        try {
+            source = templateManager.getTemplateSource(templateFile);
+        } catch (RuntimeException e) {
+            problems.add(new Problem(component, templateFile, "读取模板失败: " + e.getMessage()));
+            return;
+        }
+        String code = expressionsOnly(source);
+        Set<String> declared = declaredNames(code);
+        Matcher matcher = MEMBER_REFERENCE.matcher(code);
+        while (matcher.find()) {
+            String variable = matcher.group(1);
+            String member = matcher.group(2);
+            Object value = model.get(variable);
+            if (value == null || declared.contains(variable) || !isBean(value)) {
+                continue;
+            }
+            Class<?> type = value.getClass();
+            if (!members(type).contains(member)) {
+                problems.add(new Problem(component, templateFile, "第 " + lineOf(source, matcher.start()) + " 行引用了 "
+                        + variable + "." + member + "，但 " + type.getSimpleName() + " 没有该方法或属性"));
+            }
+        }
+    }
+
+    /**
+     * 只保留 ${...} 和指令标签中的表达式，其余字符（模板正文、注释、字符串字面量）换成空格，位置和行号不变
+     */
+    private static String expressionsOnly(String source) {
+        char[] code = new char[source.length()];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = source.charAt(i) == '\n' ? '\n' : ' ';
+        }
+        int i = 0;
+        while (i < source.length()) {
+            if (source.startsWith("<#--", i)) {
+                int end = source.indexOf("-->", i + 4);
+                i = end < 0 ? source.length() : end + 3;
+            } else if (source.startsWith("${", i)) {
+                i = copyExpression(source, i + 2, '}', code);
+            } else if (source.startsWith("<#", i) || source.startsWith("<@", i)) {
+                i = copyExpression(source, i + 1, '>', code);
+            } else if (source.startsWith("</#", i) || source.startsWith("</@", i)) {
+                i = copyExpression(source, i + 2, '>', code);
+            } else {
+                i++;
+            }
+        }
+        return new String(code);
+    }
+
+    /**
+     * 复制表达式直到括号层级为0的结束符，返回结束符之后的位置；字符串字面量只复制其中的插值
+     */
+    private static int copyExpression(String source, int start, char close, char[] code) {
+        int depth = 0;
+        int i = start;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                boolean raw = i > 0 && source.charAt(i - 1) == 'r'
+                        && (i < 2 || !Character.isJavaIdentifierPart(source.charAt(i - 2)));
+                i = skipString(source, i, raw, code);
+                continue;
+            }
+            if (depth == 0 && c == close) {
+                return i + 1;
+            }
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ')' || c == ']' || c == '}') && depth > 0) {
+                depth--;
+            }
+            if (c != '\n') {
+                code[i] = c;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipString(String source, int quoteIndex, boolean raw, char[] code) {
+        char quote = source.charAt(quoteIndex);
+        int i = quoteIndex + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == quote) {
+                return i + 1;
+            }
+            if (!raw && c == '\\') {
+                i += 2;
+            } else if (!raw && source.startsWith("${", i)) {
+                i = copyExpression(source, i + 2, '}', code);
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static Set<String> declaredNames(String code) {
+        Set<String> names = new HashSet<>();
+        Matcher matcher = DECLARED_NAME.matcher(code);
+        while (matcher.find()) {
+            for (int group = 1; group <= matcher.groupCount(); group++) {
+                if (matcher.group(group) != null) {
+                    names.add(matcher.group(group));
+                }
+            }
+        }
+        Matcher params = CALLABLE_PARAMS.matcher(code);
+        while (params.find()) {
+            for (String param : params.group(1).trim().split("\\s+")) {
+                if (!param.isEmpty()) {
+                    names.add(param);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * FreeMarker 按 bean 包装的值才能用 . 访问方法和属性；字符串、数字、集合等有各自的包装
+     */
+    private static boolean isBean(Object value) {
+        return !(value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Date || value instanceof Map
+                || value instanceof Iterable || value.getClass().isArray());
+    }
+
+    private static Set<String> members(Class<?> type) {
+        return MEMBERS.computeIfAbsent(type, t -> {
+            Set<String> names = new HashSet<>();
+            for (Method method : t.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String name = method.getName();
+                names.add(name);
+                if (method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                    if (name.startsWith("get") && name.length() > 3) {
+                        names.add(Introspector.decapitalize(name.substring(3)));
+                    } else if (name.startsWith("is") && name.length() > 2) {
+                        names.add(Introspector.decapitalize(name.substring(2)));
+                    }
+                }
+            }
+            return Set.copyOf(names);
+        });
+    }
+
+    /**
+     * FreeMarker 的异常信息带有提示和调用栈，只保留第一段说明和出错位置
+     */
+    private static String describe(Exception e) {
+        Throwable cause = e;
+        while (!(cause instanceof TemplateException || cause instanceof ParseException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ParseException parseException) {
+            return "第 " + parseException.getLineNumber() + " 行: " + parseException.getEditorMessage();
+        }
+        String message = cause instanceof TemplateException templateException
+                ? templateException.getMessageWithoutStackTop() : String.valueOf(cause.getMessage());
+        int tips = message.indexOf("\n----");
+        return (tips < 0 ? message : message.substring(0, tips)).replaceAll("\\s*\n\\s*", " ").trim();
+    }
+
+    private static int lineOf(String source, int offset) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import java.util.Map;
+
+/**
+ * 由模板编译出的渲染类实现的接口
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public interface CompiledTemplate {
+    /**
+     * 渲染模板，输出追加到 out；数据不符合编译时假设时抛出运行时异常
+     */
+    void render(Map<String, Object> model, StringBuilder out);
+}
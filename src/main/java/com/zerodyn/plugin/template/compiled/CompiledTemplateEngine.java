@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zerodyn.plugin.incremental.GenerationManifest;
+import com.zerodyn.plugin.template.TemplateManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板编译后端：把模板翻译成Java类并在进程内编译，之后每次渲染直接执行编译出的代码。
+ * 只支持插值、#if、#list、#sep、#assign、常用内建函数以及对函数库中单条 #return 函数的调用（按表达式内联）组成的子集；
+ * 模板不在子集内、运行环境没有javac、或渲染时数据与编译时的假设不符，render 返回null，调用方改用 FreeMarker
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public class CompiledTemplateEngine {
+    private static final Logger log = LoggerFactory.getLogger(CompiledTemplateEngine.class);
+    private static final int MAX_COMPILED_TEMPLATES = 256;
+    // 编译结果跨生成任务共享，模板原文和数据模型的类型都是键的一部分；不支持的模板缓存为空
+    private static final Cache<String, Optional<CompiledTemplate>> COMPILED = Caffeine.newBuilder()
+            .maximumSize(MAX_COMPILED_TEMPLATES)
+            .build();
+
+    private final TemplateManager templateManager;
+    private final Map<String, String> sourceFingerprints = new ConcurrentHashMap<>();
+    // 自动导入的函数库，第一次编译时加载；加载失败的库按空库处理，调用它的模板退回 FreeMarker
+    private volatile Libraries libraries;
+
+    private record Libraries(Map<String, Map<String, FtlParser.Function>> functions, String fingerprint) {
+    }
+
+    public CompiledTemplateEngine(TemplateManager templateManager) {
+        this.templateManager = templateManager;
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @return 渲染结果；无法用编译后端渲染时返回null
+     */
+    public String render(String templateName, Map<String, Object> model) {
+        CompiledTemplate template = getCompiled(templateName, model);
+        if (template == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(4096);
+        try {
+            template.render(model, out);
+            return out.toString();
+        } catch (RuntimeException e) {
+            log.debug("编译后的模板 {} 渲染失败，改用FreeMarker", templateName, e);
+            return null;
+        }
+    }
+
+    private CompiledTemplate getCompiled(String templateName, Map<String, Object> model) {
+        String sourceFingerprint = sourceFingerprints.computeIfAbsent(templateName,
+                name -> GenerationManifest.fingerprint(templateManager.getTemplateSource(name)));
+        Libraries libraries = loadLibraries();
+        Map<String, Class<?>> modelTypes = modelTypes(model);
+        String key = templateName + '\n' + sourceFingerprint + '\n' + libraries.fingerprint() + '\n'
+                + signature(modelTypes);
+        return COMPILED.get(key, k -> compile(templateName, k, modelTypes, libraries.functions())).orElse(null);
+    }
+
+    private Optional<CompiledTemplate> compile(String templateName, String key, Map<String, Class<?>> modelTypes,
+                                               Map<String, Map<String, FtlParser.Function>> libraries) {
+        long start = System.nanoTime();
+        try {
+            List<FtlParser.Node> nodes = FtlParser.parse(templateManager.getTemplateSource(templateName));
+            String className = "Template_" + GenerationManifest.fingerprint(key).substring(0, 16);
+            TemplateTranslator.Result result = TemplateTranslator.translate(className, nodes, modelTypes, libraries);
+            Class<?> type = InMemoryJavaCompiler.compile(className, result.source(), result.referencedClasses(),
+                    CompiledTemplateEngine.class.getClassLoader());
+            CompiledTemplate template = (CompiledTemplate) type.getDeclaredConstructor().newInstance();
+            log.info("模板 {} 已编译为Java类，耗时 {} ms", templateName, (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(template);
+        } catch (UnsupportedTemplateException e) {
+            log.info("模板 {} 使用FreeMarker渲染: {}", templateName, e.getMessage());
+            return Optional.empty();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("模板 {} 编译失败，使用FreeMarker渲染", templateName, e);
+            return Optional.empty();
+        }
+    }
+
+    private Libraries loadLibraries() {
+        Libraries current = libraries;
+        if (current != null) {
+            return current;
+        }
+        Map<String, Map<String, FtlParser.Function>> loaded = new HashMap<>();
+        StringBuilder sources = new StringBuilder();
+        TemplateManager.getAutoImports().forEach((namespace, libraryName) -> {
+            Map<String, FtlParser.Function> functions = Map.of();
+            try {
+                String source = templateManager.getTemplateSource(libraryName);
+                sources.append(namespace).append('=').append(source).append('\n');
+                functions = FtlParser.parseLibrary(source);
+            } catch (RuntimeException e) {
+                log.info("函数库 {} 无法用于编译后的模板: {}", libraryName, e.getMessage());
+            }
+            loaded.put(namespace, functions);
+        });
+        current = new Libraries(Collections.unmodifiableMap(loaded), GenerationManifest.fingerprint(sources.toString()));
+        libraries = current;
+        return current;
+    }
+
+    private static Map<String, Class<?>> modelTypes(Map<String, Object> model) {
+        Map<String, Class<?>> types = new TreeMap<>();
+        model.forEach((name, value) -> {
+            if (value != null) {
+                types.put(name, value.getClass());
+            }
+        });
+        return Collections.unmodifiableMap(types);
+    }
+
+    private static String signature(Map<String, Class<?>> modelTypes) {
+        List<String> entries = new ArrayList<>(modelTypes.size());
+        modelTypes.forEach((name, type) -> entries.add(name + '=' + type.getName()));
+        return String.join(";", entries);
+    }
+}
@@ -0,0 +1,1082 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FreeMarker模板子集的解析器：插值、#if/#elseif/#else、#list/#sep/#else、#assign 和注释，
+ * 表达式支持属性/方法/下标访问、常用内建函数、默认值运算符和逻辑/比较/拼接运算；
+ * 遇到子集之外的写法抛出 UnsupportedTemplateException，由调用方退回 FreeMarker 渲染。
+ * 空白处理照搬 FreeMarker 2.3.33：先建出与 FreeMarker 结构和行号一致的元素树，再按同样的规则裁剪每段文本
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+final class FtlParser {
+    // 编译后的代码支持的内建函数
+    static final Set<String> BUILT_INS = Set.of(
+            "cap_first", "uncap_first", "upper_case", "lower_case", "trim", "length", "c", "size",
+            "has_content", "seq_contains", "join", "replace", "starts_with", "ends_with", "contains", "then",
+            "index", "counter", "has_next", "is_last", "is_first");
+
+    private final String source;
+    // 每一行在 source 中的起始位置；与 FreeMarker 一样，\n、\r\n 和单独的 \r 都算换行
+    private final int[] lineStarts;
+    private List<Token> tokens;
+    private int pos;
+
+    private FtlParser(String source) {
+        this.source = source;
+        this.lineStarts = lineStarts(source);
+    }
+
+    static List<Node> parse(String source) {
+        FtlParser parser = new FtlParser(source);
+        parser.tokens = parser.tokenize();
+        parser.pos = 0;
+        List<Element> elements = parser.parseBlock(Set.of());
+        if (parser.pos < parser.tokens.size()) {
+            Token token = parser.tokens.get(parser.pos);
+            throw new UnsupportedTemplateException("多余的结束标签: " + token.name);
+        }
+        // 只有一个顶层元素时 FreeMarker 直接拿它作根，否则包一层 MixedContent
+        Element root = elements.size() == 1
+                ? elements.get(0)
+                : new Element(ElementKind.ROOT, 1, parser.line(source.length()), elements);
+        cleanup(root);
+        return toNodes(root.kind == ElementKind.ROOT ? root.children : List.of(root));
+    }
+
+    /**
+     * 解析自动导入的函数库，只接受注释、空白和 #function；
+     * 函数体除了空白和注释只有一条 #return 时记下它的表达式，其余函数的 result 为null，不能内联
+     */
+    static Map<String, Function> parseLibrary(String source) {
+        FtlParser parser = new FtlParser(source);
+        List<Token> tokens = parser.tokenize();
+        Map<String, Function> functions = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.kind == Kind.TEXT || token.kind == Kind.COMMENT) {
+                // 导入时库的输出被丢弃
+                continue;
+            }
+            if (token.kind != Kind.START_TAG || !token.name.equals("function")) {
+                throw new UnsupportedTemplateException("函数库中只支持 #function");
+            }
+            String[] header = token.body.split("\\s+");
+            List<String> params = List.of(header).subList(1, header.length);
+            for (String name : header) {
+                if (!name.matches("[A-Za-z_]\\w*")) {
+                    throw new UnsupportedTemplateException("不支持的函数声明: " + token.body);
+                }
+            }
+            Token returned = null;
+            boolean simple = true;
+            while (++i < tokens.size()) {
+                Token inner = tokens.get(i);
+                if (inner.kind == Kind.END_TAG && inner.name.equals("function")) {
+                    break;
+                }
+                if (inner.kind == Kind.START_TAG && inner.name.equals("return") && returned == null) {
+                    returned = inner;
+                } else if (inner.kind != Kind.TEXT && inner.kind != Kind.COMMENT) {
+                    simple = false;
+                }
+            }
+            if (i == tokens.size()) {
+                throw new UnsupportedTemplateException("缺少结束标签: </#function>");
+            }
+            Expr result = null;
+            if (simple && returned != null && !returned.body.isEmpty()) {
+                try {
+                    result = ExprParser.parseAll(returned.body);
+                } catch (UnsupportedTemplateException e) {
+                    // 表达式不在子集内，调用处退回 FreeMarker
+                }
+            }
+            functions.put(header[0], new Function(params, result));
+        }
+        return functions;
+    }
+
+    // ---------------------------------------------------------------- 语法树
+
+    sealed interface Node permits Text, Interpolation, If, ListNode, Sep, Assign {
+    }
+
+    record Text(String text) implements Node {
+    }
+
+    record Interpolation(Expr expr) implements Node {
+    }
+
+    record If(List<Expr> conditions, List<List<Node>> branches, List<Node> elseBranch) implements Node {
+    }
+
+    record ListNode(Expr sequence, String var, List<Node> body, List<Node> elseBody) implements Node {
+    }
+
+    record Sep(List<Node> body) implements Node {
+    }
+
+    record Assign(List<String> names, List<Expr> values) implements Node {
+    }
+
+    record Function(List<String> params, Expr result) {
+    }
+
+    sealed interface Expr permits Literal, Var, Dot, Index, Call, BuiltIn, Default, Exists, Paren, Not, Neg, Binary {
+    }
+
+    record Literal(Object value) implements Expr {
+    }
+
+    record Var(String name) implements Expr {
+    }
+
+    record Dot(Expr target, String name) implements Expr {
+    }
+
+    record Index(Expr target, Expr key) implements Expr {
+    }
+
+    record Call(Expr target, List<Expr> args) implements Expr {
+    }
+
+    record BuiltIn(Expr target, String name, List<Expr> args) implements Expr {
+    }
+
+    /**
+     * 默认值运算符 expr!default，没有默认值时 fallback 为null
+     */
+    record Default(Expr target, Expr fallback) implements Expr {
+    }
+
+    record Exists(Expr target) implements Expr {
+    }
+
+    record Paren(Expr expr) implements Expr {
+    }
+
+    record Not(Expr expr) implements Expr {
+    }
+
+    record Neg(Expr expr) implements Expr {
+    }
+
+    record Binary(String op, Expr left, Expr right) implements Expr {
+    }
+
+    // ---------------------------------------------------------------- 词法
+
+    private enum Kind { TEXT, INTERPOLATION, START_TAG, END_TAG, COMMENT }
+
+    /**
+     * begin、end 是标记在模板中的起止位置（不含 end）
+     */
+    private record Token(Kind kind, String name, String body, int begin, int end) {
+    }
+
+    private List<Token> tokenize() {
+        List<Token> result = new ArrayList<>();
+        int length = source.length();
+        int textStart = 0;
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '$' && source.startsWith("${", i)) {
+                addText(result, textStart, i);
+                int end = findClose(i + 2, '}');
+                result.add(new Token(Kind.INTERPOLATION, null, source.substring(i + 2, end), i, end + 1));
+                i = textStart = end + 1;
+            } else if (c == '<' && source.startsWith("<#--", i)) {
+                addText(result, textStart, i);
+                int end = source.indexOf("-->", i + 4);
+                if (end < 0) {
+                    throw new UnsupportedTemplateException("注释未闭合");
+                }
+                result.add(new Token(Kind.COMMENT, null, null, i, end + 3));
+                i = textStart = end + 3;
+            } else if (c == '<' && (source.startsWith("<#", i) || source.startsWith("</#", i))) {
+                addText(result, textStart, i);
+                boolean closing = source.charAt(i + 1) == '/';
+                int nameStart = i + (closing ? 3 : 2);
+                int nameEnd = nameStart;
+                while (nameEnd < length && Character.isLetter(source.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                int end = findClose(nameEnd, '>');
+                String name = source.substring(nameStart, nameEnd);
+                String body = source.substring(nameEnd, end).trim();
+                if (body.endsWith("/")) {
+                    body = body.substring(0, body.length() - 1).trim();
+                }
+                result.add(new Token(closing ? Kind.END_TAG : Kind.START_TAG, name, body, i, end + 1));
+                i = textStart = end + 1;
+            } else if (c == '<' && (source.startsWith("<@", i) || source.startsWith("</@", i))) {
+                throw new UnsupportedTemplateException("不支持自定义指令");
+            } else if (c == '#' && source.startsWith("#{", i)) {
+                throw new UnsupportedTemplateException("不支持 #{} 插值");
+            } else {
+                i++;
+            }
+        }
+        addText(result, textStart, length);
+        return result;
+    }
+
+    private void addText(List<Token> result, int start, int end) {
+        if (end > start) {
+            result.add(new Token(Kind.TEXT, null, source.substring(start, end), start, end));
+        }
+    }
+
+    /**
+     * 找到标签或插值的结束符，跳过字符串和括号内的内容
+     */
+    private int findClose(int from, char close) {
+        int depth = 0;
+        for (int i = from; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(source, i);
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (depth > 0 && (c == ')' || c == ']' || c == '}')) {
+                depth--;
+            } else if (c == close && depth == 0) {
+                return i;
+            }
+        }
+        throw new UnsupportedTemplateException("标签未闭合");
+    }
+
+    private static int skipString(String text, int from) {
+        char quote = text.charAt(from);
+        for (int i = from + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i;
+            }
+        }
+        throw new UnsupportedTemplateException("字符串未闭合");
+    }
+
+    private static int[] lineStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+                starts.add(i + 1);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 模板中某个位置所在的行号，从1开始
+     */
+    private int line(int offset) {
+        int index = Arrays.binarySearch(lineStarts, offset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // ---------------------------------------------------------------- 元素树
+
+    private enum ElementKind { ROOT, TEXT, INTERPOLATION, COMMENT, ASSIGN, IF, BRANCH, LIST, LIST_WITH_ELSE, LIST_ELSE, SEP }
+
+    /**
+     * 解析阶段的元素树，对应 FreeMarker 的 TemplateElement：
+     * IF 对应 IfBlock、BRANCH 对应 ConditionalBlock、LIST_WITH_ELSE 对应 ListElseContainer，以此类推。
+     * 起止行号按 FreeMarker 的规则记录，裁剪空白时要用
+     */
+    private static final class Element {
+        private final ElementKind kind;
+        private final List<Element> children;
+        private Element parent;
+        private int beginLine;
+        private int endLine;
+        // 文本是否从行首开始
+        private boolean lineStart;
+        private String text;
+        private Expr expr;
+        private String var;
+        private Assign assign;
+
+        private Element(ElementKind kind, int beginLine, int endLine, List<Element> children) {
+            this.kind = kind;
+            this.beginLine = beginLine;
+            this.endLine = endLine;
+            this.children = new ArrayList<>(children);
+            for (Element child : children) {
+                child.parent = this;
+            }
+        }
+    }
+
+    private Element leaf(ElementKind kind, Token token) {
+        return new Element(kind, line(token.begin), line(token.end - 1), List.of());
+    }
+
+    /**
+     * 带内容的块（ConditionalBlock、ElseOfList、没有结束标签的 #sep）结束在最后一个子元素上，没有内容时结束在开始标签上
+     */
+    private int contentEndLine(Token tag, List<Element> body) {
+        return body.isEmpty() ? line(tag.end - 1) : body.get(body.size() - 1).endLine;
+    }
+
+    // ---------------------------------------------------------------- 空白裁剪
+
+    /**
+     * 对应 FreeMarker 的 postParseCleanup：先按文档顺序处理子元素，再删掉可以忽略的文本
+     */
+    private static void cleanup(Element element) {
+        if (element.kind == ElementKind.TEXT) {
+            stripText(element);
+            return;
+        }
+        for (Element child : element.children) {
+            cleanup(child);
+        }
+        for (int i = 0; i < element.children.size(); i++) {
+            if (isIgnorable(element.children.get(i))) {
+                element.children.remove(i--);
+            }
+        }
+    }
+
+    /**
+     * 去掉文本开头到第一个换行、最后一个换行到结尾之间的空白，前提是这一行上除了空白只有非输出的标签；
+     * 模板开头的第一段顶层文本不处理
+     */
+    private static void stripText(Element element) {
+        String text = element.text;
+        if (text.isEmpty() || (isTopLevel(element.parent) && sibling(element, -1) == null)) {
+            return;
+        }
+        int trailing = trailingCharsToStrip(element);
+        int opening = openingCharsToStrip(element);
+        if (opening == 0 && trailing == 0) {
+            return;
+        }
+        element.text = text.substring(opening, text.length() - trailing);
+        if (opening > 0) {
+            element.beginLine++;
+        }
+    }
+
+    private static int openingCharsToStrip(Element element) {
+        String text = element.text;
+        int i = firstNewLine(text);
+        if (i == -1 && !element.lineStart) {
+            return 0;
+        }
+        i++;
+        if (text.length() > i && i > 0 && text.charAt(i - 1) == '\r' && text.charAt(i) == '\n') {
+            i++;
+        }
+        if (!isTrimmable(text, 0, i)) {
+            return 0;
+        }
+        for (Element node = prevTerminal(element); node != null && node.endLine == element.beginLine;
+             node = prevTerminal(node)) {
+            if (heedsOpeningWhitespace(node)) {
+                return 0;
+            }
+        }
+        return i;
+    }
+
+    private static int trailingCharsToStrip(Element element) {
+        String text = element.text;
+        int i = lastNewLine(text);
+        if (i == -1 && !element.lineStart) {
+            return 0;
+        }
+        if (!isTrimmable(text, i + 1, text.length())) {
+            return 0;
+        }
+        for (Element node = nextTerminal(element); node != null && node.beginLine == element.endLine;
+             node = nextTerminal(node)) {
+            if (heedsTrailingWhitespace(node)) {
+                return 0;
+            }
+        }
+        return text.length() - (i + 1);
+    }
+
+    /**
+     * 同一行上的前一个元素是否需要保留它后面的空白：插值需要，文本看它最后一个换行之后有没有内容
+     */
+    private static boolean heedsOpeningWhitespace(Element element) {
+        if (element.kind == ElementKind.INTERPOLATION) {
+            return true;
+        }
+        if (element.kind != ElementKind.TEXT || isIgnorable(element)) {
+            return false;
+        }
+        for (int i = element.text.length() - 1; i >= 0; i--) {
+            char c = element.text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return false;
+            }
+            if (!Character.isWhitespace(c)) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private static boolean heedsTrailingWhitespace(Element element) {
+        if (element.kind == ElementKind.INTERPOLATION) {
+            return true;
+        }
+        if (element.kind != ElementKind.TEXT || isIgnorable(element)) {
+            return false;
+        }
+        for (int i = 0; i < element.text.length(); i++) {
+            char c = element.text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return false;
+            }
+            if (!Character.isWhitespace(c)) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 可以整段删掉的文本：空文本，或夹在非输出元素（注释、#assign）或顶层边界之间的纯空白
+     */
+    private static boolean isIgnorable(Element element) {
+        if (element.kind != ElementKind.TEXT) {
+            return false;
+        }
+        if (element.text.isEmpty()) {
+            return true;
+        }
+        if (!isTrimmable(element.text, 0, element.text.length())) {
+            return false;
+        }
+        boolean topLevel = isTopLevel(element.parent);
+        Element previous = sibling(element, -1);
+        Element next = sibling(element, 1);
+        return (previous == null && topLevel || isNonOutputting(previous))
+                && (next == null && topLevel || isNonOutputting(next));
+    }
+
+    private static boolean isNonOutputting(Element element) {
+        return element != null && (element.kind == ElementKind.COMMENT || element.kind == ElementKind.ASSIGN);
+    }
+
+    private static boolean isTopLevel(Element parent) {
+        return parent == null || (parent.parent == null && parent.kind == ElementKind.ROOT);
+    }
+
+    private static Element sibling(Element element, int offset) {
+        if (element.parent == null) {
+            return null;
+        }
+        List<Element> siblings = element.parent.children;
+        int index = siblings.indexOf(element) + offset;
+        return index >= 0 && index < siblings.size() ? siblings.get(index) : null;
+    }
+
+    private static Element nextTerminal(Element element) {
+        for (Element current = element; current != null; current = current.parent) {
+            Element next = sibling(current, 1);
+            if (next != null) {
+                while (!next.children.isEmpty()) {
+                    next = next.children.get(0);
+                }
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private static Element prevTerminal(Element element) {
+        for (Element current = element; current != null; current = current.parent) {
+            Element previous = sibling(current, -1);
+            if (previous != null) {
+                while (!previous.children.isEmpty()) {
+                    previous = previous.children.get(previous.children.size() - 1);
+                }
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    private static int firstNewLine(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastNewLine(String text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * FreeMarker 把不大于空格的字符都当作可以裁掉的空白
+     */
+    private static boolean isTrimmable(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Node> toNodes(List<Element> elements) {
+        List<Node> nodes = new ArrayList<>();
+        for (Element element : elements) {
+            switch (element.kind) {
+                case TEXT -> {
+                    if (element.text.isEmpty()) {
+                        continue;
+                    }
+                    if (!nodes.isEmpty() && nodes.get(nodes.size() - 1) instanceof Text previous) {
+                        nodes.set(nodes.size() - 1, new Text(previous.text() + element.text));
+                    } else {
+                        nodes.add(new Text(element.text));
+                    }
+                }
+                case INTERPOLATION -> nodes.add(new Interpolation(element.expr));
+                case ASSIGN -> nodes.add(element.assign);
+                case BRANCH -> nodes.add(new If(List.of(element.expr), List.of(toNodes(element.children)), List.of()));
+                case IF -> {
+                    List<Expr> conditions = new ArrayList<>();
+                    List<List<Node>> branches = new ArrayList<>();
+                    List<Node> elseBranch = List.of();
+                    for (Element branch : element.children) {
+                        if (branch.expr == null) {
+                            elseBranch = toNodes(branch.children);
+                        } else {
+                            conditions.add(branch.expr);
+                            branches.add(toNodes(branch.children));
+                        }
+                    }
+                    nodes.add(new If(conditions, branches, elseBranch));
+                }
+                case LIST -> nodes.add(new ListNode(element.expr, element.var, toNodes(element.children), List.of()));
+                case LIST_WITH_ELSE -> {
+                    Element list = element.children.get(0);
+                    Element orElse = element.children.get(1);
+                    nodes.add(new ListNode(list.expr, list.var, toNodes(list.children), toNodes(orElse.children)));
+                }
+                case SEP -> nodes.add(new Sep(toNodes(element.children)));
+                default -> {
+                    // 注释不输出
+                }
+            }
+        }
+        return nodes;
+    }
+
+    // ---------------------------------------------------------------- 指令
+
+    private List<Element> parseBlock(Set<String> terminators) {
+        List<Element> elements = new ArrayList<>();
+        while (pos < tokens.size()) {
+            Token token = tokens.get(pos);
+            switch (token.kind) {
+                case TEXT -> {
+                    pos++;
+                    Element text = leaf(ElementKind.TEXT, token);
+                    text.text = token.body;
+                    text.lineStart = token.begin == 0
+                            || source.charAt(token.begin - 1) == '\n' || source.charAt(token.begin - 1) == '\r';
+                    elements.add(text);
+                }
+                case INTERPOLATION -> {
+                    pos++;
+                    Element interpolation = leaf(ElementKind.INTERPOLATION, token);
+                    interpolation.expr = ExprParser.parseAll(token.body);
+                    elements.add(interpolation);
+                }
+                case COMMENT -> {
+                    pos++;
+                    elements.add(leaf(ElementKind.COMMENT, token));
+                }
+                case END_TAG -> {
+                    if (terminators.contains("/" + token.name)) {
+                        return elements;
+                    }
+                    throw new UnsupportedTemplateException("意外的结束标签: </#" + token.name + ">");
+                }
+                case START_TAG -> {
+                    if (terminators.contains(token.name)) {
+                        return elements;
+                    }
+                    pos++;
+                    elements.add(parseDirective(token));
+                }
+            }
+        }
+        if (!terminators.isEmpty() && !terminators.contains("")) {
+            throw new UnsupportedTemplateException("缺少结束标签: " + terminators);
+        }
+        return elements;
+    }
+
+    private Element parseDirective(Token token) {
+        return switch (token.name) {
+            case "if" -> parseIf(token);
+            case "list" -> parseList(token);
+            case "assign" -> parseAssign(token);
+            case "sep" -> {
+                // <#sep> 没有结束标签时作用到循环体末尾
+                List<Element> body = parseBlock(Set.of("/sep", "/list", "else", ""));
+                int endLine = contentEndLine(token, body);
+                if (pos < tokens.size() && tokens.get(pos).kind == Kind.END_TAG && tokens.get(pos).name.equals("sep")) {
+                    endLine = line(tokens.get(pos++).end - 1);
+                }
+                yield new Element(ElementKind.SEP, line(token.begin), endLine, body);
+            }
+            default -> throw new UnsupportedTemplateException("不支持的指令: <#" + token.name + ">");
+        };
+    }
+
+    private Element parseIf(Token token) {
+        Set<String> terminators = Set.of("elseif", "else", "/if");
+        List<Element> branches = new ArrayList<>();
+        Token tag = token;
+        Token end;
+        while (true) {
+            boolean isElse = tag.name.equals("else");
+            List<Element> body = parseBlock(isElse ? Set.of("/if") : terminators);
+            Element branch = new Element(ElementKind.BRANCH, line(tag.begin), contentEndLine(tag, body), body);
+            if (!isElse) {
+                branch.expr = ExprParser.parseAll(tag.body);
+            }
+            branches.add(branch);
+            Token next = expect(isElse ? Set.of("/if") : terminators);
+            if (next.kind == Kind.END_TAG) {
+                end = next;
+                break;
+            }
+            tag = next;
+        }
+        if (branches.size() == 1) {
+            // 和 FreeMarker 一样，只有一个分支的 #if 直接用分支本身，位置延伸到 </#if>
+            Element branch = branches.get(0);
+            branch.endLine = line(end.end - 1);
+            return branch;
+        }
+        return new Element(ElementKind.IF, line(token.begin), line(end.end - 1), branches);
+    }
+
+    private Element parseList(Token token) {
+        int as = token.body.lastIndexOf(" as ");
+        if (as < 0) {
+            throw new UnsupportedTemplateException("无法识别的 #list: " + token.body);
+        }
+        String var = token.body.substring(as + 4).trim();
+        if (!var.matches("[A-Za-z_]\\w*")) {
+            throw new UnsupportedTemplateException("不支持的循环变量: " + var);
+        }
+        Expr sequence = ExprParser.parseAll(token.body.substring(0, as));
+        List<Element> body = parseBlock(Set.of("else", "/list"));
+        Token next = expect(Set.of("else", "/list"));
+        Token elseTag = null;
+        List<Element> elseBody = List.of();
+        if (next.kind == Kind.START_TAG) {
+            elseTag = next;
+            elseBody = parseBlock(Set.of("/list"));
+            next = expect(Set.of("/list"));
+        }
+        Element list = new Element(ElementKind.LIST, line(token.begin), line(next.end - 1), body);
+        list.expr = sequence;
+        list.var = var;
+        if (elseTag == null) {
+            return list;
+        }
+        Element orElse = new Element(ElementKind.LIST_ELSE, line(elseTag.begin), contentEndLine(elseTag, elseBody),
+                elseBody);
+        return new Element(ElementKind.LIST_WITH_ELSE, list.beginLine, list.endLine, List.of(list, orElse));
+    }
+
+    private Element parseAssign(Token token) {
+        if (token.body.isEmpty()) {
+            throw new UnsupportedTemplateException("不支持捕获输出的 #assign");
+        }
+        ExprParser parser = new ExprParser(token.body);
+        List<String> names = new ArrayList<>();
+        List<Expr> values = new ArrayList<>();
+        while (!parser.atEnd()) {
+            names.add(parser.identifier());
+            parser.expectSymbol("=");
+            values.add(parser.expression());
+            parser.skipComma();
+        }
+        Element assign = leaf(ElementKind.ASSIGN, token);
+        // 一次给多个变量赋值时 FreeMarker 按每个赋值的位置裁剪空白，这里只处理写在同一行的情况
+        if (names.size() > 1 && assign.beginLine != assign.endLine) {
+            throw new UnsupportedTemplateException("跨行的多变量 #assign");
+        }
+        assign.assign = new Assign(names, values);
+        return assign;
+    }
+
+    private Token expect(Set<String> names) {
+        if (pos >= tokens.size()) {
+            throw new UnsupportedTemplateException("缺少结束标签: " + names);
+        }
+        Token token = tokens.get(pos++);
+        String key = token.kind == Kind.END_TAG ? "/" + token.name : token.name;
+        if (!names.contains(key)) {
+            throw new UnsupportedTemplateException("意外的标签: " + key);
+        }
+        return token;
+    }
+
+    // ---------------------------------------------------------------- 表达式
+
+    private static final class ExprParser {
+        private final String text;
+        private int i;
+
+        private ExprParser(String text) {
+            this.text = text;
+        }
+
+        static Expr parseAll(String text) {
+            ExprParser parser = new ExprParser(text);
+            Expr expr = parser.expression();
+            if (!parser.atEnd()) {
+                throw new UnsupportedTemplateException("无法识别的表达式: " + text);
+            }
+            return expr;
+        }
+
+        boolean atEnd() {
+            skipSpaces();
+            return i >= text.length();
+        }
+
+        void skipComma() {
+            skipSpaces();
+            if (i < text.length() && text.charAt(i) == ',') {
+                i++;
+            }
+        }
+
+        Expr expression() {
+            Expr left = and();
+            while (accept("||")) {
+                left = new Binary("||", left, and());
+            }
+            return left;
+        }
+
+        private Expr and() {
+            Expr left = equality();
+            while (accept("&&")) {
+                left = new Binary("&&", left, equality());
+            }
+            return left;
+        }
+
+        private Expr equality() {
+            Expr left = relational();
+            while (true) {
+                if (accept("==")) {
+                    left = new Binary("==", left, relational());
+                } else if (accept("!=")) {
+                    left = new Binary("!=", left, relational());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Expr relational() {
+            Expr left = additive();
+            while (true) {
+                String op = acceptAny("<=", ">=", "<", ">", "lte", "gte", "lt", "gt");
+                if (op == null) {
+                    return left;
+                }
+                op = switch (op) {
+                    case "lte" -> "<=";
+                    case "gte" -> ">=";
+                    case "lt" -> "<";
+                    case "gt" -> ">";
+                    default -> op;
+                };
+                left = new Binary(op, left, additive());
+            }
+        }
+
+        private Expr additive() {
+            Expr left = multiplicative();
+            while (true) {
+                String op = acceptAny("+", "-");
+                if (op == null) {
+                    return left;
+                }
+                left = new Binary(op, left, multiplicative());
+            }
+        }
+
+        private Expr multiplicative() {
+            Expr left = unary();
+            while (true) {
+                String op = acceptAny("*", "/", "%");
+                if (op == null) {
+                    return left;
+                }
+                left = new Binary(op, left, unary());
+            }
+        }
+
+        private Expr unary() {
+            skipSpaces();
+            if (peek('!') && !peekAt(1, '=')) {
+                i++;
+                return new Not(unary());
+            }
+            if (peek('-')) {
+                i++;
+                return new Neg(unary());
+            }
+            return postfix();
+        }
+
+        private Expr postfix() {
+            Expr expr = primary();
+            while (true) {
+                skipSpaces();
+                if (peek('.') && !peekAt(1, '.')) {
+                    i++;
+                    expr = new Dot(expr, identifier());
+                } else if (peek('[')) {
+                    i++;
+                    Expr key = expression();
+                    expectSymbol("]");
+                    expr = new Index(expr, key);
+                } else if (peek('(')) {
+                    i++;
+                    expr = new Call(expr, arguments());
+                } else if (peek('?') && peekAt(1, '?')) {
+                    i += 2;
+                    expr = new Exists(expr);
+                } else if (peek('?')) {
+                    i++;
+                    String name = identifier();
+                    if (!BUILT_INS.contains(name)) {
+                        throw new UnsupportedTemplateException("不支持的内建函数: ?" + name);
+                    }
+                    List<Expr> args = List.of();
+                    skipSpaces();
+                    if (peek('(')) {
+                        i++;
+                        args = arguments();
+                    }
+                    expr = new BuiltIn(expr, name, args);
+                } else if (peek('!') && !peekAt(1, '=')) {
+                    i++;
+                    expr = new Default(expr, startsOperand() ? postfix() : null);
+                } else {
+                    return expr;
+                }
+            }
+        }
+
+        /**
+         * 默认值运算符后面是否跟着默认值表达式
+         */
+        private boolean startsOperand() {
+            skipSpaces();
+            if (i >= text.length()) {
+                return false;
+            }
+            char c = text.charAt(i);
+            return c == '"' || c == '\'' || c == '(' || Character.isDigit(c)
+                    || (Character.isLetter(c) && !startsWithWord("gt", "lt", "gte", "lte"));
+        }
+
+        private Expr primary() {
+            skipSpaces();
+            if (i >= text.length()) {
+                throw new UnsupportedTemplateException("表达式不完整: " + text);
+            }
+            char c = text.charAt(i);
+            if (c == '(') {
+                i++;
+                Expr inner = expression();
+                expectSymbol(")");
+                return new Paren(inner);
+            }
+            if (c == '"' || c == '\'') {
+                return new Literal(stringLiteral());
+            }
+            if (Character.isDigit(c)) {
+                int start = i;
+                while (i < text.length() && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                    i++;
+                }
+                String number = text.substring(start, i);
+                return new Literal(number.contains(".") ? new BigDecimal(number) : Integer.valueOf(number));
+            }
+            if (c == '[' || c == '{' || c == 'r' && peekAt(1, '"')) {
+                throw new UnsupportedTemplateException("不支持的字面量: " + text);
+            }
+            String name = identifier();
+            skipSpaces();
+            if (text.startsWith("->", i)) {
+                throw new UnsupportedTemplateException("不支持lambda表达式");
+            }
+            return switch (name) {
+                case "true" -> new Literal(Boolean.TRUE);
+                case "false" -> new Literal(Boolean.FALSE);
+                default -> new Var(name);
+            };
+        }
+
+        private List<Expr> arguments() {
+            List<Expr> args = new ArrayList<>();
+            skipSpaces();
+            if (peek(')')) {
+                i++;
+                return args;
+            }
+            while (true) {
+                args.add(expression());
+                skipSpaces();
+                if (peek(',')) {
+                    i++;
+                } else {
+                    expectSymbol(")");
+                    return args;
+                }
+            }
+        }
+
+        private String stringLiteral() {
+            char quote = text.charAt(i++);
+            StringBuilder builder = new StringBuilder();
+            while (i < text.length()) {
+                char c = text.charAt(i++);
+                if (c == quote) {
+                    return builder.toString();
+                }
+                if (c == '$' && i < text.length() && text.charAt(i) == '{') {
+                    throw new UnsupportedTemplateException("不支持字符串内插值");
+                }
+                if (c == '\\') {
+                    char escaped = text.charAt(i++);
+                    builder.append(switch (escaped) {
+                        case 'n' -> '\n';
+                        case 't' -> '\t';
+                        case 'r' -> '\r';
+                        case '"', '\'', '\\', '{', '$' -> escaped;
+                        default -> throw new UnsupportedTemplateException("不支持的转义: \\" + escaped);
+                    });
+                } else {
+                    builder.append(c);
+                }
+            }
+            throw new UnsupportedTemplateException("字符串未闭合");
+        }
+
+        String identifier() {
+            skipSpaces();
+            int start = i;
+            while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                i++;
+            }
+            if (start == i) {
+                throw new UnsupportedTemplateException("缺少标识符: " + text);
+            }
+            return text.substring(start, i);
+        }
+
+        void expectSymbol(String symbol) {
+            if (!accept(symbol)) {
+                throw new UnsupportedTemplateException("缺少 " + symbol + ": " + text);
+            }
+        }
+
+        private boolean accept(String symbol) {
+            skipSpaces();
+            if (!text.startsWith(symbol, i)) {
+                return false;
+            }
+            // 单个 = 在 #assign 之外是相等比较，这里只在 expectSymbol("=") 时出现
+            if (symbol.equals("=") && text.startsWith("==", i)) {
+                return false;
+            }
+            i += symbol.length();
+            return true;
+        }
+
+        private String acceptAny(String... symbols) {
+            skipSpaces();
+            for (String symbol : symbols) {
+                boolean word = Character.isLetter(symbol.charAt(0));
+                if (word ? startsWithWord(symbol) : text.startsWith(symbol, i)) {
+                    // 避免把 && || 拆开、把 ?? 当成别的
+                    if (symbol.equals("<") && text.startsWith("<=", i) || symbol.equals(">") && text.startsWith(">=", i)) {
+                        continue;
+                    }
+                    i += symbol.length();
+                    return symbol;
+                }
+            }
+            return null;
+        }
+
+        private boolean startsWithWord(String... words) {
+            for (String word : words) {
+                int end = i + word.length();
+                if (text.startsWith(word, i)
+                        && (end >= text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean peek(char c) {
+            return i < text.length() && text.charAt(i) == c;
+        }
+
+        private boolean peekAt(int offset, char c) {
+            return i + offset < text.length() && text.charAt(i + offset) == c;
+        }
+
+        private void skipSpaces() {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在进程内用 javax.tools 编译渲染类，源码和字节码都不落盘；
+ * 运行环境没有 javac（只有JRE）时抛出 UnsupportedTemplateException
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+final class InMemoryJavaCompiler {
+    private static final List<String> OPTIONS = List.of("-proc:none", "-g:none", "-nowarn", "-encoding", "UTF-8");
+
+    private InMemoryJavaCompiler() {
+    }
+
+    static Class<?> compile(String className, String source, Collection<Class<?>> referencedClasses,
+                            ClassLoader parent) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new UnsupportedTemplateException("运行环境没有Java编译器");
+        }
+        checkVisible(referencedClasses, parent);
+
+        String qualifiedName = TemplateTranslator.PACKAGE + "." + className;
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+             JavaFileManager fileManager = new MemoryFileManager(standard, classes)) {
+            standard.setLocation(StandardLocation.CLASS_PATH, classPath(referencedClasses));
+            JavaFileObject unit = new SimpleJavaFileObject(
+                    URI.create("string:///" + qualifiedName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                    JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            };
+            Boolean success = compiler.getTask(null, fileManager, diagnostics, OPTIONS, null, List.of(unit)).call();
+            if (!Boolean.TRUE.equals(success)) {
+                throw new UnsupportedTemplateException("渲染类编译失败: " + errors(diagnostics));
+            }
+        } catch (IOException e) {
+            throw new UnsupportedTemplateException("渲染类编译失败: " + e.getMessage());
+        }
+
+        ClassLoader loader = new ClassLoader(parent) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                ByteArrayOutputStream bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                byte[] code = bytes.toByteArray();
+                return defineClass(name, code, 0, code.length);
+            }
+        };
+        try {
+            return loader.loadClass(qualifiedName);
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedTemplateException("渲染类加载失败: " + qualifiedName);
+        }
+    }
+
+    /**
+     * 生成的类由 parent 的子加载器加载，用到的类必须能从 parent 按名字找到同一个类
+     */
+    private static void checkVisible(Collection<Class<?>> referencedClasses, ClassLoader parent) {
+        for (Class<?> type : referencedClasses) {
+            try {
+                if (Class.forName(type.getName(), false, parent) != type) {
+                    throw new UnsupportedTemplateException("类加载器中的类不一致: " + type.getName());
+                }
+            } catch (ClassNotFoundException e) {
+                throw new UnsupportedTemplateException("类不可见: " + type.getName());
+            }
+        }
+    }
+
+    /**
+     * 编译用的类路径：用到的类所在的jar或目录，JDK自带的类不需要
+     */
+    private static List<File> classPath(Collection<Class<?>> referencedClasses) {
+        Set<File> files = new LinkedHashSet<>();
+        List<Class<?>> types = new ArrayList<>(referencedClasses);
+        types.add(CompiledTemplate.class);
+        types.add(RenderSupport.class);
+        for (Class<?> type : types) {
+            if (type.getClassLoader() == null || type.getClassLoader() == ClassLoader.getPlatformClassLoader()) {
+                continue;
+            }
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            URL location = codeSource == null ? null : codeSource.getLocation();
+            if (location == null) {
+                throw new UnsupportedTemplateException("无法确定类的位置: " + type.getName());
+            }
+            try {
+                files.add(Paths.get(location.toURI()).toFile());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new UnsupportedTemplateException("无法确定类的位置: " + location);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static String errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder builder = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                builder.append("\n  line ").append(diagnostic.getLineNumber()).append(": ")
+                        .append(diagnostic.getMessage(null));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        private MemoryFileManager(StandardJavaFileManager fileManager, Map<String, ByteArrayOutputStream> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            classes.put(className, bytes);
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return bytes;
+                }
+            };
+        }
+    }
+}
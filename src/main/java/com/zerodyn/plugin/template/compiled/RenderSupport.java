@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.Collator;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 编译后模板在运行时调用的辅助方法，语义与 FreeMarker 2.3.33 默认配置一致：
+ * 数字按默认区域格式化、布尔值不能直接输出、null 不能输出或比较；
+ * 与 FreeMarker 行为无法保证一致的情况一律抛出异常，由引擎退回 FreeMarker 重新渲染
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+public final class RenderSupport {
+    // NumberFormat 和 Collator 都不是线程安全的
+    private static final ThreadLocal<NumberFormat> NUMBER_FORMAT =
+            ThreadLocal.withInitial(() -> NumberFormat.getNumberInstance(Locale.getDefault()));
+    private static final ThreadLocal<Collator> COLLATOR =
+            ThreadLocal.withInitial(() -> Collator.getInstance(Locale.getDefault()));
+
+    private RenderSupport() {
+    }
+
+    /**
+     * ${value} 的输出
+     */
+    public static String text(Object value) {
+        if (value instanceof String s) {
+            return s;
+        }
+        if (value instanceof Number number) {
+            return NUMBER_FORMAT.get().format(number);
+        }
+        if (!isScalar(value)) {
+            throw unsupported("无法输出的值", value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * ${value!} 的输出，null 输出为空串
+     */
+    public static String textOrEmpty(Object value) {
+        return value == null ? "" : text(value);
+    }
+
+    /**
+     * value! 作用在字符串上：null 即空串
+     */
+    public static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    public static Object orDefault(Object value, Object fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * #assign 不接受 null（除非写了默认值运算符）
+     */
+    public static Object required(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("不能把null赋给变量");
+        }
+        return value;
+    }
+
+    public static boolean bool(Object value) {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        throw unsupported("条件不是布尔值", value);
+    }
+
+    public static boolean eq(Object left, Object right) {
+        return compareEquals(left, right, false);
+    }
+
+    public static int compare(Object left, Object right) {
+        if (left instanceof Number a && right instanceof Number b) {
+            return toBigDecimal(a).compareTo(toBigDecimal(b));
+        }
+        throw unsupported("只能比较数字大小", left);
+    }
+
+    /**
+     * + 运算：两个数字相加，否则按字符串拼接
+     */
+    public static Object plus(Object left, Object right) {
+        if (left instanceof Number a && right instanceof Number b) {
+            return arithmetic('+', a, b);
+        }
+        return concat(left, right);
+    }
+
+    public static String concat(Object left, Object right) {
+        return text(left).concat(text(right));
+    }
+
+    public static Number arithmetic(char op, Object left, Object right) {
+        if (!(left instanceof Number a) || !(right instanceof Number b)) {
+            throw unsupported("算术运算的操作数不是数字", left);
+        }
+        if (!isIntegral(a) || !isIntegral(b)) {
+            throw unsupported("只支持整数运算", a);
+        }
+        long x = a.longValue();
+        long y = b.longValue();
+        return switch (op) {
+            case '+' -> Math.addExact(x, y);
+            case '-' -> Math.subtractExact(x, y);
+            case '*' -> Math.multiplyExact(x, y);
+            case '%' -> x % y;
+            default -> throw new IllegalStateException("不支持的运算符: " + op);
+        };
+    }
+
+    public static Number negate(Object value) {
+        if (value instanceof Number number && isIntegral(number)) {
+            return Math.negateExact(number.longValue());
+        }
+        throw unsupported("只支持整数取负", value);
+    }
+
+    /**
+     * ?c：整数和布尔值按计算机格式输出
+     */
+    public static String c(Object value) {
+        if (value instanceof Boolean b) {
+            return b.toString();
+        }
+        if (value instanceof Number number && isIntegral(number)) {
+            return Long.toString(number.longValue());
+        }
+        throw unsupported("?c 只支持整数和布尔值", value);
+    }
+
+    public static boolean hasContent(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof String s) {
+            return !s.isEmpty();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        if (value instanceof Iterator<?>) {
+            throw unsupported("?has_content 不支持迭代器", value);
+        }
+        return true;
+    }
+
+    public static String capFirst(Object value) {
+        return changeFirst(text(value), true);
+    }
+
+    public static String uncapFirst(Object value) {
+        return changeFirst(text(value), false);
+    }
+
+    public static String upperCase(Object value) {
+        return text(value).toUpperCase(Locale.getDefault());
+    }
+
+    public static String lowerCase(Object value) {
+        return text(value).toLowerCase(Locale.getDefault());
+    }
+
+    public static String trim(Object value) {
+        return text(value).trim();
+    }
+
+    public static String replace(Object value, Object target, Object replacement) {
+        String s = text(value);
+        String from = text(target);
+        if (from.isEmpty()) {
+            throw unsupported("?replace 的查找串为空", value);
+        }
+        return s.replace(from, text(replacement));
+    }
+
+    public static int length(Object value) {
+        return text(value).length();
+    }
+
+    public static int size(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (value != null && value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        throw unsupported("?size 只支持序列和哈希", value);
+    }
+
+    /**
+     * ?join：跳过null元素，其余元素按 ${} 的规则转成字符串
+     */
+    public static String join(Object sequence, Object separator) {
+        String sep = text(separator);
+        StringBuilder builder = new StringBuilder();
+        Iterator<?> iterator = iterator(sequence);
+        boolean first = true;
+        while (iterator.hasNext()) {
+            Object item = iterator.next();
+            if (item == null) {
+                continue;
+            }
+            if (!first) {
+                builder.append(sep);
+            }
+            builder.append(text(item));
+            first = false;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * ?seq_contains：类型不同的元素视为不相等
+     */
+    public static boolean seqContains(Object sequence, Object item) {
+        Iterator<?> iterator = iterator(sequence);
+        while (iterator.hasNext()) {
+            if (compareEquals(iterator.next(), item, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Iterator<?> iterator(Object sequence) {
+        if (sequence instanceof Collection<?> collection) {
+            return collection.iterator();
+        }
+        if (sequence instanceof Object[] array) {
+            return Arrays.asList(array).iterator();
+        }
+        throw unsupported("不能遍历的值", sequence);
+    }
+
+    private static boolean compareEquals(Object left, Object right, boolean typeMismatchMeansNotEqual) {
+        if (left == null || right == null) {
+            throw new IllegalStateException("不能比较null");
+        }
+        if (left instanceof Number a && right instanceof Number b) {
+            return toBigDecimal(a).compareTo(toBigDecimal(b)) == 0;
+        }
+        if (isScalar(left) && isScalar(right)) {
+            String a = left.toString();
+            String b = right.toString();
+            // FreeMarker 按区域的 Collator 判断字符串相等
+            return a.equals(b) || COLLATOR.get().compare(a, b) == 0;
+        }
+        if (left instanceof Boolean a && right instanceof Boolean b) {
+            return a.equals(b);
+        }
+        if (typeMismatchMeansNotEqual) {
+            return false;
+        }
+        throw unsupported("不能比较的值", left);
+    }
+
+    /**
+     * FreeMarker 中可以当作字符串使用的值：字符串以及按 toString 输出的普通Java对象
+     */
+    private static boolean isScalar(Object value) {
+        return value != null
+                && !(value instanceof Number)
+                && !(value instanceof Boolean)
+                && !(value instanceof Collection)
+                && !(value instanceof Map)
+                && !(value instanceof Iterator)
+                && !(value instanceof Date)
+                && !value.getClass().isArray();
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    private static String changeFirst(String s, boolean upper) {
+        int i = 0;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        if (i == s.length()) {
+            return s;
+        }
+        char first = s.charAt(i);
+        char changed = upper ? Character.toUpperCase(first) : Character.toLowerCase(first);
+        if (changed == first) {
+            return s;
+        }
+        StringBuilder builder = new StringBuilder(s);
+        builder.setCharAt(i, changed);
+        return builder.toString();
+    }
+
+    private static IllegalStateException unsupported(String message, Object value) {
+        return new IllegalStateException(message + ": "
+                + (value == null ? "null" : value.getClass().getName()));
+    }
+}
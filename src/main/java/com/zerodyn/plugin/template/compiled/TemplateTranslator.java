@@ -0,0 +1,934 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+import com.zerodyn.plugin.template.compiled.FtlParser.Assign;
+import com.zerodyn.plugin.template.compiled.FtlParser.Binary;
+import com.zerodyn.plugin.template.compiled.FtlParser.BuiltIn;
+import com.zerodyn.plugin.template.compiled.FtlParser.Call;
+import com.zerodyn.plugin.template.compiled.FtlParser.Default;
+import com.zerodyn.plugin.template.compiled.FtlParser.Dot;
+import com.zerodyn.plugin.template.compiled.FtlParser.Exists;
+import com.zerodyn.plugin.template.compiled.FtlParser.Expr;
+import com.zerodyn.plugin.template.compiled.FtlParser.Function;
+import com.zerodyn.plugin.template.compiled.FtlParser.If;
+import com.zerodyn.plugin.template.compiled.FtlParser.Index;
+import com.zerodyn.plugin.template.compiled.FtlParser.Interpolation;
+import com.zerodyn.plugin.template.compiled.FtlParser.ListNode;
+import com.zerodyn.plugin.template.compiled.FtlParser.Literal;
+import com.zerodyn.plugin.template.compiled.FtlParser.Neg;
+import com.zerodyn.plugin.template.compiled.FtlParser.Node;
+import com.zerodyn.plugin.template.compiled.FtlParser.Not;
+import com.zerodyn.plugin.template.compiled.FtlParser.Paren;
+import com.zerodyn.plugin.template.compiled.FtlParser.Sep;
+import com.zerodyn.plugin.template.compiled.FtlParser.Text;
+import com.zerodyn.plugin.template.compiled.FtlParser.Var;
+
+import java.beans.Introspector;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把模板语法树翻译成Java渲染类的源码。属性和方法按数据模型中实际对象的类型在翻译时用反射解析，
+ * 生成的代码直接调用getter/record访问器，不再经过 ObjectWrapper 和逐节点解释；
+ * 只有类型无法静态确定或与 FreeMarker 语义可能不一致的写法才抛出 UnsupportedTemplateException
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+final class TemplateTranslator {
+    static final String PACKAGE = "codegen.compiled";
+    private static final String SUPPORT = RenderSupport.class.getName();
+    // 翻译时已知恒为null的值（未定义变量上的默认值运算）
+    private static final Class<?> NULL_TYPE = Void.class;
+    // 文本常量按块输出，避免超过class文件的常量长度限制
+    private static final int TEXT_CHUNK = 8000;
+    private static final Set<String> HIDDEN_METHODS = Set.of("getClass", "wait", "notify", "notifyAll");
+
+    private final Map<String, Class<?>> modelTypes;
+    private final Map<String, Map<String, Function>> libraries;
+    private final Set<String> assignedNames = new HashSet<>();
+    private final Map<String, Value> assignedValues = new HashMap<>();
+    private final Set<String> topVars = new LinkedHashSet<>();
+    private final Deque<Loop> loops = new ArrayDeque<>();
+    private final Set<Class<?>> referencedClasses = new LinkedHashSet<>();
+    private final StringBuilder body = new StringBuilder();
+    private int indent = 2;
+    private int counter;
+
+    /**
+     * 翻译后的表达式：code 总是引用类型的Java表达式，静态类型可赋值给 type 的原始类型或为Object；
+     * emptyDefault 表示值可能是 x! 产生的“空值”（FreeMarker 中它同时是空串、空序列和空哈希），
+     * 这里用null表示；在它上面访问成员会抛出NPE并退回 FreeMarker，只有判空和传参会与 FreeMarker 不同，需要拒绝
+     */
+    private record Value(String code, Type type, boolean emptyDefault) {
+        Value(String code, Type type) {
+            this(code, type, false);
+        }
+    }
+
+    private record Loop(String name, int id, Type elementType) {
+    }
+
+    record Result(String source, Set<Class<?>> referencedClasses) {
+    }
+
+    private TemplateTranslator(Map<String, Class<?>> modelTypes, Map<String, Map<String, Function>> libraries) {
+        this.modelTypes = modelTypes;
+        this.libraries = libraries;
+    }
+
+    /**
+     * @param modelTypes 数据模型中每个变量的实际类型，值为null的变量不要放进来
+     * @param libraries  自动导入的函数库：命名空间 -> 函数名 -> 函数
+     */
+    static Result translate(String className, List<Node> nodes, Map<String, Class<?>> modelTypes,
+                            Map<String, Map<String, Function>> libraries) {
+        TemplateTranslator translator = new TemplateTranslator(modelTypes, libraries);
+        translator.collectAssigned(nodes);
+        translator.emitBlock(nodes);
+        return new Result(translator.source(className), translator.referencedClasses);
+    }
+
+    private String source(String className) {
+        StringBuilder source = new StringBuilder(body.length() + 1024);
+        source.append("package ").append(PACKAGE).append(";\n\n")
+                .append("public final class ").append(className)
+                .append(" implements ").append(CompiledTemplate.class.getName()).append(" {\n")
+                .append("    @Override\n")
+                .append("    public void render(java.util.Map<java.lang.String, java.lang.Object> model, ")
+                .append("java.lang.StringBuilder out) {\n");
+        for (String name : topVars) {
+            source.append("        java.lang.Object ").append(varName(name))
+                    .append(" = model.get(").append(literal(name)).append(");\n");
+        }
+        source.append(body).append("    }\n}\n");
+        return source.toString();
+    }
+
+    private void collectAssigned(List<Node> nodes) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Assign assign -> assignedNames.addAll(assign.names());
+                case If ifNode -> {
+                    ifNode.branches().forEach(this::collectAssigned);
+                    collectAssigned(ifNode.elseBranch());
+                }
+                case ListNode list -> {
+                    collectAssigned(list.body());
+                    collectAssigned(list.elseBody());
+                }
+                case Sep sep -> collectAssigned(sep.body());
+                default -> {
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 语句
+
+    private void emitBlock(List<Node> nodes) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> emitText(text.text());
+                case Interpolation interpolation -> line("out.append(" + interpolate(interpolation.expr()) + ");");
+                case If ifNode -> emitIf(ifNode);
+                case ListNode list -> emitList(list);
+                case Sep sep -> emitSep(sep);
+                case Assign assign -> emitAssign(assign);
+            }
+        }
+    }
+
+    private void emitText(String text) {
+        for (int start = 0; start < text.length(); start += TEXT_CHUNK) {
+            line("out.append(" + literal(text.substring(start, Math.min(text.length(), start + TEXT_CHUNK))) + ");");
+        }
+    }
+
+    private void emitIf(If ifNode) {
+        for (int i = 0; i < ifNode.conditions().size(); i++) {
+            String condition = condition(ifNode.conditions().get(i));
+            line((i == 0 ? "if (" : "} else if (") + condition + ") {");
+            block(ifNode.branches().get(i));
+        }
+        if (!ifNode.elseBranch().isEmpty()) {
+            line("} else {");
+            block(ifNode.elseBranch());
+        }
+        line("}");
+    }
+
+    private void emitList(ListNode list) {
+        Value sequence = value(list.sequence());
+        int id = ++counter;
+        Loop loop = new Loop(list.var(), id, elementType(sequence.type()));
+        line("{");
+        indent++;
+        line("java.util.Iterator<?> it" + id + " = " + SUPPORT + ".iterator(" + sequence.code() + ");");
+        line("int i" + id + " = 0;");
+        line("while (it" + id + ".hasNext()) {");
+        indent++;
+        line("java.lang.Object l" + id + " = it" + id + ".next();");
+        line("boolean n" + id + " = it" + id + ".hasNext();");
+        loops.push(loop);
+        emitBlock(list.body());
+        loops.pop();
+        line("i" + id + "++;");
+        indent--;
+        line("}");
+        if (!list.elseBody().isEmpty()) {
+            line("if (i" + id + " == 0) {");
+            block(list.elseBody());
+            line("}");
+        }
+        indent--;
+        line("}");
+    }
+
+    private void emitSep(Sep sep) {
+        Loop loop = loops.peek();
+        if (loop == null) {
+            throw new UnsupportedTemplateException("#sep 不在 #list 中");
+        }
+        line("if (n" + loop.id() + ") {");
+        block(sep.body());
+        line("}");
+    }
+
+    private void emitAssign(Assign assign) {
+        for (int i = 0; i < assign.names().size(); i++) {
+            String name = assign.names().get(i);
+            Expr expr = assign.values().get(i);
+            Value value = value(expr);
+            Value previous = assignedValues.get(name);
+            Class<?> modelType = modelTypes.get(name);
+            if (previous != null && (!previous.type().equals(value.type()) || previous.emptyDefault() != value.emptyDefault())) {
+                throw new UnsupportedTemplateException("变量 " + name + " 被赋予不同类型的值");
+            }
+            if (modelType != null && (!modelType.equals(value.type()) || value.emptyDefault())) {
+                throw new UnsupportedTemplateException("变量 " + name + " 与数据模型中的类型不同");
+            }
+            boolean nullable = expr instanceof Default dflt && dflt.fallback() == null;
+            topVars.add(name);
+            line(varName(name) + " = " + (nullable ? value.code() : SUPPORT + ".required(" + value.code() + ")") + ";");
+            assignedValues.put(name, new Value(varName(name), value.type(), value.emptyDefault()));
+        }
+    }
+
+    private void block(List<Node> nodes) {
+        indent++;
+        emitBlock(nodes);
+        indent--;
+    }
+
+    private void line(String code) {
+        body.append("    ".repeat(indent)).append(code).append('\n');
+    }
+
+    // ---------------------------------------------------------------- 插值和条件
+
+    private String interpolate(Expr expr) {
+        if (expr instanceof Default dflt && dflt.fallback() == null && isMissing(dflt.target())) {
+            return "\"\"";
+        }
+        Value value = value(expr);
+        Class<?> raw = raw(value.type());
+        if (raw == Boolean.class) {
+            throw new UnsupportedTemplateException("布尔值不能直接输出");
+        }
+        if (value.emptyDefault()) {
+            return SUPPORT + ".textOrEmpty(" + value.code() + ")";
+        }
+        return SUPPORT + ".text(" + value.code() + ")";
+    }
+
+    /**
+     * 翻译成Java的boolean表达式
+     */
+    private String condition(Expr expr) {
+        switch (expr) {
+            case Literal literal when literal.value() instanceof Boolean b -> {
+                return b.toString();
+            }
+            case Paren paren -> {
+                return condition(paren.expr());
+            }
+            case Not not -> {
+                return "!(" + condition(not.expr()) + ")";
+            }
+            case Exists exists -> {
+                return exists(exists.target());
+            }
+            case Binary binary -> {
+                String op = binary.op();
+                if (op.equals("&&") || op.equals("||")) {
+                    return "(" + condition(binary.left()) + " " + op + " " + condition(binary.right()) + ")";
+                }
+                if (op.equals("==") || op.equals("!=")) {
+                    String eq = SUPPORT + ".eq(" + value(binary.left()).code() + ", " + value(binary.right()).code() + ")";
+                    return op.equals("==") ? eq : "!" + eq;
+                }
+                if (op.equals("<") || op.equals("<=") || op.equals(">") || op.equals(">=")) {
+                    return "(" + SUPPORT + ".compare(" + value(binary.left()).code() + ", "
+                            + value(binary.right()).code() + ") " + op + " 0)";
+                }
+            }
+            case BuiltIn builtIn -> {
+                String condition = booleanBuiltIn(builtIn);
+                if (condition != null) {
+                    return condition;
+                }
+            }
+            default -> {
+            }
+        }
+        Value value = value(expr);
+        Class<?> raw = raw(value.type());
+        if (raw == Boolean.class) {
+            return "((java.lang.Boolean) " + value.code() + ").booleanValue()";
+        }
+        if (raw == Object.class && !value.emptyDefault()) {
+            return SUPPORT + ".bool(" + value.code() + ")";
+        }
+        throw new UnsupportedTemplateException("条件不是布尔值: " + expr);
+    }
+
+    private boolean isBoolean(Expr expr) {
+        return switch (expr) {
+            case Literal literal -> literal.value() instanceof Boolean;
+            case Paren paren -> isBoolean(paren.expr());
+            case Not not -> true;
+            case Exists exists -> true;
+            case Binary binary -> !Set.of("+", "-", "*", "/", "%").contains(binary.op());
+            case BuiltIn builtIn -> Set.of("has_content", "starts_with", "ends_with", "contains", "seq_contains",
+                    "has_next", "is_last", "is_first").contains(builtIn.name());
+            default -> false;
+        };
+    }
+
+    private String exists(Expr target) {
+        if (isMissing(target)) {
+            return "false";
+        }
+        Value value = protectedValue(target);
+        if (value.emptyDefault()) {
+            throw new UnsupportedTemplateException("?? 作用在默认值运算的结果上");
+        }
+        return "(" + value.code() + " != null)";
+    }
+
+    /**
+     * ??、! 和 ?has_content 只保护最后一步；括号里的整条链需要逐级判空，这里不支持
+     */
+    private Value protectedValue(Expr target) {
+        Expr inner = target;
+        while (inner instanceof Paren paren) {
+            inner = paren.expr();
+        }
+        if (inner != target && !(inner instanceof Var)) {
+            throw new UnsupportedTemplateException("不支持括号内的整链默认值: " + target);
+        }
+        return value(inner);
+    }
+
+    private boolean isMissing(Expr expr) {
+        while (expr instanceof Paren paren) {
+            expr = paren.expr();
+        }
+        return expr instanceof Var var && findLoop(var.name()) == null && !assignedNames.contains(var.name())
+                && !modelTypes.containsKey(var.name());
+    }
+
+    // ---------------------------------------------------------------- 表达式
+
+    private Value value(Expr expr) {
+        if (isBoolean(expr)) {
+            return new Value("java.lang.Boolean.valueOf(" + condition(expr) + ")", Boolean.class);
+        }
+        return switch (expr) {
+            case Literal literal -> literalValue(literal.value());
+            case Var var -> variable(var.name());
+            case Paren paren -> value(paren.expr());
+            case Dot dot -> property(dot);
+            case Index index -> index(index);
+            case Call call -> call(call);
+            case BuiltIn builtIn -> builtIn(builtIn);
+            case Default dflt -> defaultValue(dflt);
+            case Neg neg -> new Value(SUPPORT + ".negate(" + value(neg.expr()).code() + ")", Number.class);
+            case Binary binary -> arithmetic(binary);
+            default -> throw new UnsupportedTemplateException("不支持的表达式: " + expr);
+        };
+    }
+
+    private Value literalValue(Object value) {
+        if (value instanceof String s) {
+            return new Value(literal(s), String.class);
+        }
+        if (value instanceof Integer i) {
+            return new Value("java.lang.Integer.valueOf(" + i + ")", Integer.class);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return new Value("new java.math.BigDecimal(\"" + decimal + "\")", BigDecimal.class);
+        }
+        throw new UnsupportedTemplateException("不支持的字面量: " + value);
+    }
+
+    private Value variable(String name) {
+        Loop loop = findLoop(name);
+        if (loop != null) {
+            return new Value("l" + loop.id(), loop.elementType());
+        }
+        Value assigned = assignedValues.get(name);
+        if (assigned != null) {
+            return assigned;
+        }
+        if (assignedNames.contains(name) && !modelTypes.containsKey(name)) {
+            throw new UnsupportedTemplateException("变量 " + name + " 在赋值之前被读取");
+        }
+        Class<?> type = modelTypes.get(name);
+        if (type == null) {
+            throw new UnsupportedTemplateException("未定义的变量: " + name);
+        }
+        topVars.add(name);
+        return new Value(varName(name), type);
+    }
+
+    private Loop findLoop(String name) {
+        for (Loop loop : loops) {
+            if (loop.name().equals(name)) {
+                return loop;
+            }
+        }
+        return null;
+    }
+
+    private Value property(Dot dot) {
+        Value target = value(dot.target());
+        Class<?> raw = raw(target.type());
+        if (Map.class.isAssignableFrom(raw)) {
+            return new Value(cast(target, Map.class) + ".get(" + literal(dot.name()) + ")", mapValueType(target.type()));
+        }
+        Method method = findProperty(raw, dot.name());
+        if (method == null) {
+            throw new UnsupportedTemplateException(raw.getName() + " 没有属性 " + dot.name());
+        }
+        return invoke(target, method, List.of());
+    }
+
+    /**
+     * 与 BeansWrapper 一致：先找 getter（is 前缀只用于 boolean），record 再找同名的无参方法
+     */
+    private Method findProperty(Class<?> raw, String name) {
+        if (raw.isPrimitive() || raw == String.class || Number.class.isAssignableFrom(raw)
+                || raw == Boolean.class || Collection.class.isAssignableFrom(raw) || raw.isArray()) {
+            return null;
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String prefix : List.of("get", "is")) {
+            Method getter = publicMethod(raw, prefix + suffix);
+            if (getter != null && getter.getReturnType() != void.class
+                    && (prefix.equals("get") || getter.getReturnType() == boolean.class)
+                    && Introspector.decapitalize(suffix).equals(name)) {
+                return getter;
+            }
+        }
+        if (raw.isRecord()) {
+            Method method = publicMethod(raw, name);
+            if (method != null && method.getReturnType() != void.class) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Method publicMethod(Class<?> raw, String name) {
+        try {
+            Method method = raw.getMethod(name);
+            return Modifier.isStatic(method.getModifiers()) || HIDDEN_METHODS.contains(name) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private Value index(Index index) {
+        Value target = value(index.target());
+        Value key = value(index.key());
+        Class<?> raw = raw(target.type());
+        if (Map.class.isAssignableFrom(raw) && raw(key.type()) == String.class) {
+            return new Value(cast(target, Map.class) + ".get(" + key.code() + ")", mapValueType(target.type()));
+        }
+        if (List.class.isAssignableFrom(raw) && raw(key.type()) == Integer.class) {
+            return new Value(cast(target, List.class) + ".get(" + cast(key, Integer.class) + ".intValue())",
+                    elementType(target.type()));
+        }
+        throw new UnsupportedTemplateException("不支持的下标访问: " + index);
+    }
+
+    private Value call(Call call) {
+        if (!(call.target() instanceof Dot dot)) {
+            throw new UnsupportedTemplateException("不支持的方法调用: " + call);
+        }
+        if (dot.target() instanceof Var namespace && libraries.containsKey(namespace.name())
+                && findLoop(namespace.name()) == null && !assignedNames.contains(namespace.name())) {
+            return value(inline(namespace.name(), dot.name(), call.args()));
+        }
+        Value target = value(dot.target());
+        Class<?> raw = raw(target.type());
+        if (Map.class.isAssignableFrom(raw) || Collection.class.isAssignableFrom(raw) || raw == String.class) {
+            throw new UnsupportedTemplateException("不能在 " + raw.getName() + " 上调用方法");
+        }
+        Method found = null;
+        for (Method method : raw.getMethods()) {
+            if (method.getName().equals(dot.name()) && method.getParameterCount() == call.args().size()
+                    && !Modifier.isStatic(method.getModifiers()) && !HIDDEN_METHODS.contains(method.getName())) {
+                if (found != null) {
+                    // 重载由 FreeMarker 在运行时按实参选择，这里不做推断
+                    throw new UnsupportedTemplateException("方法有重载: " + raw.getName() + "." + dot.name());
+                }
+                found = method;
+            }
+        }
+        if (found == null || found.isVarArgs()) {
+            throw new UnsupportedTemplateException(raw.getName() + " 没有可调用的方法 " + dot.name());
+        }
+        return invoke(target, found, call.args());
+    }
+
+    /**
+     * 函数库中只有一条 #return 的函数按表达式内联，形参换成实参表达式。
+     * FreeMarker 先求出全部实参再调用函数，所以每个形参必须在非短路、不判空的位置恰好用一次；
+     * 函数体里的其他变量在 FreeMarker 中取自数据模型，被模板的 #assign 或循环变量遮住时不内联
+     */
+    private Expr inline(String namespace, String name, List<Expr> args) {
+        Function function = libraries.get(namespace).get(name);
+        if (function == null || function.result() == null) {
+            throw new UnsupportedTemplateException("函数 " + namespace + "." + name + " 不能内联");
+        }
+        if (function.params().size() != args.size()) {
+            throw new UnsupportedTemplateException("函数 " + namespace + "." + name + " 的参数个数不符");
+        }
+        Map<String, Expr> bindings = new HashMap<>();
+        for (int i = 0; i < args.size(); i++) {
+            bindings.put(function.params().get(i), args.get(i));
+        }
+        Set<String> used = new HashSet<>();
+        Expr inlined = substitute(function.result(), bindings, used, false);
+        if (used.size() != bindings.size()) {
+            throw new UnsupportedTemplateException("函数 " + namespace + "." + name + " 有未使用的参数");
+        }
+        return inlined;
+    }
+
+    private Expr substitute(Expr expr, Map<String, Expr> bindings, Set<String> used, boolean conditional) {
+        return switch (expr) {
+            case Var var when bindings.containsKey(var.name()) -> {
+                if (conditional || !used.add(var.name())) {
+                    throw new UnsupportedTemplateException("函数参数 " + var.name() + " 不是恰好求值一次");
+                }
+                yield bindings.get(var.name());
+            }
+            case Var var -> {
+                if (findLoop(var.name()) != null || assignedNames.contains(var.name())) {
+                    throw new UnsupportedTemplateException("函数中的变量 " + var.name() + " 被模板遮住");
+                }
+                yield var;
+            }
+            case Literal literal -> literal;
+            case Dot dot -> new Dot(substitute(dot.target(), bindings, used, conditional), dot.name());
+            case Index index -> new Index(substitute(index.target(), bindings, used, conditional),
+                    substitute(index.key(), bindings, used, conditional));
+            case Call call -> new Call(substitute(call.target(), bindings, used, conditional),
+                    substituteAll(call.args(), bindings, used, conditional));
+            case BuiltIn builtIn -> new BuiltIn(
+                    substitute(builtIn.target(), bindings, used, conditional || builtIn.name().equals("has_content")),
+                    builtIn.name(), substituteAll(builtIn.args(), bindings, used,
+                    conditional || builtIn.name().equals("then")));
+            case Default dflt -> new Default(substitute(dflt.target(), bindings, used, true),
+                    dflt.fallback() == null ? null : substitute(dflt.fallback(), bindings, used, true));
+            case Exists exists -> new Exists(substitute(exists.target(), bindings, used, true));
+            case Paren paren -> new Paren(substitute(paren.expr(), bindings, used, conditional));
+            case Not not -> new Not(substitute(not.expr(), bindings, used, conditional));
+            case Neg neg -> new Neg(substitute(neg.expr(), bindings, used, conditional));
+            case Binary binary -> new Binary(binary.op(), substitute(binary.left(), bindings, used, conditional),
+                    substitute(binary.right(), bindings, used,
+                            conditional || binary.op().equals("&&") || binary.op().equals("||")));
+        };
+    }
+
+    private List<Expr> substituteAll(List<Expr> exprs, Map<String, Expr> bindings, Set<String> used,
+                                     boolean conditional) {
+        List<Expr> result = new ArrayList<>(exprs.size());
+        for (Expr expr : exprs) {
+            result.add(substitute(expr, bindings, used, conditional));
+        }
+        return result;
+    }
+
+    private Value invoke(Value target, Method method, List<Expr> args) {
+        Method accessible = accessibleMethod(method);
+        if (accessible == null) {
+            throw new UnsupportedTemplateException("方法不可访问: " + method);
+        }
+        Class<?>[] parameterTypes = accessible.getParameterTypes();
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            arguments.add(argument(args.get(i), parameterTypes[i]));
+        }
+        String code = cast(target, accessible.getDeclaringClass()) + "." + accessible.getName()
+                + "(" + String.join(", ", arguments) + ")";
+        Class<?> returnType = accessible.getReturnType();
+        if (returnType == void.class) {
+            throw new UnsupportedTemplateException("方法没有返回值: " + method);
+        }
+        if (returnType.isPrimitive()) {
+            Class<?> boxed = boxed(returnType);
+            return new Value("((" + typeName(boxed) + ") " + code + ")", boxed);
+        }
+        return new Value(code, accessible.getGenericReturnType());
+    }
+
+    private String argument(Expr expr, Class<?> parameterType) {
+        Value value = value(expr);
+        if (value.emptyDefault()) {
+            throw new UnsupportedTemplateException("默认值运算的结果不能作为方法参数");
+        }
+        Class<?> raw = raw(value.type());
+        // FreeMarker 的数字字面量是 BigDecimal，传参时按形参类型转换
+        boolean numberLiteral = expr instanceof Literal literal && literal.value() instanceof Integer
+                || expr instanceof Neg neg && neg.expr() instanceof Literal;
+        if (parameterType.isPrimitive()) {
+            boolean exact = boxed(parameterType) == raw;
+            boolean widening = raw == Integer.class && parameterType == long.class;
+            if (!exact && !widening) {
+                throw new UnsupportedTemplateException("参数类型不匹配: " + parameterType.getName());
+            }
+            return "((" + parameterType.getName() + ") " + cast(value, raw) + ")";
+        }
+        if (raw == NULL_TYPE) {
+            return "((" + typeName(parameterType) + ") null)";
+        }
+        if (numberLiteral ? parameterType != Integer.class : !parameterType.isAssignableFrom(raw)) {
+            throw new UnsupportedTemplateException("参数类型不匹配: " + parameterType.getName());
+        }
+        return cast(value, parameterType);
+    }
+
+    /**
+     * 方法所在类不是public时（如非public类实现的接口方法），找一个可以访问的声明
+     */
+    private static Method accessibleMethod(Method method) {
+        if (isAccessible(method.getDeclaringClass())) {
+            return method;
+        }
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(method.getDeclaringClass());
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (isAccessible(type)) {
+                try {
+                    return type.getMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException ignored) {
+                    // 继续查找父类型
+                }
+            }
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
+            }
+            pending.addAll(List.of(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    private Value builtIn(BuiltIn builtIn) {
+        String name = builtIn.name();
+        List<Expr> args = builtIn.args();
+        if (Set.of("index", "counter").contains(name)) {
+            Loop loop = loopOf(builtIn);
+            String index = name.equals("index") ? "i" + loop.id() : "i" + loop.id() + " + 1";
+            return new Value("java.lang.Integer.valueOf(" + index + ")", Integer.class);
+        }
+        if (name.equals("then")) {
+            expectArgs(builtIn, 2);
+            String condition = condition(builtIn.target());
+            Value whenTrue = value(args.get(0));
+            Value whenFalse = value(args.get(1));
+            boolean sameType = whenTrue.type().equals(whenFalse.type());
+            return new Value("(" + condition + " ? (java.lang.Object) " + whenTrue.code()
+                    + " : (java.lang.Object) " + whenFalse.code() + ")",
+                    sameType ? whenTrue.type() : Object.class, whenTrue.emptyDefault() || whenFalse.emptyDefault());
+        }
+        Value target = value(builtIn.target());
+        String code = target.code();
+        return switch (name) {
+            case "cap_first", "uncap_first", "upper_case", "lower_case", "trim" -> {
+                expectArgs(builtIn, 0);
+                String method = switch (name) {
+                    case "cap_first" -> "capFirst";
+                    case "uncap_first" -> "uncapFirst";
+                    case "upper_case" -> "upperCase";
+                    case "lower_case" -> "lowerCase";
+                    default -> "trim";
+                };
+                yield new Value(SUPPORT + "." + method + "(" + code + ")", String.class);
+            }
+            case "length", "size" -> {
+                expectArgs(builtIn, 0);
+                yield new Value("java.lang.Integer.valueOf(" + SUPPORT + "." + name + "(" + code + "))", Integer.class);
+            }
+            case "c" -> {
+                expectArgs(builtIn, 0);
+                if (raw(target.type()) == String.class) {
+                    // 字符串的 ?c 按 c_format 输出带引号的字面量
+                    throw new UnsupportedTemplateException("不支持字符串的 ?c");
+                }
+                yield new Value(SUPPORT + ".c(" + code + ")", String.class);
+            }
+            case "join" -> {
+                expectArgs(builtIn, 1);
+                yield new Value(SUPPORT + ".join(" + code + ", " + value(args.get(0)).code() + ")", String.class);
+            }
+            case "replace" -> {
+                expectArgs(builtIn, 2);
+                yield new Value(SUPPORT + ".replace(" + code + ", " + value(args.get(0)).code() + ", "
+                        + value(args.get(1)).code() + ")", String.class);
+            }
+            default -> throw new UnsupportedTemplateException("不支持的内建函数: ?" + name);
+        };
+    }
+
+    /**
+     * 返回布尔结果的内建函数，不是这类函数时返回null
+     */
+    private String booleanBuiltIn(BuiltIn builtIn) {
+        String name = builtIn.name();
+        switch (name) {
+            case "has_next", "is_last", "is_first" -> {
+                Loop loop = loopOf(builtIn);
+                return switch (name) {
+                    case "has_next" -> "n" + loop.id();
+                    case "is_last" -> "!n" + loop.id();
+                    default -> "(i" + loop.id() + " == 0)";
+                };
+            }
+            case "has_content" -> {
+                expectArgs(builtIn, 0);
+                if (isMissing(builtIn.target())) {
+                    return "false";
+                }
+                return SUPPORT + ".hasContent(" + protectedValue(builtIn.target()).code() + ")";
+            }
+            case "starts_with", "ends_with", "contains" -> {
+                expectArgs(builtIn, 1);
+                String method = switch (name) {
+                    case "starts_with" -> "startsWith";
+                    case "ends_with" -> "endsWith";
+                    default -> "contains";
+                };
+                return SUPPORT + ".text(" + value(builtIn.target()).code() + ")." + method
+                        + "(" + SUPPORT + ".text(" + value(builtIn.args().get(0)).code() + "))";
+            }
+            case "seq_contains" -> {
+                expectArgs(builtIn, 1);
+                return SUPPORT + ".seqContains(" + value(builtIn.target()).code() + ", "
+                        + value(builtIn.args().get(0)).code() + ")";
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private Loop loopOf(BuiltIn builtIn) {
+        Loop loop = builtIn.target() instanceof Var var ? findLoop(var.name()) : null;
+        if (loop == null || !builtIn.args().isEmpty()) {
+            throw new UnsupportedTemplateException("?" + builtIn.name() + " 只能用在循环变量上");
+        }
+        return loop;
+    }
+
+    private static void expectArgs(BuiltIn builtIn, int count) {
+        if (builtIn.args().size() != count) {
+            throw new UnsupportedTemplateException("?" + builtIn.name() + " 的参数个数不支持");
+        }
+    }
+
+    private Value defaultValue(Default dflt) {
+        if (isMissing(dflt.target())) {
+            return dflt.fallback() == null ? new Value("null", NULL_TYPE, true) : value(dflt.fallback());
+        }
+        Value target = protectedValue(dflt.target());
+        if (target.emptyDefault()) {
+            throw new UnsupportedTemplateException("默认值运算作用在默认值运算的结果上");
+        }
+        Class<?> raw = raw(target.type());
+        if (dflt.fallback() == null) {
+            if (raw == String.class) {
+                return new Value(SUPPORT + ".orEmpty(" + cast(target, String.class) + ")", String.class);
+            }
+            return new Value(target.code(), target.type(), true);
+        }
+        Value fallback = value(dflt.fallback());
+        String code = SUPPORT + ".orDefault(" + target.code() + ", " + fallback.code() + ")";
+        if (target.type().equals(fallback.type()) || raw(fallback.type()) == NULL_TYPE) {
+            return new Value("((" + typeName(raw) + ") " + code + ")", target.type(), fallback.emptyDefault());
+        }
+        return new Value(code, Object.class, fallback.emptyDefault());
+    }
+
+    private Value arithmetic(Binary binary) {
+        Value left = value(binary.left());
+        Value right = value(binary.right());
+        Class<?> leftRaw = raw(left.type());
+        Class<?> rightRaw = raw(right.type());
+        switch (binary.op()) {
+            case "+" -> {
+                if (leftRaw == String.class || rightRaw == String.class) {
+                    return new Value(SUPPORT + ".concat(" + left.code() + ", " + right.code() + ")", String.class);
+                }
+                if (Number.class.isAssignableFrom(leftRaw) && Number.class.isAssignableFrom(rightRaw)) {
+                    return new Value(SUPPORT + ".arithmetic('+', " + left.code() + ", " + right.code() + ")", Number.class);
+                }
+                return new Value(SUPPORT + ".plus(" + left.code() + ", " + right.code() + ")", Object.class);
+            }
+            case "-", "*", "%" -> {
+                return new Value(SUPPORT + ".arithmetic('" + binary.op() + "', " + left.code() + ", "
+                        + right.code() + ")", Number.class);
+            }
+            default -> throw new UnsupportedTemplateException("不支持的运算符: " + binary.op());
+        }
+    }
+
+    // ---------------------------------------------------------------- 类型
+
+    private String cast(Value value, Class<?> type) {
+        return "((" + typeName(type) + ") " + value.code() + ")";
+    }
+
+    private String typeName(Class<?> type) {
+        Class<?> component = type;
+        while (component.isArray()) {
+            component = component.getComponentType();
+        }
+        if (!component.isPrimitive()) {
+            if (!isAccessible(component) || component.getCanonicalName() == null) {
+                throw new UnsupportedTemplateException("类型不可访问: " + type.getName());
+            }
+            referencedClasses.add(component);
+        }
+        return type.getCanonicalName();
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class<?> c) {
+            return c.isPrimitive() ? boxed(c) : c;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        if (type instanceof GenericArrayType array) {
+            return raw(array.getGenericComponentType()).arrayType();
+        }
+        if (type instanceof WildcardType wildcard) {
+            return raw(wildcard.getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable<?> variable) {
+            return raw(variable.getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type elementType(Type type) {
+        Class<?> raw = raw(type);
+        if (raw.isArray()) {
+            return type instanceof GenericArrayType array ? array.getGenericComponentType() : raw.getComponentType();
+        }
+        if (type instanceof ParameterizedType parameterized && Collection.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments().length == 1) {
+            return parameterized.getActualTypeArguments()[0];
+        }
+        return Object.class;
+    }
+
+    private static Type mapValueType(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments().length == 2) {
+            return parameterized.getActualTypeArguments()[1];
+        }
+        return Object.class;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+
+    private static String varName(String name) {
+        return "v_" + name;
+    }
+
+    private static String literal(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 16).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        // 不能用 \\u 转义，javac 会在词法分析前处理它
+                        builder.append(String.format("\\%03o", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template.compiled;
+
+/**
+ * 模板使用了编译后端不支持的写法，该模板改用 FreeMarker 解释执行
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+class UnsupportedTemplateException extends RuntimeException {
+    UnsupportedTemplateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+<#assign jdbc = config.layers['infrastructure'].generationMode! == "JDBC">
+<#assign codec = config.layers['interfaces'].components['Codec']!>
+<#assign useCodec = codec?has_content && codec.enabled>
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign keyColumns = cg.sampleKeyColumns(table)>
+<#assign uniqueIndexes = cg.sampleUniqueIndexes(table)>
+<#assign hasUniqueKey = pkColumns?has_content || uniqueIndexes?has_content>
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+import ${cg.pkg('application', 'Mapper')}.${className}Mapper;
+<#if jdbc>
+import ${cg.pkg('infrastructure', 'RepositoryImpl')}.${className}RepositoryImpl;
+</#if>
+<#if useCodec && codec.basePackage != cg.pkg('interfaces', componentType)>
+import ${codec.basePackage}.${className}Codec;
+</#if>
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+<#if jdbc>
+import org.h2.jdbcx.JdbcDataSource;
+</#if>
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+<#if jdbc>
+import org.openjdk.jmh.annotations.Level;
+</#if>
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+<#if jdbc>
+import org.springframework.jdbc.core.JdbcTemplate;
+</#if>
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+<#if jdbc>
+import java.util.UUID;
+</#if>
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ${className} 各生成层的JMH基准：DTO转换、JSON序列化<#if jdbc>以及JDBC批量写入</#if>，数据按列类型合成
+ * 直接运行 main 即可，命令行参数与JMH一致，例如 -p rows=10000 -f 3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ${className}${componentType} {
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private List<${className}Entity> entities;
+    private List<${className}DTO> dtos;
+    private ObjectMapper objectMapper;
+    private JavaType dtoListType;
+    private byte[] json;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(${className}${componentType}.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        entities = sampleEntities(rows);
+        dtos = ${className}Mapper.toDTOList(entities);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+<#if useCodec>
+        objectMapper.registerModule(new ${className}Codec());
+</#if>
+        dtoListType = objectMapper.getTypeFactory().constructCollectionType(List.class, ${className}DTO.class);
+        json = objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<${className}DTO> toDTOList() {
+        return ${className}Mapper.toDTOList(entities);
+    }
+
+    @Benchmark
+    public List<${className}Entity> toEntityList() {
+        return ${className}Mapper.toEntityList(dtos);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<${className}DTO> deserialize() throws IOException {
+        return objectMapper.readValue(json, dtoListType);
+    }
+<#if jdbc>
+
+    @Benchmark
+    public void saveAll(Database database) {
+        database.repository.saveAll(entities);
+    }
+
+    @Benchmark
+    public void insertAll(Database database) {
+        database.repository.insertAll(entities);
+    }
+<#if hasUniqueKey>
+
+    @Benchmark
+    public void upsertAll(Database database) {
+        database.repository.upsertAll(entities);
+    }
+</#if>
+
+    /**
+     * H2内存库（MySQL兼容模式），每次调用前清空表，使写入基准互不影响
+     */
+    @State(Scope.Benchmark)
+    public static class Database {
+        private static final String DDL = "CREATE TABLE ${cg.quote(table.name)} ("
+<#list table.columns as column>
+                + "${cg.quote(column.originalName)} ${cg.sampleColumnType(column, keyColumns)}<#if column?has_next || hasUniqueKey>, </#if>"
+</#list>
+<#if pkColumns?has_content>
+                + "PRIMARY KEY (<#list pkColumns as pk>${cg.quote(pk.originalName)}<#sep>, </#sep></#list>)<#if uniqueIndexes?has_content>, </#if>"
+</#if>
+<#list uniqueIndexes as index>
+                + "UNIQUE (<#list index.columns as column>${cg.quote(column)}<#sep>, </#sep></#list>)<#sep>, </#sep>"
+</#list>
+                + ")";
+
+        private JdbcTemplate jdbcTemplate;
+        private ${className}RepositoryImpl repository;
+
+        @Setup
+        public void setUp() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute(DDL);
+            repository = new ${className}RepositoryImpl(jdbcTemplate, ${className}RepositoryImpl.DEFAULT_BATCH_SIZE);
+        }
+
+        // Level.Invocation 本身有计时开销，rows 很小时写入结果偏差较大，应以较大的 rows 为准
+        @Setup(Level.Invocation)
+        public void truncate() {
+            jdbcTemplate.execute("TRUNCATE TABLE ${cg.quote(table.name)}");
+        }
+    }
+</#if>
+
+    private static List<${className}Entity> sampleEntities(int rows) {
+        List<${className}Entity> entities = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            ${className}Entity entity = new ${className}Entity();
+<#list table.columns as column>
+            entity.set${column.name?cap_first}(${cg.sampleValue(column, keyColumns)});
+</#list>
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private static String text(String prefix, int i, int maxLength) {
+        String value = prefix + i;
+        // 保留末尾的序号部分，尽量不破坏唯一性
+        return value.length() <= maxLength ? value : value.substring(value.length() - maxLength);
+    }
+}
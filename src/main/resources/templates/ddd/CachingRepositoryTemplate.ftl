@@ -0,0 +1,187 @@
+<#assign pkColumns = table.primaryKeyColumns()>
+<#-- 没有主键的表无法按主键缓存，不生成 -->
+<#if pkColumns?has_content>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#assign cacheSettings = config.getCacheSettings(table.name)>
+<#assign virtualThreads = config.layers['interfaces'].generationMode! == "VIRTUAL_THREAD">
+<#assign keyType = seekKey?has_content?then(cg.javaType(seekKey), "Key")>
+<#function paramList columns>
+    <#local result = []>
+    <#list columns as column>
+        <#local result = result + [cg.javaType(column) + " " + column.name]>
+    </#list>
+    <#return result?join(", ")>
+</#function>
+import ${cg.pkg('domain', 'Repository')}.${className}Repository;
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import ${cg.pkg('infrastructure', 'RepositoryImpl')}.${className}RepositoryImpl;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+<#if seekKey?has_content>
+import java.util.Collection;
+import java.util.HashMap;
+</#if>
+import java.util.List;
+<#if seekKey?has_content>
+import java.util.Map;
+import java.util.Set;
+</#if>
+<#if virtualThreads>
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+</#if>
+import java.util.stream.Stream;
+
+/**
+ * ${className}Repository 的读穿透缓存装饰器：按主键的查询走 Caffeine 缓存，
+ * 写入后失效对应主键，其余查询直接委托给 ${className}RepositoryImpl
+ */
+@Primary
+@Repository
+public class ${className}${componentType} implements ${className}Repository {
+    public static final long MAXIMUM_SIZE = ${cacheSettings.maximumSize?c}L;
+    public static final Duration EXPIRE_AFTER_WRITE = Duration.ofSeconds(${cacheSettings.expireAfterWriteSeconds?c}L);
+<#if virtualThreads>
+    // 同步加载会在 ConcurrentHashMap.compute 的 synchronized 块内查库，钉住虚拟线程的载体线程；
+    // 改为在独立的虚拟线程上异步加载，调用方在 future 上等待时可以正常让出载体线程
+    private static final Executor LOADER_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+</#if>
+
+    private final ${className}Repository delegate;
+    private final LoadingCache<${keyType}, ${className}Entity> cache;
+
+    public ${className}${componentType}(${className}RepositoryImpl delegate) {
+        this(delegate, MAXIMUM_SIZE, EXPIRE_AFTER_WRITE);
+    }
+
+    public ${className}${componentType}(${className}Repository delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+<#if virtualThreads>
+                .executor(LOADER_EXECUTOR)
+                .buildAsync(new EntityLoader(delegate))
+                .synchronous();
+<#else>
+                .build(new EntityLoader(delegate));
+</#if>
+    }
+
+    @Override
+    public ${className}Entity findById(${paramList(pkColumns)}) {
+        return cache.get(<#if seekKey?has_content>${seekKey.name}<#else>new Key(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>)</#if>);
+    }
+<#if seekKey?has_content>
+
+    /**
+     * 命中的主键直接返回，未命中的合并成一次批量查询
+     */
+    @Override
+    public List<${className}Entity> findAllById(Collection<${keyType}> ${seekKey.name}s) {
+        return new ArrayList<>(cache.getAll(${seekKey.name}s).values());
+    }
+</#if>
+<#list accessPaths as path>
+
+    @Override
+    public <#if path.unique>${className}Entity<#else>List<${className}Entity></#if> ${path.methodName()}(${paramList(path.columns)}) {
+        return delegate.${path.methodName()}(<#list path.columns as column>${column.name}<#sep>, </#sep></#list>);
+    }
+</#list>
+<#if seekKey?has_content>
+
+    @Override
+    public List<${className}Entity> findPageAfter${seekKey.name?cap_first}(${keyType} after${seekKey.name?cap_first}, int limit) {
+        return delegate.findPageAfter${seekKey.name?cap_first}(after${seekKey.name?cap_first}, limit);
+    }
+<#list table.seekColumns() as column>
+
+    @Override
+    public List<${className}Entity> findPageBy${column.name?cap_first}After(${cg.javaType(column)} after${column.name?cap_first}, ${keyType} after${seekKey.name?cap_first}, int limit) {
+        return delegate.findPageBy${column.name?cap_first}After(after${column.name?cap_first}, after${seekKey.name?cap_first}, limit);
+    }
+</#list>
+</#if>
+
+    @Override
+    public Stream<${className}Entity> streamAll(int fetchSize) {
+        return delegate.streamAll(fetchSize);
+    }
+
+    @Override
+    public void save(${className}Entity entity) {
+        delegate.save(entity);
+        cache.invalidate(keyOf(entity));
+    }
+
+    @Override
+    public void saveAll(List<${className}Entity> entities) {
+        delegate.saveAll(entities);
+        List<${keyType}> keys = new ArrayList<>(entities.size());
+        for (${className}Entity entity : entities) {
+            keys.add(keyOf(entity));
+        }
+        cache.invalidateAll(keys);
+    }
+
+    /**
+     * 命中率、加载耗时、淘汰次数等统计
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static ${keyType} keyOf(${className}Entity entity) {
+<#if seekKey?has_content>
+        return entity.get${seekKey.name?cap_first}();
+<#else>
+        return new Key(<#list pkColumns as pk>entity.get${pk.name?cap_first}()<#sep>, </#sep></#list>);
+</#if>
+    }
+<#if !seekKey?has_content>
+
+    /**
+     * 联合主键
+     */
+    private record Key(${paramList(pkColumns)}) {
+    }
+</#if>
+
+    /**
+     * 不存在的主键返回null，Caffeine不会缓存null
+     */
+    private record EntityLoader(${className}Repository delegate) implements CacheLoader<${keyType}, ${className}Entity> {
+
+        @Override
+        public ${className}Entity load(${keyType} key) {
+            return delegate.findById(<#if seekKey?has_content>key<#else><#list pkColumns as pk>key.${pk.name}()<#sep>, </#sep></#list></#if>);
+        }
+<#if seekKey?has_content>
+
+        @Override
+        public Map<${keyType}, ${className}Entity> loadAll(Set<? extends ${keyType}> keys) {
+            List<${className}Entity> entities = delegate.findAllById(new ArrayList<>(keys));
+            Map<${keyType}, ${className}Entity> result = new HashMap<>(entities.size() * 4 / 3 + 1);
+            for (${className}Entity entity : entities) {
+                result.put(keyOf(entity), entity);
+            }
+            return result;
+        }
+</#if>
+    }
+}
+</#if>
@@ -0,0 +1,186 @@
+<#assign fields = layout.fields()>
+<#assign record = generationStyle == "RECORD">
+<#-- 写出字段值的语句 -->
+<#function writeValue field expr>
+    <#local type = field.javaType>
+    <#if ["long", "int", "short", "byte", "double", "float"]?seq_contains(type)>
+        <#return "gen.writeNumber(" + expr + ");">
+    <#elseif type == "boolean">
+        <#return "gen.writeBoolean(" + expr + ");">
+    <#elseif ["Long", "Integer", "Short", "Byte", "Double", "Float", "java.math.BigDecimal", "java.math.BigInteger"]?seq_contains(type)>
+        <#return "gen.writeNumber(" + expr + ");">
+    <#elseif type == "Boolean">
+        <#return "gen.writeBoolean(" + expr + ");">
+    <#elseif type == "String">
+        <#return "gen.writeString(" + expr + ");">
+    <#elseif type == "java.time.LocalDateTime">
+        <#return "gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(" + expr + "));">
+    <#elseif type == "java.time.LocalDate">
+        <#return "gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE.format(" + expr + "));">
+    <#elseif type == "java.time.LocalTime">
+        <#return "gen.writeString(DateTimeFormatter.ISO_LOCAL_TIME.format(" + expr + "));">
+    <#elseif type == "java.time.Instant">
+        <#return "gen.writeString(" + expr + ".toString());">
+    </#if>
+    <#return "provider.defaultSerializeValue(" + expr + ", gen);">
+</#function>
+<#-- 读取当前token的表达式，null token 得到null或基本类型的默认值 -->
+<#function readValue field>
+    <#local type = field.javaType>
+    <#if type == "long">
+        <#return "isNull ? 0L : p.getLongValue()">
+    <#elseif type == "int">
+        <#return "isNull ? 0 : p.getIntValue()">
+    <#elseif type == "short">
+        <#return "isNull ? 0 : p.getShortValue()">
+    <#elseif type == "byte">
+        <#return "isNull ? 0 : p.getByteValue()">
+    <#elseif type == "double">
+        <#return "isNull ? 0D : p.getDoubleValue()">
+    <#elseif type == "float">
+        <#return "isNull ? 0F : p.getFloatValue()">
+    <#elseif type == "boolean">
+        <#return "!isNull && p.getBooleanValue()">
+    <#elseif type == "Long">
+        <#return "isNull ? null : Long.valueOf(p.getLongValue())">
+    <#elseif type == "Integer">
+        <#return "isNull ? null : Integer.valueOf(p.getIntValue())">
+    <#elseif type == "Short">
+        <#return "isNull ? null : Short.valueOf(p.getShortValue())">
+    <#elseif type == "Byte">
+        <#return "isNull ? null : Byte.valueOf(p.getByteValue())">
+    <#elseif type == "Double">
+        <#return "isNull ? null : Double.valueOf(p.getDoubleValue())">
+    <#elseif type == "Float">
+        <#return "isNull ? null : Float.valueOf(p.getFloatValue())">
+    <#elseif type == "Boolean">
+        <#return "isNull ? null : Boolean.valueOf(p.getBooleanValue())">
+    <#elseif type == "String">
+        <#return "isNull ? null : p.getText()">
+    <#elseif type == "java.math.BigDecimal">
+        <#return "isNull ? null : p.getDecimalValue()">
+    <#elseif type == "java.math.BigInteger">
+        <#return "isNull ? null : p.getBigIntegerValue()">
+    <#elseif type?starts_with("java.time.")>
+        <#return "isNull ? null : " + type + ".parse(p.getText())">
+    </#if>
+    <#return "isNull ? null : ctxt.readValue(p, " + type + ".class)">
+</#function>
+<#function defaultValue field>
+    <#if field.javaType == "boolean">
+        <#return "false">
+    <#elseif field.primitive()>
+        <#return "0">
+    </#if>
+    <#return "null">
+</#function>
+<#function constant field>
+    <#return field.column.originalName?upper_case + "_FIELD">
+</#function>
+<#-- 列对应的局部变量名：驼峰字段名不含下划线，加前缀后不会与 p、token、dto、gen 等方法内变量重名 -->
+<#function local field>
+    <#return "v_" + field.name>
+</#function>
+<#function getter field>
+    <#return record?then("dto." + field.name + "()", "dto.get" + field.name?cap_first + "()")>
+</#function>
+<#assign needsFormatter = fields?filter(f -> ["java.time.LocalDateTime", "java.time.LocalDate", "java.time.LocalTime"]?seq_contains(f.javaType))?has_content>
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+<#if needsFormatter>
+import java.time.format.DateTimeFormatter;
+</#if>
+
+/**
+ * ${className}DTO 的JSON编解码：按字段逐个读写，不经过Jackson的反射和属性内省。
+ * 作为Spring Bean声明后，Spring Boot会把它注册到自动配置的ObjectMapper上
+ */
+@Component
+public class ${className}${componentType} extends SimpleModule {
+    // 字段名预先转义并编码为UTF-8，序列化时直接写出字节
+<#list fields as field>
+    private static final SerializedString ${constant(field)} = new SerializedString("${field.name}");
+</#list>
+
+    public ${className}${componentType}() {
+        super("${className}${componentType}");
+        addSerializer(${className}DTO.class, new Serializer());
+        addDeserializer(${className}DTO.class, new Deserializer());
+    }
+
+    static final class Serializer extends StdSerializer<${className}DTO> {
+
+        Serializer() {
+            super(${className}DTO.class);
+        }
+
+        @Override
+        public void serialize(${className}DTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+<#list fields as field>
+<#if field.primitive()>
+            gen.writeFieldName(${constant(field)});
+            ${writeValue(field, getter(field))}
+<#else>
+            ${field.javaType} ${local(field)} = ${getter(field)};
+            gen.writeFieldName(${constant(field)});
+            if (${local(field)} == null) {
+                gen.writeNull();
+            } else {
+                ${writeValue(field, local(field))}
+            }
+</#if>
+</#list>
+            gen.writeEndObject();
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<${className}DTO> {
+
+        Deserializer() {
+            super(${className}DTO.class);
+        }
+
+        @Override
+        public ${className}DTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+<#list fields as field>
+            ${field.javaType} ${local(field)} = ${defaultValue(field)};
+</#list>
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                boolean isNull = p.nextToken() == JsonToken.VALUE_NULL;
+                switch (name) {
+<#list fields as field>
+                    case "${field.name}" -> ${local(field)} = ${readValue(field)};
+</#list>
+                    // 未知字段连同其子结构一起跳过
+                    default -> p.skipChildren();
+                }
+            }
+<#if record>
+            return new ${className}DTO(<#list fields as field>${local(field)}<#sep>, </#sep></#list>);
+<#else>
+            ${className}DTO dto = new ${className}DTO();
+<#list fields as field>
+            dto.set${field.name?cap_first}(${local(field)});
+</#list>
+            return dto;
+</#if>
+        }
+    }
+}
@@ -1,24 +1,237 @@
-import ${config.layers['application'].components['Service'].basePackage}.${className}Service;
-import ${config.layers['application'].components['DTO'].basePackage}.${className}DTO;
+<#if generationMode == "REACTIVE">
+<#-- 响应式模式：WebFlux + R2DBC，CQRS读模型是阻塞实现，这里不接入 -->
+import ${cg.pkg('application', 'ReactiveService')}.${className}ReactiveService;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#assign readPage = className + "ReactiveService.CursorPage">
+<#assign needsDateFormat = seekKey?has_content && ([seekKey] + table.seekColumns())?filter(c -> cg.isoFormat(cg.javaType(c))?has_content)?has_content>
+<#if needsDateFormat>
+import org.springframework.format.annotation.DateTimeFormat;
+</#if>
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+/**
+ * 响应式控制器：需要 spring-boot-starter-webflux 和 R2DBC 驱动，读写都经由 ${className}ReactiveService
+ */
+@RestController
+@RequestMapping("/api/${className}")
+public class ${className}${componentType} {
+    private final ${className}ReactiveService service;
+
+    public ${className}${componentType}(${className}ReactiveService service) {
+        this.service = service;
+    }
+<#if pkColumns?size == 1>
+
+    @GetMapping("/{${pkColumns[0].name}}")
+    public Mono<${className}DTO> getById(@PathVariable ${cg.javaType(pkColumns[0])} ${pkColumns[0].name}) {
+        return service.getById(${pkColumns[0].name});
+    }
+<#elseif pkColumns?has_content>
+
+    @GetMapping
+    public Mono<${className}DTO> getById(<#list pkColumns as pk>@RequestParam ${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        return service.getById(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>);
+    }
+</#if>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+
+    /**
+     * 游标分页：首页不传 ${afterId}，之后传上一页最后一条的 ${seekKey.name}
+     */
+    @GetMapping("/page")
+    public Mono<${readPage}> page(
+            @RequestParam(required = false) ${cg.isoFormat(pkType)}${pkType} ${afterId},
+            @RequestParam(defaultValue = "100") int limit) {
+        return service.listAfter${seekKey.name?cap_first}(${afterId}, limit);
+    }
+<#list table.seekColumns() as column>
+    <#assign columnType = cg.javaType(column)>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    @GetMapping("/page/by-${column.originalName?lower_case?replace('_', '-')}")
+    public Mono<${readPage}> pageBy${column.name?cap_first}(
+            @RequestParam(required = false) ${cg.isoFormat(columnType)}${columnType} ${afterValue},
+            @RequestParam(required = false) ${cg.isoFormat(pkType)}${pkType} ${afterId},
+            @RequestParam(defaultValue = "100") int limit) {
+        return service.listBy${column.name?cap_first}After(${afterValue}, ${afterId}, limit);
+    }
+</#list>
+</#if>
+
+    /**
+     * 以NDJSON流式导出全表，按客户端的消费速度从数据库拉取
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<${className}DTO> export() {
+        return service.exportAll();
+    }
+
+    @PostMapping
+    public Mono<Void> create(@RequestBody ${className}DTO dto) {
+        return service.save(dto);
+    }
+
+    @PostMapping("/batch")
+    public Mono<Void> createAll(@RequestBody List<${className}DTO> dtos) {
+        return service.saveAll(dtos);
+    }
+<#if seekKey?has_content>
+
+    /**
+     * 按主键批量查询，拆成多个 IN 查询并发执行，不存在的主键不出现在结果中
+     */
+    @PostMapping("/batch/get")
+    public Flux<${className}DTO> getAll(@RequestBody List<${cg.javaType(seekKey)}> ${seekKey.name}s) {
+        return service.getAllById(${seekKey.name}s);
+    }
+</#if>
+}
+<#else>
+import ${cg.pkg('application', 'Service')}.${className}Service;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+<#assign cqrs = config.enableCQRS>
+<#if cqrs>
+import ${cg.pkg('application', 'QueryService')}.${className}QueryService;
+import ${cg.pkg('application', 'QueryDTO')}.${className}QueryDTO;
+</#if>
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#-- 启用CQRS时读接口走查询服务，返回投影 -->
+<#assign readService = cqrs?then("queryService", "service")>
+<#assign readDTO = cqrs?then(className + "QueryDTO", className + "DTO")>
+<#assign readPage = cqrs?then(className + "QueryService", className + "Service") + ".CursorPage">
+<#assign needsDateFormat = seekKey?has_content && ([seekKey] + table.seekColumns())?filter(c -> cg.isoFormat(cg.javaType(c))?has_content)?has_content>
+<#if needsDateFormat>
+import org.springframework.format.annotation.DateTimeFormat;
+</#if>
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+<#if generationMode == "VIRTUAL_THREAD">
+/**
+ * 面向虚拟线程的阻塞式控制器：需要 JDK 21+、Spring Boot 3.2+，并在配置中开启
+ * spring.threads.virtual.enabled=true，请求与流式导出都运行在虚拟线程上；
+ * 生成的服务和仓储中没有 synchronized，阻塞在数据库IO上时不会钉住载体线程，
+ * 并发上限由连接池大小决定，不再受Tomcat工作线程数限制
+ */
+</#if>
 @RestController
 @RequestMapping("/api/${className}")
 public class ${className}${componentType} {
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
     private final ${className}Service service;
+<#if cqrs>
+    private final ${className}QueryService queryService;
+</#if>
+    private final ObjectMapper objectMapper;
 
-    public ${className}${componentType}(${className}Service service) {
+    public ${className}${componentType}(${className}Service service, <#if cqrs>${className}QueryService queryService, </#if>ObjectMapper objectMapper) {
         this.service = service;
+<#if cqrs>
+        this.queryService = queryService;
+</#if>
+        this.objectMapper = objectMapper;
+    }
+<#if pkColumns?size == 1>
+
+    @GetMapping("/{${pkColumns[0].name}}")
+    public ${readDTO} getById(@PathVariable ${cg.javaType(pkColumns[0])} ${pkColumns[0].name}) {
+        return ${readService}.getById(${pkColumns[0].name});
+    }
+<#elseif pkColumns?has_content>
+
+    @GetMapping
+    public ${readDTO} getById(<#list pkColumns as pk>@RequestParam ${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        return ${readService}.getById(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>);
     }
+</#if>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
 
-    @GetMapping("/{id}")
-    public ${className}DTO getById(@PathVariable String id) {
-        // TODO: 实现获取逻辑
-        return null;
+    /**
+     * 游标分页：首页不传 ${afterId}，之后传上一页最后一条的 ${seekKey.name}
+     */
+    @GetMapping("/page")
+    public ${readPage} page(
+            @RequestParam(required = false) ${cg.isoFormat(pkType)}${pkType} ${afterId},
+            @RequestParam(defaultValue = "100") int limit) {
+        return ${readService}.listAfter${seekKey.name?cap_first}(${afterId}, limit);
+    }
+<#list table.seekColumns() as column>
+    <#assign columnType = cg.javaType(column)>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    @GetMapping("/page/by-${column.originalName?lower_case?replace('_', '-')}")
+    public ${readPage} pageBy${column.name?cap_first}(
+            @RequestParam(required = false) ${cg.isoFormat(columnType)}${columnType} ${afterValue},
+            @RequestParam(required = false) ${cg.isoFormat(pkType)}${pkType} ${afterId},
+            @RequestParam(defaultValue = "100") int limit) {
+        return ${readService}.listBy${column.name?cap_first}After(${afterValue}, ${afterId}, limit);
+    }
+</#list>
+</#if>
+
+    /**
+     * 以JSON数组流式导出全表，边查边写，内存占用与表大小无关
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody export() {
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                service.exportAll(EXPORT_FETCH_SIZE, dto -> writeRow(generator, dto));
+                generator.writeEndArray();
+            }
+        };
     }
 
     @PostMapping
     public void create(@RequestBody ${className}DTO dto) {
-        // TODO: 实现创建逻辑
+        service.save(dto);
+    }
+
+    /**
+     * 批量写入，按仓储的批大小分批提交
+     */
+    @PostMapping("/batch")
+    public void createAll(@RequestBody List<${className}DTO> dtos) {
+        service.saveAll(dtos);
+    }
+<#if seekKey?has_content>
+
+    /**
+     * 按主键批量查询，请求体为主键数组，不存在的主键不出现在结果中
+     */
+    @PostMapping("/batch/get")
+    public List<${className}DTO> getAll(@RequestBody List<${cg.javaType(seekKey)}> ${seekKey.name}s) {
+        return service.getAllById(${seekKey.name}s);
+    }
+</#if>
+
+    private static void writeRow(JsonGenerator generator, ${className}DTO dto) {
+        try {
+            generator.writeObject(dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
+</#if>
@@ -1,18 +1,28 @@
-
+<#assign fields = layout.fields()>
 <#if useLombok>
-    import lombok.Data;
-    import lombok.NoArgsConstructor;
-    import lombok.AllArgsConstructor;
-</#if>
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
-<#if useLombok>
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 </#if>
 public class ${className}${componentType} {
-<#list table.columns as column>
-    /** ${column.comment} */
-    private ${typeMapper.getJavaType(column.type)} ${column.name};
+<#list fields as field>
+    /** ${field.column.comment} */
+    private ${field.javaType} ${field.name};
 </#list>
-}
\ No newline at end of file
+<#if !useLombok>
+<#list fields as field>
+
+    public ${field.javaType} get${field.name?cap_first}() {
+        return ${field.name};
+    }
+
+    public void set${field.name?cap_first}(${field.javaType} ${field.name}) {
+        this.${field.name} = ${field.name};
+    }
+</#list>
+</#if>
+}
@@ -0,0 +1,67 @@
+<#assign fields = layout.fields()>
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ${className}Entity 与 ${className}DTO 的转换，逐字段赋值，不使用反射
+ */
+public final class ${className}${componentType} {
+
+    private ${className}${componentType}() {
+    }
+
+    public static ${className}DTO toDTO(${className}Entity entity) {
+        if (entity == null) {
+            return null;
+        }
+<#if generationStyle == "RECORD">
+        return new ${className}DTO(
+<#list fields as field>
+                entity.get${field.name?cap_first}()<#sep>,</#sep>
+</#list>
+        );
+<#else>
+        ${className}DTO dto = new ${className}DTO();
+<#list fields as field>
+        dto.set${field.name?cap_first}(entity.get${field.name?cap_first}());
+</#list>
+        return dto;
+</#if>
+    }
+
+    public static ${className}Entity toEntity(${className}DTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        ${className}Entity entity = new ${className}Entity();
+<#list fields as field>
+        entity.set${field.name?cap_first}(dto.<#if generationStyle == "RECORD">${field.name}<#else>get${field.name?cap_first}</#if>());
+</#list>
+        return entity;
+    }
+
+    public static List<${className}DTO> toDTOList(List<${className}Entity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        List<${className}DTO> result = new ArrayList<>(entities.size());
+        for (${className}Entity entity : entities) {
+            result.add(toDTO(entity));
+        }
+        return result;
+    }
+
+    public static List<${className}Entity> toEntityList(List<${className}DTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        List<${className}Entity> result = new ArrayList<>(dtos.size());
+        for (${className}DTO dto : dtos) {
+            result.add(toEntity(dto));
+        }
+        return result;
+    }
+}
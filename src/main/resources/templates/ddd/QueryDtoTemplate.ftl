@@ -0,0 +1,10 @@
+<#assign fields = layout.of(table.projectionColumns())>
+/**
+ * ${table.name}<#if table.comment?has_content>（${table.comment}）</#if>的读模型投影，只包含查询需要的列，不含大字段
+ */
+public record ${className}${componentType}(
+<#list fields as field>
+        ${field.javaType} ${field.name}<#sep>,</#sep><#if field.column.comment?has_content> // ${field.column.comment}</#if>
+</#list>
+) {
+}
@@ -0,0 +1,109 @@
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#-- SELECT列顺序与QueryDTO的组件顺序一致，按下标构造 -->
+<#assign fields = layout.of(table.projectionColumns())>
+<#assign projection = fields?map(f -> f.column)>
+<#assign hasInstant = projection?filter(c -> cg.javaType(c) == "java.time.Instant")?has_content>
+import ${cg.pkg('application', 'QueryRepository')}.${className}QueryRepository;
+import ${cg.pkg('application', 'QueryDTO')}.${className}QueryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+<#if hasInstant>
+import java.sql.Timestamp;
+import java.time.Instant;
+</#if>
+import java.util.List;
+
+/**
+ * ${className}QueryRepository 的JDBC实现：只查询投影列，结果直接映射为 ${className}QueryDTO
+ */
+@Repository
+public class ${className}${componentType} implements ${className}QueryRepository {
+    private static final String SELECT = "SELECT <#list projection as column>${cg.quote(column.originalName)}<#sep>, </#sep></#list> FROM ${cg.quote(table.name)}";
+<#if pkColumns?has_content>
+    private static final String SELECT_BY_ID = SELECT + " WHERE <#list pkColumns as pk>${cg.quote(pk.originalName)} = ?<#sep> AND </#sep></#list>";
+</#if>
+<#list accessPaths as path>
+    private static final String SELECT_BY_<#list path.columns as column>${column.originalName?upper_case}<#sep>_AND_</#sep></#list> = SELECT + " WHERE <#list path.columns as column>${cg.quote(column.originalName)} = ?<#sep> AND </#sep></#list>";
+</#list>
+<#if seekKey?has_content>
+    <#assign pkQuoted = cg.quote(seekKey.originalName)>
+    private static final String PAGE_FIRST = SELECT + " ORDER BY ${pkQuoted} LIMIT ?";
+    private static final String PAGE_AFTER_${seekKey.originalName?upper_case} = SELECT + " WHERE ${pkQuoted} > ? ORDER BY ${pkQuoted} LIMIT ?";
+<#list table.seekColumns() as column>
+    <#assign seekOrder = cg.quote(column.originalName) + ", " + pkQuoted>
+    private static final String PAGE_BY_${column.originalName?upper_case}_FIRST = SELECT + " ORDER BY ${seekOrder} LIMIT ?";
+    private static final String PAGE_BY_${column.originalName?upper_case}_AFTER = SELECT + " WHERE (${seekOrder}) > (?, ?) ORDER BY ${seekOrder} LIMIT ?";
+</#list>
+</#if>
+
+    private static final RowMapper<${className}QueryDTO> ROW_MAPPER = (rs, rowNum) -> new ${className}QueryDTO(
+<#list fields as field>
+            ${cg.jdbcRead(field.column, field?counter)}<#sep>,</#sep>
+</#list>
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ${className}${componentType}(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+<#if pkColumns?has_content>
+
+    @Override
+    public ${className}QueryDTO findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        List<${className}QueryDTO> rows = jdbcTemplate.query(SELECT_BY_ID, ROW_MAPPER, <#list pkColumns as pk>${cg.jdbcValue(pk, pk.name)}<#sep>, </#sep></#list>);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+</#if>
+<#list accessPaths as path>
+    <#assign constant = "SELECT_BY_" + path.columns?map(c -> c.originalName?upper_case)?join("_AND_")>
+    <#assign args = path.columns?map(c -> cg.jdbcValue(c, c.name))?join(", ")>
+
+    @Override
+    public <#if path.unique>${className}QueryDTO<#else>List<${className}QueryDTO></#if> ${path.methodName()}(<#list path.columns as column>${cg.javaType(column)} ${column.name}<#sep>, </#sep></#list>) {
+<#if path.unique>
+        List<${className}QueryDTO> rows = jdbcTemplate.query(${constant}, ROW_MAPPER, ${args});
+        return rows.isEmpty() ? null : rows.get(0);
+<#else>
+        return jdbcTemplate.query(${constant}, ROW_MAPPER, ${args});
+</#if>
+    }
+</#list>
+<#if seekKey?has_content>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+
+    @Override
+    public List<${className}QueryDTO> findPageAfter${seekKey.name?cap_first}(${cg.javaType(seekKey)} ${afterId}, int limit) {
+        if (${afterId} == null) {
+            return jdbcTemplate.query(PAGE_FIRST, ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(PAGE_AFTER_${seekKey.originalName?upper_case}, ROW_MAPPER, ${cg.jdbcValue(seekKey, afterId)}, limit);
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    @Override
+    public List<${className}QueryDTO> findPageBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${cg.javaType(seekKey)} ${afterId}, int limit) {
+        if (${afterValue} == null || ${afterId} == null) {
+            return jdbcTemplate.query(PAGE_BY_${column.originalName?upper_case}_FIRST, ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(PAGE_BY_${column.originalName?upper_case}_AFTER, ROW_MAPPER,
+                ${cg.jdbcValue(column, afterValue)}, ${cg.jdbcValue(seekKey, afterId)}, limit);
+    }
+</#list>
+</#if>
+<#if hasInstant>
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+</#if>
+}
@@ -0,0 +1,35 @@
+import ${cg.pkg('application', 'QueryDTO')}.${className}QueryDTO;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+
+import java.util.List;
+
+/**
+ * ${className} 的只读查询仓储，直接返回投影，不加载聚合
+ */
+public interface ${className}${componentType} {
+<#if pkColumns?has_content>
+    ${className}QueryDTO findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>);
+
+</#if>
+<#list accessPaths as path>
+    /** 索引 ${path.indexName} */
+    <#if path.unique>${className}QueryDTO<#else>List<${className}QueryDTO></#if> ${path.methodName()}(<#list path.columns as column>${cg.javaType(column)} ${column.name}<#sep>, </#sep></#list>);
+
+</#list>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    /**
+     * 按主键做keyset分页，after${seekKey.name?cap_first} 为null时从第一行开始
+     */
+    List<${className}QueryDTO> findPageAfter${seekKey.name?cap_first}(${pkType} after${seekKey.name?cap_first}, int limit);
+<#list table.seekColumns() as column>
+
+    /**
+     * 按 ${column.name} 做keyset分页，${column.name} 相同时按主键排序
+     */
+    List<${className}QueryDTO> findPageBy${column.name?cap_first}After(${cg.javaType(column)} after${column.name?cap_first}, ${pkType} after${seekKey.name?cap_first}, int limit);
+</#list>
+</#if>
+}
@@ -0,0 +1,72 @@
+import ${cg.pkg('application', 'QueryRepository')}.${className}QueryRepository;
+import ${cg.pkg('application', 'QueryDTO')}.${className}QueryDTO;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+
+import java.util.List;
+
+/**
+ * ${className} 的查询服务（CQRS读侧），只读，不经过聚合和 ${className}Repository
+ */
+public class ${className}${componentType} {
+    // 单页最多返回的行数
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final ${className}QueryRepository repository;
+
+    public ${className}${componentType}(${className}QueryRepository repository) {
+        this.repository = repository;
+    }
+<#if pkColumns?has_content>
+
+    public ${className}QueryDTO getById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        return repository.findById(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>);
+    }
+</#if>
+<#list accessPaths as path>
+
+    public <#if path.unique>${className}QueryDTO<#else>List<${className}QueryDTO></#if> ${path.methodName()}(<#list path.columns as column>${cg.javaType(column)} ${column.name}<#sep>, </#sep></#list>) {
+        return repository.${path.methodName()}(<#list path.columns as column>${column.name}<#sep>, </#sep></#list>);
+    }
+</#list>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+
+    /**
+     * 按主键翻页，下一页以本页最后一条的 ${seekKey.name} 作为游标
+     */
+    public CursorPage listAfter${seekKey.name?cap_first}(${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        // 多取一行用于判断是否还有下一页
+        return CursorPage.of(repository.findPageAfter${seekKey.name?cap_first}(${afterId}, size + 1), size);
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    /**
+     * 按 ${column.name} 翻页，下一页以本页最后一条的 ${column.name} 和 ${seekKey.name} 作为游标
+     */
+    public CursorPage listBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        return CursorPage.of(repository.findPageBy${column.name?cap_first}After(${afterValue}, ${afterId}, size + 1), size);
+    }
+</#list>
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 游标分页结果，hasMore 为true时用最后一条记录的排序键请求下一页
+     */
+    public record CursorPage(List<${className}QueryDTO> items, boolean hasMore) {
+
+        static CursorPage of(List<${className}QueryDTO> rows, int size) {
+            boolean hasMore = rows.size() > size;
+            return new CursorPage(hasMore ? List.copyOf(rows.subList(0, size)) : rows, hasMore);
+        }
+    }
+</#if>
+}
@@ -0,0 +1,219 @@
+<#-- 只有接口层为REACTIVE模式时才生成R2DBC仓储，其余模式渲染为空、不落盘 -->
+<#if config.layers['interfaces'].generationMode! == "REACTIVE">
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#-- Instant 按 LocalDateTime 读写，与JDBC实现一样使用JVM默认时区 -->
+<#function bindType column>
+    <#local javaType = cg.javaType(column)>
+    <#return (javaType == "java.time.Instant")?then("LocalDateTime", javaType)>
+</#function>
+<#function r2dbcRead column index>
+    <#local javaType = cg.javaType(column)>
+    <#if javaType == "java.time.Instant">
+        <#return "toInstant(row.get(" + index + ", LocalDateTime.class))">
+    <#elseif javaType == "Object">
+        <#return "row.get(" + index + ")">
+    </#if>
+    <#return "row.get(" + index + ", " + javaType + ".class)">
+</#function>
+<#function r2dbcValue column expr>
+    <#if cg.javaType(column) == "java.time.Instant">
+        <#return "toLocalDateTime(" + expr + ")">
+    </#if>
+    <#return expr>
+</#function>
+<#assign hasInstant = table.columns?filter(c -> cg.javaType(c) == "java.time.Instant")?has_content>
+<#assign pkNames = pkColumns?map(c -> c.originalName?lower_case)>
+<#assign updateColumns = table.columns?filter(c -> !pkNames?seq_contains(c.originalName?lower_case))>
+import ${cg.pkg('domain', 'ReactiveRepository')}.${className}ReactiveRepository;
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+<#if hasInstant>
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+</#if>
+<#if seekKey?has_content>
+import java.util.Collection;
+</#if>
+import java.util.List;
+
+/**
+ * ${table.name} 的R2DBC仓储实现（MySQL方言），SQL使用命名参数，由 DatabaseClient 换成驱动的占位符；
+ * save/saveAll 与JDBC实现一样按 upsert 写入，saveAll 按批拼成多行语句，多条语句需要在同一事务中提交时由调用方套上 TransactionalOperator
+ */
+@Repository
+public class ${className}${componentType} implements ${className}ReactiveRepository {
+    public static final int DEFAULT_BATCH_SIZE = ${config.jdbcBatchSize?c};
+    // MySQL 单条语句最多 65535 个占位符
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    private static final String TABLE = "${cg.quote(table.name)}";
+    private static final String COLUMNS = "<#list table.columns as column>${cg.quote(column.originalName)}<#sep>, </#sep></#list>";
+    private static final String SELECT = "SELECT " + COLUMNS + " FROM " + TABLE;
+    private static final int COLUMN_COUNT = ${table.columns?size};
+    private static final String INSERT_PREFIX = "INSERT INTO " + TABLE + " (" + COLUMNS + ") VALUES ";
+<#if updateColumns?has_content>
+    private static final String UPSERT_CLAUSE = " ON DUPLICATE KEY UPDATE <#list updateColumns as column>${cg.quote(column.originalName)} = VALUES(${cg.quote(column.originalName)})<#sep>, </#sep></#list>";
+<#else>
+    private static final String UPSERT_CLAUSE = " ON DUPLICATE KEY UPDATE ${cg.quote(pkColumns[0].originalName)} = ${cg.quote(pkColumns[0].originalName)}";
+</#if>
+<#if pkColumns?has_content>
+    private static final String SELECT_BY_ID = SELECT + " WHERE <#list pkColumns as pk>${cg.quote(pk.originalName)} = :${pk.name}<#sep> AND </#sep></#list>";
+</#if>
+<#if seekKey?has_content>
+    <#assign pkQuoted = cg.quote(seekKey.originalName)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+    <#assign pkType = cg.javaType(seekKey)>
+    private static final String SELECT_ALL = SELECT + " ORDER BY ${pkQuoted}";
+    // 集合参数由 DatabaseClient 展开成 IN (?, ?, ...)
+    private static final String SELECT_BY_IDS = SELECT + " WHERE ${pkQuoted} IN (:ids)";
+    private static final String PAGE_FIRST = SELECT + " ORDER BY ${pkQuoted} LIMIT :limit";
+    private static final String PAGE_AFTER_${seekKey.originalName?upper_case} = SELECT + " WHERE ${pkQuoted} > :${afterId} ORDER BY ${pkQuoted} LIMIT :limit";
+<#list table.seekColumns() as column>
+    <#assign seekOrder = cg.quote(column.originalName) + ", " + pkQuoted>
+    private static final String PAGE_BY_${column.originalName?upper_case}_FIRST = SELECT + " ORDER BY ${seekOrder} LIMIT :limit";
+    private static final String PAGE_BY_${column.originalName?upper_case}_AFTER = SELECT + " WHERE (${seekOrder}) > (:after${column.name?cap_first}, :${afterId}) ORDER BY ${seekOrder} LIMIT :limit";
+</#list>
+<#else>
+    private static final String SELECT_ALL = SELECT;
+</#if>
+
+    private final DatabaseClient client;
+    private final int rowsPerStatement;
+
+    public ${className}${componentType}(DatabaseClient client) {
+        this(client, DEFAULT_BATCH_SIZE);
+    }
+
+    public ${className}${componentType}(DatabaseClient client, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.client = client;
+        this.rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PLACEHOLDERS / COLUMN_COUNT));
+    }
+<#if pkColumns?has_content>
+
+    @Override
+    public Mono<${className}Entity> findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        return client.sql(SELECT_BY_ID)
+<#list pkColumns as pk>
+                .bind("${pk.name}", ${r2dbcValue(pk, pk.name)})
+</#list>
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+</#if>
+<#if seekKey?has_content>
+
+    @Override
+    public Flux<${className}Entity> findAllById(Collection<${pkType}> ${seekKey.name}s) {
+        if (${seekKey.name}s.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql(SELECT_BY_IDS)
+                .bind("ids", ${seekKey.name}s)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    @Override
+    public Flux<${className}Entity> findPageAfter${seekKey.name?cap_first}(${pkType} ${afterId}, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = ${afterId} == null
+                ? client.sql(PAGE_FIRST)
+                : client.sql(PAGE_AFTER_${seekKey.originalName?upper_case}).bind("${afterId}", ${r2dbcValue(seekKey, afterId)});
+        return spec.bind("limit", limit)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    @Override
+    public Flux<${className}Entity> findPageBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${pkType} ${afterId}, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = ${afterValue} == null && ${afterId} == null
+                ? client.sql(PAGE_BY_${column.originalName?upper_case}_FIRST)
+                : client.sql(PAGE_BY_${column.originalName?upper_case}_AFTER);
+        if (${afterValue} != null || ${afterId} != null) {
+            spec = bind(spec, "${afterValue}", ${r2dbcValue(column, afterValue)}, ${bindType(column)}.class);
+            spec = bind(spec, "${afterId}", ${r2dbcValue(seekKey, afterId)}, ${bindType(seekKey)}.class);
+        }
+        return spec.bind("limit", limit)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+</#list>
+</#if>
+
+    @Override
+    public Flux<${className}Entity> findAll() {
+        return client.sql(SELECT_ALL)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    @Override
+    public Mono<Void> save(${className}Entity entity) {
+        return upsert(List.of(entity));
+    }
+
+    @Override
+    public Mono<Void> saveAll(List<${className}Entity> entities) {
+        if (entities.isEmpty()) {
+            return Mono.empty();
+        }
+        // 按批顺序执行，同一时刻只占用一个连接
+        return Flux.range(0, (entities.size() + rowsPerStatement - 1) / rowsPerStatement)
+                .concatMap(i -> upsert(entities.subList(i * rowsPerStatement,
+                        Math.min((i + 1) * rowsPerStatement, entities.size()))))
+                .then();
+    }
+
+    private Mono<Void> upsert(List<${className}Entity> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(" : ", (")
+<#list table.columns as column>
+                    .append(":${column.name}").append(i)<#if column?has_next>.append(", ")<#else>.append(')');</#if>
+</#list>
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.append(UPSERT_CLAUSE).toString());
+        for (int i = 0; i < rows.size(); i++) {
+            ${className}Entity entity = rows.get(i);
+<#list table.columns as column>
+            spec = bind(spec, "${column.name}" + i, ${r2dbcValue(column, "entity.get" + column.name?cap_first + "()")}, ${bindType(column)}.class);
+</#list>
+        }
+        return spec.then();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static ${className}Entity mapRow(Row row) {
+        ${className}Entity entity = new ${className}Entity();
+<#list table.columns as column>
+        entity.set${column.name?cap_first}(${r2dbcRead(column, column?index)});
+</#list>
+        return entity;
+    }
+<#if hasInstant>
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+</#if>
+}
+</#if>
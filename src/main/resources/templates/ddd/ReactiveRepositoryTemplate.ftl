@@ -0,0 +1,45 @@
+<#-- 只有接口层为REACTIVE模式时才生成响应式仓储，其余模式渲染为空、不落盘 -->
+<#if config.layers['interfaces'].generationMode! == "REACTIVE">
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+<#if seekKey?has_content>
+import java.util.Collection;
+</#if>
+import java.util.List;
+
+/**
+ * ${className}Repository 的响应式版本，供响应式控制器使用
+ */
+public interface ${className}${componentType} {
+<#if pkColumns?has_content>
+    Mono<${className}Entity> findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>);
+
+</#if>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    /**
+     * 按主键批量查询，不存在的主键不出现在结果中，结果顺序不保证
+     */
+    Flux<${className}Entity> findAllById(Collection<${pkType}> ${seekKey.name}s);
+
+    Flux<${className}Entity> findPageAfter${seekKey.name?cap_first}(${pkType} after${seekKey.name?cap_first}, int limit);
+
+<#list table.seekColumns() as column>
+    Flux<${className}Entity> findPageBy${column.name?cap_first}After(${cg.javaType(column)} after${column.name?cap_first}, ${pkType} after${seekKey.name?cap_first}, int limit);
+
+</#list>
+</#if>
+    /**
+     * 按订阅方的需求逐批拉取全表<#if seekKey?has_content>（按主键排序）</#if>
+     */
+    Flux<${className}Entity> findAll();
+
+    Mono<Void> save(${className}Entity entity);
+
+    Mono<Void> saveAll(List<${className}Entity> entities);
+}
+</#if>
@@ -0,0 +1,110 @@
+<#-- 只有接口层为REACTIVE模式时才生成响应式服务，其余模式渲染为空、不落盘 -->
+<#if config.layers['interfaces'].generationMode! == "REACTIVE">
+import ${cg.pkg('domain', 'ReactiveRepository')}.${className}ReactiveRepository;
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+import ${cg.pkg('application', 'Mapper')}.${className}Mapper;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class ${className}${componentType} {
+    // 单页最多返回的行数
+    public static final int MAX_PAGE_SIZE = 1000;
+    // 批量接口单次最多接受的条数
+    public static final int MAX_BATCH_SIZE = 10_000;
+<#if seekKey?has_content>
+    // 批量查询拆成的每个 IN 查询的主键个数，以及同时在途的查询数
+    private static final int FAN_OUT_CHUNK = ${config.jdbcBatchSize?c};
+    private static final int FAN_OUT_CONCURRENCY = 4;
+</#if>
+
+    private final ${className}ReactiveRepository repository;
+
+    public ${className}${componentType}(${className}ReactiveRepository repository) {
+        this.repository = repository;
+    }
+<#if pkColumns?has_content>
+
+    public Mono<${className}DTO> getById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        return repository.findById(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>).map(${className}Mapper::toDTO);
+    }
+</#if>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+
+    /**
+     * 按主键批量查询：拆成多个 IN 查询并发执行，结果顺序不保证
+     */
+    public Flux<${className}DTO> getAllById(List<${pkType}> ${seekKey.name}s) {
+        checkBatchSize(${seekKey.name}s.size());
+        return Flux.fromIterable(${seekKey.name}s)
+                .buffer(FAN_OUT_CHUNK)
+                .flatMap(repository::findAllById, FAN_OUT_CONCURRENCY)
+                .map(${className}Mapper::toDTO);
+    }
+
+    public Mono<CursorPage> listAfter${seekKey.name?cap_first}(${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        // 多取一行用于判断是否还有下一页
+        return repository.findPageAfter${seekKey.name?cap_first}(${afterId}, size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size));
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    public Mono<CursorPage> listBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        return repository.findPageBy${column.name?cap_first}After(${afterValue}, ${afterId}, size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size));
+    }
+</#list>
+</#if>
+
+    /**
+     * 流式导出全表，下游按需请求，不在内存中攒整表
+     */
+    public Flux<${className}DTO> exportAll() {
+        return repository.findAll().map(${className}Mapper::toDTO);
+    }
+
+    public Mono<Void> save(${className}DTO dto) {
+        return repository.save(${className}Mapper.toEntity(dto));
+    }
+
+    public Mono<Void> saveAll(List<${className}DTO> dtos) {
+        checkBatchSize(dtos.size());
+        return repository.saveAll(${className}Mapper.toEntityList(dtos));
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batch size " + size + " exceeds " + MAX_BATCH_SIZE);
+        }
+    }
+<#if seekKey?has_content>
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 游标分页结果，hasMore 为true时用最后一条记录的排序键请求下一页
+     */
+    public record CursorPage(List<${className}DTO> items, boolean hasMore) {
+
+        static CursorPage of(List<${className}Entity> rows, int size) {
+            boolean hasMore = rows.size() > size;
+            List<${className}Entity> page = hasMore ? rows.subList(0, size) : rows;
+            return new CursorPage(${className}Mapper.toDTOList(page), hasMore);
+        }
+    }
+</#if>
+}
+</#if>
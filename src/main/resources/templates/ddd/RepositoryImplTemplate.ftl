@@ -1,18 +1,314 @@
-
-import ${config.layers['domain'].components['Repository'].basePackage}.${className}Repository;
-import ${config.layers['domain'].components['Entity'].basePackage}.${className}Entity;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#-- 列清单和SQL在生成时拼成常量，读写按列下标直接赋值；
+     JPA模式下只有keyset分页、分段IN查询和流式读取走JdbcTemplate（JPQL表达不了行构造器比较和游标读取），其余留给JPA实现 -->
+<#assign jdbc = generationMode == "JDBC">
+<#assign hasInstant = table.columns?filter(c -> cg.javaType(c) == "java.time.Instant")?has_content>
+<#assign pkNames = pkColumns?map(c -> c.originalName?lower_case)>
+<#assign updateColumns = table.columns?filter(c -> !pkNames?seq_contains(c.originalName?lower_case))>
+import ${cg.pkg('domain', 'Repository')}.${className}Repository;
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import org.springframework.beans.factory.annotation.Autowired;
+<#if jdbc>
+import org.springframework.jdbc.core.ConnectionCallback;
+</#if>
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+<#if hasInstant>
+import java.sql.Timestamp;
+import java.time.Instant;
+</#if>
+<#if seekKey?has_content>
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+</#if>
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+<#if jdbc>
+ * ${table.name} 的JDBC仓储实现（MySQL方言）
+ * saveAll 使用 PreparedStatement.addBatch 按批提交，insertAll/upsertAll 使用多行 INSERT ... VALUES
+<#else>
+ * ${table.name} 的JPA仓储实现
+ * 批量查询、keyset分页和流式导出需要原生SQL，通过同一数据源上的 JdbcTemplate 执行（MySQL方言）
+</#if>
+ */
 @Repository
 public class ${className}${componentType} implements ${className}Repository {
-@Override
-public ${className}Entity findById(String id) {
-// TODO: 实现JPA查询
-return null;
-}
+    public static final int DEFAULT_BATCH_SIZE = ${config.jdbcBatchSize?c};
+<#if jdbc>
+    // MySQL 单条语句最多 65535 个占位符
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+</#if>
+    private static final String TABLE = "${cg.quote(table.name)}";
+    private static final String COLUMNS = "<#list table.columns as column>${cg.quote(column.originalName)}<#sep>, </#sep></#list>";
+<#if jdbc>
+    private static final int COLUMN_COUNT = ${table.columns?size};
+    private static final String ROW_PLACEHOLDERS = "(<#list table.columns as column>?<#sep>, </#sep></#list>)";
+</#if>
+    private static final String SELECT = "SELECT " + COLUMNS + " FROM " + TABLE;
+<#if jdbc>
+    private static final String INSERT = "INSERT INTO " + TABLE + " (" + COLUMNS + ") VALUES " + ROW_PLACEHOLDERS;
+<#if updateColumns?has_content>
+    private static final String UPSERT_CLAUSE = " ON DUPLICATE KEY UPDATE <#list updateColumns as column>${cg.quote(column.originalName)} = VALUES(${cg.quote(column.originalName)})<#sep>, </#sep></#list>";
+<#else>
+    private static final String UPSERT_CLAUSE = " ON DUPLICATE KEY UPDATE ${cg.quote(pkColumns[0].originalName)} = ${cg.quote(pkColumns[0].originalName)}";
+</#if>
+    private static final String UPSERT = INSERT + UPSERT_CLAUSE;
+<#if pkColumns?has_content>
+    private static final String SELECT_BY_ID = SELECT + " WHERE <#list pkColumns as pk>${cg.quote(pk.originalName)} = ?<#sep> AND </#sep></#list>";
+</#if>
+<#list accessPaths as path>
+    private static final String SELECT_BY_<#list path.columns as column>${column.originalName?upper_case}<#sep>_AND_</#sep></#list> = SELECT + " WHERE <#list path.columns as column>${cg.quote(column.originalName)} = ?<#sep> AND </#sep></#list>";
+</#list>
+</#if>
+<#if seekKey?has_content>
+    <#assign pkQuoted = cg.quote(seekKey.originalName)>
+    private static final String SELECT_ALL = SELECT + " ORDER BY ${pkQuoted}";
+    private static final String SELECT_BY_IDS_PREFIX = SELECT + " WHERE ${pkQuoted} IN (";
+    private static final String PAGE_FIRST = SELECT + " ORDER BY ${pkQuoted} LIMIT ?";
+    private static final String PAGE_AFTER_${seekKey.originalName?upper_case} = SELECT + " WHERE ${pkQuoted} > ? ORDER BY ${pkQuoted} LIMIT ?";
+<#list table.seekColumns() as column>
+    <#assign seekOrder = cg.quote(column.originalName) + ", " + pkQuoted>
+    private static final String PAGE_BY_${column.originalName?upper_case}_FIRST = SELECT + " ORDER BY ${seekOrder} LIMIT ?";
+    // 行构造器比较 (a, b) > (?, ?) 可以直接走 (a, 主键) 的索引范围扫描
+    private static final String PAGE_BY_${column.originalName?upper_case}_AFTER = SELECT + " WHERE (${seekOrder}) > (?, ?) ORDER BY ${seekOrder} LIMIT ?";
+</#list>
+<#else>
+    private static final String SELECT_ALL = SELECT;
+</#if>
+
+    private static final RowMapper<${className}Entity> ROW_MAPPER = (rs, rowNum) -> mapRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+<#if jdbc>
+    private final int rowsPerStatement;
+    // 满批的多行INSERT/UPSERT在构造时拼好，只有最后不满一批时才临时拼接
+    private final String multiRowInsert;
+    private final String multiRowUpsert;
+</#if>
+
+    @Autowired
+    public ${className}${componentType}(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, DEFAULT_BATCH_SIZE);
+    }
+
+    public ${className}${componentType}(JdbcTemplate jdbcTemplate, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+<#if jdbc>
+        this.rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PLACEHOLDERS / COLUMN_COUNT));
+        this.multiRowInsert = multiRowInsert(rowsPerStatement);
+        this.multiRowUpsert = multiRowInsert + UPSERT_CLAUSE;
+</#if>
+    }
+<#if pkColumns?has_content>
+
+    @Override
+    public ${className}Entity findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+<#if jdbc>
+        List<${className}Entity> rows = jdbcTemplate.query(SELECT_BY_ID, ROW_MAPPER, <#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>);
+        return rows.isEmpty() ? null : rows.get(0);
+<#else>
+        // TODO: 实现JPA查询
+        return null;
+</#if>
+    }
+</#if>
+<#list accessPaths as path>
+
+    @Override
+    public <#if path.unique>${className}Entity<#else>List<${className}Entity></#if> ${path.methodName()}(<#list path.columns as column>${cg.javaType(column)} ${column.name}<#sep>, </#sep></#list>) {
+<#if !jdbc>
+        // TODO: 实现JPA查询，走索引 ${path.indexName}
+        return <#if path.unique>null<#else>List.of()</#if>;
+<#elseif path.unique>
+        List<${className}Entity> rows = jdbcTemplate.query(SELECT_BY_<#list path.columns as column>${column.originalName?upper_case}<#sep>_AND_</#sep></#list>, ROW_MAPPER, <#list path.columns as column>${column.name}<#sep>, </#sep></#list>);
+        return rows.isEmpty() ? null : rows.get(0);
+<#else>
+        return jdbcTemplate.query(SELECT_BY_<#list path.columns as column>${column.originalName?upper_case}<#sep>_AND_</#sep></#list>, ROW_MAPPER, <#list path.columns as column>${column.name}<#sep>, </#sep></#list>);
+</#if>
+    }
+</#list>
+<#if seekKey?has_content>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+    <#assign pkType = cg.javaType(seekKey)>
+
+    /**
+     * IN 查询按 batchSize 分段，避免单条语句的参数过多
+     */
+    @Override
+    public List<${className}Entity> findAllById(Collection<${pkType}> ${seekKey.name}s) {
+        if (${seekKey.name}s.isEmpty()) {
+            return List.of();
+        }
+        List<${pkType}> keys = new ArrayList<>(${seekKey.name}s);
+        List<${className}Entity> result = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<${pkType}> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            String sql = SELECT_BY_IDS_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            result.addAll(jdbcTemplate.query(sql, ROW_MAPPER, chunk.toArray()));
+        }
+        return result;
+    }
+
+    @Override
+    public List<${className}Entity> findPageAfter${seekKey.name?cap_first}(${pkType} ${afterId}, int limit) {
+        if (${afterId} == null) {
+            return jdbcTemplate.query(PAGE_FIRST, ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(PAGE_AFTER_${seekKey.originalName?upper_case}, ROW_MAPPER, ${cg.jdbcValue(seekKey, afterId)}, limit);
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    @Override
+    public List<${className}Entity> findPageBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${cg.javaType(seekKey)} ${afterId}, int limit) {
+        if (${afterValue} == null || ${afterId} == null) {
+            return jdbcTemplate.query(PAGE_BY_${column.originalName?upper_case}_FIRST, ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(PAGE_BY_${column.originalName?upper_case}_AFTER, ROW_MAPPER,
+                ${cg.jdbcValue(column, afterValue)}, ${cg.jdbcValue(seekKey, afterId)}, limit);
+    }
+</#list>
+</#if>
+
+    /**
+     * 只读、单向游标并设置 fetchSize；MySQL Connector/J 需要在连接串上开启 useCursorFetch=true，
+     * 否则驱动仍会一次性把结果集读进内存
+     */
+    @Override
+    public Stream<${className}Entity> streamAll(int fetchSize) {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_ALL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, ROW_MAPPER);
+    }
+
+<#if jdbc>
+    @Override
+    public void save(${className}Entity entity) {
+        jdbcTemplate.update(UPSERT, ps -> bind(ps, entity, 0));
+    }
+
+    /**
+     * 逐行绑定并 addBatch，每 batchSize 行提交一次
+     */
+    @Override
+    public void saveAll(List<${className}Entity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT)) {
+                int pending = 0;
+                for (${className}Entity entity : entities) {
+                    bind(ps, entity, 0);
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    ps.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 多行 INSERT ... VALUES (...), (...)，适合全新数据的批量导入
+     */
+    public void insertAll(List<${className}Entity> entities) {
+        executeMultiRow(entities, multiRowInsert, "");
+    }
+
+    /**
+     * 多行 INSERT ... ON DUPLICATE KEY UPDATE
+     */
+    public void upsertAll(List<${className}Entity> entities) {
+        executeMultiRow(entities, multiRowUpsert, UPSERT_CLAUSE);
+    }
+
+    private void executeMultiRow(List<${className}Entity> entities, String fullStatement, String suffix) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            int size = entities.size();
+            for (int from = 0; from < size; from += rowsPerStatement) {
+                int to = Math.min(from + rowsPerStatement, size);
+                String sql = to - from == rowsPerStatement ? fullStatement : multiRowInsert(to - from) + suffix;
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = from; i < to; i++) {
+                        bind(ps, entities.get(i), (i - from) * COLUMN_COUNT);
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
+    private static String multiRowInsert(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + (rows - 1) * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT);
+        for (int i = 1; i < rows; i++) {
+            sql.append(", ").append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement ps, ${className}Entity entity, int offset) throws SQLException {
+<#list table.columns as column>
+        ps.setObject(offset + ${column?counter}, ${cg.jdbcValue(column, "entity.get" + column.name?cap_first + "()")});
+</#list>
+    }
+<#else>
+    @Override
+    public void save(${className}Entity entity) {
+        // TODO: 实现JPA保存
+    }
+
+    @Override
+    public void saveAll(List<${className}Entity> entities) {
+        // TODO: 实现JPA批量保存
+        entities.forEach(this::save);
+    }
+</#if>
+
+    private static ${className}Entity mapRow(ResultSet rs) throws SQLException {
+        ${className}Entity entity = new ${className}Entity();
+<#list table.columns as column>
+        entity.set${column.name?cap_first}(${cg.jdbcRead(column, column?counter)});
+</#list>
+        return entity;
+    }
+<#if hasInstant>
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
 
-@Override
-public void save(${className}Entity entity) {
-// TODO: 实现JPA保存
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+</#if>
 }
-}
\ No newline at end of file
@@ -0,0 +1,207 @@
+<#-- 只有JDBC模式的仓储实现才生成批量写入测试，其余模式渲染为空、不落盘 -->
+<#if generationMode == "JDBC">
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign keyColumns = cg.sampleKeyColumns(table)>
+<#assign uniqueIndexes = cg.sampleUniqueIndexes(table)>
+<#assign hasUniqueKey = pkColumns?has_content || uniqueIndexes?has_content>
+<#assign implPackage = cg.pkg('infrastructure', 'RepositoryImpl')>
+<#if implPackage != cg.pkg('infrastructure', componentType)>
+import ${implPackage}.${className}RepositoryImpl;
+</#if>
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+<#if pkColumns?has_content>
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+</#if>
+
+/**
+ * 在H2内存库（MySQL兼容模式）上验证 ${className}RepositoryImpl 的批量写入按批提交
+ */
+class ${className}${componentType} {
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 100;
+    private static final String DDL = "CREATE TABLE ${cg.quote(table.name)} ("
+<#list table.columns as column>
+            + "${cg.quote(column.originalName)} ${cg.sampleColumnType(column, keyColumns)}<#if column?has_next || hasUniqueKey>, </#if>"
+</#list>
+<#if pkColumns?has_content>
+            + "PRIMARY KEY (<#list pkColumns as pk>${cg.quote(pk.originalName)}<#sep>, </#sep></#list>)<#if uniqueIndexes?has_content>, </#if>"
+</#if>
+<#list uniqueIndexes as index>
+            + "UNIQUE (<#list index.columns as column>${cg.quote(column)}<#sep>, </#sep></#list>)<#sep>, </#sep>"
+</#list>
+            + ")";
+
+    private final AtomicInteger executeBatchCalls = new AtomicInteger();
+    private final AtomicInteger executeUpdateCalls = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+    private ${className}RepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(DDL);
+        repository = new ${className}RepositoryImpl(new JdbcTemplate(countingDataSource(dataSource)), BATCH_SIZE);
+    }
+
+    @Test
+    void saveAllSubmitsOneBatchPerBatchSizeRows() {
+        repository.saveAll(sampleEntities(ROWS));
+
+        assertEquals(ROWS, countRows());
+        assertEquals((ROWS + BATCH_SIZE - 1) / BATCH_SIZE, executeBatchCalls.get());
+    }
+
+    @Test
+    void insertAllUsesOneMultiRowStatementPerBatch() {
+        repository.insertAll(sampleEntities(ROWS));
+
+        assertEquals(ROWS, countRows());
+        assertEquals((ROWS + BATCH_SIZE - 1) / BATCH_SIZE, executeUpdateCalls.get());
+    }
+<#if hasUniqueKey>
+
+    @Test
+    void upsertAllDoesNotDuplicateRows() {
+        List<${className}Entity> entities = sampleEntities(ROWS);
+        repository.upsertAll(entities);
+        repository.upsertAll(entities);
+
+        assertEquals(ROWS, countRows());
+    }
+</#if>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#if seekKey?has_content>
+
+    @Test
+    void keysetPagesCoverAllRowsInOrder() {
+        repository.insertAll(sampleEntities(ROWS));
+
+        int seen = 0;
+        ${cg.javaType(seekKey)} cursor = null;
+        List<${className}Entity> page;
+        while (!(page = repository.findPageAfter${seekKey.name?cap_first}(cursor, BATCH_SIZE)).isEmpty()) {
+            seen += page.size();
+            cursor = page.get(page.size() - 1).get${seekKey.name?cap_first}();
+        }
+        assertEquals(ROWS, seen);
+    }
+<#list table.seekColumns() as column>
+
+    @Test
+    void keysetPagesBy${column.name?cap_first}CoverAllRows() {
+        repository.insertAll(sampleEntities(ROWS));
+
+        int seen = 0;
+        ${cg.javaType(column)} after${column.name?cap_first} = null;
+        ${cg.javaType(seekKey)} after${seekKey.name?cap_first} = null;
+        List<${className}Entity> page;
+        while (!(page = repository.findPageBy${column.name?cap_first}After(after${column.name?cap_first}, after${seekKey.name?cap_first}, BATCH_SIZE)).isEmpty()) {
+            seen += page.size();
+            ${className}Entity last = page.get(page.size() - 1);
+            after${column.name?cap_first} = last.get${column.name?cap_first}();
+            after${seekKey.name?cap_first} = last.get${seekKey.name?cap_first}();
+        }
+        assertEquals(ROWS, seen);
+    }
+</#list>
+</#if>
+
+    @Test
+    void streamAllReadsEveryRow() {
+        repository.insertAll(sampleEntities(ROWS));
+
+        try (Stream<${className}Entity> rows = repository.streamAll(BATCH_SIZE)) {
+            assertEquals(ROWS, rows.count());
+        }
+    }
+<#if pkColumns?has_content>
+
+    @Test
+    void findByIdReadsBackSavedRow() {
+        ${className}Entity entity = sampleEntities(1).get(0);
+        repository.save(entity);
+
+        assertNotNull(repository.findById(<#list pkColumns as pk>entity.get${pk.name?cap_first}()<#sep>, </#sep></#list>));
+    }
+</#if>
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ${cg.quote(table.name)}", Integer.class);
+    }
+
+    private static List<${className}Entity> sampleEntities(int rows) {
+        List<${className}Entity> entities = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            ${className}Entity entity = new ${className}Entity();
+<#list table.columns as column>
+            entity.set${column.name?cap_first}(${cg.sampleValue(column, keyColumns)});
+</#list>
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private static String text(String prefix, int i, int maxLength) {
+        String value = prefix + i;
+        // 保留末尾的序号部分，尽量不破坏唯一性
+        return value.length() <= maxLength ? value : value.substring(value.length() - maxLength);
+    }
+
+    private DataSource countingDataSource(DataSource target) {
+        return proxy(DataSource.class, target, (method, result) ->
+                result instanceof Connection connection ? countingConnection(connection) : result);
+    }
+
+    private Connection countingConnection(Connection target) {
+        return proxy(Connection.class, target, (method, result) ->
+                result instanceof PreparedStatement statement ? countingStatement(statement) : result);
+    }
+
+    private PreparedStatement countingStatement(PreparedStatement target) {
+        return proxy(PreparedStatement.class, target, (method, result) -> {
+            if ("executeBatch".equals(method.getName())) {
+                executeBatchCalls.incrementAndGet();
+            } else if ("executeUpdate".equals(method.getName())) {
+                executeUpdateCalls.incrementAndGet();
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            try {
+                return handler.handle(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler {
+        Object handle(Method method, Object result);
+    }
+}
+</#if>
@@ -1,5 +1,52 @@
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign accessPaths = table.accessPaths()>
+<#assign seekKey = table.primaryKeyColumn()!>
+
+<#if seekKey?has_content>
+import java.util.Collection;
+</#if>
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ${className}${componentType} {
-${className}Entity findById(String id);
-void save(${className}Entity entity);
-}
\ No newline at end of file
+<#if pkColumns?has_content>
+    ${className}Entity findById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>);
+
+</#if>
+<#list accessPaths as path>
+    /** 索引 ${path.indexName} */
+    <#if path.unique>${className}Entity<#else>List<${className}Entity></#if> ${path.methodName()}(<#list path.columns as column>${cg.javaType(column)} ${column.name}<#sep>, </#sep></#list>);
+
+</#list>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    /**
+     * 按主键批量查询，不存在的主键不出现在结果中，结果顺序不保证
+     */
+    List<${className}Entity> findAllById(Collection<${pkType}> ${seekKey.name}s);
+
+    /**
+     * 按主键做keyset分页：返回 ${seekKey.name} 大于 after${seekKey.name?cap_first} 的前 limit 行，
+     * after${seekKey.name?cap_first} 为null时从第一行开始
+     */
+    List<${className}Entity> findPageAfter${seekKey.name?cap_first}(${pkType} after${seekKey.name?cap_first}, int limit);
+
+<#list table.seekColumns() as column>
+    /**
+     * 按 ${column.name} 做keyset分页，${column.name} 相同时按主键排序；两个游标都为null时从第一行开始
+     */
+    List<${className}Entity> findPageBy${column.name?cap_first}After(${cg.javaType(column)} after${column.name?cap_first}, ${pkType} after${seekKey.name?cap_first}, int limit);
+
+</#list>
+</#if>
+    /**
+     * 流式读取全表<#if seekKey?has_content>（按主键排序）</#if>，fetchSize 提示驱动每次取回的行数；
+     * 返回的Stream持有数据库连接，调用方必须关闭
+     */
+    Stream<${className}Entity> streamAll(int fetchSize);
+
+    void save(${className}Entity entity);
+
+    void saveAll(List<${className}Entity> entities);
+}
@@ -1,24 +1,148 @@
+import ${cg.pkg('domain', 'Repository')}.${className}Repository;
+import ${cg.pkg('domain', 'Entity')}.${className}Entity;
+import ${cg.pkg('application', 'DTO')}.${className}DTO;
+import ${cg.pkg('application', 'Mapper')}.${className}Mapper;
+<#assign pkColumns = table.primaryKeyColumns()>
+<#assign seekKey = table.primaryKeyColumn()!>
+<#-- 虚拟线程模式下批量查询按块分发到虚拟线程，生成代码中不使用 synchronized，避免钉住载体线程 -->
+<#assign virtualThreads = config.layers['interfaces'].generationMode! == "VIRTUAL_THREAD" && seekKey?has_content>
 
-import ${config.layers['domain'].components['Repository'].basePackage}.${className}Repository;
-import ${config.layers['domain'].components['Entity'].basePackage}.${className}Entity;
-import ${config.layers['application'].components['DTO'].basePackage}.${className}DTO;
+<#if virtualThreads>
+import java.util.ArrayList;
+</#if>
+import java.util.List;
+<#if virtualThreads>
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+</#if>
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class ${className}${componentType} {
-private final ${className}Repository repository;
+    // 单页最多返回的行数
+    public static final int MAX_PAGE_SIZE = 1000;
+    // 批量接口单次最多接受的条数
+    public static final int MAX_BATCH_SIZE = 10_000;
+<#if virtualThreads>
+    // 批量查询拆成的每个 IN 查询的主键个数
+    private static final int FAN_OUT_CHUNK = ${config.jdbcBatchSize?c};
+</#if>
 
-public ${className}${componentType}(${className}Repository repository) {
-this.repository = repository;
-}
+    private final ${className}Repository repository;
 
-public ${className}DTO getById(String id) {
-${className}Entity entity = repository.findById(id);
-// TODO: 转换entity为DTO
-return null;
-}
+    public ${className}${componentType}(${className}Repository repository) {
+        this.repository = repository;
+    }
+<#if pkColumns?has_content>
+
+    public ${className}DTO getById(<#list pkColumns as pk>${cg.javaType(pk)} ${pk.name}<#sep>, </#sep></#list>) {
+        ${className}Entity entity = repository.findById(<#list pkColumns as pk>${pk.name}<#sep>, </#sep></#list>);
+        return ${className}Mapper.toDTO(entity);
+    }
+</#if>
+<#if seekKey?has_content>
+    <#assign pkType = cg.javaType(seekKey)>
+    <#assign afterId = "after" + seekKey.name?cap_first>
+
+<#if virtualThreads>
+    /**
+     * 按主键批量查询：超过一块时每块在独立的虚拟线程中查询，各自占用一个连接，结果顺序不保证
+     */
+    public List<${className}DTO> getAllById(List<${pkType}> ${seekKey.name}s) {
+        checkBatchSize(${seekKey.name}s.size());
+        if (${seekKey.name}s.size() <= FAN_OUT_CHUNK) {
+            return ${className}Mapper.toDTOList(repository.findAllById(${seekKey.name}s));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<${className}Entity>>> chunks = new ArrayList<>();
+            for (int from = 0; from < ${seekKey.name}s.size(); from += FAN_OUT_CHUNK) {
+                List<${pkType}> chunk = ${seekKey.name}s.subList(from, Math.min(from + FAN_OUT_CHUNK, ${seekKey.name}s.size()));
+                chunks.add(executor.submit(() -> repository.findAllById(chunk)));
+            }
+            List<${className}DTO> result = new ArrayList<>(${seekKey.name}s.size());
+            for (Future<List<${className}Entity>> chunk : chunks) {
+                result.addAll(${className}Mapper.toDTOList(chunk.get()));
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("batch query interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+<#else>
+    /**
+     * 按主键批量查询，仓储内部按批拆分 IN 查询，结果顺序不保证
+     */
+    public List<${className}DTO> getAllById(List<${pkType}> ${seekKey.name}s) {
+        checkBatchSize(${seekKey.name}s.size());
+        return ${className}Mapper.toDTOList(repository.findAllById(${seekKey.name}s));
+    }
+</#if>
+
+    /**
+     * 按主键翻页，下一页以本页最后一条的 ${seekKey.name} 作为游标
+     */
+    public CursorPage listAfter${seekKey.name?cap_first}(${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        // 多取一行用于判断是否还有下一页
+        return CursorPage.of(repository.findPageAfter${seekKey.name?cap_first}(${afterId}, size + 1), size);
+    }
+<#list table.seekColumns() as column>
+    <#assign afterValue = "after" + column.name?cap_first>
+
+    /**
+     * 按 ${column.name} 翻页，下一页以本页最后一条的 ${column.name} 和 ${seekKey.name} 作为游标
+     */
+    public CursorPage listBy${column.name?cap_first}After(${cg.javaType(column)} ${afterValue}, ${pkType} ${afterId}, int limit) {
+        int size = pageSize(limit);
+        return CursorPage.of(repository.findPageBy${column.name?cap_first}After(${afterValue}, ${afterId}, size + 1), size);
+    }
+</#list>
+</#if>
+
+    /**
+     * 流式导出全表，逐行转换后交给 consumer，不在内存中攒整表
+     */
+    public void exportAll(int fetchSize, Consumer<${className}DTO> consumer) {
+        try (Stream<${className}Entity> entities = repository.streamAll(fetchSize)) {
+            entities.map(${className}Mapper::toDTO).forEach(consumer);
+        }
+    }
+
+    public void save(${className}DTO dto) {
+        repository.save(${className}Mapper.toEntity(dto));
+    }
+
+    public void saveAll(List<${className}DTO> dtos) {
+        checkBatchSize(dtos.size());
+        repository.saveAll(${className}Mapper.toEntityList(dtos));
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batch size " + size + " exceeds " + MAX_BATCH_SIZE);
+        }
+    }
+<#if seekKey?has_content>
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 游标分页结果，hasMore 为true时用最后一条记录的排序键请求下一页
+     */
+    public record CursorPage(List<${className}DTO> items, boolean hasMore) {
 
-public void save(${className}DTO dto) {
-// TODO: 转换DTO为entity
-${className}Entity entity = null;
-repository.save(entity);
+        static CursorPage of(List<${className}Entity> rows, int size) {
+            boolean hasMore = rows.size() > size;
+            List<${className}Entity> page = hasMore ? rows.subList(0, size) : rows;
+            return new CursorPage(${className}Mapper.toDTOList(page), hasMore);
+        }
+    }
+</#if>
 }
-}
\ No newline at end of file
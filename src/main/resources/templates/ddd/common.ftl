@@ -0,0 +1,135 @@
+<#-- 所有DDD模板共用的函数库，以 cg 命名空间自动导入，例如 ${cg.pkg('domain', 'Entity')} -->
+<#-- 只有一条 #return 的函数会被编译后端内联，其余函数在 FreeMarker 中照常调用 -->
+<#-- 组件所在的包 -->
+<#function pkg layer component>
+    <#return config.layers[layer].components[component].basePackage>
+</#function>
+<#-- 列对应的Java类型 -->
+<#function javaType column>
+    <#return typeMapper.getJavaType(column.type)>
+</#function>
+<#function quote name>
+    <#return "`" + name + "`">
+</#function>
+<#-- JDBC按列下标读取，Instant 经 Timestamp 转换 -->
+<#function jdbcRead column index>
+    <#local type = javaType(column)>
+    <#if type == "java.time.Instant">
+        <#return "toInstant(rs.getTimestamp(" + index + "))">
+    <#elseif type == "Object">
+        <#return "rs.getObject(" + index + ")">
+    </#if>
+    <#return "rs.getObject(" + index + ", " + type + ".class)">
+</#function>
+<#function jdbcValue column expr>
+    <#if javaType(column) == "java.time.Instant">
+        <#return "toTimestamp(" + expr + ")">
+    </#if>
+    <#return expr>
+</#function>
+<#-- 样例数据表的主键列和唯一键列（原始列名） -->
+<#function sampleKeyColumns table>
+    <#local names = []>
+    <#list table.primaryKeyColumns() as column>
+        <#local names += [column.originalName]>
+    </#list>
+    <#list table.indexes as index>
+        <#if index.unique>
+            <#local names += index.columns>
+        </#if>
+    </#list>
+    <#return names>
+</#function>
+<#-- 样例数据建表用的列类型：键列放不下每行不同的样例值时放宽，tinyint/smallint 改为 int，过短的字符串改为 varchar(11) -->
+<#function sampleColumnType column keyColumns>
+    <#if !keyColumns?seq_contains(column.originalName)>
+        <#return column.type>
+    </#if>
+    <#local type = javaType(column)>
+    <#local sqlType = column.type?lower_case>
+    <#if type == "Integer" && (sqlType?starts_with("tinyint") || sqlType?starts_with("smallint"))>
+        <#return "int">
+    </#if>
+    <#local length = sqlType?matches(r".*?\((\d+)\).*")>
+    <#if type == "String" && length && length?groups[1]?number < 11>
+        <#return "varchar(11)">
+    </#if>
+    <#return column.type>
+</#function>
+<#-- 建表时保留的唯一键：Boolean、Byte 列只有少数几个取值，全由这类列组成的唯一键无法容纳多行样例数据，不建 -->
+<#function sampleUniqueIndexes table>
+    <#local result = []>
+    <#list table.indexes as index>
+        <#if index.unique>
+            <#list table.columns as column>
+                <#if index.columns?seq_contains(column.originalName) && !["Boolean", "Byte"]?seq_contains(javaType(column))>
+                    <#local result += [index]>
+                    <#break>
+                </#if>
+            </#list>
+        </#if>
+    </#list>
+    <#return result>
+</#function>
+<#-- 按Java类型构造第i行的非空样例值，键列按 sampleColumnType 放宽后的类型取值，保证各行不同 -->
+<#function sampleValue column keyColumns>
+    <#local type = javaType(column)>
+    <#local sqlType = sampleColumnType(column, keyColumns)?lower_case>
+    <#if type == "Long">
+        <#return "(long) i">
+    <#elseif type == "Integer">
+        <#if sqlType?starts_with("tinyint")>
+            <#return "i % 128">
+        <#elseif sqlType?starts_with("smallint")>
+            <#return "i % 32768">
+        </#if>
+        <#return "i">
+    <#elseif type == "Short">
+        <#return "(short) (i % 32768)">
+    <#elseif type == "Byte">
+        <#return "(byte) (i % 128)">
+    <#elseif type == "Boolean">
+        <#return "i % 2 == 0">
+    <#elseif type == "String">
+        <#local length = sqlType?matches(r".*?\((\d+)\).*")>
+        <#return "text(\"" + column.name + "\", i, " + (length?then(length?groups[1], "255")) + ")">
+    <#elseif type == "java.math.BigDecimal">
+        <#return "java.math.BigDecimal.valueOf(i, 2)">
+    <#elseif type == "Float">
+        <#return "(float) i">
+    <#elseif type == "Double">
+        <#return "(double) i">
+    <#elseif type == "java.time.LocalDate">
+        <#return "java.time.LocalDate.of(2025, 1, 1).plusDays(i)">
+    <#elseif type == "java.time.LocalTime">
+        <#return "java.time.LocalTime.ofSecondOfDay(i % 86400)">
+    <#elseif type == "java.time.LocalDateTime">
+        <#return "java.time.LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i)">
+    <#elseif type == "java.time.Instant">
+        <#return "java.time.Instant.ofEpochSecond(1_735_689_600L + i)">
+    <#elseif type == "byte[]">
+        <#return "java.nio.ByteBuffer.allocate(4).putInt(i).array()">
+    </#if>
+    <#-- 未映射的类型按SQL类型取值：二进制列用字节数组，bit 用布尔值，enum 取第一个取值，其余用数字字符串 -->
+    <#if sqlType?matches(r"(tiny|medium|long)?blob.*|(var)?binary.*")>
+        <#return "java.nio.ByteBuffer.allocate(4).putInt(i).array()">
+    <#elseif sqlType?starts_with("bit")>
+        <#return "i % 2 == 0">
+    </#if>
+    <#local literal = column.type?matches(r"(?:enum|set)\s*\('([^'\\]*)'.*", "i")>
+    <#if literal>
+        <#return "\"" + literal?groups[1]?j_string + "\"">
+    </#if>
+    <#return "String.valueOf(i)">
+</#function>
+<#-- java.time 类型的请求参数按ISO格式解析 -->
+<#function isoFormat type>
+    <#if type == "java.time.LocalDate">
+        <#return "@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) ">
+    <#elseif type == "java.time.LocalTime">
+        <#return "@DateTimeFormat(iso = DateTimeFormat.ISO.TIME) ">
+    <#elseif type == "java.time.LocalDateTime">
+        <#return "@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ">
+    </#if>
+    <#return "">
+</#function>
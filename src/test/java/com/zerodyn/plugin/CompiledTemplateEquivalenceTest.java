@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import com.zerodyn.plugin.config.ComponentConfig;
+import com.zerodyn.plugin.config.DDDConfiguration;
+import com.zerodyn.plugin.config.LayerConfig;
+import com.zerodyn.plugin.template.TemplateInitializer;
+import com.zerodyn.plugin.template.TemplateManager;
+import com.zerodyn.plugin.template.compiled.CompiledTemplateEngine;
+import freemarker.template.TemplateException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 每个内置模板分别用 FreeMarker 和编译后端渲染，输出必须逐字相同；
+ * 编译后端覆盖不了的模板会退回 FreeMarker，这里也检查哪些模板退回了
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+class CompiledTemplateEquivalenceTest {
+    // 单列主键、联合主键、无主键，以及与模板局部变量同名的列
+    private static final String DDL = """
+            CREATE TABLE `order_item` (
+              `id` bigint NOT NULL AUTO_INCREMENT,
+              `tenant_id` int NOT NULL,
+              `code` varchar(32) NOT NULL COMMENT '编码',
+              `user_id` bigint NOT NULL,
+              `status` tinyint(1) NOT NULL,
+              `price` decimal(10,2) DEFAULT NULL,
+              `remark` text,
+              `payload` blob,
+              `created_at` datetime NOT NULL,
+              `updated_at` timestamp NULL DEFAULT NULL,
+              PRIMARY KEY (`id`),
+              UNIQUE KEY `uk_tenant_code` (`tenant_id`,`code`),
+              KEY `idx_user_status` (`user_id`, `status`),
+              KEY `idx_created_at` (`created_at`)
+            ) COMMENT='订单明细';
+            CREATE TABLE `tag_link` (`tag_id` int NOT NULL, `target` varchar(64) NOT NULL, `weight` smallint,
+              PRIMARY KEY (`tag_id`, `target`));
+            CREATE TABLE `audit_log` (`name` varchar(64), `token` varchar(64), `dto` varchar(16), `gen` int);
+            """;
+    private static final List<DDLParser.Table> TABLES = new DDLParser().parseAll(DDL);
+    // 用到编译子集以外写法（?filter、?map、多语句 #function）的模板，一直由 FreeMarker 渲染
+    private static final Set<String> FREEMARKER_ONLY = new TreeSet<>(List.of(
+            "BenchmarkTemplate.ftl",
+            "CachingRepositoryTemplate.ftl",
+            "CodecTemplate.ftl",
+            "ControllerTemplate.ftl",
+            "QueryRepositoryImplTemplate.ftl",
+            "R2dbcRepositoryImplTemplate.ftl",
+            "RepositoryImplTemplate.ftl",
+            "RepositoryImplTestTemplate.ftl"));
+
+    private static TemplateManager templateManager;
+    private static CompiledTemplateEngine compiledEngine;
+
+    @TempDir
+    static Path outputDir;
+
+    @BeforeAll
+    static void setUp() {
+        templateManager = TemplateInitializer.createDefaultTemplateManager();
+        compiledEngine = new CompiledTemplateEngine(templateManager);
+    }
+
+    static Stream<Arguments> configurations() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (String style : DDDConfiguration.getSupportedStyles()) {
+            for (String persistence : DDDConfiguration.getSupportedModes("infrastructure")) {
+                for (String interfaces : DDDConfiguration.getSupportedModes("interfaces")) {
+                    arguments.add(Arguments.of(style, persistence, interfaces, !"JPA".equals(persistence)));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0} {1} {2} cqrs={3}")
+    @MethodSource("configurations")
+    void compiledOutputMatchesFreeMarker(String style, String persistence, String interfaces, boolean cqrs)
+            throws IOException, TemplateException {
+        DDDConfiguration config = newConfiguration(style, persistence, interfaces, cqrs);
+        CodeGenerator generator = new CodeGenerator(outputDir, new FieldTypeMapper(), config.isUseLombok(), config);
+        Set<String> fallbacks = new TreeSet<>();
+        for (Map.Entry<String, LayerConfig> layer : config.getLayers().entrySet()) {
+            for (Map.Entry<String, ComponentConfig> component : layer.getValue().getComponents().entrySet()) {
+                String templateName = component.getValue().getTemplateFile();
+                for (DDLParser.Table table : TABLES) {
+                    Map<String, Object> data = generator.createTemplateData(table, layer.getKey(), component.getKey());
+                    String compiled = compiledEngine.render(templateName, data);
+                    if (compiled == null) {
+                        fallbacks.add(templateName);
+                        continue;
+                    }
+                    assertEquals(renderWithFreeMarker(templateName, data), compiled,
+                            templateName + " / " + table.name());
+                }
+            }
+        }
+        // 新增的写法让模板退出编译子集，或者编译子集扩大后忘了更新名单，都会在这里暴露
+        assertEquals(FREEMARKER_ONLY, fallbacks);
+    }
+
+    @Test
+    void coversEveryBundledTemplate() {
+        Set<String> templates = new TreeSet<>();
+        new DDDConfiguration().getLayers().values()
+                .forEach(layer -> layer.getComponents().values()
+                        .forEach(component -> templates.add(component.getTemplateFile())));
+        for (String templateName : TemplateInitializer.getRequiredTemplates()) {
+            if (!TemplateManager.getAutoImports().containsValue(templateName)) {
+                assertTrue(templates.contains(templateName), templateName + " 不属于任何组件");
+            }
+        }
+        assertNotNull(templateManager.getTemplateSource("common.ftl"));
+    }
+
+    private static DDDConfiguration newConfiguration(String style, String persistence, String interfaces,
+                                                     boolean cqrs) {
+        DDDConfiguration config = new DDDConfiguration();
+        config.setGenerationStyle(style);
+        config.setEnableCQRS(cqrs);
+        config.getLayer("infrastructure").setGenerationMode(persistence);
+        config.getLayer("interfaces").setGenerationMode(interfaces);
+        // 可选组件也要渲染
+        config.getLayers().values().forEach(layer ->
+                layer.getComponents().values().forEach(component -> component.setEnabled(true)));
+        return config;
+    }
+
+    private static String renderWithFreeMarker(String templateName, Map<String, Object> data)
+            throws IOException, TemplateException {
+        StringWriter writer = new StringWriter();
+        templateManager.getTemplate(templateName).process(data, writer);
+        return writer.toString();
+    }
+}
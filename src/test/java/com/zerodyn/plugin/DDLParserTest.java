@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import com.zerodyn.plugin.cache.ParseResultCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class DDLParserTest {
+    private static final String ORDERS = """
+            CREATE TABLE `orders` (
+              `id` bigint NOT NULL,
+              `tenant_id` int NOT NULL,
+              `code` varchar(32) NOT NULL,
+              `user_id` bigint,
+              `status` int,
+              PRIMARY KEY (`id`),
+              UNIQUE KEY `uk_tenant_code` (`tenant_id`, `code`),
+              KEY `idx_user` (`user_id`),
+              CONSTRAINT `fk_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
+            ) COMMENT='订单'""";
+
+    private final DDLParser parser = new DDLParser(new ParseResultCache(16, null));
+
+    @Test
+    void classifiesCreateTable() {
+        assertTrue(DDLParser.isCreateTable("create table t (id int)"));
+        assertTrue(DDLParser.isCreateTable("-- 用户表\n/* v1 */ CREATE TEMPORARY TABLE t (id int)"));
+        assertFalse(DDLParser.isCreateTable("INSERT INTO t VALUES ('CREATE TABLE x (id int)')"));
+        assertFalse(DDLParser.isCreateTable("CREATE TABLESPACE ts"));
+        assertFalse(DDLParser.isCreateTable("/*!40101 SET NAMES utf8 */"));
+    }
+
+    @Test
+    void parsesOnlyCreateTableStatements() {
+        assertNull(parser.parseStatement("INSERT INTO t VALUES ('CREATE TABLE x (id int)')"));
+        DDLParser.Table table = parser.parseStatement("/* dump */\nCREATE TABLE `t` (`id` bigint NOT NULL, PRIMARY KEY (`id`))");
+        assertEquals("t", table.name());
+        assertEquals(1, table.columns().size());
+    }
+
+    @Test
+    void parsesTableLevelConstraints() {
+        DDLParser.Table table = parser.parseDDL(ORDERS);
+
+        assertEquals(List.of("id"), table.primaryKey());
+        assertEquals(List.of(new DDLParser.Index("uk_tenant_code", List.of("tenant_id", "code"), true),
+                new DDLParser.Index("idx_user", List.of("user_id"), false)), table.indexes());
+        assertEquals(List.of(new DDLParser.ForeignKey("fk_user", List.of("user_id"), "users", List.of("id"))),
+                table.foreignKeys());
+    }
+
+    @Test
+    void parsesInlineConstraintsAndCompositePrimaryKey() {
+        DDLParser.Table inline = parser.parseDDL(
+                "CREATE TABLE t (id bigint PRIMARY KEY, code varchar(32) UNIQUE COMMENT 'UNIQUE 编码')");
+        assertEquals(List.of("id"), inline.primaryKey());
+        assertEquals(List.of(new DDLParser.Index("code", List.of("code"), true)), inline.indexes());
+
+        DDLParser.Table composite = parser.parseDDL(
+                "CREATE TABLE t (a int, b int, CONSTRAINT pk_t PRIMARY KEY USING BTREE (`b`, `a`))");
+        assertEquals(List.of("b", "a"), composite.primaryKey());
+        assertEquals(List.of("b", "a"), composite.primaryKeyColumns().stream()
+                .map(DDLParser.Column::originalName).toList());
+        assertNull(composite.primaryKeyColumn());
+    }
+
+    @Test
+    void keyColumnsDropPrefixLengthsAndSortOrder() {
+        DDLParser.Table table = parser.parseDDL("""
+                CREATE TABLE t (
+                  id bigint NOT NULL,
+                  name varchar(255),
+                  created_at datetime,
+                  parent_id bigint,
+                  PRIMARY KEY (id),
+                  UNIQUE INDEX uk_name (`name`(10) DESC, created_at ASC),
+                  KEY (`name` (20)),
+                  FOREIGN KEY fk_parent (parent_id) REFERENCES `t` (`id`) ON DELETE CASCADE
+                )""");
+
+        assertEquals(List.of(new DDLParser.Index("uk_name", List.of("name", "created_at"), true),
+                new DDLParser.Index(null, List.of("name"), false)), table.indexes());
+        assertEquals(List.of(new DDLParser.ForeignKey("fk_parent", List.of("parent_id"), "t", List.of("id"))),
+                table.foreignKeys());
+    }
+
+    @Test
+    void accessPathsAreDedupedAndPreferUniqueIndexes() {
+        DDLParser.Table table = parser.parseDDL("""
+                CREATE TABLE t (
+                  id bigint NOT NULL,
+                  code varchar(32) NOT NULL,
+                  user_id bigint,
+                  PRIMARY KEY (id),
+                  KEY idx_code (code),
+                  UNIQUE KEY uk_code (`CODE`),
+                  KEY idx_id (id),
+                  KEY idx_user (user_id),
+                  KEY idx_missing (no_such_column),
+                  CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id)
+                )""");
+
+        List<DDLParser.AccessPath> paths = table.accessPaths();
+        // 与主键相同的列清单和引用不存在的列的索引不生成查询路径，外键与 idx_user 合并
+        assertEquals(2, paths.size());
+        assertEquals("uk_code", paths.get(0).indexName());
+        assertTrue(paths.get(0).unique());
+        assertEquals("findByCode", paths.get(0).methodName());
+        assertEquals("idx_user", paths.get(1).indexName());
+        assertFalse(paths.get(1).unique());
+        assertEquals(List.of(table.column("user_id")), paths.get(1).columns());
+    }
+
+    @Test
+    void onlyExplicitNotNullOrPrimaryKeyColumnsAreNotNull() {
+        DDLParser.Table table = parser.parseDDL("""
+                CREATE TABLE t (
+                  a int,
+                  b int NULL,
+                  c int NOT NULL,
+                  d int DEFAULT 0 COMMENT 'NOT NULL in the old schema',
+                  e int,
+                  f int PRIMARY KEY,
+                  PRIMARY KEY (e)
+                )""");
+
+        assertEquals(List.of(false, false, true, false, true, true),
+                table.columns().stream().map(DDLParser.Column::notNull).toList());
+    }
+
+    @Test
+    void alterAddsColumnsAtPosition() {
+        DDLParser.Table table = alter("ALTER TABLE orders ADD COLUMN remark varchar(64),"
+                + " ADD flag tinyint(1) NOT NULL FIRST, ADD COLUMN amount decimal(10,2) AFTER `code`");
+
+        assertEquals(List.of("flag", "id", "tenant_id", "code", "amount", "user_id", "status", "remark"),
+                columnNames(table));
+        assertEquals("DECIMAL(10,2)", table.column("amount").type());
+        assertTrue(table.column("flag").notNull());
+        assertFalse(table.column("remark").notNull());
+    }
+
+    @Test
+    void alterAddsColumnListWithConstraints() {
+        DDLParser.Table table = alter("ALTER TABLE orders ADD (a int, b int NOT NULL, INDEX idx_a (a))");
+
+        assertEquals(List.of("id", "tenant_id", "code", "user_id", "status", "a", "b"), columnNames(table));
+        assertTrue(table.indexes().contains(new DDLParser.Index("idx_a", List.of("a"), false)));
+    }
+
+    @Test
+    void alterModifiesColumnInPlaceOrMovesIt() {
+        DDLParser.Table modified = alter("ALTER TABLE orders MODIFY COLUMN status varchar(16) NOT NULL COMMENT '状态'");
+        assertEquals(new DDLParser.Column("status", "status", "VARCHAR(16)", true, "状态"), modified.column("status"));
+        assertEquals(4, columnNames(modified).indexOf("status"));
+
+        DDLParser.Table moved = alter("ALTER TABLE orders MODIFY status int AFTER id");
+        assertEquals(List.of("id", "status", "tenant_id", "code", "user_id"), columnNames(moved));
+    }
+
+    @Test
+    void alterChangeRenamesColumnAndItsReferences() {
+        DDLParser.Table table = alter("ALTER TABLE orders CHANGE COLUMN user_id buyer_id bigint NOT NULL");
+
+        assertEquals(List.of("id", "tenant_id", "code", "buyer_id", "status"), columnNames(table));
+        assertEquals("buyerId", table.column("buyer_id").name());
+        assertTrue(table.column("buyer_id").notNull());
+        assertEquals(List.of(new DDLParser.Index("uk_tenant_code", List.of("tenant_id", "code"), true),
+                new DDLParser.Index("idx_user", List.of("buyer_id"), false)), table.indexes());
+        assertEquals(List.of(new DDLParser.ForeignKey("fk_user", List.of("buyer_id"), "users", List.of("id"))),
+                table.foreignKeys());
+    }
+
+    @Test
+    void alterRenamesPrimaryKeyAndIndexedColumns() {
+        DDLParser.Table table = alter("ALTER TABLE orders RENAME COLUMN id TO order_id, RENAME COLUMN `code` TO order_code");
+
+        assertEquals(List.of("order_id"), table.primaryKey());
+        assertEquals("order_id", table.primaryKeyColumn().originalName());
+        assertEquals("orderCode", table.column("order_code").name());
+        assertEquals(List.of("tenant_id", "order_code"), table.indexes().get(0).columns());
+        assertNull(table.column("code"));
+    }
+
+    @Test
+    void alterDropColumnFixesUpKeys() {
+        DDLParser.Table table = alter("ALTER TABLE orders DROP COLUMN tenant_id, DROP user_id");
+
+        assertEquals(List.of("id", "code", "status"), columnNames(table));
+        // 与MySQL一致：索引去掉被删除的列，不再有列的索引和引用该列的外键一并删除
+        assertEquals(List.of(new DDLParser.Index("uk_tenant_code", List.of("code"), true)), table.indexes());
+        assertTrue(table.foreignKeys().isEmpty());
+
+        DDLParser.Table withoutKey = alter("ALTER TABLE orders DROP COLUMN id");
+        assertTrue(withoutKey.primaryKey().isEmpty());
+        assertNull(withoutKey.primaryKeyColumn());
+    }
+
+    @Test
+    void alterAddsDropsAndRenamesIndexes() {
+        DDLParser.Table table = alter("ALTER TABLE orders ADD INDEX idx_status (status), ADD UNIQUE KEY uk_code (`code`),"
+                + " DROP INDEX idx_user, RENAME INDEX uk_tenant_code TO uk_tenant, DROP FOREIGN KEY fk_user");
+
+        assertEquals(List.of(new DDLParser.Index("uk_tenant", List.of("tenant_id", "code"), true),
+                new DDLParser.Index("idx_status", List.of("status"), false),
+                new DDLParser.Index("uk_code", List.of("code"), true)), table.indexes());
+        assertTrue(table.foreignKeys().isEmpty());
+    }
+
+    @Test
+    void alterReplacesPrimaryKey() {
+        DDLParser.Table table = alter("ALTER TABLE orders DROP PRIMARY KEY, ADD PRIMARY KEY (tenant_id, `code`)");
+        assertEquals(List.of("tenant_id", "code"), table.primaryKey());
+        assertNull(table.primaryKeyColumn());
+
+        DDLParser.Table dropped = alter("ALTER TABLE orders DROP PRIMARY KEY");
+        assertTrue(dropped.primaryKey().isEmpty());
+    }
+
+    @Test
+    void alterRenamesTableAndChangesComment() {
+        DDLParser.SchemaChange change = parser.applyStatements(
+                "ALTER TABLE orders RENAME TO orders_v2, COMMENT = '订单v2'", baseline());
+
+        assertEquals(List.of("orders"), change.dropped());
+        assertEquals(1, change.tables().size());
+        assertEquals("orders_v2", change.tables().get(0).name());
+        assertEquals("订单v2", change.tables().get(0).comment());
+    }
+
+    @Test
+    void alterIgnoresClausesWithoutEffectOnGeneration() {
+        DDLParser.Table base = parser.parseDDL(ORDERS);
+        assertEquals(base, alter("ALTER TABLE orders ALTER COLUMN status SET DEFAULT 0, ENGINE=InnoDB"));
+    }
+
+    @Test
+    void applyStatementsDropsTables() {
+        DDLParser.SchemaChange change = parser.applyStatements("""
+                CREATE TABLE a (id int);
+                DROP TABLE IF EXISTS `a`, `B`;
+                CREATE TABLE b (id int);""", name -> null);
+
+        assertEquals(List.of("a"), change.dropped());
+        assertEquals(List.of("b"), change.tables().stream().map(DDLParser.Table::name).toList());
+    }
+
+    @Test
+    void applyStatementsAltersTablesCreatedInTheSameScript() {
+        DDLParser.SchemaChange change = parser.applyStatements("""
+                CREATE TABLE a (id int);
+                ALTER TABLE a ADD COLUMN name varchar(10);""", name -> null);
+
+        assertEquals(List.of("id", "name"), columnNames(change.tables().get(0)));
+    }
+
+    @Test
+    void alterOfUnknownTableFails() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.applyStatements("ALTER TABLE missing ADD COLUMN a int", name -> null));
+        // 同一脚本中先删除再修改
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.applyStatements("DROP TABLE orders; ALTER TABLE orders ADD COLUMN a int", baseline()));
+    }
+
+    private DDLParser.Table alter(String statement) {
+        DDLParser.SchemaChange change = parser.applyStatements(statement, baseline());
+        assertEquals(1, change.tables().size());
+        return change.tables().get(0);
+    }
+
+    private Function<String, DDLParser.Table> baseline() {
+        Map<String, DDLParser.Table> tables = Map.of("orders", parser.parseDDL(ORDERS));
+        return name -> tables.get(name.toLowerCase());
+    }
+
+    private static List<String> columnNames(DDLParser.Table table) {
+        return table.columns().stream().map(DDLParser.Column::originalName).toList();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class FieldTypeMapperTest {
+    @TempDir
+    Path home;
+
+    private String originalHome;
+
+    @BeforeEach
+    void useTempHome() {
+        // 映射保存在 ~/.codegen 下
+        originalHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+    }
+
+    @AfterEach
+    void restoreHome() {
+        System.setProperty("user.home", originalHome);
+    }
+
+    @Test
+    void savesAdditionsAndRemovals() throws IOException {
+        new FieldTypeMapper().savePartialMappings(Map.of("JSON", "String", "tinyint", "Byte"), Set.of());
+        // 删除 json，把 timestamp 改名为 datetime2
+        new FieldTypeMapper().savePartialMappings(Map.of("datetime2", "java.time.Instant"),
+                Set.of("JSON", "timestamp"));
+
+        FieldTypeMapper reloaded = new FieldTypeMapper();
+        assertEquals("Object", reloaded.getJavaType("json"));
+        assertEquals("Object", reloaded.getJavaType("timestamp"));
+        assertEquals("java.time.Instant", reloaded.getJavaType("DATETIME2(3)"));
+        assertEquals("Byte", reloaded.getJavaType("tinyint(4)"));
+        assertEquals("Long", reloaded.getJavaType("bigint"));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin;
+
+import com.zerodyn.plugin.cache.ParseResultCache;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class ParallelDDLParserTest {
+
+    @Test
+    void keepsStatementOrderWithUnevenSizes() {
+        StringBuilder ddl = new StringBuilder();
+        for (int t = 0; t < 300; t++) {
+            // 开头一张很宽的表，后面都是小表，按字节二分时拆分点远离中间的语句
+            int columns = t == 0 ? 3000 : 2;
+            ddl.append("CREATE TABLE t").append(t).append(" (");
+            for (int c = 0; c < columns; c++) {
+                ddl.append("c").append(c).append(" varchar(32) COMMENT '列").append(c).append("', ");
+            }
+            ddl.append("id bigint NOT NULL, PRIMARY KEY (id));\n");
+            ddl.append("INSERT INTO t").append(t).append(" VALUES ('a;b');\n");
+        }
+        assertEquals(300, parseBoth(ddl.toString()).size());
+    }
+
+    @Test
+    void keepsTablesWithoutColumnsLikeParseAll() {
+        List<DDLParser.Table> tables = parseBoth("""
+                CREATE TABLE a (id bigint NOT NULL);
+                CREATE TABLE b (PRIMARY KEY (id));
+                CREATE TABLE c (id bigint NOT NULL);
+                """);
+        assertEquals(List.of("a", "b", "c"), tables.stream().map(DDLParser.Table::name).toList());
+        assertTrue(tables.get(1).columns().isEmpty());
+    }
+
+    /**
+     * 串行和并行各用一个空缓存的解析器，避免并行解析全部命中串行解析留下的缓存
+     */
+    private static List<DDLParser.Table> parseBoth(String ddl) {
+        List<DDLParser.Table> expected = new DDLParser(new ParseResultCache(1000, null)).parseAll(ddl);
+        ByteBuffer buffer = ByteBuffer.wrap(ddl.getBytes(StandardCharsets.UTF_8));
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            List<DDLParser.Table> actual = new ParallelDDLParser(new DDLParser(new ParseResultCache(1000, null)), pool)
+                    .parse(buffer, null);
+            assertEquals(expected, actual);
+            return actual;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 命令行批量生成：分片生成再合并的结果与单进程生成相同，ALTER TABLE 脚本基于保存的表模型
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+class BatchGeneratorTest {
+    private static final String CREATE_DDL = """
+            CREATE TABLE `order_item` (
+              `id` bigint NOT NULL AUTO_INCREMENT,
+              `code` varchar(32) NOT NULL COMMENT '编码',
+              `user_id` bigint NOT NULL,
+              `created_at` datetime NOT NULL,
+              PRIMARY KEY (`id`),
+              KEY `idx_user` (`user_id`)
+            ) COMMENT='订单明细';
+            INSERT INTO `order_item` VALUES (1, 'a;b', 2, NOW());
+            CREATE TABLE `tag_link` (`tag_id` int NOT NULL, `target` varchar(64) NOT NULL,
+              PRIMARY KEY (`tag_id`, `target`));
+            CREATE TABLE `audit_log` (`id` bigint NOT NULL, `message` varchar(255), PRIMARY KEY (`id`));
+            """;
+    private static final String ALTER_DDL = """
+            ALTER TABLE `order_item` ADD COLUMN `remark` varchar(255) DEFAULT NULL AFTER `code`;
+            DROP TABLE `audit_log`;
+            """;
+    // 生成报告里有耗时和分片信息，不参与比较
+    private static final String REPORT_FILE = ".codegen/generation-report.json";
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void shardedGenerationMatchesSingleProcess() throws IOException {
+        Path config = write("ddd-config.json", "{\"qualityCheck\": false}");
+        Path create = write("create.sql", CREATE_DDL);
+        Path alter = write("alter.sql", ALTER_DDL);
+        Path single = workDir.resolve("single");
+        Path sharded = workDir.resolve("sharded");
+
+        for (Path ddl : new Path[]{create, alter}) {
+            assertEquals(0, BatchGenerator.run(new String[]{"generate", "--project", single.toString(),
+                    "--ddl", ddl.toString(), "--config", config.toString()}));
+            for (int index = 1; index <= 3; index++) {
+                assertEquals(0, BatchGenerator.run(new String[]{"generate", "--project", sharded.toString(),
+                        "--ddl", ddl.toString(), "--config", config.toString(), "--shard", index + "/3"}));
+            }
+            assertEquals(0, BatchGenerator.run(new String[]{"merge", "--project", sharded.toString(),
+                    "--shards", "3"}));
+            assertEquals(contents(single), contents(sharded), "脚本 " + ddl.getFileName());
+        }
+
+        Map<String, String> files = contents(single);
+        assertTrue(files.keySet().stream().anyMatch(file -> file.endsWith("AuditLogEntity.java")));
+        String entity = files.entrySet().stream()
+                .filter(file -> file.getKey().endsWith("OrderItemEntity.java"))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow();
+        assertTrue(entity.contains("remark"), "ALTER TABLE 新增的列应当生成");
+        assertFalse(Files.exists(single.resolve(".codegen/schema/audit_log.json")));
+        assertTrue(Files.exists(single.resolve(".codegen/schema/order_item.json")));
+        assertFalse(Files.exists(sharded.resolve(".codegen/shards/schema-change-1-of-3.json")));
+    }
+
+    @Test
+    void alterWithoutSavedModelFails() throws IOException {
+        Path config = write("ddd-config.json", "{\"qualityCheck\": false}");
+        Path alter = write("alter.sql", ALTER_DDL);
+        // 没有先生成过 order_item 时，ALTER TABLE 无从应用，main 会以退出码 1 结束
+        assertThrows(IOException.class, () -> BatchGenerator.run(new String[]{"generate", "--project",
+                workDir.resolve("empty").toString(), "--ddl", alter.toString(), "--config", config.toString()}));
+    }
+
+    @Test
+    void mergeRejectsInvalidShardCount() {
+        // 参数错误，main 会以退出码 2 结束
+        for (String shards : new String[]{"0", "-1", "x"}) {
+            assertThrows(IllegalArgumentException.class, () -> BatchGenerator.run(new String[]{"merge",
+                    "--project", workDir.toString(), "--shards", shards}), shards);
+        }
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(workDir.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> contents(Path projectBase) throws IOException {
+        Map<String, String> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(projectBase)) {
+            for (Path file : paths.filter(Files::isRegularFile).toList()) {
+                String relative = projectBase.relativize(file).toString().replace('\\', '/');
+                if (!relative.equals(REPORT_FILE)) {
+                    files.put(relative, new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1));
+                }
+            }
+        }
+        return files;
+    }
+}
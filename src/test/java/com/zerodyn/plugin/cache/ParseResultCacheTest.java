@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.cache;
+
+import com.zerodyn.plugin.DDLParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class ParseResultCacheTest {
+    private final ParseResultCache cache = new ParseResultCache(16, null);
+
+    @Test
+    void whitespaceOutsideQuotesIsIgnored() {
+        assertEquals(cache.keyOf("CREATE TABLE t (id INT)"),
+                cache.keyOf("  CREATE   TABLE t\n(id\tINT)\n"));
+    }
+
+    @Test
+    void quotedSpansAreHashedVerbatim() {
+        assertNotEquals(cache.keyOf("CREATE TABLE t (id INT COMMENT 'a b')"),
+                cache.keyOf("CREATE TABLE t (id INT COMMENT 'a  b')"));
+        assertNotEquals(cache.keyOf("CREATE TABLE `a b` (id INT)"),
+                cache.keyOf("CREATE TABLE `a  b` (id INT)"));
+    }
+
+    @Test
+    void escapedQuoteDoesNotEndLiteral() {
+        // 转义的引号之后仍在字符串内，空白原样参与哈希
+        assertNotEquals(cache.keyOf("COMMENT 'it\\'s  x'"), cache.keyOf("COMMENT 'it\\'s x'"));
+        assertNotEquals(cache.keyOf("COMMENT 'it''s  x'"), cache.keyOf("COMMENT 'it''s x'"));
+        // 字符串结束后恢复折叠
+        assertEquals(cache.keyOf("COMMENT 'it''s'  x"), cache.keyOf("COMMENT 'it''s' x"));
+    }
+
+    @Test
+    void newlineEndingLineCommentIsKept() {
+        // 换行结束注释时 b 是一列，否则 b INT 属于注释
+        assertNotEquals(cache.keyOf("CREATE TABLE t (a INT, -- note\n b INT)"),
+                cache.keyOf("CREATE TABLE t (a INT, -- note b INT)"));
+        assertNotEquals(cache.keyOf("CREATE TABLE t (a INT, # note\n b INT)"),
+                cache.keyOf("CREATE TABLE t (a INT, # note b INT)"));
+        // 注释结束后恢复折叠，引号内的 -- 不是注释
+        assertEquals(cache.keyOf("CREATE TABLE t (a INT, -- note\n  b INT)"),
+                cache.keyOf("CREATE TABLE t (a INT, -- note\n b INT)"));
+        assertEquals(cache.keyOf("COMMENT '--'  x"), cache.keyOf("COMMENT '--' x"));
+
+        assertEquals(2, new DDLParser(cache).parseStatement("CREATE TABLE t (a INT, -- note\n b INT)")
+                .columns().size());
+    }
+
+    @Test
+    void persistsEntriesAsJson(@TempDir Path dir) throws Exception {
+        DDLParser.Table table = new DDLParser(new ParseResultCache(16, null))
+                .parseDDL("CREATE TABLE t (id bigint NOT NULL, PRIMARY KEY (id), KEY idx_id (id))");
+        String key = cache.keyOf("CREATE TABLE t");
+        new ParseResultCache(16, dir).put(key, table);
+
+        assertTrue(Files.readString(dir.resolve(key + ".json")).contains("\"primaryKey\""));
+        assertEquals(table, new ParseResultCache(16, dir).get(key));
+        assertNull(new ParseResultCache(16, dir).get(cache.keyOf("CREATE TABLE u")));
+        try (Stream<Path> files = Files.list(dir)) {
+            // 不残留临时文件
+            assertEquals(List.of(key + ".json"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.incremental;
+
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.cache.ParseResultCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class SchemaStoreTest {
+    private static final DDLParser.Table TABLE = new DDLParser(new ParseResultCache(16, null)).parseDDL("""
+            CREATE TABLE `order_item` (
+              `id` bigint NOT NULL,
+              `order_id` bigint NOT NULL,
+              `code` varchar(32) COMMENT '编码',
+              PRIMARY KEY (`id`),
+              UNIQUE KEY `uk_code` (`code`),
+              KEY (`order_id`),
+              CONSTRAINT `fk_order` FOREIGN KEY (`order_id`) REFERENCES `orders` (`id`)
+            ) COMMENT='订单明细'""");
+
+    @TempDir
+    Path projectBase;
+
+    @Test
+    void savesTablesAsVersionedJson() throws IOException {
+        SchemaStore store = new SchemaStore(projectBase);
+        store.apply(new DDLParser.SchemaChange(List.of(TABLE), List.of()));
+
+        Path file = projectBase.resolve(".codegen/schema/order_item.json");
+        assertTrue(Files.readString(file).contains("\"version\": " + SchemaJson.FORMAT_VERSION));
+        assertEquals(TABLE, store.load("ORDER_ITEM"));
+        assertNull(store.load("missing"));
+
+        store.apply(new DDLParser.SchemaChange(List.of(), List.of("order_item")));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void schemaChangeRoundTrips() throws IOException {
+        Path file = projectBase.resolve("change.json");
+        DDLParser.SchemaChange change = new DDLParser.SchemaChange(List.of(TABLE), List.of("audit_log"));
+        SchemaStore.saveChange(file, change);
+
+        assertEquals(change, SchemaStore.loadChange(file));
+    }
+
+    @Test
+    void rejectsOtherFormatVersions() throws IOException {
+        SchemaStore store = new SchemaStore(projectBase);
+        store.save(TABLE);
+        Path file = projectBase.resolve(".codegen/schema/order_item.json");
+        Files.writeString(file, Files.readString(file).replace("\"version\": " + SchemaJson.FORMAT_VERSION,
+                "\"version\": 0"), StandardCharsets.UTF_8);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> store.load("order_item"));
+        assertTrue(e.getMessage().contains("CREATE TABLE"), e.getMessage());
+        assertThrows(IOException.class, () -> SchemaStore.loadChange(file));
+    }
+
+    @Test
+    void rejectsLegacySerializedModels() throws IOException {
+        Path legacy = projectBase.resolve(".codegen/schema/order_item.table");
+        Files.createDirectories(legacy.getParent());
+        // 旧格式的内容不会被读取，文件存在即提示重新生成
+        Files.write(legacy, new byte[]{(byte) 0xac, (byte) 0xed, 0, 5});
+        SchemaStore store = new SchemaStore(projectBase);
+
+        assertThrows(IllegalArgumentException.class, () -> store.load("order_item"));
+        store.save(TABLE);
+        assertFalse(Files.exists(legacy));
+        assertEquals(TABLE, store.load("order_item"));
+    }
+
+    @Test
+    void rejectsMalformedFiles() throws IOException {
+        Path file = projectBase.resolve("change.json");
+        Files.writeString(file, "{\"version\": " + SchemaJson.FORMAT_VERSION + ", \"tables\": [{\"comment\": \"x\"}]}");
+        assertThrows(IOException.class, () -> SchemaStore.loadChange(file));
+        Files.writeString(file, "not json");
+        assertThrows(IOException.class, () -> SchemaStore.loadChange(file));
+    }
+}
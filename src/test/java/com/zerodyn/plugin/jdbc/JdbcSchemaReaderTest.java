@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.jdbc;
+
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.cache.ParseResultCache;
+import com.zerodyn.plugin.cache.SchemaSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 在H2内存库（MySQL兼容模式）上读取表结构，结果应与解析等价的DDL相同
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+class JdbcSchemaReaderTest {
+    // 联合主键、联合唯一键、普通索引、多列外键，以及与 order_item 只差一个字符（_ 通配）的表名
+    private static final String DDL = """
+            CREATE TABLE `customer` (
+              `tenant_id` integer NOT NULL,
+              `id` bigint NOT NULL,
+              `name` varchar(64) NOT NULL COMMENT '名称',
+              PRIMARY KEY (`tenant_id`, `id`)
+            ) COMMENT='客户';
+            CREATE TABLE `order_item` (
+              `id` bigint NOT NULL,
+              `tenant_id` integer NOT NULL,
+              `customer_id` bigint,
+              `code` varchar(32) NOT NULL COMMENT '编码',
+              `price` numeric(10,2),
+              `paid` boolean NOT NULL,
+              `created_at` timestamp,
+              PRIMARY KEY (`id`),
+              UNIQUE KEY `uk_tenant_code` (`tenant_id`, `code`),
+              KEY `idx_customer` (`tenant_id`, `customer_id`),
+              CONSTRAINT `fk_customer` FOREIGN KEY (`tenant_id`, `customer_id`) REFERENCES `customer` (`tenant_id`, `id`)
+            ) COMMENT='订单明细';
+            CREATE TABLE `orderxitem` (`other` integer);
+            """;
+    private static final String UNIQUE_KEY = ",\n  UNIQUE KEY `uk_tenant_code` (`tenant_id`, `code`)";
+    private static final int PARALLELISM = 2;
+
+    @TempDir
+    Path cacheDir;
+
+    private String url;
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        // H2 给唯一约束的索引另起名字（uk_tenant_code_INDEX_2），单独建唯一索引才能保留MySQL中的索引名
+        execute(DDL.replace(UNIQUE_KEY, "")
+                + ";CREATE UNIQUE INDEX `uk_tenant_code` ON `order_item` (`tenant_id`, `code`)");
+    }
+
+    @Test
+    void readsSameModelAsParsingTheDDL() throws SQLException {
+        AtomicInteger progress = new AtomicInteger();
+        List<DDLParser.Table> tables = newReader(new SchemaSnapshotCache(null))
+                .readTables(null, null, (done, total) -> progress.incrementAndGet());
+
+        assertEquals(new DDLParser(new ParseResultCache(16, null)).parseAll(DDL), tables);
+        assertEquals(3, progress.get());
+        // 一个连接列出表，读取表结构的连接在线程间复用，全部关闭
+        assertTrue(opened.get() <= 1 + PARALLELISM, "opened " + opened.get());
+        assertEquals(opened.get(), closed.get());
+    }
+
+    @Test
+    void cachesByFlywayVersionWhenHistoryTableIsOutsideThePattern() throws SQLException {
+        execute("CREATE TABLE flyway_schema_history (installed_rank int NOT NULL);"
+                + "INSERT INTO flyway_schema_history VALUES (1)");
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(cacheDir);
+        List<DDLParser.Table> first = newReader(cache).readTables(null, "order%", null);
+        assertEquals(List.of("order_item", "orderxitem"), first.stream().map(DDLParser.Table::name).toList());
+
+        // 迁移版本不变：直接使用快照，磁盘上的快照在新的缓存实例中同样命中
+        execute("ALTER TABLE order_item ADD COLUMN extra int");
+        opened.set(0);
+        assertEquals(first, newReader(cache).readTables(null, "order%", null));
+        assertEquals(first, newReader(new SchemaSnapshotCache(cacheDir)).readTables(null, "order%", null));
+        assertEquals(2, opened.get());
+
+        // 新的迁移记录使缓存失效
+        execute("INSERT INTO flyway_schema_history VALUES (2)");
+        List<DDLParser.Table> migrated = newReader(cache).readTables(null, "order%", null);
+        assertTrue(migrated.get(0).column("extra") != null);
+    }
+
+    @Test
+    void withoutMigrationHistoryNothingIsCached() throws SQLException {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(cacheDir);
+        newReader(cache).readTables(null, "order_item", null);
+        execute("ALTER TABLE order_item ADD COLUMN extra int");
+
+        DDLParser.Table table = newReader(cache).readTables(null, "order_item", null).get(0);
+        assertTrue(table.column("extra") != null);
+    }
+
+    @Test
+    void mapsDriverTypesToDDLTypes() throws SQLException {
+        // MySQL驱动把 tinyint(1) 报告为 BIT(1)
+        assertEquals("BOOLEAN", JdbcSchemaReader.columnType(column(Types.BIT, "BIT", 1, 0)));
+        assertEquals("BIT(8)", JdbcSchemaReader.columnType(column(Types.BIT, "BIT", 8, 0)));
+        assertEquals("DECIMAL(10,2)", JdbcSchemaReader.columnType(column(Types.DECIMAL, "DECIMAL UNSIGNED", 10, 2)));
+        assertEquals("INT", JdbcSchemaReader.columnType(column(Types.INTEGER, "INT UNSIGNED", 10, 0)));
+        assertEquals("VARCHAR(64)", JdbcSchemaReader.columnType(column(Types.VARCHAR, "CHARACTER VARYING", 64, 0)));
+        assertEquals("TEXT", JdbcSchemaReader.columnType(column(Types.CLOB, "CHARACTER LARGE OBJECT", 0, 0)));
+        assertEquals("DECIMAL(12,4)", JdbcSchemaReader.columnType(column(Types.NUMERIC, "NUMBER", 12, 4)));
+        assertEquals("TEXT", JdbcSchemaReader.columnType(column(Types.OTHER, "GEOMETRY", 0, 0)));
+    }
+
+    private JdbcSchemaReader newReader(SchemaSnapshotCache cache) {
+        return new JdbcSchemaReader(this::open, PARALLELISM, cache);
+    }
+
+    private Connection open() throws SQLException {
+        Connection target = DriverManager.getConnection(url);
+        opened.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        closed.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (java.lang.reflect.InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void execute(String script) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * getColumns 结果中 columnType 用到的一行
+     */
+    private static ResultSet column(int dataType, String typeName, int size, int scale) {
+        Map<String, Object> row = Map.of("DATA_TYPE", dataType, "TYPE_NAME", typeName,
+                "COLUMN_SIZE", size, "DECIMAL_DIGITS", scale);
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getInt" -> row.get((String) args[0]);
+                    case "getString" -> String.valueOf(row.get((String) args[0]));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
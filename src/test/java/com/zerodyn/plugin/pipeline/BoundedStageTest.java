@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class BoundedStageTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void processesAllItems() {
+        AtomicInteger sum = new AtomicInteger();
+        BoundedStage<Integer> stage = new BoundedStage<>("sum", 3, 2, sum::addAndGet, (item, e) -> {
+        });
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int i = 1; i <= 100; i++) {
+                stage.submit(i);
+            }
+            stage.finish();
+        });
+        assertEquals(5050, sum.get());
+        assertEquals(100, stage.stats().processed());
+    }
+
+    @Test
+    void failingFailureCallbackDoesNotStopWorker() {
+        BoundedStage<Integer> stage = new BoundedStage<>("fail", 1, 1,
+                item -> {
+                    throw new IllegalArgumentException("item " + item);
+                },
+                (item, e) -> {
+                    throw new IllegalStateException("callback " + item);
+                });
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int i = 0; i < 10; i++) {
+                stage.submit(i);
+            }
+            stage.finish();
+        });
+        assertEquals(10, stage.stats().failed());
+    }
+
+    @Test
+    void finishReturnsWhenWorkersExitedWithFullQueue() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        // 处理中被中断的工作线程会提前退出
+        BoundedStage<Integer> stage = new BoundedStage<>("interrupted", 1, 1,
+                item -> {
+                    started.countDown();
+                    throw new InterruptedException();
+                },
+                (item, e) -> {
+                });
+        stage.submit(1);
+        started.await();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            // 队列已满且没有线程消费
+            stage.submit(2);
+            assertThrows(IllegalStateException.class, () -> stage.submit(3));
+            stage.finish();
+        });
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template;
+
+import com.zerodyn.plugin.CodeGenerator;
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.FieldTypeMapper;
+import com.zerodyn.plugin.config.DDDConfiguration;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成的Codec与DTO一起编译：列名与编解码方法内的参数、局部变量同名时也不能冲突
+ *
+ * @author JWen
+ * @since 2025/4/16
+ */
+class CodecTemplateTest {
+    // 与 serialize/deserialize 中的参数和局部变量同名的列
+    private static final String DDL = """
+            CREATE TABLE `widget` (
+              `id` bigint NOT NULL AUTO_INCREMENT,
+              `name` varchar(64) NOT NULL,
+              `token` varchar(64) NOT NULL,
+              `p` int DEFAULT NULL,
+              `ctxt` varchar(16) DEFAULT NULL,
+              `is_null` tinyint(1) DEFAULT NULL,
+              `dto` varchar(16) DEFAULT NULL,
+              `gen` int DEFAULT NULL,
+              `provider` varchar(16) DEFAULT NULL,
+              `created_at` datetime NOT NULL,
+              PRIMARY KEY (`id`)
+            );""";
+
+    @TempDir
+    Path outputDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PLAIN", "RECORD"})
+    void compilesWithReservedColumnNames(String style) throws IOException {
+        DDDConfiguration config = new DDDConfiguration();
+        config.setGenerationStyle(style);
+        CodeGenerator generator = new CodeGenerator(outputDir, new FieldTypeMapper(), config.isUseLombok(), config);
+        DDLParser.Table table = new DDLParser().parseDDL(DDL);
+
+        List<Path> sources = new ArrayList<>();
+        sources.add(write("WidgetDTO.java", generator.renderComponent(table, "application", "DTO")));
+        sources.add(write("WidgetCodec.java", generator.renderComponent(table, "interfaces", "Codec")));
+
+        List<String> errors = compile(sources);
+        assertTrue(errors.isEmpty(), String.join("\n", errors));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        Path file = outputDir.resolve("src").resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private List<String> compile(List<Path> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+                     compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = List.of("-proc:none", "-classpath", System.getProperty("java.class.path"),
+                    "-d", Files.createDirectories(outputDir.resolve("classes")).toString());
+            compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources)).call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + " "
+                        + diagnostic.getMessage(null))
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) by Zerodyn Technologies 2025-2025. All rights reserved.
+ */
+
+package com.zerodyn.plugin.template;
+
+import com.zerodyn.plugin.DDLParser;
+import com.zerodyn.plugin.config.ComponentConfig;
+import com.zerodyn.plugin.provider.TemplateProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author JWen
+ * @since 2025/4/16
+ */
+class TemplateValidatorTest {
+    private static final String LIBRARY = """
+            <#function upper text>
+              <#return text?upper_case>
+            </#function>
+            """;
+    private static final Map<String, Object> MODEL = Map.of(
+            "table", new DDLParser.Table("order_item", List.of(), "订单明细"),
+            "className", "OrderItem");
+
+    @Test
+    void acceptsKnownMembersAndLibraryCalls() {
+        assertEquals(List.of(), validate("${table.name} ${table.comment!} ${cg.upper(className)}"));
+    }
+
+    @Test
+    void reportsUnknownMemberWithLine() {
+        List<TemplateValidator.Problem> problems = validate("package x;\n${table.nmae}");
+
+        // 静态检查发现问题后不再试渲染，同一个错误只报告一次
+        assertEquals(1, problems.size());
+        assertEquals("domain.Entity", problems.get(0).component());
+        assertTrue(problems.get(0).message().contains("第 2 行引用了 table.nmae"), problems.get(0).message());
+    }
+
+    @Test
+    void ignoresTextCommentsAndStringLiterals() {
+        assertEquals(List.of(), validate("table.nmae <#-- ${table.nmae} --> ${\"table.nmae\"}"));
+    }
+
+    @Test
+    void declaredNamesShadowModelVariables() {
+        assertEquals(List.of(), validate("<#assign table = {\"x\": 1}>${table.x}"));
+        assertEquals(List.of(), validate("<#list [{\"foo\": 1}] as table>${table.foo}</#list>"));
+        assertEquals(List.of(), validate("<#function f table><#return table.bar></#function>${f({\"bar\": 2})}"));
+    }
+
+    @Test
+    void reportsUnknownLibraryFunctionWhenRendering() {
+        List<TemplateValidator.Problem> problems = validate("${cg.lower(className)}");
+
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).message().startsWith("样例表试渲染失败"), problems.get(0).message());
+        assertTrue(problems.get(0).message().contains("lower"), problems.get(0).message());
+    }
+
+    @Test
+    void reportsParseErrorsWithLine() {
+        List<TemplateValidator.Problem> problems = validate("package x;\n\n<#if table.name??>");
+
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).message().startsWith("模板加载或解析失败: 第 3 行"), problems.get(0).message());
+    }
+
+    private static List<TemplateValidator.Problem> validate(String template) {
+        Map<String, String> templates = new HashMap<>();
+        templates.put("common.ftl", LIBRARY);
+        templates.put("entity.ftl", template);
+        TemplateManager templateManager = new TemplateManager(new TemplateProvider() {
+            @Override
+            public String getTemplateContent(String templateName) {
+                return templates.get(templateName);
+            }
+
+            @Override
+            public boolean templateExists(String templateName) {
+                return templates.containsKey(templateName);
+            }
+        });
+        return new TemplateValidator(templateManager).validate(
+                Map.of("domain", Map.of("Entity", new ComponentConfig("com.example.domain", "entity.ftl"))),
+                (layer, componentType) -> MODEL);
+    }
+}